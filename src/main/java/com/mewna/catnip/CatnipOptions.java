@@ -39,9 +39,11 @@ import com.mewna.catnip.rest.ratelimit.DefaultRateLimiter;
 import com.mewna.catnip.rest.requester.Requester;
 import com.mewna.catnip.rest.requester.SerialRequester;
 import com.mewna.catnip.shard.CompressionMode;
+import com.mewna.catnip.shard.GatewayEncoding;
 import com.mewna.catnip.shard.GatewayIntent;
 import com.mewna.catnip.shard.buffer.CachingBuffer;
 import com.mewna.catnip.shard.buffer.EventBuffer;
+import com.mewna.catnip.shard.compression.GatewayDecoderFactory;
 import com.mewna.catnip.shard.event.DefaultDispatchManager;
 import com.mewna.catnip.shard.event.DispatchManager;
 import com.mewna.catnip.shard.manager.DefaultShardManager;
@@ -124,7 +126,18 @@ public final class CatnipOptions implements CatnipOptionsView, Cloneable {
             .build();
     @Nonnull
     private CompressionMode compressionMode = CompressionMode.ZLIB;
+    @Nullable
+    private GatewayDecoderFactory gatewayDecoderFactory;
+    @Nonnull
+    private GatewayEncoding gatewayEncoding = GatewayEncoding.JSON;
+    @Nonnull
+    private Set<String> streamBoundEvents = Set.of();
+    /**
+     * @deprecated Has no effect. See {@link CatnipOptionsView#restRatelimitsWithoutClockSync()}.
+     */
+    @Deprecated
     private boolean restRatelimitsWithoutClockSync;
+    private boolean streamRestResponses;
     private long highLatencyThreshold = TimeUnit.SECONDS.toNanos(10);
     @Nonnull
     private EntitySerializer<?> entitySerializer = new DefaultEntitySerializer();
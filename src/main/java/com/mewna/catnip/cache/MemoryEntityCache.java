@@ -31,6 +31,7 @@ import com.grack.nanojson.JsonArray;
 import com.grack.nanojson.JsonObject;
 import com.mewna.catnip.Catnip;
 import com.mewna.catnip.cache.view.*;
+import com.mewna.catnip.entity.Entity;
 import com.mewna.catnip.entity.builder.PresenceBuilder;
 import com.mewna.catnip.entity.channel.Channel;
 import com.mewna.catnip.entity.channel.GuildChannel;
@@ -43,7 +44,12 @@ import com.mewna.catnip.entity.misc.Emoji.CustomEmoji;
 import com.mewna.catnip.entity.user.Presence;
 import com.mewna.catnip.entity.user.Presence.OnlineStatus;
 import com.mewna.catnip.entity.user.User;
+import com.mewna.catnip.entity.serialization.BinaryEntitySerializer;
+import com.mewna.catnip.entity.serialization.BinaryEntitySerializer.EntityReader;
+import com.mewna.catnip.entity.serialization.BinaryEntitySerializer.EntityWriter;
 import com.mewna.catnip.entity.user.VoiceState;
+import com.mewna.catnip.util.CatnipMeta;
+import com.mewna.catnip.util.JsonUtil;
 import com.mewna.catnip.util.rx.RxHelpers;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Maybe;
@@ -54,9 +60,17 @@ import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.format.DateTimeFormatter;
-import java.util.Collection;
-import java.util.Map;
+import java.util.*;
+import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -73,6 +87,8 @@ import static com.mewna.catnip.util.Utils.removeIf;
 @Accessors(fluent = true, chain = true)
 public abstract class MemoryEntityCache implements EntityCacheWorker {
     private static final Presence DEFAULT_PRESENCE = new PresenceBuilder().status(OnlineStatus.OFFLINE).build();
+    private static final int SNAPSHOT_MAGIC = 0x434E4353; // "CNCS"
+    private static final int SNAPSHOT_VERSION = 2;
     
     @SuppressWarnings("WeakerAccess")
     protected final MutableNamedCacheView<Guild> guildCache = createGuildCacheView();
@@ -127,13 +143,18 @@ public abstract class MemoryEntityCache implements EntityCacheWorker {
      *
      * @return A new guild cache view.
      *
-     * @implNote Defaults to calling {@link #createNamedCacheView(Function)}.
+     * @implNote Defaults to a {@link ConcurrentNamedCacheView}, since guilds
+     * are read by every shard while others are caching theirs, and reads of
+     * it never wait for writes. This is not affected by overriding
+     * {@link #createNamedCacheView(Function)}, as the guild view used to be;
+     * override this method to return
+     * {@code createNamedCacheView(Guild::name)} to go back to that.
      */
     @SuppressWarnings("WeakerAccess")
     @Nonnull
     @CheckReturnValue
     protected MutableNamedCacheView<Guild> createGuildCacheView() {
-        return createNamedCacheView(Guild::name);
+        return new ConcurrentNamedCacheView<>(Guild::name);
     }
     
     /**
@@ -218,6 +239,8 @@ public abstract class MemoryEntityCache implements EntityCacheWorker {
      * @return A new member cache view.
      *
      * @implNote Defaults to calling {@link #createNamedCacheView(Function)}.
+     * @see IndexedNamedCacheView IndexedNamedCacheView, for guilds whose
+     * members are often searched by name.
      */
     @SuppressWarnings("WeakerAccess")
     @Nonnull
@@ -441,7 +464,7 @@ public abstract class MemoryEntityCache implements EntityCacheWorker {
     }
     
     private void cacheMember(final Member member) {
-        memberCache(member.guildIdAsLong(), false).put(member.idAsLong(), member);
+        memberCache(member.guildIdAsLong(), false).justPut(member.idAsLong(), member);
     }
     
     private void cacheEmoji(final CustomEmoji emoji) {
@@ -496,7 +519,7 @@ public abstract class MemoryEntityCache implements EntityCacheWorker {
                 guildCache(shardId(guild.idAsLong())).put(guild.idAsLong(), guild);
             }
             case Raw.GUILD_DELETE -> {
-                final long guildId = Long.parseUnsignedLong(payload.getString("id"));
+                final long guildId = JsonUtil.snowflake(payload, "id");
                 guildCache(shardId(guildId)).remove(guildId);
                 deleteMemberCache(guildId);
                 deleteRoleCache(guildId);
@@ -530,7 +553,7 @@ public abstract class MemoryEntityCache implements EntityCacheWorker {
             case Raw.GUILD_MEMBER_ADD -> {
                 final Member member = catnip.entityBuilder().createMember(payload.getString("guild_id"), payload);
                 final User user = catnip.entityBuilder().createUser(payload.getObject("user"));
-                userCache(shardId).put(user.idAsLong(), user);
+                userCache(shardId).justPut(user.idAsLong(), user);
                 cacheMember(member);
             }
             case Raw.GUILD_MEMBER_UPDATE -> {
@@ -566,7 +589,7 @@ public abstract class MemoryEntityCache implements EntityCacheWorker {
                 final String user = payload.getObject("user").getString("id");
                 final MutableCacheView<Member> cache = memberCache(Long.parseUnsignedLong(guild), true);
                 if(cache != null) {
-                    cache.remove(Long.parseUnsignedLong(user));
+                    cache.justRemove(Long.parseUnsignedLong(user));
                 }
             }
             // Member chunking
@@ -606,7 +629,7 @@ public abstract class MemoryEntityCache implements EntityCacheWorker {
                                 .value("avatar", user.getString("avatar", old.avatar()))
                                 .done()
                         );
-                        userCache(shardId).put(updated.idAsLong(), updated);
+                        userCache(shardId).justPut(updated.idAsLong(), updated);
                         final Presence presence = catnip.entityBuilder().createPresence(payload);
                         presenceCache(shardId).put(updated.idAsLong(), presence);
                     } else if(catnip.options().chunkMembers()) {
@@ -639,7 +662,7 @@ public abstract class MemoryEntityCache implements EntityCacheWorker {
     @Override
     public void bulkCacheUsers(@Nonnegative final int shardId, @Nonnull final Collection<User> users) {
         final MutableCacheView<User> cache = userCache(shardId);
-        users.forEach(u -> cache.put(u.idAsLong(), u));
+        users.forEach(u -> cache.justPut(u.idAsLong(), u));
     }
     
     @Override
@@ -766,10 +789,246 @@ public abstract class MemoryEntityCache implements EntityCacheWorker {
         return new CompositeCacheView<>(voiceStateCache.values());
     }
     
+    /**
+     * Writes the guilds, channels, roles, members, users, emoji and voice
+     * states in this cache, along with the current user, to a snapshot file
+     * that {@link #loadSnapshot(Path, Set)} can load on the next start. This is
+     * meant for graceful shutdowns, after the shards have stopped: together
+     * with a session manager that outlives the process, like
+     * {@link com.mewna.catnip.shard.session.FileSessionManager}, shards can
+     * resume with a warm cache instead of re-chunking every guild.
+     * <p>
+     * Entities are written with {@link BinaryEntitySerializer}. The snapshot
+     * is written to a temporary file next to {@code path} and then moved
+     * over it, so a crash part way through never leaves a truncated
+     * snapshot behind.
+     *
+     * @param path The file to write the snapshot to.
+     *
+     * @throws IOException If the snapshot couldn't be written.
+     */
+    public void writeSnapshot(@Nonnull final Path path) throws IOException {
+        final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try(final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeUTF(CatnipMeta.VERSION);
+            final EntityWriter writer = new EntityWriter(out);
+            writer.write(selfUser.get());
+            writeSnapshotViews(out, writer, Map.of(0L, guildCache));
+            writeSnapshotViews(out, writer, guildChannelCache);
+            writeSnapshotViews(out, writer, roleCache);
+            writeSnapshotViews(out, writer, emojiCache);
+            writeSnapshotViews(out, writer, voiceStateCache);
+            writeSnapshotViews(out, writer, memberCache);
+            writeSnapshotViews(out, writer, userCaches());
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Loads the parts of a snapshot written by {@link #writeSnapshot(Path)}
+     * that belong to the given shards into this cache. The file is
+     * memory-mapped rather than read through a stream, and its entities are
+     * put straight into the cache views. Snapshots written by a different
+     * catnip version are ignored, as entity classes may have changed in
+     * between.
+     * <p>
+     * This should be called before connecting any shards, with the shards
+     * that are going to resume their session, eg. those that the session
+     * manager still has a session for. Shards that start a new session get
+     * every guild sent to them again, but nothing removes what a snapshot
+     * put in the cache for them, so loading their entities would leave
+     * guilds they have since left, deleted channels and so on in the cache.
+     * Guilds, and the channels, roles, emoji, voice states and members in
+     * them, are loaded if the guild is on one of the given shards; users are
+     * loaded if they're one of the loaded members.
+     * <pre>{@code
+     * final Set<Integer> resuming = IntStream.range(0, shardCount)
+     *         .filter(id -> sessionManager.session(id) != null)
+     *         .boxed()
+     *         .collect(Collectors.toSet());
+     * cache.loadSnapshot(path, resuming);
+     * }</pre>
+     *
+     * @param path   The snapshot file.
+     * @param shards The ids of the shards to load the entities of.
+     *
+     * @return Whether the snapshot was loaded. {@code false} if the file
+     * doesn't exist or was written by a different catnip version.
+     *
+     * @throws IOException If the snapshot couldn't be read.
+     */
+    public boolean loadSnapshot(@Nonnull final Path path, @Nonnull final Set<Integer> shards) throws IOException {
+        if(!Files.isRegularFile(path)) {
+            return false;
+        }
+        try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final DataInputStream in = new DataInputStream(new MappedInputStream(channel));
+            if(channel.size() < 8 || in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION
+                    || !CatnipMeta.VERSION.equals(in.readUTF())) {
+                catnip.logAdapter().warn("Ignoring cache snapshot {}, as it was written by a different catnip version", path);
+                return false;
+            }
+            final EntityReader reader = new EntityReader(in, catnip);
+            final User self = reader.read(User.class);
+            if(self != null) {
+                selfUser.set(self);
+            }
+            final LongPredicate loaded = guildId -> shards.contains(shardId(guildId));
+            final Set<Long> members = new HashSet<>();
+            readSnapshotViews(in, reader, Guild.class, (__, id, guild) -> {
+                if(loaded.test(id)) {
+                    guildCache(shardId(id)).put(id, guild);
+                }
+            });
+            readSnapshotViews(in, reader, GuildChannel.class, (guildId, id, gc) -> {
+                if(loaded.test(guildId)) {
+                    channelCache(guildId, false).put(id, gc);
+                }
+            });
+            readSnapshotViews(in, reader, Role.class, (guildId, id, role) -> {
+                if(loaded.test(guildId)) {
+                    roleCache(guildId, false).put(id, role);
+                }
+            });
+            readSnapshotViews(in, reader, CustomEmoji.class, (guildId, id, emoji) -> {
+                if(loaded.test(guildId)) {
+                    emojiCache(guildId, false).put(id, emoji);
+                }
+            });
+            readSnapshotViews(in, reader, VoiceState.class, (guildId, id, state) -> {
+                if(loaded.test(guildId)) {
+                    voiceStateCache(guildId, false).put(id, state);
+                }
+            });
+            readSnapshotViews(in, reader, Member.class, (guildId, id, member) -> {
+                if(loaded.test(guildId)) {
+                    memberCache(guildId, false).justPut(id, member);
+                    members.add(id);
+                }
+            });
+            readSnapshotViews(in, reader, User.class, (shardId, id, user) -> {
+                if(members.contains(id)) {
+                    userCache((int) shardId).justPut(id, user);
+                }
+            });
+        }
+        return true;
+    }
+    
+    /**
+     * The user cache views to write in a snapshot, keyed by the shard id to
+     * pass to {@link #userCache(int)} when loading it again. The default
+     * implementation returns {@link #users()} for shard 0, which suits caches
+     * that keep every user in one view.
+     *
+     * @return The user cache views, by shard id.
+     */
+    @Nonnull
+    protected Map<Integer, ? extends CacheView<User>> userCaches() {
+        return Map.of(0, users());
+    }
+    
+    private static void writeSnapshotViews(@Nonnull final DataOutput out, @Nonnull final EntityWriter writer,
+                                           @Nonnull final Map<? extends Number, ? extends CacheView<? extends Entity>> views) throws IOException {
+        final List<? extends Entry<? extends Number, ? extends CacheView<? extends Entity>>> entries = List.copyOf(views.entrySet());
+        out.writeInt(entries.size());
+        for(final Entry<? extends Number, ? extends CacheView<? extends Entity>> entry : entries) {
+            final CacheView<? extends Entity> view = entry.getValue();
+            final List<Long> ids = new ArrayList<>(view.keys());
+            final List<Entity> entities = new ArrayList<>(ids.size());
+            for(final Iterator<Long> it = ids.iterator(); it.hasNext(); ) {
+                final Entity entity = view.getById(it.next());
+                if(entity == null) {
+                    it.remove();
+                } else {
+                    entities.add(entity);
+                }
+            }
+            out.writeLong(entry.getKey().longValue());
+            out.writeInt(ids.size());
+            for(int i = 0; i < ids.size(); i++) {
+                out.writeLong(ids.get(i));
+                writer.write(entities.get(i));
+            }
+        }
+    }
+    
+    private static <T extends Entity> void readSnapshotViews(@Nonnull final DataInput in, @Nonnull final EntityReader reader,
+                                                             @Nonnull final Class<T> type, @Nonnull final SnapshotConsumer<T> consumer) throws IOException {
+        final int views = in.readInt();
+        for(int i = 0; i < views; i++) {
+            final long key = in.readLong();
+            final int size = in.readInt();
+            for(int j = 0; j < size; j++) {
+                final long id = in.readLong();
+                final T entity = reader.read(type);
+                if(entity != null) {
+                    consumer.accept(key, id, entity);
+                }
+            }
+        }
+    }
+    
     @Nonnull
     @Override
     public EntityCache catnip(@Nonnull final Catnip catnip) {
         this.catnip = catnip;
         return this;
     }
+    
+    @FunctionalInterface
+    private interface SnapshotConsumer<T> {
+        void accept(long key, long id, T entity);
+    }
+    
+    /**
+     * Reads a file through read-only mappings of at most
+     * {@link #WINDOW_SIZE} bytes at a time, as a single mapping can't be
+     * larger than 2GB.
+     */
+    private static final class MappedInputStream extends InputStream {
+        private static final long WINDOW_SIZE = 1L << 30;
+        
+        private final FileChannel channel;
+        private long position;
+        private ByteBuffer window = ByteBuffer.allocate(0);
+        
+        private MappedInputStream(final FileChannel channel) {
+            this.channel = channel;
+        }
+        
+        private boolean ensureWindow() throws IOException {
+            if(window.hasRemaining()) {
+                return true;
+            }
+            final long remaining = channel.size() - position;
+            if(remaining <= 0) {
+                return false;
+            }
+            final long size = Math.min(remaining, WINDOW_SIZE);
+            window = channel.map(MapMode.READ_ONLY, position, size);
+            position += size;
+            return true;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            return ensureWindow() ? window.get() & 0xFF : -1;
+        }
+        
+        @Override
+        public int read(@Nonnull final byte[] b, final int off, final int len) throws IOException {
+            if(len == 0) {
+                return 0;
+            }
+            if(!ensureWindow()) {
+                return -1;
+            }
+            final int count = Math.min(len, window.remaining());
+            window.get(b, off, count);
+            return count;
+        }
+    }
 }
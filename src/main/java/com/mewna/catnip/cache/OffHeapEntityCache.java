@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache;
+
+import com.mewna.catnip.cache.view.DefaultNamedCacheView;
+import com.mewna.catnip.cache.view.EntityCodec;
+import com.mewna.catnip.cache.view.MutableNamedCacheView;
+import com.mewna.catnip.cache.view.OffHeapLongEntityMap;
+import com.mewna.catnip.cache.view.StripedCacheView;
+import com.mewna.catnip.cache.view.StripedNamedCacheView;
+import com.mewna.catnip.entity.guild.Member;
+import com.mewna.catnip.entity.impl.guild.MemberImpl;
+import com.mewna.catnip.entity.impl.user.UserImpl;
+import com.mewna.catnip.entity.user.User;
+import com.mewna.catnip.entity.user.UserFlag;
+import com.mewna.catnip.util.SnowflakeSet;
+import com.mewna.catnip.util.Utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * A {@link UnifiedMemoryEntityCache} that keeps users and members in direct
+ * memory, using {@link OffHeapLongEntityMap}s, so that they don't add to
+ * garbage collection pauses no matter how many are cached. Every other entity
+ * is cached on the heap as usual.
+ * <p>
+ * Users and members are read back out of direct memory every time they're
+ * requested, so each lookup returns a new entity. Hold on to the entity
+ * instead of looking it up again in hot paths. Since users and members are
+ * no longer on the heap, remember to give the JVM enough direct memory with
+ * {@code -XX:MaxDirectMemorySize}.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public class OffHeapEntityCache extends UnifiedMemoryEntityCache {
+    @Nonnull
+    @Override
+    protected MutableNamedCacheView<User> createUserCacheView() {
+        return new StripedNamedCacheView<>(StripedCacheView.DEFAULT_STRIPES,
+                () -> new DefaultNamedCacheView<>(User::username, new OffHeapLongEntityMap<>(new UserCodec())));
+    }
+    
+    @Nonnull
+    @Override
+    protected MutableNamedCacheView<Member> createMemberCacheView() {
+        return new DefaultNamedCacheView<>(memberNameFunction(), new OffHeapLongEntityMap<>(new MemberCodec()));
+    }
+    
+    private static void writeString(final DataOutput out, @Nullable final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if(value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    @Nullable
+    private static String readString(final DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    private final class UserCodec implements EntityCodec<User> {
+        @Override
+        public void write(@Nonnull final User user, @Nonnull final DataOutput out) throws IOException {
+            out.writeLong(user.idAsLong());
+            writeString(out, user.username());
+            writeString(out, user.discriminator());
+            writeString(out, user.avatar());
+            out.writeBoolean(user.bot());
+            int flags = 0;
+            final Set<UserFlag> publicFlags = user.publicFlags();
+            if(publicFlags != null) {
+                for(final UserFlag flag : publicFlags) {
+                    flags |= flag.value();
+                }
+            }
+            out.writeInt(flags);
+            out.writeInt(user.accentColor());
+            writeString(out, user.banner());
+        }
+        
+        @Nonnull
+        @Override
+        public User read(@Nonnull final DataInput in) throws IOException {
+            return catnip().options().entityDelegator().delegate(User.class, UserImpl.builder()
+                    .catnip(catnip())
+                    .idAsLong(in.readLong())
+                    .username(readString(in))
+                    .discriminator(readString(in))
+                    .avatar(readString(in))
+                    .bot(in.readBoolean())
+                    .publicFlags(UserFlag.toSet(in.readInt()))
+                    .accentColor(in.readInt())
+                    .banner(readString(in))
+                    .build());
+        }
+    }
+    
+    private final class MemberCodec implements EntityCodec<Member> {
+        @Override
+        public void write(@Nonnull final Member member, @Nonnull final DataOutput out) throws IOException {
+            out.writeLong(member.idAsLong());
+            out.writeLong(member.guildIdAsLong());
+            writeString(out, member.nick());
+            final long[] roles = SnowflakeSet.sortedIds(member.roleIds());
+            out.writeInt(roles.length);
+            for(final long role : roles) {
+                out.writeLong(role);
+            }
+            if(member instanceof MemberImpl impl) {
+                out.writeLong(impl.joinedAtMicros());
+                out.writeLong(impl.premiumSinceMicros());
+            } else {
+                out.writeLong(Utils.epochMicros(member.joinedAt()));
+                out.writeLong(Utils.epochMicros(member.premiumSince()));
+            }
+            writeString(out, member.avatarHash());
+        }
+        
+        @Nonnull
+        @Override
+        public Member read(@Nonnull final DataInput in) throws IOException {
+            final MemberImpl.MemberImplBuilder builder = MemberImpl.builder()
+                    .catnip(catnip())
+                    .idAsLong(in.readLong())
+                    .guildIdAsLong(in.readLong())
+                    .nick(readString(in));
+            final long[] roles = new long[in.readInt()];
+            for(int i = 0; i < roles.length; i++) {
+                roles[i] = in.readLong();
+            }
+            return catnip().options().entityDelegator().delegate(Member.class, builder
+                    .roleIdsAsLong(roles)
+                    .joinedAtMicros(in.readLong())
+                    .premiumSinceMicros(in.readLong())
+                    .avatarHash(readString(in))
+                    .build());
+        }
+    }
+}
@@ -53,6 +53,12 @@ public class SplitMemoryEntityCache extends MemoryEntityCache {
         presenceCache.remove(id);
     }
     
+    @Nonnull
+    @Override
+    protected Map<Integer, ? extends CacheView<User>> userCaches() {
+        return userCache;
+    }
+    
     @Override
     protected MutableNamedCacheView<User> userCache(final int shardId) {
         return userCache.computeIfAbsent(shardId, __ -> createUserCacheView());
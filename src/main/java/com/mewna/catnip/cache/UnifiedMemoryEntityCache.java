@@ -28,6 +28,7 @@
 package com.mewna.catnip.cache;
 
 import com.mewna.catnip.cache.view.CacheView;
+import com.mewna.catnip.cache.view.ConcurrentNamedCacheView;
 import com.mewna.catnip.cache.view.MutableCacheView;
 import com.mewna.catnip.cache.view.MutableNamedCacheView;
 import com.mewna.catnip.cache.view.NamedCacheView;
@@ -47,6 +48,22 @@ public class UnifiedMemoryEntityCache extends MemoryEntityCache {
     @SuppressWarnings("WeakerAccess")
     protected final MutableCacheView<Presence> presenceCache = createPresenceCacheView();
     
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Every shard caches users into this one view, so it's a
+     * {@link ConcurrentNamedCacheView}, which reads never have to wait on.
+     * This is not affected by overriding
+     * {@link MemoryEntityCache#createNamedCacheView(java.util.function.Function)},
+     * as the user view used to be; override this method to return
+     * {@code createNamedCacheView(User::username)} to go back to that.
+     */
+    @Nonnull
+    @Override
+    protected MutableNamedCacheView<User> createUserCacheView() {
+        return new ConcurrentNamedCacheView<>(User::username);
+    }
+    
     @Override
     protected MutableNamedCacheView<User> userCache(final int shardId) {
         return userCache;
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache.view;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * A {@link DefaultCacheView DefaultCacheView} backed by a
+ * {@link java.util.concurrent.ConcurrentHashMap ConcurrentHashMap}, so that
+ * neither reads nor writes take a lock. Readers never wait for writers, at
+ * the cost of operations over the whole view seeing a weakly consistent view
+ * of it, which may or may not include concurrent writes.
+ *
+ * @param <T> Type of the entity held by this cache.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public class ConcurrentCacheView<T> extends DefaultCacheView<T> {
+    /**
+     * Stands in for the lock of views whose map is already thread-safe.
+     */
+    static final ReadWriteLock NO_LOCK = new ReadWriteLock() {
+        private final Lock lock = new Lock() {
+            @Override
+            public void lock() {
+            }
+            
+            @Override
+            public void lockInterruptibly() {
+            }
+            
+            @Override
+            public boolean tryLock() {
+                return true;
+            }
+            
+            @Override
+            public boolean tryLock(final long time, @Nonnull final TimeUnit unit) {
+                return true;
+            }
+            
+            @Override
+            public void unlock() {
+            }
+            
+            @Nonnull
+            @Override
+            public Condition newCondition() {
+                throw new UnsupportedOperationException("newCondition");
+            }
+        };
+        
+        @Nonnull
+        @Override
+        public Lock readLock() {
+            return lock;
+        }
+        
+        @Nonnull
+        @Override
+        public Lock writeLock() {
+            return lock;
+        }
+    };
+    
+    public ConcurrentCacheView() {
+        super(new ConcurrentLongEntityMap<>(), NO_LOCK);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache.view;
+
+import com.koloboke.collect.LongIterator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A thread-safe {@link LongEntityMap}, for views that don't lock their reads.
+ * Iteration is weakly consistent, as with any {@link ConcurrentHashMap}.
+ *
+ * @param <T> Type of the entity held by this map.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@SuppressWarnings("NullableProblems")
+final class ConcurrentLongEntityMap<T> extends ConcurrentHashMap<Long, T> implements LongEntityMap<T> {
+    @Nonnull
+    @Override
+    public LongIterator iterator() {
+        final Iterator<Long> keys = keySet().iterator();
+        return new LongIterator() {
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+            
+            @Override
+            public long nextLong() {
+                return keys.next();
+            }
+            
+            @Override
+            public Long next() {
+                return keys.next();
+            }
+            
+            @Override
+            public void remove() {
+                keys.remove();
+            }
+            
+            @Override
+            public void forEachRemaining(final Consumer<? super Long> action) {
+                keys.forEachRemaining(action);
+            }
+            
+            @Override
+            public void forEachRemaining(final LongConsumer action) {
+                keys.forEachRemaining(action::accept);
+            }
+        };
+    }
+    
+    @Nullable
+    @Override
+    public T put(final long key, @Nonnull final T value) {
+        return put(Long.valueOf(key), value);
+    }
+    
+    @Nullable
+    @Override
+    public T get(final long key) {
+        return get(Long.valueOf(key));
+    }
+    
+    @Nullable
+    @Override
+    public T remove(final long key) {
+        return remove(Long.valueOf(key));
+    }
+    
+    @Override
+    public void justPut(final long key, @Nonnull final T value) {
+        put(Long.valueOf(key), value);
+    }
+    
+    @Override
+    public boolean justRemove(final long key) {
+        return remove(Long.valueOf(key)) != null;
+    }
+}
@@ -48,8 +48,29 @@ import java.util.stream.Collector;
  */
 @SuppressWarnings("WeakerAccess")
 public class DefaultCacheView<T> implements MutableCacheView<T> {
-    protected final LongEntityMap<T> map = LongEntityMap.create();
-    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+    protected final LongEntityMap<T> map;
+    protected final ReadWriteLock lock;
+    
+    public DefaultCacheView() {
+        this(LongEntityMap.create());
+    }
+    
+    /**
+     * @param map The map to store entities in, such as an
+     *            {@link OffHeapLongEntityMap}.
+     */
+    public DefaultCacheView(@Nonnull final LongEntityMap<T> map) {
+        this(map, new ReentrantReadWriteLock());
+    }
+    
+    /**
+     * @param map  The map to store entities in.
+     * @param lock The lock guarding the map.
+     */
+    protected DefaultCacheView(@Nonnull final LongEntityMap<T> map, @Nonnull final ReadWriteLock lock) {
+        this.map = map;
+        this.lock = lock;
+    }
     
     @Override
     public void removeIf(@Nonnull final LongPredicate predicate) {
@@ -88,6 +109,26 @@ public class DefaultCacheView<T> implements MutableCacheView<T> {
         }
     }
     
+    @Override
+    public void justPut(final long key, @Nonnull final T value) {
+        lock.writeLock().lock();
+        try {
+            map.justPut(key, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void justRemove(final long key) {
+        lock.writeLock().lock();
+        try {
+            map.justRemove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
     @Override
     public void forEach(final Consumer<? super T> action) {
         lock.readLock().lock();
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache.view;
+
+import com.mewna.catnip.util.Utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link DefaultNamedCacheView} that keeps an index of its entities' names,
+ * so that looking them up doesn't have to call the name function for every
+ * entity. Exact name lookups are a hash lookup, and prefix lookups walk a
+ * sorted set of names; both are case-folded, so ignoring case is just as
+ * fast. Contains and suffix lookups still scan, but over the indexed names
+ * rather than the entities.
+ * <p>
+ * Names are indexed when an entity is put, so a name that changes without
+ * the entity being put again, like a member's username, is only found under
+ * its old name. Results are always checked against the current name, so a
+ * stale index can miss entities, but never returns wrong ones.
+ * <p>
+ * To use it, override {@link com.mewna.catnip.cache.MemoryEntityCache#createNamedCacheView(Function)},
+ * or only the view creation methods of the entities you search by name, such
+ * as {@link com.mewna.catnip.cache.MemoryEntityCache#createMemberCacheView()}.
+ *
+ * @param <T> Type of the entity held by this cache.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public class IndexedNamedCacheView<T> extends DefaultNamedCacheView<T> {
+    private static final long[] NO_IDS = new long[0];
+    
+    /**
+     * Ids by case-folded name.
+     */
+    private final Map<String, long[]> ids = new HashMap<>();
+    private final NavigableSet<String> sortedNames = new TreeSet<>();
+    private final LongEntityMap<String> indexedNames = LongEntityMap.create();
+    
+    public IndexedNamedCacheView(final Function<T, String> nameFunction) {
+        super(nameFunction);
+    }
+    
+    public IndexedNamedCacheView(final Function<T, String> nameFunction, @Nonnull final LongEntityMap<T> map) {
+        super(nameFunction, map);
+    }
+    
+    /**
+     * Folds case the same way {@link String#equalsIgnoreCase(String)} does,
+     * so that two names are equal ignoring case exactly when their folded
+     * names are equal.
+     */
+    @Nonnull
+    static String fold(@Nonnull final String name) {
+        char[] folded = null;
+        for(int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            final char f = Character.toLowerCase(Character.toUpperCase(c));
+            if(f != c) {
+                if(folded == null) {
+                    folded = name.toCharArray();
+                }
+                folded[i] = f;
+            }
+        }
+        return folded == null ? name : new String(folded);
+    }
+    
+    @Nullable
+    @Override
+    public T put(final long key, @Nonnull final T value) {
+        lock.writeLock().lock();
+        try {
+            final T old = super.put(key, value);
+            index(key, fold(name(value)));
+            return old;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Nullable
+    @Override
+    public T remove(final long key) {
+        lock.writeLock().lock();
+        try {
+            unindex(key);
+            return super.remove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void justPut(final long key, @Nonnull final T value) {
+        lock.writeLock().lock();
+        try {
+            super.justPut(key, value);
+            index(key, fold(name(value)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void justRemove(final long key) {
+        lock.writeLock().lock();
+        try {
+            unindex(key);
+            super.justRemove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void removeIf(@Nonnull final LongPredicate predicate) {
+        lock.writeLock().lock();
+        try {
+            super.removeIf(key -> {
+                if(predicate.test(key)) {
+                    unindex(key);
+                    return true;
+                }
+                return false;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Nonnull
+    @Override
+    public <C extends Collection<T>> C findByName(@Nonnull final String name, final boolean ignoreCase, @Nonnull final Supplier<C> supplier) {
+        final C collection = Objects.requireNonNull(supplier.get(), "Provided collection may not be null");
+        lock.readLock().lock();
+        try {
+            collect(ids.getOrDefault(fold(name), NO_IDS),
+                    e -> ignoreCase ? name(e).equalsIgnoreCase(name) : name(e).equals(name), collection);
+            return collection;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Nonnull
+    @Override
+    public <C extends Collection<T>> C findByNameStartsWith(@Nonnull final String name, final boolean ignoreCase, @Nonnull final Supplier<C> supplier) {
+        final C collection = Objects.requireNonNull(supplier.get(), "Provided collection may not be null");
+        final String prefix = fold(name);
+        final Predicate<T> filter = e -> ignoreCase ? Utils.startsWithIgnoreCase(name(e), name) : name(e).startsWith(name);
+        lock.readLock().lock();
+        try {
+            for(final String indexed : sortedNames.tailSet(prefix, true)) {
+                if(!indexed.startsWith(prefix)) {
+                    break;
+                }
+                collect(ids.get(indexed), filter, collection);
+            }
+            return collection;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Nonnull
+    @Override
+    public <C extends Collection<T>> C findByNameContains(@Nonnull final String name, final boolean ignoreCase, @Nonnull final Supplier<C> supplier) {
+        final String search = fold(name);
+        return scanNames(indexed -> indexed.contains(search),
+                e -> ignoreCase ? Utils.containsIgnoreCase(name(e), name) : name(e).contains(name), supplier);
+    }
+    
+    @Nonnull
+    @Override
+    public <C extends Collection<T>> C findByNameEndsWith(@Nonnull final String name, final boolean ignoreCase, @Nonnull final Supplier<C> supplier) {
+        final String search = fold(name);
+        return scanNames(indexed -> indexed.endsWith(search),
+                e -> ignoreCase ? Utils.endsWithIgnoreCase(name(e), name) : name(e).endsWith(name), supplier);
+    }
+    
+    private <C extends Collection<T>> C scanNames(final Predicate<String> names, final Predicate<T> filter, final Supplier<C> supplier) {
+        final C collection = Objects.requireNonNull(supplier.get(), "Provided collection may not be null");
+        lock.readLock().lock();
+        try {
+            for(final Map.Entry<String, long[]> entry : ids.entrySet()) {
+                if(names.test(entry.getKey())) {
+                    collect(entry.getValue(), filter, collection);
+                }
+            }
+            return collection;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void collect(final long[] candidates, final Predicate<T> filter, final Collection<T> collection) {
+        for(final long id : candidates) {
+            final T element = map.get(id);
+            if(element != null && filter.test(element)) {
+                collection.add(element);
+            }
+        }
+    }
+    
+    private void index(final long key, final String name) {
+        final String old = indexedNames.put(key, name);
+        if(name.equals(old)) {
+            return;
+        }
+        if(old != null) {
+            removeId(old, key);
+        }
+        final long[] current = ids.get(name);
+        if(current == null) {
+            ids.put(name, new long[] {key});
+            sortedNames.add(name);
+        } else {
+            final long[] added = Arrays.copyOf(current, current.length + 1);
+            added[current.length] = key;
+            ids.put(name, added);
+        }
+    }
+    
+    private void unindex(final long key) {
+        final String old = indexedNames.remove(key);
+        if(old != null) {
+            removeId(old, key);
+        }
+    }
+    
+    private void removeId(final String name, final long key) {
+        final long[] current = ids.get(name);
+        if(current.length == 1) {
+            ids.remove(name);
+            sortedNames.remove(name);
+            return;
+        }
+        final long[] removed = new long[current.length - 1];
+        int i = 0;
+        for(final long id : current) {
+            if(id != key) {
+                removed[i++] = id;
+            }
+        }
+        ids.put(name, removed);
+    }
+}
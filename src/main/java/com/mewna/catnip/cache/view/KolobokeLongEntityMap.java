@@ -1026,6 +1026,7 @@ final class KolobokeLongEntityMap<T>  implements LongEntityMap<T> {
         }
     }
     
+    @Override
     public void justPut(long key, T value) {
         int index = insert(key, value);
         if (index < 0) {
@@ -1432,6 +1433,7 @@ final class KolobokeLongEntityMap<T>  implements LongEntityMap<T> {
         }
     }
     
+    @Override
     public boolean justRemove(long key) {
         long free;
         if (key != (free = freeValue)) {
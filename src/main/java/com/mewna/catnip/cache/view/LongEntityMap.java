@@ -60,4 +60,25 @@ public interface LongEntityMap<T> extends Map<Long, T> {
     
     @Nullable
     T remove(long key);
+    
+    /**
+     * Like {@link #put(long, Object)}, but doesn't return the entity that was
+     * replaced, which maps that don't keep entities as objects would
+     * otherwise have to rebuild.
+     *
+     * @param key   The key.
+     * @param value The entity.
+     */
+    void justPut(long key, @Nonnull T value);
+    
+    /**
+     * Like {@link #remove(long)}, but doesn't return the entity that was
+     * removed, which maps that don't keep entities as objects would
+     * otherwise have to rebuild.
+     *
+     * @param key The key.
+     *
+     * @return Whether there was an entity with the key.
+     */
+    boolean justRemove(long key);
 }
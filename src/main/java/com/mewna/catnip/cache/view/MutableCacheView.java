@@ -51,4 +51,25 @@ public interface MutableCacheView<T> extends CacheView<T> {
     @Nullable
     @SuppressWarnings("UnusedReturnValue")
     T remove(final long key);
+    
+    /**
+     * Like {@link #put(long, Object)}, but without returning the entity that
+     * was replaced, for when it isn't needed.
+     *
+     * @param key   The key.
+     * @param value The entity.
+     */
+    default void justPut(final long key, @Nonnull final T value) {
+        put(key, value);
+    }
+    
+    /**
+     * Like {@link #remove(long)}, but without returning the entity that was
+     * removed, for when it isn't needed.
+     *
+     * @param key The key.
+     */
+    default void justRemove(final long key) {
+        remove(key);
+    }
 }
@@ -0,0 +1,612 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache.view;
+
+import com.koloboke.collect.LongIterator;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link LongEntityMap} that keeps its entities in direct memory rather than
+ * on the heap. Entities are written with an {@link EntityCodec} into an
+ * arena of direct memory, and a new entity is read back every time one is
+ * requested. The only heap objects a map keeps, no matter how many entities
+ * it holds, are the arena and two {@code long[]}s indexing it, so caches of
+ * millions of users or members don't have to be traced by the garbage
+ * collector.
+ * <p>
+ * Entities that are replaced or removed leave garbage in the arena, which is
+ * compacted away once it makes up half of the arena. Arenas are limited to
+ * 2GiB, and count towards {@code -XX:MaxDirectMemorySize}. Arenas that a map
+ * outgrows or no longer needs are handed to a pool shared by every map, and
+ * reused by the next map that needs one of that size, rather than being left
+ * for the garbage collector to free.
+ * <p>
+ * Entities are only read back when they're asked for: use
+ * {@link #justPut(long, Object)} and {@link #justRemove(long)} when the
+ * previous entity isn't needed, as {@link #put(long, Object)} and
+ * {@link #remove(long)} have to decode it to return it.
+ * <p>
+ * This map is not thread-safe; {@link DefaultCacheView} guards it with its
+ * lock. Reads don't modify the map, so they may run concurrently.
+ *
+ * @param <T> Type of the entity held by this map.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@SuppressWarnings("NullableProblems")
+public final class OffHeapLongEntityMap<T> extends AbstractMap<Long, T> implements LongEntityMap<T> {
+    private static final int MIN_ARENA_SIZE = 512;
+    private static final int MIN_INDEX_SIZE = 8;
+    private static final long FREE = -1L;
+    
+    private final EntityCodec<T> codec;
+    private final RecordBuffer record = new RecordBuffer();
+    private final DataOutputStream out = new DataOutputStream(record);
+    /**
+     * Allocated on the first put, and released once the map is empty again,
+     * since most guilds only ever cache a handful of members.
+     */
+    private ByteBuffer arena;
+    private int top;
+    private int garbage;
+    private long[] keys = new long[MIN_INDEX_SIZE];
+    /**
+     * Where each key's entity is in the arena, as {@code offset << 32 |
+     * length}, or {@link #FREE}.
+     */
+    private long[] slots = freeSlots(MIN_INDEX_SIZE);
+    private int shift = Long.SIZE - Integer.numberOfTrailingZeros(MIN_INDEX_SIZE);
+    private int size;
+    
+    public OffHeapLongEntityMap(@Nonnull final EntityCodec<T> codec) {
+        this.codec = codec;
+    }
+    
+    /**
+     * @return The number of bytes of direct memory this map holds.
+     */
+    @Nonnegative
+    @CheckReturnValue
+    public long offHeapBytes() {
+        return arena == null ? 0 : arena.capacity();
+    }
+    
+    @Nullable
+    @Override
+    public T get(final long key) {
+        final int index = find(key);
+        return index < 0 ? null : decode(slots[index]);
+    }
+    
+    @Nullable
+    @Override
+    public T put(final long key, @Nonnull final T value) {
+        final int index = find(key);
+        final T old = index < 0 ? null : decode(slots[index]);
+        justPut(key, value);
+        return old;
+    }
+    
+    @Nullable
+    @Override
+    public T remove(final long key) {
+        final int index = find(key);
+        if(index < 0) {
+            return null;
+        }
+        final T old = decode(slots[index]);
+        delete(index);
+        return old;
+    }
+    
+    @Override
+    public void justPut(final long key, @Nonnull final T value) {
+        final int length = encode(Objects.requireNonNull(value, "value"));
+        final int offset = allocate(length);
+        arena.put(offset, record.bytes(), 0, length);
+        int index = find(key);
+        if(index >= 0) {
+            garbage += length(slots[index]);
+            slots[index] = slot(offset, length);
+            return;
+        }
+        if((size + 1) * 2 > slots.length) {
+            rehash(slots.length * 2);
+            index = find(key);
+        }
+        keys[~index] = key;
+        slots[~index] = slot(offset, length);
+        size++;
+    }
+    
+    @Override
+    public boolean justRemove(final long key) {
+        final int index = find(key);
+        if(index < 0) {
+            return false;
+        }
+        delete(index);
+        return true;
+    }
+    
+    @Override
+    public T get(final Object key) {
+        return key instanceof Long id ? get(id.longValue()) : null;
+    }
+    
+    @Override
+    public T put(final Long key, final T value) {
+        return put(key.longValue(), value);
+    }
+    
+    @Override
+    public T remove(final Object key) {
+        return key instanceof Long id ? remove(id.longValue()) : null;
+    }
+    
+    @Override
+    public boolean containsKey(final Object key) {
+        return key instanceof Long id && find(id) >= 0;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public void clear() {
+        keys = new long[MIN_INDEX_SIZE];
+        slots = freeSlots(MIN_INDEX_SIZE);
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(MIN_INDEX_SIZE);
+        size = 0;
+        release();
+    }
+    
+    /**
+     * Iterates over the keys as they were when this was called; modifying the
+     * map while iterating is allowed.
+     */
+    @Nonnull
+    @Override
+    public LongIterator iterator() {
+        return new KeyIterator();
+    }
+    
+    @Nonnull
+    @Override
+    public Set<Long> keySet() {
+        return new AbstractSet<>() {
+            @Nonnull
+            @Override
+            public Iterator<Long> iterator() {
+                return OffHeapLongEntityMap.this.iterator();
+            }
+            
+            @Override
+            public int size() {
+                return size;
+            }
+            
+            @Override
+            public boolean contains(final Object o) {
+                return containsKey(o);
+            }
+        };
+    }
+    
+    @Nonnull
+    @Override
+    public Set<Entry<Long, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Nonnull
+            @Override
+            public Iterator<Entry<Long, T>> iterator() {
+                final LongIterator keys = OffHeapLongEntityMap.this.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+                    
+                    @Override
+                    public Entry<Long, T> next() {
+                        final long key = keys.nextLong();
+                        return new SimpleImmutableEntry<>(key, get(key));
+                    }
+                    
+                    @Override
+                    public void remove() {
+                        keys.remove();
+                    }
+                };
+            }
+            
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+    
+    private int encode(final T value) {
+        record.reset();
+        try {
+            codec.write(value, out);
+        } catch(final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return record.size();
+    }
+    
+    private T decode(final long slot) {
+        try {
+            return codec.read(new ArenaInput(arena, offset(slot), length(slot)));
+        } catch(final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private int allocate(final int length) {
+        if(arena == null || arena.capacity() - top < length) {
+            compact((long) top - garbage + length);
+        }
+        final int offset = top;
+        top += length;
+        return offset;
+    }
+    
+    /**
+     * Moves every entity into a new arena with room for at least
+     * {@code needed} bytes, dropping the garbage.
+     */
+    private void compact(final long needed) {
+        if(needed > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap map is full (" + size + " entities)");
+        }
+        long capacity = MIN_ARENA_SIZE;
+        while(capacity < needed + needed / 2) {
+            capacity <<= 1;
+        }
+        final ByteBuffer next = ArenaPool.take((int) Math.min(capacity, Integer.MAX_VALUE));
+        int position = 0;
+        for(int i = 0; i < slots.length; i++) {
+            final long slot = slots[i];
+            if(slot != FREE) {
+                next.put(position, arena, offset(slot), length(slot));
+                slots[i] = slot(position, length(slot));
+                position += length(slot);
+            }
+        }
+        if(arena != null) {
+            ArenaPool.give(arena);
+        }
+        arena = next;
+        top = position;
+        garbage = 0;
+    }
+    
+    private void release() {
+        if(arena != null) {
+            ArenaPool.give(arena);
+            arena = null;
+        }
+        top = 0;
+        garbage = 0;
+    }
+    
+    private int find(final long key) {
+        final int mask = slots.length - 1;
+        for(int i = home(key); ; i = i + 1 & mask) {
+            if(slots[i] == FREE) {
+                return ~i;
+            }
+            if(keys[i] == key) {
+                return i;
+            }
+        }
+    }
+    
+    private void delete(final int index) {
+        garbage += length(slots[index]);
+        // Shift back entries that probed past the deleted one, so that lookups
+        // never stop early at the hole
+        final int mask = slots.length - 1;
+        int hole = index;
+        for(int i = index + 1 & mask; slots[i] != FREE; i = i + 1 & mask) {
+            if((i - home(keys[i]) & mask) >= (i - hole & mask)) {
+                keys[hole] = keys[i];
+                slots[hole] = slots[i];
+                hole = i;
+            }
+        }
+        slots[hole] = FREE;
+        size--;
+        if(size == 0) {
+            release();
+        } else if(garbage > MIN_ARENA_SIZE && garbage > top / 2) {
+            compact(top - garbage);
+        }
+    }
+    
+    private void rehash(final int capacity) {
+        final long[] oldKeys = keys;
+        final long[] oldSlots = slots;
+        keys = new long[capacity];
+        slots = freeSlots(capacity);
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+        for(int i = 0; i < oldSlots.length; i++) {
+            if(oldSlots[i] != FREE) {
+                final int index = ~find(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                slots[index] = oldSlots[i];
+            }
+        }
+    }
+    
+    private int home(final long key) {
+        // Fibonacci hashing, since snowflakes' low bits are mostly sequence
+        return (int) (key * 0x9E3779B97F4A7C15L >>> shift);
+    }
+    
+    private static long[] freeSlots(final int capacity) {
+        final long[] slots = new long[capacity];
+        Arrays.fill(slots, FREE);
+        return slots;
+    }
+    
+    private static long slot(final int offset, final int length) {
+        return (long) offset << 32 | length;
+    }
+    
+    private static int offset(final long slot) {
+        return (int) (slot >>> 32);
+    }
+    
+    private static int length(final long slot) {
+        return (int) slot;
+    }
+    
+    private final class KeyIterator implements LongIterator {
+        private final long[] snapshot = new long[size];
+        private int next;
+        private boolean removable;
+        
+        private KeyIterator() {
+            int i = 0;
+            for(int index = 0; index < slots.length; index++) {
+                if(slots[index] != FREE) {
+                    snapshot[i++] = keys[index];
+                }
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next < snapshot.length;
+        }
+        
+        @Override
+        public long nextLong() {
+            if(next >= snapshot.length) {
+                throw new NoSuchElementException();
+            }
+            removable = true;
+            return snapshot[next++];
+        }
+        
+        @Override
+        public Long next() {
+            return nextLong();
+        }
+        
+        @Override
+        public void remove() {
+            if(!removable) {
+                throw new IllegalStateException();
+            }
+            removable = false;
+            final int index = find(snapshot[next - 1]);
+            if(index >= 0) {
+                delete(index);
+            }
+        }
+        
+        @Override
+        public void forEachRemaining(final Consumer<? super Long> action) {
+            while(hasNext()) {
+                action.accept(nextLong());
+            }
+        }
+        
+        @Override
+        public void forEachRemaining(final LongConsumer action) {
+            while(hasNext()) {
+                action.accept(nextLong());
+            }
+        }
+    }
+    
+    /**
+     * Reads an entity straight out of the arena. Reads use absolute
+     * positions, so several of these can read the same arena at once.
+     */
+    private static final class ArenaInput implements DataInput {
+        private final ByteBuffer arena;
+        private final int limit;
+        private int position;
+        
+        private ArenaInput(final ByteBuffer arena, final int offset, final int length) {
+            this.arena = arena;
+            position = offset;
+            limit = offset + length;
+        }
+        
+        private int advance(final int bytes) throws EOFException {
+            if(limit - position < bytes) {
+                throw new EOFException();
+            }
+            final int at = position;
+            position += bytes;
+            return at;
+        }
+        
+        @Override
+        public void readFully(@Nonnull final byte[] b) throws IOException {
+            readFully(b, 0, b.length);
+        }
+        
+        @Override
+        public void readFully(@Nonnull final byte[] b, final int off, final int len) throws IOException {
+            arena.get(advance(len), b, off, len);
+        }
+        
+        @Override
+        public int skipBytes(final int n) {
+            final int skipped = Math.max(0, Math.min(n, limit - position));
+            position += skipped;
+            return skipped;
+        }
+        
+        @Override
+        public boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+        
+        @Override
+        public byte readByte() throws IOException {
+            return arena.get(advance(Byte.BYTES));
+        }
+        
+        @Override
+        public int readUnsignedByte() throws IOException {
+            return readByte() & 0xFF;
+        }
+        
+        @Override
+        public short readShort() throws IOException {
+            return arena.getShort(advance(Short.BYTES));
+        }
+        
+        @Override
+        public int readUnsignedShort() throws IOException {
+            return readShort() & 0xFFFF;
+        }
+        
+        @Override
+        public char readChar() throws IOException {
+            return arena.getChar(advance(Character.BYTES));
+        }
+        
+        @Override
+        public int readInt() throws IOException {
+            return arena.getInt(advance(Integer.BYTES));
+        }
+        
+        @Override
+        public long readLong() throws IOException {
+            return arena.getLong(advance(Long.BYTES));
+        }
+        
+        @Override
+        public float readFloat() throws IOException {
+            return arena.getFloat(advance(Float.BYTES));
+        }
+        
+        @Override
+        public double readDouble() throws IOException {
+            return arena.getDouble(advance(Double.BYTES));
+        }
+        
+        @Override
+        public String readLine() {
+            throw new UnsupportedOperationException("readLine");
+        }
+        
+        @Nonnull
+        @Override
+        public String readUTF() throws IOException {
+            return DataInputStream.readUTF(this);
+        }
+    }
+    
+    /**
+     * Arenas that maps have outgrown or emptied, by capacity, for other maps
+     * to reuse. Only up to {@link #MAX_POOLED_BYTES} are kept; arenas given
+     * back past that are left to the garbage collector.
+     */
+    private static final class ArenaPool {
+        private static final long MAX_POOLED_BYTES = 64L << 20;
+        private static final Map<Integer, Deque<ByteBuffer>> POOL = new ConcurrentHashMap<>();
+        private static final AtomicLong POOLED_BYTES = new AtomicLong();
+        
+        private ArenaPool() {
+        }
+        
+        private static ByteBuffer take(final int capacity) {
+            final Deque<ByteBuffer> arenas = POOL.get(capacity);
+            final ByteBuffer arena = arenas == null ? null : arenas.pollFirst();
+            if(arena == null) {
+                return ByteBuffer.allocateDirect(capacity);
+            }
+            POOLED_BYTES.addAndGet(-capacity);
+            return arena;
+        }
+        
+        private static void give(final ByteBuffer arena) {
+            final int capacity = arena.capacity();
+            if(POOLED_BYTES.addAndGet(capacity) > MAX_POOLED_BYTES) {
+                POOLED_BYTES.addAndGet(-capacity);
+                return;
+            }
+            POOL.computeIfAbsent(capacity, __ -> new ConcurrentLinkedDeque<>()).offerFirst(arena);
+        }
+    }
+    
+    /**
+     * Lets entities be copied into the arena without copying the buffer.
+     */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        private byte[] bytes() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache.view;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link MutableCacheView MutableCacheView} split into stripes by id, each
+ * of which is its own view. By default, stripes are
+ * {@link ConcurrentCacheView}s, so reads never take a lock at all. Stripes
+ * that have to lock, like views of an {@link OffHeapLongEntityMap}, only
+ * lock for reads and writes of the entities in them, so readers only wait
+ * for writers that happen to be writing to the same stripe, and bulk caching
+ * never holds up reads of the rest of the view. Operations over the whole
+ * view go through the stripes one at a time, like a
+ * {@link CompositeCacheView}.
+ *
+ * @param <T> Type of the entity held by this cache.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@SuppressWarnings("WeakerAccess")
+public class StripedCacheView<T> extends CompositeCacheView<T> implements MutableCacheView<T> {
+    /**
+     * The number of stripes views have by default.
+     */
+    public static final int DEFAULT_STRIPES = 16;
+    
+    protected final List<? extends MutableCacheView<T>> stripes;
+    private final int shift;
+    
+    public StripedCacheView() {
+        this(DEFAULT_STRIPES, ConcurrentCacheView::new);
+    }
+    
+    /**
+     * @param stripes The number of stripes, which must be a power of two.
+     * @param factory Creates the view for each stripe.
+     */
+    public StripedCacheView(@Nonnegative final int stripes, @Nonnull final Supplier<? extends MutableCacheView<T>> factory) {
+        this(createStripes(stripes, factory));
+    }
+    
+    protected StripedCacheView(@Nonnull final List<? extends MutableCacheView<T>> stripes) {
+        super(stripes);
+        this.stripes = stripes;
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(stripes.size());
+    }
+    
+    @Nonnull
+    protected static <V extends MutableCacheView<?>> List<V> createStripes(@Nonnegative final int stripes,
+                                                                            @Nonnull final Supplier<? extends V> factory) {
+        if(stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two, got " + stripes);
+        }
+        final List<V> list = new ArrayList<>(stripes);
+        for(int i = 0; i < stripes; i++) {
+            list.add(Objects.requireNonNull(factory.get(), "Stripe may not be null"));
+        }
+        return List.copyOf(list);
+    }
+    
+    /**
+     * @return The stripe that holds the entity with the given id.
+     */
+    @Nonnull
+    protected MutableCacheView<T> stripe(final long id) {
+        // Fibonacci hashing, since snowflakes' low bits are mostly sequence.
+        // A shift of 64 leaves the id unchanged, so a single stripe needs
+        // special-casing
+        return stripes.size() == 1 ? stripes.get(0) : stripes.get((int) (id * 0x9E3779B97F4A7C15L >>> shift));
+    }
+    
+    @Override
+    public void removeIf(@Nonnull final LongPredicate predicate) {
+        for(final MutableCacheView<T> stripe : stripes) {
+            stripe.removeIf(predicate);
+        }
+    }
+    
+    @Nullable
+    @Override
+    public T put(final long key, @Nonnull final T value) {
+        return stripe(key).put(key, value);
+    }
+    
+    @Nullable
+    @Override
+    public T remove(final long key) {
+        return stripe(key).remove(key);
+    }
+    
+    @Override
+    public void justPut(final long key, @Nonnull final T value) {
+        stripe(key).justPut(key, value);
+    }
+    
+    @Override
+    public void justRemove(final long key) {
+        stripe(key).justRemove(key);
+    }
+    
+    @Override
+    public T getById(final long id) {
+        return stripe(id).getById(id);
+    }
+    
+    @Nonnull
+    @Override
+    public Set<Long> keys() {
+        final Set<Long> keys = super.keys();
+        return Collections.unmodifiableSet(new AbstractSet<>() {
+            @Nonnull
+            @Override
+            public Iterator<Long> iterator() {
+                return keys.iterator();
+            }
+            
+            @Override
+            public int size() {
+                return keys.size();
+            }
+            
+            @Override
+            public boolean contains(final Object o) {
+                return o instanceof Long id && stripe(id).keys().contains(id);
+            }
+        });
+    }
+}
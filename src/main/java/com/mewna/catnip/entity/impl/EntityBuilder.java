@@ -301,7 +301,7 @@ public final class EntityBuilder {
         final String parentId = data.getString("parent_id");
         return delegate(TextChannel.class, TextChannelImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .guildIdAsLong(Long.parseUnsignedLong(guildId))
                 .position(data.getInt("position", -1))
@@ -319,7 +319,7 @@ public final class EntityBuilder {
         final String parentId = data.getString("parent_id");
         return delegate(NewsChannel.class, NewsChannelImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .guildIdAsLong(Long.parseUnsignedLong(guildId))
                 .position(data.getInt("position", -1))
@@ -336,7 +336,7 @@ public final class EntityBuilder {
         final String parentId = data.getString("parent_id");
         return delegate(StoreChannel.class, StoreChannelImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .guildIdAsLong(Long.parseUnsignedLong(guildId))
                 .position(data.getInt("position", -1))
@@ -349,14 +349,13 @@ public final class EntityBuilder {
     @Nonnull
     @CheckReturnValue
     public VoiceChannel createVoiceChannel(@Nonnull final String guildId, @Nonnull final JsonObject data) {
-        final String parentId = data.getString("parent_id");
         return delegate(VoiceChannel.class, VoiceChannelImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .guildIdAsLong(Long.parseUnsignedLong(guildId))
                 .position(data.getInt("position", -1))
-                .parentIdAsLong(parentId == null ? 0 : Long.parseUnsignedLong(parentId))
+                .parentIdAsLong(snowflake(data, "parent_id", 0))
                 .overrides(toList(data.getArray("permission_overwrites"), this::createPermissionOverride))
                 .bitrate(data.getInt("bitrate", 0))
                 .userLimit(data.getInt("user_limit", 0))
@@ -368,7 +367,7 @@ public final class EntityBuilder {
     public Category createCategory(@Nonnull final String guildId, @Nonnull final JsonObject data) {
         return delegate(Category.class, CategoryImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .guildIdAsLong(Long.parseUnsignedLong(guildId))
                 .position(data.getInt("position", -1))
@@ -381,8 +380,8 @@ public final class EntityBuilder {
     public UserDMChannel createUserDM(@Nonnull final JsonObject data) {
         return delegate(UserDMChannel.class, UserDMChannelImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .userIdAsLong(Long.parseUnsignedLong(data.getArray("recipients").getObject(0).getString("id")))
+                .idAsLong(snowflake(data, "id"))
+                .userIdAsLong(snowflake(data.getArray("recipients").getObject(0), "id"))
                 .build());
     }
     
@@ -391,11 +390,11 @@ public final class EntityBuilder {
     public GroupDMChannel createGroupDM(@Nonnull final JsonObject data) {
         return delegate(GroupDMChannel.class, GroupDMChannelImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .recipients(toList(data.getArray("recipients"), this::createUser))
                 .icon(data.getString("icon"))
-                .ownerIdAsLong(Long.parseUnsignedLong(data.getString("owner_id")))
-                .applicationIdAsLong(Long.parseUnsignedLong(data.getString("application_id")))
+                .ownerIdAsLong(snowflake(data, "owner_id"))
+                .applicationIdAsLong(snowflake(data, "application_id"))
                 .build());
     }
     
@@ -462,7 +461,7 @@ public final class EntityBuilder {
     public ChannelPinsUpdate createChannelPinsUpdate(@Nonnull final JsonObject data) {
         return delegate(ChannelPinsUpdate.class, ChannelPinsUpdateImpl.builder()
                 .catnip(catnip)
-                .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
+                .channelIdAsLong(snowflake(data, "channel_id"))
                 .lastPinTimestamp(data.getString("last_pin_timestamp"))
                 .build());
     }
@@ -472,7 +471,7 @@ public final class EntityBuilder {
     public PermissionOverride createPermissionOverride(@Nonnull final JsonObject data) {
         return delegate(PermissionOverride.class, PermissionOverrideImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .type(OverrideType.byKey(data.getInt("type")))
                 .allowRaw(Long.parseUnsignedLong(data.getString("allow", "0")))
                 .denyRaw(Long.parseUnsignedLong(data.getString("deny", "0")))
@@ -484,7 +483,7 @@ public final class EntityBuilder {
     public Role createRole(@Nonnull final String guildId, @Nonnull final JsonObject data) {
         return delegate(Role.class, RoleImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .guildIdAsLong(Long.parseUnsignedLong(guildId))
                 .name(data.getString("name"))
                 .color(data.getInt("color"))
@@ -525,7 +524,7 @@ public final class EntityBuilder {
         return delegate(User.class, UserImpl.builder()
                 .catnip(catnip)
                 .username(data.getString("username"))
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .discriminator(data.getString("discriminator"))
                 .avatar(data.getString("avatar", null))
                 .bot(data.getBoolean("bot", false))
@@ -565,8 +564,8 @@ public final class EntityBuilder {
                 .catnip(catnip)
                 .status(OnlineStatus.fromString(data.getString("status")))
                 .activities(toList(data.getArray("activities", new JsonArray()), this::createActivity))
-                .idAsLong(Long.parseUnsignedLong(data.getObject("user").getString("id")))
-                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id")))
+                .idAsLong(snowflake(data.getObject("user"), "id"))
+                .guildIdAsLong(snowflake(data, "guild_id"))
                 .mobileStatus(mobileStatusString != null ? OnlineStatus.fromString(mobileStatusString) : null)
                 .webStatus(webStatusString != null ? OnlineStatus.fromString(webStatusString) : null)
                 .desktopStatus(desktopStatusString != null ? OnlineStatus.fromString(desktopStatusString) : null)
@@ -579,13 +578,12 @@ public final class EntityBuilder {
         if(data == null) {
             return null;
         } else {
-            final String applicationId = data.getString("application_id");
             return delegate(Activity.class, ActivityImpl.builder()
                     .name(data.getString("name"))
                     .type(ActivityType.byId(data.getInt("type")))
                     .url(data.getString("url"))
                     .timestamps(createTimestamps(data.getObject("timestamps", null)))
-                    .applicationIdAsLong(applicationId == null ? 0 : Long.parseUnsignedLong(applicationId))
+                    .applicationIdAsLong(snowflake(data, "application_id", 0))
                     .details(data.getString("details"))
                     .state(data.getString("state"))
                     .party(createParty(data.getObject("party", null)))
@@ -697,8 +695,8 @@ public final class EntityBuilder {
         final String guildId = data.getString("guild_id");
         return delegate(TypingUser.class, TypingUserImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("user_id")))
-                .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
+                .idAsLong(snowflake(data, "user_id"))
+                .channelIdAsLong(snowflake(data, "channel_id"))
                 .guildIdAsLong(guildId == null ? 0 : Long.parseUnsignedLong(guildId))
                 .timestamp(data.getNumber("timestamp").longValue())
                 .build());
@@ -728,7 +726,7 @@ public final class EntityBuilder {
                 .idAsLong(Long.parseUnsignedLong(id))
                 .guildIdAsLong(guild)
                 .nick(data.getString("nick"))
-                .roleIds(toStringSet(data.getArray("roles")))
+                .roleIdsAsLong(toSortedSnowflakes(data.getArray("roles")))
                 .joinedAt(joinedAt)
                 .premiumSince(data.getString("premium_since", null))
                 .avatarHash(data.getString("avatar"))
@@ -763,12 +761,11 @@ public final class EntityBuilder {
     @Nonnull
     @CheckReturnValue
     public VoiceState createVoiceState(@Nullable final String guildId, @Nonnull final JsonObject data) {
-        final String channelId = data.getString("channel_id");
         return delegate(VoiceState.class, VoiceStateImpl.builder()
                 .catnip(catnip)
                 .guildIdAsLong(guildId == null ? 0 : Long.parseUnsignedLong(guildId))
-                .channelIdAsLong(channelId == null ? 0 : Long.parseUnsignedLong(channelId))
-                .userIdAsLong(Long.parseUnsignedLong(data.getString("user_id")))
+                .channelIdAsLong(snowflake(data, "channel_id", 0))
+                .userIdAsLong(snowflake(data, "user_id"))
                 .sessionId(data.getString("session_id"))
                 .deaf(data.getBoolean("deaf"))
                 .mute(data.getBoolean("mute"))
@@ -792,7 +789,7 @@ public final class EntityBuilder {
         return delegate(VoiceServerUpdate.class, VoiceServerUpdateImpl.builder()
                 .catnip(catnip)
                 .token(data.getString("token"))
-                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id")))
+                .guildIdAsLong(snowflake(data, "guild_id"))
                 .endpoint(data.getString("endpoint"))
                 .build());
     }
@@ -814,7 +811,7 @@ public final class EntityBuilder {
         
         return delegate(CustomEmoji.class, CustomEmojiImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .guildIdAsLong(guildId == null ? 0 : Long.parseUnsignedLong(guildId))
                 .name(data.getString("name"))
                 .roles(toStringList(data.getArray("roles")))
@@ -848,7 +845,7 @@ public final class EntityBuilder {
     public Attachment createAttachment(@Nonnull final JsonObject data) {
         return delegate(Attachment.class, AttachmentImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .fileName(data.getString("filename"))
                 .size(data.getInt("size"))
                 .url(data.getString("url"))
@@ -898,8 +895,8 @@ public final class EntityBuilder {
     public Sticker createSticker(@Nonnull final JsonObject data) {
         return delegate(Sticker.class, StickerImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .packIdAsLong(Long.parseUnsignedLong(data.getString("pack_id")))
+                .idAsLong(snowflake(data, "id"))
+                .packIdAsLong(snowflake(data, "pack_id"))
                 .name(data.getString("name"))
                 .description(data.getString("description"))
                 .tags(data.has("tags") ? List.of(data.getString("tags").split(",")) : List.of())
@@ -919,7 +916,6 @@ public final class EntityBuilder {
         final Member member = memberRaw == null ? null : createMember(data.getString("guild_id"), author, memberRaw);
         
         final String guildId = data.getString("guild_id");
-        final String webhookId = data.getString("webhook_id");
         final JsonObject rawReferencedMessage = data.getObject("referenced_message", null);
         
         final List<Member> mentionedMembers = new ArrayList<>();
@@ -935,8 +931,8 @@ public final class EntityBuilder {
         
         return delegate(Message.class, MessageImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
+                .idAsLong(snowflake(data, "id"))
+                .channelIdAsLong(snowflake(data, "channel_id"))
                 .author(author)
                 .content(data.getString("content"))
                 .timestamp(data.getString("timestamp"))
@@ -955,7 +951,7 @@ public final class EntityBuilder {
                 .type(MessageType.byId(data.getInt("type", MessageType.DEFAULT.id())))
                 .member(member)
                 .guildIdAsLong(guildId == null ? 0 : Long.parseUnsignedLong(guildId))
-                .webhookIdAsLong(webhookId == null ? 0 : Long.parseUnsignedLong(webhookId))
+                .webhookIdAsLong(snowflake(data, "webhook_id", 0))
                 .activity(activity)
                 .application(application)
                 .flagsRaw(data.getInt("flags", 0))
@@ -974,8 +970,8 @@ public final class EntityBuilder {
         } else {
             return delegate(ChannelMention.class, ChannelMentionImpl.builder()
                     .catnip(catnip)
-                    .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                    .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id")))
+                    .idAsLong(snowflake(data, "id"))
+                    .guildIdAsLong(snowflake(data, "guild_id"))
                     .name(data.getString("name"))
                     .type(ChannelType.byKey(data.getInt("type")))
                     .build());
@@ -1013,7 +1009,7 @@ public final class EntityBuilder {
     
     @Nullable
     @CheckReturnValue
-    private MessageReference createMessageReference(@Nullable final JsonObject data) {
+    MessageReference createMessageReference(@Nullable final JsonObject data) {
         if(data == null) {
             return null;
         } else {
@@ -1028,7 +1024,7 @@ public final class EntityBuilder {
     
     @Nullable
     @CheckReturnValue
-    private Member createPartialMemberMention(final String guildId, final JsonObject data) {
+    Member createPartialMemberMention(final String guildId, final JsonObject data) {
         if(data.containsKey("member")) {
             return createMember(guildId, data.getString("id"), data.getObject("member"));
         } else {
@@ -1039,12 +1035,11 @@ public final class EntityBuilder {
     @Nonnull
     @CheckReturnValue
     public MessageEmbedUpdate createMessageEmbedUpdate(final JsonObject data) {
-        final String guildId = data.getString("guild_id");
         return delegate(MessageEmbedUpdate.class, MessageEmbedUpdateImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .guildIdAsLong(guildId == null ? 0 : Long.parseUnsignedLong(guildId))
-                .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
+                .idAsLong(snowflake(data, "id"))
+                .guildIdAsLong(snowflake(data, "guild_id", 0))
+                .channelIdAsLong(snowflake(data, "channel_id"))
                 .embeds(toList(data.getArray("embeds"), this::createEmbed))
                 .build());
     }
@@ -1052,10 +1047,9 @@ public final class EntityBuilder {
     @Nonnull
     @CheckReturnValue
     public GuildEmbed createGuildEmbed(@Nonnull final JsonObject data) {
-        final String channelId = data.getString("channel_id");
         return delegate(GuildEmbed.class, GuildEmbedImpl.builder()
                 .catnip(catnip)
-                .channelIdAsLong(channelId == null ? 0 : Long.parseUnsignedLong(channelId))
+                .channelIdAsLong(snowflake(data, "channel_id", 0))
                 .enabled(data.getBoolean("enabled"))
                 .build());
     }
@@ -1098,23 +1092,19 @@ public final class EntityBuilder {
     @Nonnull
     @CheckReturnValue
     public Guild createGuild(@Nonnull final JsonObject data) {
-        final String afkChannelId = data.getString("afk_channel_id");
-        final String applicationId = data.getString("application_id");
-        final String widgetChannelId = data.getString("widget_channel_id");
-        final String systemChannelId = data.getString("system_channel_id");
         final int maxPresences = data.getInt("max_presences", 5000);
         final int premiumSubscriptionCount = data.getInt("premium_subscription_count", 0);
         return delegate(Guild.class, GuildImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .icon(data.getString("icon"))
                 .splash(data.getString("splash"))
                 .owned(data.getBoolean("owner", false))
-                .ownerIdAsLong(Long.parseUnsignedLong(data.getString("owner_id")))
+                .ownerIdAsLong(snowflake(data, "owner_id"))
                 .permissions(Permission.toSet(Long.parseUnsignedLong(data.getString("permissions", "0"))))
                 .region(data.getString("region"))
-                .afkChannelIdAsLong(afkChannelId == null ? 0 : Long.parseUnsignedLong(afkChannelId))
+                .afkChannelIdAsLong(snowflake(data, "afk_channel_id", 0))
                 .afkTimeout(data.getInt("afk_timeout", 0))
                 .verificationLevel(VerificationLevel.byKey(data.getInt("verification_level", 0)))
                 .defaultMessageNotifications(NotificationLevel.byKey(data.getInt("default_message_notifications", 0)))
@@ -1122,10 +1112,10 @@ public final class EntityBuilder {
                 .features(stringListToTypedList(data.getArray("features"),
                         feature -> GuildFeature.unknownValueOf(catnip, feature)))
                 .mfaLevel(MFALevel.byKey(data.getInt("mfa_level", 0)))
-                .applicationIdAsLong(applicationId == null ? 0 : Long.parseUnsignedLong(applicationId))
+                .applicationIdAsLong(snowflake(data, "application_id", 0))
                 .widgetEnabled(data.getBoolean("widget_enabled", false))
-                .widgetChannelIdAsLong(widgetChannelId == null ? 0 : Long.parseUnsignedLong(widgetChannelId))
-                .systemChannelIdAsLong(systemChannelId == null ? 0 : Long.parseUnsignedLong(systemChannelId))
+                .widgetChannelIdAsLong(snowflake(data, "widget_channel_id", 0))
+                .systemChannelIdAsLong(snowflake(data, "system_channel_id", 0))
                 .joinedAt(data.getString("joined_at"))
                 .large(data.getBoolean("large", false))
                 .unavailable(data.getBoolean("unavailable", false))
@@ -1147,7 +1137,7 @@ public final class EntityBuilder {
     public UnavailableGuild createUnavailableGuild(@Nonnull final JsonObject data) {
         return delegate(UnavailableGuild.class, UnavailableGuildImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .unavailable(data.getBoolean("unavailable"))
                 .build());
     }
@@ -1157,7 +1147,7 @@ public final class EntityBuilder {
     public PartialGuild createPartialGuild(@Nonnull final JsonObject data) {
         return delegate(PartialGuild.class, PartialGuildImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .icon(data.getString("icon"))
                 .owned(data.getBoolean("owner", false))
@@ -1170,7 +1160,7 @@ public final class EntityBuilder {
     public GatewayGuildBan createGatewayGuildBan(@Nonnull final JsonObject data) {
         return delegate(GatewayGuildBan.class, GatewayGuildBanImpl.builder()
                 .catnip(catnip)
-                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id")))
+                .guildIdAsLong(snowflake(data, "guild_id"))
                 .user(createUser(data.getObject("user")))
                 .build());
     }
@@ -1207,12 +1197,12 @@ public final class EntityBuilder {
     public DeletedInvite createDeletedInvite(@Nonnull final JsonObject data) {
         long guildId = 0;
         if(data.has("guild_id")) {
-            guildId = Long.parseUnsignedLong(data.getString("guild_id"));
+            guildId = snowflake(data, "guild_id");
         }
         return delegate(DeletedInvite.class, DeletedInviteImpl.builder()
                 .catnip(catnip)
                 .code(data.getString("code"))
-                .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
+                .channelIdAsLong(snowflake(data, "channel_id"))
                 .guildIdAsLong(guildId)
                 .build());
     }
@@ -1242,7 +1232,7 @@ public final class EntityBuilder {
     public InviteChannel createInviteChannel(@Nonnull final JsonObject data) {
         return delegate(InviteChannel.class, InviteChannelImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .type(ChannelType.byKey(data.getInt("type")))
                 .build());
@@ -1256,7 +1246,7 @@ public final class EntityBuilder {
         }
         return delegate(InviteGuild.class, InviteGuildImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .icon(data.getString("icon"))
                 .splash(data.getString("splash"))
@@ -1271,7 +1261,7 @@ public final class EntityBuilder {
     public Inviter createInviter(@Nonnull final JsonObject data) {
         return delegate(Inviter.class, InviterImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .username(data.getString("username"))
                 .discriminator(data.getString("discriminator"))
                 .avatar(data.getString("avatar"))
@@ -1297,9 +1287,9 @@ public final class EntityBuilder {
     public Webhook createWebhook(@Nonnull final JsonObject data) {
         return delegate(Webhook.class, WebhookImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id")))
-                .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
+                .idAsLong(snowflake(data, "id"))
+                .guildIdAsLong(snowflake(data, "guild_id"))
+                .channelIdAsLong(snowflake(data, "channel_id"))
                 .user(!data.containsKey("user") ? null : createUser(data.getObject("user")))
                 .name(data.getString("name"))
                 .avatar(data.getString("avatar"))
@@ -1310,11 +1300,10 @@ public final class EntityBuilder {
     @Nonnull
     @CheckReturnValue
     public WebhooksUpdate createWebhooksUpdate(@Nonnull final JsonObject data) {
-        final String channelId = data.getString("channel_id");
         return delegate(WebhooksUpdate.class, WebhooksUpdateImpl.builder()
                 .catnip(catnip)
-                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id")))
-                .channelIdAsLong(channelId == null ? 0 : Long.parseUnsignedLong(channelId))
+                .guildIdAsLong(snowflake(data, "guild_id"))
+                .channelIdAsLong(snowflake(data, "channel_id", 0))
                 .build());
     }
     
@@ -1324,8 +1313,8 @@ public final class EntityBuilder {
         final String guildId = data.getString("guild_id");
         return delegate(DeletedMessage.class, DeletedMessageImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
+                .idAsLong(snowflake(data, "id"))
+                .channelIdAsLong(snowflake(data, "channel_id"))
                 .guildIdAsLong(guildId == null ? 0 : Long.parseUnsignedLong(guildId))
                 .build());
     }
@@ -1333,12 +1322,11 @@ public final class EntityBuilder {
     @Nonnull
     @CheckReturnValue
     public BulkDeletedMessages createBulkDeletedMessages(@Nonnull final JsonObject data) {
-        final String guildId = data.getString("guild_id");
         return delegate(BulkDeletedMessages.class, BulkDeletedMessagesImpl.builder()
                 .catnip(catnip)
                 .ids(toStringList(data.getArray("ids")))
-                .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
-                .guildIdAsLong(guildId == null ? 0 : Long.parseUnsignedLong(guildId))
+                .channelIdAsLong(snowflake(data, "channel_id"))
+                .guildIdAsLong(snowflake(data, "guild_id", 0))
                 .build());
     }
     
@@ -1389,7 +1377,7 @@ public final class EntityBuilder {
                     .build());
             case MEMBER_MOVE -> delegate(MemberMoveInfo.class, MemberMoveInfoImpl.builder()
                     .catnip(catnip)
-                    .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
+                    .channelIdAsLong(snowflake(data, "channel_id"))
                     .membersMovedCount(Integer.parseUnsignedInt(data.getString("count")))
                     .build());
             case MEMBER_DISCONNECT -> delegate(MemberDisconnectInfo.class, MemberDisconnectInfoImpl.builder()
@@ -1398,7 +1386,7 @@ public final class EntityBuilder {
                     .build());
             case MESSAGE_DELETE -> delegate(MessageDeleteInfo.class, MessageDeleteInfoImpl.builder()
                     .catnip(catnip)
-                    .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
+                    .channelIdAsLong(snowflake(data, "channel_id"))
                     .deletedMessagesCount(Integer.parseUnsignedInt(data.getString("count")))
                     .build());
             case MESSAGE_BULK_DELETE -> delegate(MessageBulkDeleteInfo.class, MessageBulkDeleteInfoImpl.builder()
@@ -1407,12 +1395,12 @@ public final class EntityBuilder {
                     .build());
             case MESSAGE_PIN, MESSAGE_UNPIN -> delegate(MessagePinInfo.class, MessagePinInfoImpl.builder()
                     .catnip(catnip)
-                    .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id")))
-                    .messageIdAsLong(Long.parseUnsignedLong(data.getString("message_id")))
+                    .channelIdAsLong(snowflake(data, "channel_id"))
+                    .messageIdAsLong(snowflake(data, "message_id"))
                     .build());
             case CHANNEL_OVERWRITE_CREATE, CHANNEL_OVERWRITE_UPDATE, CHANNEL_OVERWRITE_DELETE -> delegate(OverrideUpdateInfo.class, OverrideUpdateInfoImpl.builder()
                     .catnip(catnip)
-                    .overriddenEntityIdAsLong(Long.parseUnsignedLong(data.getString("id")))
+                    .overriddenEntityIdAsLong(snowflake(data, "id"))
                     .overrideType(OverrideType.byKey(data.getInt("type")))
                     .roleName(data.getString("role_name"))
                     .build());
@@ -1425,12 +1413,11 @@ public final class EntityBuilder {
     public AuditLogEntry createAuditLogEntry(@Nonnull final JsonObject data, @Nonnull final Map<String, Webhook> webhooks,
                                              @Nonnull final Map<String, User> users) {
         final ActionType type = ActionType.byKey(data.getInt("action_type"));
-        final String targetId = data.getString("target_id");
         return delegate(AuditLogEntry.class, AuditLogEntryImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .user(users.get(data.getString("user_id")))
-                .targetIdAsLong(targetId == null ? 0 : Long.parseUnsignedLong(targetId))
+                .targetIdAsLong(snowflake(data, "target_id", 0))
                 .webhook(webhooks.get(data.getString("target_id")))
                 .type(type)
                 .reason(data.getString("reason"))
@@ -1456,7 +1443,7 @@ public final class EntityBuilder {
         final JsonObject team = data.getObject("team");
         return delegate(ApplicationInfo.class, ApplicationInfoImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .icon(data.getString("icon"))
                 .description(data.getString("description"))
@@ -1467,7 +1454,7 @@ public final class EntityBuilder {
                 .team(team == null ? null : createTeam(team))
                 .summary(data.getString("summary"))
                 .verifyKey(data.getString("verify_key"))
-                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id", "0")))
+                .guildIdAsLong(snowflake(data, "guild_id", 0))
                 .primarySkuId(data.getString("primary_sku_id"))
                 .slug(data.getString("slug"))
                 .coverImage(data.getString("cover_image"))
@@ -1481,7 +1468,7 @@ public final class EntityBuilder {
         return delegate(ApplicationOwner.class, ApplicationOwnerImpl.builder()
                 .catnip(catnip)
                 .username(data.getString("username"))
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .discriminator(data.getString("discriminator"))
                 .avatar(data.getString("avatar", null))
                 .bot(data.getBoolean("bot", false))
@@ -1493,8 +1480,8 @@ public final class EntityBuilder {
     public Team createTeam(@Nonnull final JsonObject data) {
         return delegate(Team.class, TeamImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .ownerIdAsLong(Long.parseUnsignedLong(data.getString("owner_user_id")))
+                .idAsLong(snowflake(data, "id"))
+                .ownerIdAsLong(snowflake(data, "owner_user_id"))
                 .name(data.getString("name"))
                 .icon(data.getString("icon"))
                 .members(toList(data.getArray("members"), this::createTeamMember))
@@ -1506,7 +1493,7 @@ public final class EntityBuilder {
     public TeamMember createTeamMember(@Nonnull final JsonObject data) {
         return delegate(TeamMember.class, TeamMemberImpl.builder()
                 .catnip(catnip)
-                .teamIdAsLong(Long.parseUnsignedLong(data.getString("team_id")))
+                .teamIdAsLong(snowflake(data, "team_id"))
                 .membershipState(data.getInt("membership_state"))
                 .permissions(toStringList(data.getArray("permissions")))
                 .user(createUser(data.getObject("user")))
@@ -1527,6 +1514,7 @@ public final class EntityBuilder {
                     .totalSessions(sessionStartLimit.getInt("total"))
                     .remainingSessions(sessionStartLimit.getInt("remaining"))
                     .resetAfter(sessionStartLimit.getNumber("reset_after").longValue())
+                    .maxConcurrency(sessionStartLimit.getInt("max_concurrency", 1))
                     .build());
         } else {
             // Invalid data - probably borked token
@@ -1538,6 +1526,7 @@ public final class EntityBuilder {
                     .totalSessions(-1)
                     .remainingSessions(-1)
                     .resetAfter(-1)
+                    .maxConcurrency(-1)
                     .build());
         }
     }
@@ -1547,13 +1536,13 @@ public final class EntityBuilder {
     public ApplicationCommand createApplicationCommand(@Nonnull final JsonObject data) {
         return delegate(ApplicationCommand.class, ApplicationCommandImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .applicationIdAsLong(Long.parseUnsignedLong(data.getString("application_id")))
-                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id", "0")))
+                .idAsLong(snowflake(data, "id"))
+                .applicationIdAsLong(snowflake(data, "application_id"))
+                .guildIdAsLong(snowflake(data, "guild_id", 0))
                 .description(data.getString("description"))
                 .name(data.getString("name"))
                 .options(toList(data.getArray("options"), this::createApplicationCommandOption))
-                .versionAsLong(Long.parseUnsignedLong(data.getString("version")))
+                .versionAsLong(snowflake(data, "version"))
                 .build());
     }
     
@@ -1606,9 +1595,9 @@ public final class EntityBuilder {
                 return delegate(Interaction.class, ApplicationCommandInteractionImpl.builder()
                         .catnip(catnip)
                         // TODO: Nullables
-                        .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id", "0")))
-                        .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id", "0")))
-                        .idAsLong(Long.parseUnsignedLong(data.getString("id", "0")))
+                        .channelIdAsLong(snowflake(data, "channel_id", 0))
+                        .guildIdAsLong(snowflake(data, "guild_id", 0))
+                        .idAsLong(snowflake(data, "id", 0))
                         .token(data.getString("token"))
                         .type(type)
                         .version(data.getInt("version"))
@@ -1641,9 +1630,9 @@ public final class EntityBuilder {
                         return delegate(Interaction.class, ButtonInteractionImpl.builder()
                                 .catnip(catnip)
                                 // TODO: Nullables
-                                .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id", "0")))
-                                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id", "0")))
-                                .idAsLong(Long.parseUnsignedLong(data.getString("id", "0")))
+                                .channelIdAsLong(snowflake(data, "channel_id", 0))
+                                .guildIdAsLong(snowflake(data, "guild_id", 0))
+                                .idAsLong(snowflake(data, "id", 0))
                                 .token(data.getString("token"))
                                 .type(type)
                                 .version(data.getInt("version"))
@@ -1655,9 +1644,9 @@ public final class EntityBuilder {
                         return delegate(Interaction.class, SelectInteractionImpl.builder()
                                 .catnip(catnip)
                                 // TODO: Nullables
-                                .channelIdAsLong(Long.parseUnsignedLong(data.getString("channel_id", "0")))
-                                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id", "0")))
-                                .idAsLong(Long.parseUnsignedLong(data.getString("id", "0")))
+                                .channelIdAsLong(snowflake(data, "channel_id", 0))
+                                .guildIdAsLong(snowflake(data, "guild_id", 0))
+                                .idAsLong(snowflake(data, "id", 0))
                                 .token(data.getString("token"))
                                 .type(type)
                                 .version(data.getInt("version"))
@@ -1677,7 +1666,7 @@ public final class EntityBuilder {
     public ApplicationCommandInteractionData createApplicationCommandInteractionData(@Nonnull final JsonObject data) {
         return delegate(ApplicationCommandInteractionData.class, ApplicationCommandInteractionDataImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id", "0")))
+                .idAsLong(snowflake(data, "id", 0))
                 .name(data.getString("name"))
                 .options(toList(data.getArray("options"), this::createApplicationCommandInteractionDataOption))
                 .build());
@@ -1712,11 +1701,11 @@ public final class EntityBuilder {
                 .name(data.getString("name"))
                 .description(data.getString("description"))
                 .usageCount(data.getInt("usage_count"))
-                .creatorIdAsLong(Long.parseUnsignedLong(data.getString("creator_id")))
+                .creatorIdAsLong(snowflake(data, "creator_id"))
                 .creator(createUser(data.getObject("creator")))
                 .createdAtString(data.getString("created_at"))
                 .updatedAtString(data.getString("updated_at"))
-                .sourceGuildIdAsLong(Long.parseUnsignedLong(data.getString("source_guild_id")))
+                .sourceGuildIdAsLong(snowflake(data, "source_guild_id"))
                 .serializedSourceGuild(createGuild(data.getObject("serialized_source_guild")))
                 .dirty(data.getBoolean("is_dirty"))
                 .build());
@@ -1729,8 +1718,8 @@ public final class EntityBuilder {
         return delegate(ThreadChannel.class, ThreadChannelImpl.builder()
                 .catnip(catnip)
                 .type(ChannelType.byKey(data.getInt("type")))
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .ownerIdAsLong(Long.parseUnsignedLong(data.getString("owner_id")))
+                .idAsLong(snowflake(data, "id"))
+                .ownerIdAsLong(snowflake(data, "owner_id"))
                 .name(data.getString("name"))
                 .guildIdAsLong(Long.parseUnsignedLong(guildId))
                 .position(data.getInt("position", -1))
@@ -1751,8 +1740,8 @@ public final class EntityBuilder {
     public ThreadMember createThreadMember(@Nonnull final JsonObject data) {
         return delegate(ThreadMember.class, ThreadMemberImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .userIdAsLong(Long.parseUnsignedLong(data.getString("user_id")))
+                .idAsLong(snowflake(data, "id"))
+                .userIdAsLong(snowflake(data, "user_id"))
                 .joinedAt(data.getString("joined_at"))
                 .build());
     }
@@ -1765,7 +1754,7 @@ public final class EntityBuilder {
                 .archiveTimestamp(data.getString("archive_timestamp"))
                 .autoArchiveDuration(data.getInt("auto_archive_duration"))
                 .locked(data.getBoolean("locked"))
-                .archiverIdAsLong(Long.parseUnsignedLong(data.getString("archiver_id", "0")))
+                .archiverIdAsLong(snowflake(data, "archiver_id", 0))
                 .build());
     }
     
@@ -1774,9 +1763,9 @@ public final class EntityBuilder {
     public DeletedThread createDeletedThread(@Nonnull final JsonObject data) {
         return delegate(DeletedThread.class, DeletedThreadImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id")))
-                .parentIdAsLong(Long.parseUnsignedLong(data.getString("parent_id")))
+                .idAsLong(snowflake(data, "id"))
+                .guildIdAsLong(snowflake(data, "guild_id"))
+                .parentIdAsLong(snowflake(data, "parent_id"))
                 .type(ChannelType.byKey(data.getInt("id")))
                 .build());
     }
@@ -1797,8 +1786,8 @@ public final class EntityBuilder {
     @CheckReturnValue
     public ThreadMembersUpdate createThreadMembersUpdate(@Nonnull final JsonObject data) {
         return delegate(ThreadMembersUpdate.class, ThreadMembersUpdateImpl.builder()
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
-                .guildIdAsLong(Long.parseUnsignedLong(data.getString("guild_id")))
+                .idAsLong(snowflake(data, "id"))
+                .guildIdAsLong(snowflake(data, "guild_id"))
                 .memberCount(data.getInt("member_count"))
                 .addedMembers(toList(data.getArray("added_members", new JsonArray()), this::createThreadMember))
                 .removedMembers(toStringList(data.getArray("removed_members", new JsonArray())))
@@ -1808,14 +1797,13 @@ public final class EntityBuilder {
     @Nonnull
     @CheckReturnValue
     public StageChannel createStageChannel(@Nonnull final String guildId, @Nonnull final JsonObject data) {
-        final String parentId = data.getString("parent_id");
         return delegate(StageChannel.class, StageChannelImpl.builder()
                 .catnip(catnip)
-                .idAsLong(Long.parseUnsignedLong(data.getString("id")))
+                .idAsLong(snowflake(data, "id"))
                 .name(data.getString("name"))
                 .guildIdAsLong(Long.parseUnsignedLong(guildId))
                 .position(data.getInt("position", -1))
-                .parentIdAsLong(parentId == null ? 0 : Long.parseUnsignedLong(parentId))
+                .parentIdAsLong(snowflake(data, "parent_id", 0))
                 .overrides(toList(data.getArray("permission_overwrites"), this::createPermissionOverride))
                 .bitrate(data.getInt("bitrate", 0))
                 .userLimit(data.getInt("user_limit", 0))
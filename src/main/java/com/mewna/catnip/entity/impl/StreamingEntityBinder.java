@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.entity.impl;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.entity.Entity;
+import com.mewna.catnip.entity.guild.Guild;
+import com.mewna.catnip.entity.guild.Guild.*;
+import com.mewna.catnip.entity.guild.GuildFeature;
+import com.mewna.catnip.entity.guild.Member;
+import com.mewna.catnip.entity.impl.guild.GuildImpl;
+import com.mewna.catnip.entity.impl.guild.MemberImpl;
+import com.mewna.catnip.entity.impl.guild.MemberImpl.MemberImplBuilder;
+import com.mewna.catnip.entity.impl.message.MessageImpl;
+import com.mewna.catnip.entity.impl.user.UserImpl;
+import com.mewna.catnip.entity.message.Message;
+import com.mewna.catnip.entity.message.MessageType;
+import com.mewna.catnip.entity.user.User;
+import com.mewna.catnip.entity.user.UserFlag;
+import com.mewna.catnip.entity.util.Permission;
+import com.mewna.catnip.util.JsonTokenReader;
+import com.mewna.catnip.util.SnowflakeSet;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+import static com.mewna.catnip.shard.DiscordEvent.Raw;
+import static com.mewna.catnip.util.JsonUtil.toList;
+
+/**
+ * Binds entities straight from a {@link JsonTokenReader}, rather than from the
+ * {@link JsonObject} tree that {@link EntityBuilder} works on. Ids, names,
+ * timestamps, authors, members, and role lists are read token by token, and
+ * anything the entity doesn't use - like the channels and members of a
+ * {@code GUILD_CREATE} - is skipped without being parsed. Rarer subtrees like
+ * embeds and attachments are still read into {@link JsonObject}s and handed
+ * to the {@link EntityBuilder}, so that bound entities are identical to built
+ * ones.
+ * <p/>
+ * Binders hold no state of their own, so one binder can be shared by every
+ * shard. The readers passed to them can't be, though.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public final class StreamingEntityBinder {
+    /**
+     * The events whose entities {@link #bindDispatch(String, JsonTokenReader)}
+     * can bind.
+     */
+    public static final Set<String> SUPPORTED_EVENTS = Set.of(
+            Raw.MESSAGE_CREATE, Raw.MESSAGE_UPDATE, Raw.GUILD_CREATE
+    );
+    private static final long[] NO_IDS = new long[0];
+    
+    private final Catnip catnip;
+    
+    public StreamingEntityBinder(@Nonnull final Catnip catnip) {
+        this.catnip = catnip;
+    }
+    
+    /**
+     * Binds the entity of a gateway dispatch.
+     *
+     * @param type   The type of the dispatch, ie. its {@code t} field.
+     * @param reader A reader at the start of the whole payload.
+     *
+     * @return The entity that would be emitted for the dispatch, or
+     * {@code null} if it couldn't be bound and has to be parsed normally.
+     */
+    @Nullable
+    @CheckReturnValue
+    public Entity bindDispatch(@Nonnull final String type, @Nonnull final JsonTokenReader reader) {
+        if(!SUPPORTED_EVENTS.contains(type)) {
+            return null;
+        }
+        Entity entity = null;
+        reader.beginObject();
+        String key;
+        while((key = reader.nextKey()) != null) {
+            if(key.equals("d") && !reader.nextNull()) {
+                entity = type.equals(Raw.GUILD_CREATE) ? bindGuild(reader) : bindMessage(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        if(entity instanceof Message message && message.author() == null) {
+            // Embed-only updates are emitted as MESSAGE_EMBEDS_UPDATE instead
+            return null;
+        }
+        return entity;
+    }
+    
+    @Nonnull
+    @CheckReturnValue
+    public User bindUser(@Nonnull final JsonTokenReader reader) {
+        final UserImpl.UserImplBuilder builder = UserImpl.builder()
+                .catnip(catnip)
+                .publicFlags(UserFlag.toSet(0));
+        reader.beginObject();
+        String key;
+        while((key = reader.nextKey()) != null) {
+            switch(key) {
+                case "id" -> builder.idAsLong(reader.nextSnowflake());
+                case "username" -> builder.username(reader.nextString());
+                case "discriminator" -> builder.discriminator(reader.nextString());
+                case "avatar" -> builder.avatar(reader.nextString());
+                case "bot" -> builder.bot(nextBoolean(reader, false));
+                case "public_flags" -> builder.publicFlags(UserFlag.toSet(nextInt(reader, 0)));
+                case "accent_color" -> builder.accentColor(nextInt(reader, 0));
+                case "banner" -> builder.banner(reader.nextString());
+                default -> reader.skipValue();
+            }
+        }
+        return delegate(User.class, builder.build());
+    }
+    
+    /**
+     * Binds a member that comes with its user, such as in
+     * {@code GUILD_MEMBER_ADD}. The user is cached the same way
+     * {@link EntityBuilder#createMember(String, String, JsonObject)} does.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public Member bindMember(final long guildId, @Nonnull final JsonTokenReader reader) {
+        final BoundMember member = readMember(reader);
+        if(member.user() == null) {
+            throw new IllegalStateException("Member has no user");
+        }
+        return finishMember(member, guildId, member.user().idAsLong());
+    }
+    
+    @Nonnull
+    @CheckReturnValue
+    public Message bindMessage(@Nonnull final JsonTokenReader reader) {
+        final MessageImpl.MessageImplBuilder builder = MessageImpl.builder()
+                .catnip(catnip)
+                .type(MessageType.DEFAULT)
+                .mentionedRoleIds(List.of())
+                .attachments(List.of())
+                .embeds(List.of())
+                .stickers(List.of());
+        User author = null;
+        BoundMember member = null;
+        long guildId = 0;
+        Object nonce = null;
+        JsonArray mentions = null;
+        JsonArray reactions = null;
+        JsonArray mentionChannels = null;
+        
+        reader.beginObject();
+        String key;
+        while((key = reader.nextKey()) != null) {
+            switch(key) {
+                case "id" -> builder.idAsLong(reader.nextSnowflake());
+                case "channel_id" -> builder.channelIdAsLong(reader.nextSnowflake());
+                case "guild_id" -> guildId = reader.nextSnowflake();
+                case "webhook_id" -> builder.webhookIdAsLong(reader.nextSnowflake());
+                case "author" -> author = reader.nextNull() ? null : bindUser(reader);
+                case "member" -> member = reader.nextNull() ? null : readMember(reader);
+                case "content" -> builder.content(reader.nextString());
+                case "timestamp" -> builder.timestamp(reader.nextString());
+                case "edited_timestamp" -> builder.editedTimestamp(reader.nextString());
+                case "tts" -> builder.tts(nextBoolean(reader, false));
+                case "mention_everyone" -> builder.mentionsEveryone(nextBoolean(reader, false));
+                case "pinned" -> builder.pinned(nextBoolean(reader, false));
+                case "type" -> builder.type(MessageType.byId(nextInt(reader, MessageType.DEFAULT.id())));
+                case "flags" -> builder.flagsRaw(nextInt(reader, 0));
+                case "nonce" -> nonce = reader.readValue();
+                case "mention_roles" -> builder.mentionedRoleIds(List.copyOf(nextStrings(reader, new ArrayList<>())));
+                // Mentions and reactions need the guild id, which usually comes last
+                case "mentions" -> mentions = reader.readArray();
+                case "reactions" -> reactions = reader.readArray();
+                case "mention_channels" -> mentionChannels = reader.readArray();
+                case "attachments" -> builder.attachments(toList(reader.readArray(), catnip.entityBuilder()::createAttachment));
+                case "embeds" -> builder.embeds(toList(reader.readArray(), catnip.entityBuilder()::createEmbed));
+                case "stickers" -> builder.stickers(toList(reader.readArray(), catnip.entityBuilder()::createSticker));
+                case "activity" -> builder.activity(catnip.entityBuilder().createMessageActivity(reader.readObject()));
+                case "application" -> builder.application(catnip.entityBuilder().createMessageApplication(reader.readObject()));
+                case "message_reference" -> builder.messageReference(catnip.entityBuilder().createMessageReference(reader.readObject()));
+                case "referenced_message" -> builder.referencedMessage(reader.nextNull() ? null : bindMessage(reader));
+                default -> reader.skipValue();
+            }
+        }
+        
+        final String guild = guildId == 0 ? null : Long.toUnsignedString(guildId);
+        final List<Member> mentionedMembers = new ArrayList<>();
+        if(guild != null) {
+            mentionedMembers.addAll(toList(mentions, o -> catnip.entityBuilder().createPartialMemberMention(guild, o)));
+        }
+        return delegate(Message.class, builder
+                .author(author)
+                .member(member == null || author == null ? null : finishMember(member, guildId, author.idAsLong()))
+                .guildIdAsLong(guildId)
+                .nonce(String.valueOf(nonce))
+                .mentionedUsers(toList(mentions, catnip.entityBuilder()::createUser))
+                .mentionedMembers(mentionedMembers)
+                .mentionedChannels(toList(mentionChannels, catnip.entityBuilder()::createChannelMention))
+                .reactions(toList(reactions, e -> catnip.entityBuilder().createReaction(guild, e)))
+                .build());
+    }
+    
+    @Nonnull
+    @CheckReturnValue
+    public Guild bindGuild(@Nonnull final JsonTokenReader reader) {
+        final GuildImpl.GuildImplBuilder builder = GuildImpl.builder()
+                .catnip(catnip)
+                .permissions(Permission.toSet(0))
+                .verificationLevel(VerificationLevel.byKey(0))
+                .defaultMessageNotifications(NotificationLevel.byKey(0))
+                .explicitContentFilter(ContentFilterLevel.byKey(0))
+                .features(List.of())
+                .mfaLevel(MFALevel.byKey(0))
+                .maxPresences(5000)
+                .premiumTier(PremiumTier.byKey(0));
+        reader.beginObject();
+        String key;
+        while((key = reader.nextKey()) != null) {
+            switch(key) {
+                case "id" -> builder.idAsLong(reader.nextSnowflake());
+                case "name" -> builder.name(reader.nextString());
+                case "icon" -> builder.icon(reader.nextString());
+                case "splash" -> builder.splash(reader.nextString());
+                case "owner" -> builder.owned(nextBoolean(reader, false));
+                case "owner_id" -> builder.ownerIdAsLong(reader.nextSnowflake());
+                case "permissions" -> builder.permissions(Permission.toSet(reader.nextSnowflake()));
+                case "region" -> builder.region(reader.nextString());
+                case "afk_channel_id" -> builder.afkChannelIdAsLong(reader.nextSnowflake());
+                case "afk_timeout" -> builder.afkTimeout(nextInt(reader, 0));
+                case "verification_level" -> builder.verificationLevel(VerificationLevel.byKey(nextInt(reader, 0)));
+                case "default_message_notifications" -> builder.defaultMessageNotifications(NotificationLevel.byKey(nextInt(reader, 0)));
+                case "explicit_content_filter" -> builder.explicitContentFilter(ContentFilterLevel.byKey(nextInt(reader, 0)));
+                case "features" -> {
+                    final List<GuildFeature> features = new ArrayList<>();
+                    for(final String feature : nextStrings(reader, new ArrayList<>())) {
+                        features.add(GuildFeature.unknownValueOf(catnip, feature));
+                    }
+                    builder.features(List.copyOf(features));
+                }
+                case "mfa_level" -> builder.mfaLevel(MFALevel.byKey(nextInt(reader, 0)));
+                case "application_id" -> builder.applicationIdAsLong(reader.nextSnowflake());
+                case "widget_enabled" -> builder.widgetEnabled(nextBoolean(reader, false));
+                case "widget_channel_id" -> builder.widgetChannelIdAsLong(reader.nextSnowflake());
+                case "system_channel_id" -> builder.systemChannelIdAsLong(reader.nextSnowflake());
+                case "joined_at" -> builder.joinedAt(reader.nextString());
+                case "large" -> builder.large(nextBoolean(reader, false));
+                case "unavailable" -> builder.unavailable(nextBoolean(reader, false));
+                case "max_presences" -> builder.maxPresences(nextInt(reader, 5000));
+                case "max_members" -> builder.maxMembers(nextInt(reader, 0));
+                case "approximate_member_count" -> builder.approximateMemberCount(nextInt(reader, 0));
+                case "approximate_presence_count" -> builder.approximatePresenceCount(nextInt(reader, 0));
+                case "vanity_url_code" -> builder.vanityUrlCode(reader.nextString());
+                case "description" -> builder.description(reader.nextString());
+                case "banner" -> builder.banner(reader.nextString());
+                case "premium_tier" -> builder.premiumTier(PremiumTier.byKey(nextInt(reader, 0)));
+                case "premium_subscription_count" -> builder.premiumSubscriptionCount(nextInt(reader, 0));
+                case "preferred_locale" -> builder.preferredLocale(reader.nextString());
+                // Channels, members, presences, etc. are only of interest to the cache
+                default -> reader.skipValue();
+            }
+        }
+        return delegate(Guild.class, builder.build());
+    }
+    
+    private BoundMember readMember(final JsonTokenReader reader) {
+        final MemberImplBuilder builder = MemberImpl.builder()
+                .catnip(catnip)
+                .roleIdsAsLong(NO_IDS);
+        User user = null;
+        reader.beginObject();
+        String key;
+        while((key = reader.nextKey()) != null) {
+            switch(key) {
+                case "user" -> user = reader.nextNull() ? null : bindUser(reader);
+                case "nick" -> builder.nick(reader.nextString());
+                case "roles" -> builder.roleIdsAsLong(nextSnowflakes(reader));
+                case "joined_at" -> builder.joinedAt(reader.nextString());
+                case "premium_since" -> builder.premiumSince(reader.nextString());
+                case "avatar" -> builder.avatarHash(reader.nextString());
+                default -> reader.skipValue();
+            }
+        }
+        return new BoundMember(builder, user);
+    }
+    
+    private Member finishMember(final BoundMember member, final long guildId, final long userId) {
+        if(member.user() != null) {
+            final int shards = catnip.shardManager().shardCount();
+            final int shardMod = shards == 0 ? 1 : shards;
+            catnip.cacheWorker().bulkCacheUsers(
+                    (int) ((guildId >> 22) % shardMod),
+                    Collections.singletonList(member.user()));
+        }
+        return delegate(Member.class, member.builder()
+                .idAsLong(userId)
+                .guildIdAsLong(guildId)
+                .build());
+    }
+    
+    private <T, R extends T> R delegate(@Nonnull final Class<T> type, @Nonnull final T data) {
+        return catnip.options().entityDelegator().delegate(type, data);
+    }
+    
+    private static <C extends Collection<String>> C nextStrings(final JsonTokenReader reader, final C into) {
+        if(reader.nextNull()) {
+            return into;
+        }
+        reader.beginArray();
+        while(reader.hasNext()) {
+            into.add(reader.nextString());
+        }
+        return into;
+    }
+    
+    /**
+     * @return The sorted, unique ids in the next array.
+     */
+    private static long[] nextSnowflakes(final JsonTokenReader reader) {
+        if(reader.nextNull()) {
+            return NO_IDS;
+        }
+        long[] ids = new long[8];
+        int length = 0;
+        reader.beginArray();
+        while(reader.hasNext()) {
+            if(length == ids.length) {
+                ids = Arrays.copyOf(ids, length * 2);
+            }
+            ids[length++] = reader.nextSnowflake();
+        }
+        return SnowflakeSet.sortedIds(ids, length);
+    }
+    
+    private static boolean nextBoolean(final JsonTokenReader reader, final boolean defaultValue) {
+        return reader.nextNull() ? defaultValue : reader.nextBoolean();
+    }
+    
+    private static int nextInt(final JsonTokenReader reader, final int defaultValue) {
+        return reader.nextNull() ? defaultValue : reader.nextInt();
+    }
+    
+    /**
+     * A member whose guild isn't known yet, since messages send their guild id
+     * after their member.
+     */
+    @Accessors(fluent = true)
+    @AllArgsConstructor
+    private static final class BoundMember {
+        @Getter
+        private final MemberImplBuilder builder;
+        @Getter
+        @Nullable
+        private final User user;
+    }
+}
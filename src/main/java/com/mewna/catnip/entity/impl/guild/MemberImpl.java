@@ -31,12 +31,15 @@ import com.mewna.catnip.Catnip;
 import com.mewna.catnip.entity.RequiresCatnip;
 import com.mewna.catnip.entity.partials.Timestamped;
 import com.mewna.catnip.entity.guild.Member;
+import com.mewna.catnip.util.SnowflakeSet;
+import com.mewna.catnip.util.Utils;
 import lombok.*;
 import lombok.experimental.Accessors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -48,28 +51,97 @@ import java.util.Set;
 @Builder
 @Accessors(fluent = true)
 @NoArgsConstructor
-@AllArgsConstructor
 public class MemberImpl implements Member, RequiresCatnip, Timestamped {
     private transient Catnip catnip;
     
     private long idAsLong;
     private long guildIdAsLong;
     private String nick;
-    private Set<String> roleIds;
-    private String joinedAt;
-    private String premiumSince;
+    /**
+     * The member's role ids, sorted. Shared with every view handed out by
+     * {@link #roleIds()}, so it's copied on the way in and out rather than
+     * exposed by the generated accessors.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long[] roleIdsAsLong;
+    private long joinedAtMicros;
+    private long premiumSinceMicros;
     private String avatarHash;
     
+    public MemberImpl(final Catnip catnip, final long idAsLong, final long guildIdAsLong, final String nick,
+                      final long[] roleIdsAsLong, final long joinedAtMicros, final long premiumSinceMicros,
+                      final String avatarHash) {
+        this.catnip = catnip;
+        this.idAsLong = idAsLong;
+        this.guildIdAsLong = guildIdAsLong;
+        this.nick = nick;
+        this.roleIdsAsLong = sortedCopy(roleIdsAsLong);
+        this.joinedAtMicros = joinedAtMicros;
+        this.premiumSinceMicros = premiumSinceMicros;
+        this.avatarHash = avatarHash;
+    }
+    
+    /**
+     * The all-args constructor from before role ids and timestamps were
+     * stored as primitives. Converts them the same way the builder does.
+     */
+    public MemberImpl(final Catnip catnip, final long idAsLong, final long guildIdAsLong, final String nick,
+                      final Set<String> roleIds, final String joinedAt, final String premiumSince,
+                      final String avatarHash) {
+        this(catnip, idAsLong, guildIdAsLong, nick, roleIds == null ? null : SnowflakeSet.sortedIds(roleIds),
+                Utils.epochMicros(joinedAt), Utils.epochMicros(premiumSince), avatarHash);
+    }
+    
     @Nonnull
     @Override
+    public Set<String> roleIds() {
+        return roleIdsAsLong == null ? Set.of() : SnowflakeSet.of(roleIdsAsLong);
+    }
+    
+    @Nullable
+    @Override
     public OffsetDateTime joinedAt() {
-        return parseTimestamp(joinedAt);
+        return Utils.fromEpochMicros(joinedAtMicros);
     }
     
     @Nullable
     @Override
     public OffsetDateTime premiumSince() {
-        return premiumSince == null ? null : parseTimestamp(premiumSince);
+        return Utils.fromEpochMicros(premiumSinceMicros);
+    }
+    
+    /**
+     * @return A copy of the member's role ids, sorted.
+     */
+    @Nullable
+    public long[] roleIdsAsLong() {
+        return roleIdsAsLong == null ? null : roleIdsAsLong.clone();
+    }
+    
+    public MemberImpl roleIdsAsLong(@Nullable final long[] roleIdsAsLong) {
+        this.roleIdsAsLong = sortedCopy(roleIdsAsLong);
+        return this;
+    }
+    
+    public MemberImpl roleIds(@Nonnull final Set<String> roleIds) {
+        roleIdsAsLong = SnowflakeSet.sortedIds(roleIds);
+        return this;
+    }
+    
+    public MemberImpl joinedAt(@Nullable final String joinedAt) {
+        joinedAtMicros = Utils.epochMicros(joinedAt);
+        return this;
+    }
+    
+    public MemberImpl premiumSince(@Nullable final String premiumSince) {
+        premiumSinceMicros = Utils.epochMicros(premiumSince);
+        return this;
+    }
+    
+    @Nullable
+    private static long[] sortedCopy(@Nullable final long[] ids) {
+        return ids == null ? null : SnowflakeSet.sortedIds(ids.clone(), ids.length);
     }
     
     @Override
@@ -91,4 +163,18 @@ public class MemberImpl implements Member, RequiresCatnip, Timestamped {
     public String toString() {
         return String.format("Member (%s, %s)", idAsLong, effectiveName());
     }
+    
+    public static class MemberImplBuilder {
+        public MemberImplBuilder roleIds(@Nonnull final Collection<String> roleIds) {
+            return roleIdsAsLong(SnowflakeSet.sortedIds(roleIds));
+        }
+        
+        public MemberImplBuilder joinedAt(@Nullable final String joinedAt) {
+            return joinedAtMicros(Utils.epochMicros(joinedAt));
+        }
+        
+        public MemberImplBuilder premiumSince(@Nullable final String premiumSince) {
+            return premiumSinceMicros(Utils.epochMicros(premiumSince));
+        }
+    }
 }
@@ -53,6 +53,7 @@ public class GatewayInfoImpl implements GatewayInfo, RequiresCatnip {
     private int totalSessions;
     private int remainingSessions;
     private long resetAfter;
+    private int maxConcurrency;
     private boolean valid;
     
     @Override
@@ -53,4 +53,14 @@ public interface GatewayInfo extends Entity {
     
     @Nonnegative
     long resetAfter();
+    
+    /**
+     * How many shards may identify at once. Shards are grouped into buckets
+     * by {@code shard_id % max_concurrency}, and each bucket may identify
+     * once every 5 seconds. This is 1 for all but very large bots.
+     *
+     * @return The number of shards that may identify at once.
+     */
+    @Nonnegative
+    int maxConcurrency();
 }
@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.entity.serialization;
+
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.entity.Entity;
+import com.mewna.catnip.entity.RequiresCatnip;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A compact binary {@link EntitySerializer}. Entities are written field by
+ * field, in a fixed order, straight from their implementation classes:
+ * primitive fields take exactly their own size, and everything else is
+ * written behind a one-byte type tag. Class names are only written the
+ * first time a class is seen, after which they're referred to by index.
+ * <p>
+ * This is meant for short-lived storage within one catnip version, like
+ * cache snapshots, rather than for interchange. {@link #serialize(Entity)}
+ * prefixes its output with {@link #FORMAT_VERSION}, but there's no attempt
+ * to read data written by a catnip version with different entity classes.
+ * Only classes in catnip's own packages can be deserialized. Fields
+ * holding the catnip instance aren't serialized; deserialized entities get
+ * the instance given to {@link #catnip(Catnip)} instead.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public final class BinaryEntitySerializer implements EntitySerializer<byte[]> {
+    public static final int FORMAT_VERSION = 1;
+    
+    private static final String ALLOWED_PACKAGE = "com.mewna.catnip.";
+    
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int INT = 2;
+    private static final int LONG = 3;
+    private static final int BOOLEAN = 4;
+    private static final int DOUBLE = 5;
+    private static final int FLOAT = 6;
+    private static final int SHORT = 7;
+    private static final int BYTE = 8;
+    private static final int CHAR = 9;
+    private static final int ENUM = 10;
+    private static final int LIST = 11;
+    private static final int SET = 12;
+    private static final int LONG_ARRAY = 13;
+    private static final int OBJECT = 14;
+    
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(final Class<?> type) {
+            return new Layout(type);
+        }
+    };
+    
+    private Catnip catnip;
+    
+    @Override
+    public void catnip(@Nonnull final Catnip catnip) {
+        this.catnip = catnip;
+    }
+    
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    public byte[] serialize(@Nonnull final Entity entity) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try(final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            new EntityWriter(out).write(entity);
+        } catch(final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    public <E extends Entity> E deserialize(@Nonnull final byte[] data, @Nonnull final Class<E> as) {
+        try(final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            final int version = in.readUnsignedByte();
+            if(version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported entity format version " + version);
+            }
+            final E entity = new EntityReader(in, catnip).read(as);
+            if(entity == null) {
+                throw new IllegalArgumentException("Data holds a null entity");
+            }
+            return entity;
+        } catch(final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Writes entities to a stream. Classes are only named once per writer,
+     * so writing many entities with one writer is more compact than
+     * serializing each of them on its own. They have to be read back with
+     * a single {@link EntityReader}, in the same order.
+     */
+    public static final class EntityWriter {
+        private final DataOutput out;
+        private final Map<Class<?>, Integer> classes = new HashMap<>();
+        
+        public EntityWriter(@Nonnull final DataOutput out) {
+            this.out = out;
+        }
+        
+        public void write(@Nullable final Entity entity) throws IOException {
+            writeValue(entity);
+        }
+        
+        private void writeValue(@Nullable final Object value) throws IOException {
+            if(value == null) {
+                out.writeByte(NULL);
+            } else if(value instanceof String string) {
+                out.writeByte(STRING);
+                writeString(string);
+            } else if(value instanceof Integer i) {
+                out.writeByte(INT);
+                out.writeInt(i);
+            } else if(value instanceof Long l) {
+                out.writeByte(LONG);
+                out.writeLong(l);
+            } else if(value instanceof Boolean b) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(b);
+            } else if(value instanceof Double d) {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            } else if(value instanceof Float f) {
+                out.writeByte(FLOAT);
+                out.writeFloat(f);
+            } else if(value instanceof Short s) {
+                out.writeByte(SHORT);
+                out.writeShort(s);
+            } else if(value instanceof Byte b) {
+                out.writeByte(BYTE);
+                out.writeByte(b);
+            } else if(value instanceof Character c) {
+                out.writeByte(CHAR);
+                out.writeChar(c);
+            } else if(value instanceof Enum<?> e) {
+                out.writeByte(ENUM);
+                writeClass(e.getDeclaringClass());
+                writeString(e.name());
+            } else if(value instanceof List<?> list) {
+                out.writeByte(LIST);
+                writeElements(list);
+            } else if(value instanceof Set<?> set) {
+                out.writeByte(SET);
+                writeElements(set);
+            } else if(value instanceof long[] array) {
+                out.writeByte(LONG_ARRAY);
+                out.writeInt(array.length);
+                for(final long l : array) {
+                    out.writeLong(l);
+                }
+            } else {
+                out.writeByte(OBJECT);
+                writeObject(value);
+            }
+        }
+        
+        private void writeElements(final Collection<?> collection) throws IOException {
+            out.writeInt(collection.size());
+            for(final Object o : collection) {
+                writeValue(o);
+            }
+        }
+        
+        private void writeObject(final Object value) throws IOException {
+            final Class<?> type = value.getClass();
+            if(!type.getName().startsWith(ALLOWED_PACKAGE)) {
+                throw new IllegalArgumentException("Cannot serialize values of type " + type.getName());
+            }
+            writeClass(type);
+            for(final Field field : LAYOUTS.get(type).fields) {
+                try {
+                    final Class<?> fieldType = field.getType();
+                    if(fieldType == long.class) {
+                        out.writeLong(field.getLong(value));
+                    } else if(fieldType == int.class) {
+                        out.writeInt(field.getInt(value));
+                    } else if(fieldType == boolean.class) {
+                        out.writeBoolean(field.getBoolean(value));
+                    } else if(fieldType == double.class) {
+                        out.writeDouble(field.getDouble(value));
+                    } else if(fieldType == float.class) {
+                        out.writeFloat(field.getFloat(value));
+                    } else if(fieldType == short.class) {
+                        out.writeShort(field.getShort(value));
+                    } else if(fieldType == byte.class) {
+                        out.writeByte(field.getByte(value));
+                    } else if(fieldType == char.class) {
+                        out.writeChar(field.getChar(value));
+                    } else {
+                        writeValue(field.get(value));
+                    }
+                } catch(final IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot read field " + field, e);
+                }
+            }
+        }
+        
+        private void writeClass(final Class<?> type) throws IOException {
+            final Integer index = classes.get(type);
+            if(index != null) {
+                out.writeShort(index);
+            } else {
+                final int next = classes.size();
+                classes.put(type, next);
+                out.writeShort(next);
+                writeString(type.getName());
+            }
+        }
+        
+        private void writeString(final String string) throws IOException {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+    
+    /**
+     * Reads entities written by an {@link EntityWriter}.
+     */
+    public static final class EntityReader {
+        private final DataInput in;
+        private final Catnip catnip;
+        private final List<Class<?>> classes = new ArrayList<>();
+        
+        /**
+         * @param in     The stream to read from.
+         * @param catnip The catnip instance to give entities that
+         *               {@link RequiresCatnip}, if any.
+         */
+        public EntityReader(@Nonnull final DataInput in, @Nullable final Catnip catnip) {
+            this.in = in;
+            this.catnip = catnip;
+        }
+        
+        @Nullable
+        public <E extends Entity> E read(@Nonnull final Class<E> as) throws IOException {
+            final Object value = readValue();
+            if(value != null && !as.isInstance(value)) {
+                throw new IllegalStateException("Expected " + as.getName() + ", but read " + value.getClass().getName());
+            }
+            return as.cast(value);
+        }
+        
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readValue() throws IOException {
+            final int tag = in.readUnsignedByte();
+            return switch(tag) {
+                case NULL -> null;
+                case STRING -> readString();
+                case INT -> in.readInt();
+                case LONG -> in.readLong();
+                case BOOLEAN -> in.readBoolean();
+                case DOUBLE -> in.readDouble();
+                case FLOAT -> in.readFloat();
+                case SHORT -> in.readShort();
+                case BYTE -> in.readByte();
+                case CHAR -> in.readChar();
+                case ENUM -> Enum.valueOf((Class) readClass(), readString());
+                case LIST -> readElements(new ArrayList<>());
+                case SET -> readElements(new HashSet<>());
+                case LONG_ARRAY -> {
+                    final long[] array = new long[in.readInt()];
+                    for(int i = 0; i < array.length; i++) {
+                        array[i] = in.readLong();
+                    }
+                    yield array;
+                }
+                case OBJECT -> readObject();
+                default -> throw new IllegalStateException("Unknown value tag " + tag);
+            };
+        }
+        
+        private Collection<Object> readElements(final Collection<Object> collection) throws IOException {
+            final int size = in.readInt();
+            for(int i = 0; i < size; i++) {
+                collection.add(readValue());
+            }
+            return collection;
+        }
+        
+        private Object readObject() throws IOException {
+            final Layout layout = LAYOUTS.get(readClass());
+            final Object value;
+            try {
+                value = layout.constructor.newInstance();
+            } catch(final InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Cannot create " + layout.constructor.getDeclaringClass().getName(), e);
+            }
+            for(final Field field : layout.fields) {
+                try {
+                    final Class<?> fieldType = field.getType();
+                    if(fieldType == long.class) {
+                        field.setLong(value, in.readLong());
+                    } else if(fieldType == int.class) {
+                        field.setInt(value, in.readInt());
+                    } else if(fieldType == boolean.class) {
+                        field.setBoolean(value, in.readBoolean());
+                    } else if(fieldType == double.class) {
+                        field.setDouble(value, in.readDouble());
+                    } else if(fieldType == float.class) {
+                        field.setFloat(value, in.readFloat());
+                    } else if(fieldType == short.class) {
+                        field.setShort(value, in.readShort());
+                    } else if(fieldType == byte.class) {
+                        field.setByte(value, in.readByte());
+                    } else if(fieldType == char.class) {
+                        field.setChar(value, in.readChar());
+                    } else {
+                        field.set(value, readValue());
+                    }
+                } catch(final IllegalAccessException | IllegalArgumentException e) {
+                    throw new IllegalStateException("Cannot set field " + field, e);
+                }
+            }
+            if(catnip != null && value instanceof RequiresCatnip entity) {
+                entity.catnip(catnip);
+            }
+            return value;
+        }
+        
+        private Class<?> readClass() throws IOException {
+            final int index = in.readUnsignedShort();
+            if(index < classes.size()) {
+                return classes.get(index);
+            }
+            if(index != classes.size()) {
+                throw new IllegalStateException("Unknown class index " + index);
+            }
+            final String name = readString();
+            if(!name.startsWith(ALLOWED_PACKAGE)) {
+                throw new IllegalStateException("Refusing to deserialize values of type " + name);
+            }
+            try {
+                final Class<?> type = Class.forName(name, false, BinaryEntitySerializer.class.getClassLoader());
+                classes.add(type);
+                return type;
+            } catch(final ClassNotFoundException e) {
+                throw new IllegalStateException("Unknown class " + name, e);
+            }
+        }
+        
+        private String readString() throws IOException {
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+    
+    private static final class Layout {
+        private final Constructor<?> constructor;
+        private final Field[] fields;
+        
+        private Layout(final Class<?> type) {
+            try {
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch(final NoSuchMethodException e) {
+                throw new IllegalArgumentException(type.getName() + " has no no-args constructor", e);
+            }
+            final List<Field> list = new ArrayList<>();
+            for(Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for(final Field field : c.getDeclaredFields()) {
+                    final int modifiers = field.getModifiers();
+                    if(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.getType() == Catnip.class) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    list.add(field);
+                }
+            }
+            // Declared field order isn't guaranteed, so pin one down
+            list.sort(Comparator.comparing((Field f) -> f.getDeclaringClass().getName()).thenComparing(Field::getName));
+            fields = list.toArray(Field[]::new);
+        }
+    }
+}
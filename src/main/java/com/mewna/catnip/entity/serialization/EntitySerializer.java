@@ -27,6 +27,7 @@
 
 package com.mewna.catnip.entity.serialization;
 
+import com.mewna.catnip.Catnip;
 import com.mewna.catnip.entity.Entity;
 
 import javax.annotation.CheckReturnValue;
@@ -44,6 +45,16 @@ import javax.annotation.Nonnull;
  * @since 9/12/19.
  */
 public interface EntitySerializer<T> {
+    /**
+     * Called with the catnip instance this serializer belongs to, so that it
+     * can attach it to the entities it deserializes. The default
+     * implementation does nothing.
+     *
+     * @param catnip The catnip instance.
+     */
+    default void catnip(@Nonnull final Catnip catnip) {
+    }
+    
     /**
      * Serializes the given entity. This method should handle things like
      * converting snowflakes into strings, if the serialization method in use
@@ -235,6 +235,7 @@ public final class CatnipImpl implements Catnip {
         shardManager().shutdown();
         extensionManager.shutdown();
         dispatchManager().close();
+        requester().close();
         // Will let the keepalive thread halt
         latch.countDown();
     }
@@ -416,6 +417,7 @@ public final class CatnipImpl implements Catnip {
         eventBuffer().catnip(this);
         cacheWorker().catnip(this);
         options.requester().catnip(this);
+        options.entitySerializer().catnip(this);
         taskScheduler().catnip(this);
         final List<GatewayIntent> privilegedIntents = options.intents()
                 .stream()
@@ -31,21 +31,73 @@ import com.grack.nanojson.JsonArray;
 import com.grack.nanojson.JsonObject;
 import com.grack.nanojson.JsonParser;
 import com.grack.nanojson.JsonParserException;
+import com.mewna.catnip.util.JsonArrayReader;
+import com.mewna.catnip.util.JsonUtil;
+import io.reactivex.rxjava3.core.Observable;
 
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * The body of a REST response. Bodies are usually read into a string before
+ * the payload is created, but requests can ask for their response to be
+ * {@link com.mewna.catnip.rest.requester.Requester.OutboundRequest#streamResponse(boolean) streamed}
+ * instead, in which case the body is only read once the payload is used.
+ * Streamed arrays can then be read one element at a time with
+ * {@link #elements()}, {@link #mapObjects(Function)} or
+ * {@link #observeObjects(Function)}, without ever holding
+ * the whole body in memory.
+ * <p>
+ * A streamed payload holds on to its connection until it's read, so it must
+ * always be read or {@link #close() closed}. Reading it as a string, object
+ * or array reads the whole body, after which it can be read again.
+ */
 public class ResponsePayload {
-    private final String body;
+    private String body;
+    private InputStream stream;
     
     public ResponsePayload(final String body) {
         this.body = body;
     }
     
-    public String string() {
+    /**
+     * @param stream A UTF-8 response body, which will be read when the
+     *               payload is first used.
+     */
+    public ResponsePayload(@Nonnull final InputStream stream) {
+        this.stream = stream;
+    }
+    
+    /**
+     * @return Whether the body is still waiting to be read from a stream.
+     */
+    @CheckReturnValue
+    public synchronized boolean streaming() {
+        return stream != null;
+    }
+    
+    public synchronized String string() {
+        if(stream != null) {
+            try(final InputStream in = stream) {
+                stream = null;
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch(final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
         return body;
     }
     
     public JsonObject object() {
         try {
-            return JsonParser.object().from(body);
+            return JsonParser.object().from(string());
         } catch(final JsonParserException e) {
             throw new IllegalStateException(e);
         }
@@ -53,9 +105,95 @@ public class ResponsePayload {
     
     public JsonArray array() {
         try {
-            return JsonParser.array().from(body);
+            return JsonParser.array().from(string());
         } catch(final JsonParserException e) {
             throw new IllegalStateException(e);
         }
     }
+    
+    /**
+     * Reads the body, which must be an array, one element at a time. If the
+     * body is streamed, it's read as the elements are, and it can't be read
+     * again afterwards.
+     *
+     * @return A reader over the body's elements.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public synchronized JsonArrayReader elements() {
+        if(stream != null) {
+            final InputStream in = stream;
+            stream = null;
+            return new JsonArrayReader(in);
+        }
+        return new JsonArrayReader(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    /**
+     * Maps each element of the body, which must be an array of objects. If
+     * the body is streamed, each element is mapped as it's read, and the
+     * returned iterable can only be iterated once. A streamed body is only
+     * closed once it's been iterated to the end; prefer
+     * {@link #observeObjects(Function)} if that may not happen.
+     *
+     * @param mapper Maps each object to the entity it represents.
+     *
+     * @return The mapped elements.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public <T> Iterable<T> mapObjects(@Nonnull final Function<JsonObject, T> mapper) {
+        if(!streaming()) {
+            return JsonUtil.mapObjectContents(mapper).apply(array());
+        }
+        return () -> mapping(elements(), mapper);
+    }
+    
+    /**
+     * Like {@link #mapObjects(Function)}, but as an observable. A streamed
+     * body is closed when the observable completes, fails, or is disposed
+     * before reading every element, so the connection is never leaked.
+     *
+     * @param mapper Maps each object to the entity it represents.
+     *
+     * @return The mapped elements.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public <T> Observable<T> observeObjects(@Nonnull final Function<JsonObject, T> mapper) {
+        if(!streaming()) {
+            return Observable.fromIterable(mapObjects(mapper));
+        }
+        return Observable.using(this::elements, reader -> Observable.fromIterable(() -> mapping(reader, mapper)),
+                JsonArrayReader::close);
+    }
+    
+    private static <T> Iterator<T> mapping(final JsonArrayReader reader, final Function<JsonObject, T> mapper) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return reader.hasNext();
+            }
+            
+            @Override
+            public T next() {
+                return mapper.apply(reader.nextObject());
+            }
+        };
+    }
+    
+    /**
+     * Closes the body's stream without reading it, if it hasn't been read.
+     */
+    public synchronized void close() {
+        if(stream != null) {
+            try {
+                stream.close();
+            } catch(final IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                stream = null;
+            }
+        }
+    }
 }
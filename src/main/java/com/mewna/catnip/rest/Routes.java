@@ -33,6 +33,9 @@ import lombok.experimental.Accessors;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static com.mewna.catnip.rest.Routes.HttpMethod.*;
 
@@ -168,6 +171,8 @@ public final class Routes {
     public static final Route LIST_JOINED_PRIVATE_ARCHIVED_THREADS = new Route(GET,    "/channels/:channel/users/@me/threads/archived/private", "channel");
     // @formatter:on
     
+    private static final ThreadLocal<StringBuilder> COMPILE_BUILDER = ThreadLocal.withInitial(StringBuilder::new);
+    
     private Routes() {
     }
     
@@ -186,6 +191,14 @@ public final class Routes {
         private String majorParam;
         @Getter
         private String ratelimitKey;
+        // The route as declared in this class, before any params were filled
+        // in, and the value of its major param, if one was given. Discord
+        // assigns ratelimit buckets per method + template, and then splits
+        // each bucket by major param, so ratelimiters need both of these.
+        @Getter
+        private String template;
+        @Getter
+        private String majorParamValue;
         // Some routes, specifically reaction-create, require millisecond
         // precision for correct operation. Rather than special-casing this
         // with a String.contains() or similar, we can just mark individual
@@ -193,6 +206,12 @@ public final class Routes {
         // Route#requiresMsPrecision()
         @Getter
         private boolean requiresMsPrecision;
+        // The params of the route, parsed once and then shared by every
+        // route derived from it, so that requests can fill them in without
+        // searching the route for each of them.
+        private transient Segments segments;
+        // Kept apart from the template so that it can be rendered after it.
+        private String queryString;
         
         public Route() {
         }
@@ -221,11 +240,23 @@ public final class Routes {
         
         public Route(@Nonnull final HttpMethod method, @Nonnull final String baseRoute, @Nullable final String majorParam,
                      @Nonnull final String ratelimitKey, final boolean requiresMsPrecision) {
+            this(method, baseRoute, majorParam, ratelimitKey, requiresMsPrecision, baseRoute, null, null, null);
+        }
+        
+        @SuppressWarnings("ConstructorWithTooManyParameters")
+        private Route(@Nonnull final HttpMethod method, @Nonnull final String baseRoute, @Nullable final String majorParam,
+                      @Nonnull final String ratelimitKey, final boolean requiresMsPrecision,
+                      @Nonnull final String template, @Nullable final String majorParamValue,
+                      @Nullable final Segments segments, @Nullable final String queryString) {
             this.method = method;
             this.baseRoute = baseRoute;
             this.majorParam = majorParam;
             this.ratelimitKey = ratelimitKey;
             this.requiresMsPrecision = requiresMsPrecision;
+            this.template = template;
+            this.majorParamValue = majorParamValue;
+            this.segments = segments;
+            this.queryString = queryString;
         }
         
         @Nonnull
@@ -235,27 +266,101 @@ public final class Routes {
                 throw new IllegalStateException("This route takes no major params!");
             }
             final String majorParamString = ':' + majorParam;
-            return new Route(method, baseRoute.replace(majorParamString, value), null,
-                    baseRoute.replace(majorParamString, value), requiresMsPrecision);
+            final String compiled = baseRoute.replace(majorParamString, value);
+            return new Route(method, compiled, null, compiled, requiresMsPrecision, template, value, segments(),
+                    queryString);
         }
         
+        /**
+         * Fills in a single param. Prefer {@link #compile(Map)}, which fills
+         * in every param at once.
+         */
         @Nonnull
         @CheckReturnValue
         public Route compile(@Nonnull final String param, @Nonnull final String value) {
             if(param.equalsIgnoreCase(majorParam)) {
                 return this;
             }
-            return new Route(method, baseRoute.replace(':' + param, value), majorParam, ratelimitKey, requiresMsPrecision);
+            // The parsed params no longer match the route, so let them be
+            // parsed again from the new one if need be
+            return new Route(method, baseRoute.replace(':' + param, value), majorParam, ratelimitKey, requiresMsPrecision,
+                    template, majorParamValue, null, queryString);
+        }
+        
+        /**
+         * Fills in all of the route's params at once. Params without a value
+         * are left as they are.
+         *
+         * @param params The values of the route's params, by name.
+         *
+         * @return The compiled route.
+         */
+        @Nonnull
+        @CheckReturnValue
+        public Route compile(@Nonnull final Map<String, String> params) {
+            if(params.isEmpty()) {
+                // Nothing to fill in, which is the case for most requests,
+                // since the major param is filled in up front
+                return this;
+            }
+            final StringBuilder builder = COMPILE_BUILDER.get();
+            builder.setLength(0);
+            render(builder, params);
+            return new Route(method, builder.toString(), majorParam, ratelimitKey, requiresMsPrecision, template,
+                    majorParamValue, segments(), queryString);
+        }
+        
+        /**
+         * Appends the route to the builder, with its params filled in. This
+         * is the same as appending {@link #compile(Map)}'s
+         * {@link #baseRoute()}, without creating a new route for it.
+         *
+         * @param builder The builder to render the route into.
+         * @param params  The values of the route's params, by name.
+         */
+        public void render(@Nonnull final StringBuilder builder, @Nonnull final Map<String, String> params) {
+            final Segments segments = segments();
+            final String[] literals = segments.literals;
+            final String[] names = segments.params;
+            for(int i = 0; i < names.length; i++) {
+                builder.append(literals[i]);
+                final String value = i == segments.majorParam && majorParamValue != null
+                        ? majorParamValue
+                        : params.get(names[i]);
+                if(value == null) {
+                    builder.append(':').append(names[i]);
+                } else {
+                    builder.append(value);
+                }
+            }
+            builder.append(literals[names.length]);
+            if(queryString != null) {
+                builder.append(queryString);
+            }
         }
         
         @Nonnull
         @CheckReturnValue
         public Route copy() {
-            return new Route(method, baseRoute, majorParam, ratelimitKey);
+            return new Route(method, baseRoute, majorParam, ratelimitKey, false, template, majorParamValue, segments,
+                    queryString);
         }
         
         public Route withQueryString(final String qs) {
-            return new Route(method, baseRoute + qs, majorParam, ratelimitKey, requiresMsPrecision);
+            return new Route(method, baseRoute + qs, majorParam, ratelimitKey, requiresMsPrecision, template,
+                    majorParamValue, segments(), queryString == null ? qs : queryString + qs);
+        }
+        
+        @Nonnull
+        private Segments segments() {
+            // Racing here only means parsing the route more than once
+            Segments segments = this.segments;
+            if(segments == null) {
+                segments = Segments.parse(queryString == null ? baseRoute
+                        : baseRoute.substring(0, baseRoute.length() - queryString.length()), majorParam);
+                this.segments = segments;
+            }
+            return segments;
         }
         
         @Override
@@ -275,5 +380,47 @@ public final class Routes {
         public String toString() {
             return method + " " + baseRoute;
         }
+        
+        /**
+         * A route split around its params, ie. {@code /channels/:channel/pins}
+         * becomes the literals {@code ["/channels/", "/pins"]} and the params
+         * {@code ["channel"]}.
+         */
+        private static final class Segments {
+            private final String[] literals;
+            private final String[] params;
+            // Index of the major param in params, or -1
+            private final int majorParam;
+            
+            private Segments(final String[] literals, final String[] params, final int majorParam) {
+                this.literals = literals;
+                this.params = params;
+                this.majorParam = majorParam;
+            }
+            
+            @Nonnull
+            private static Segments parse(@Nonnull final String route, @Nullable final String majorParam) {
+                final List<String> literals = new ArrayList<>();
+                final List<String> params = new ArrayList<>();
+                int major = -1;
+                int literalStart = 0;
+                int colon;
+                while((colon = route.indexOf(':', literalStart)) != -1) {
+                    int end = route.indexOf('/', colon);
+                    if(end == -1) {
+                        end = route.length();
+                    }
+                    literals.add(route.substring(literalStart, colon));
+                    final String param = route.substring(colon + 1, end);
+                    if(param.equalsIgnoreCase(majorParam)) {
+                        major = params.size();
+                    }
+                    params.add(param);
+                    literalStart = end;
+                }
+                literals.add(route.substring(literalStart));
+                return new Segments(literals.toArray(String[]::new), params.toArray(String[]::new), major);
+            }
+        }
     }
 }
@@ -374,6 +374,19 @@ public class RestChannel extends RestHandler {
                                                       @Nonnegative final int requestSize) {
                 return getReactionsRaw(channelId, messageId, emoji, null, lastId, requestSize);
             }
+            
+            @Nonnull
+            @CheckReturnValue
+            @Override
+            protected Completable fetchInto(@Nonnull final RequestState<User> state, @Nullable final String lastId,
+                                            @Nonnegative final int requestSize) {
+                if(!catnip().options().streamRestResponses()) {
+                    return super.fetchInto(state, lastId, requestSize);
+                }
+                return updateFrom(state, catnip().requester()
+                        .queue(getReactionsRequest(channelId, messageId, emoji, null, lastId, requestSize)
+                                .streamResponse(true)));
+            }
         };
     }
     
@@ -389,7 +402,15 @@ public class RestChannel extends RestHandler {
     public Observable<JsonArray> getReactionsRaw(@Nonnull final String channelId, @Nonnull final String messageId,
                                                  @Nonnull final String emoji, @Nullable final String before,
                                                  @Nullable final String after, @Nonnegative final int limit) {
-        
+        return catnip().requester()
+                .queue(getReactionsRequest(channelId, messageId, emoji, before, after, limit))
+                .map(ResponsePayload::array);
+    }
+    
+    @Nonnull
+    private static OutboundRequest getReactionsRequest(@Nonnull final String channelId, @Nonnull final String messageId,
+                                                       @Nonnull final String emoji, @Nullable final String before,
+                                                       @Nullable final String after, @Nonnegative final int limit) {
         final QueryStringBuilder builder = new QueryStringBuilder();
         if(limit > 0) {
             builder.append("limit", Integer.toString(limit));
@@ -403,10 +424,8 @@ public class RestChannel extends RestHandler {
         }
         
         final String query = builder.build();
-        return catnip().requester()
-                .queue(new OutboundRequest(Routes.GET_REACTIONS.withMajorParam(channelId).withQueryString(query),
-                        Map.of("message", messageId, "emojis", encodeUTF8(emoji))))
-                .map(ResponsePayload::array);
+        return new OutboundRequest(Routes.GET_REACTIONS.withMajorParam(channelId).withQueryString(query),
+                Map.of("message", messageId, "emojis", encodeUTF8(emoji)));
     }
     
     public Observable<User> getReactions(@Nonnull final String channelId, @Nonnull final String messageId,
@@ -437,6 +456,19 @@ public class RestChannel extends RestHandler {
                                                       @Nonnegative final int requestSize) {
                 return getChannelMessagesRaw(channelId, lastId, null, null, requestSize);
             }
+            
+            @Nonnull
+            @CheckReturnValue
+            @Override
+            protected Completable fetchInto(@Nonnull final RequestState<Message> state, @Nullable final String lastId,
+                                            @Nonnegative final int requestSize) {
+                if(!catnip().options().streamRestResponses()) {
+                    return super.fetchInto(state, lastId, requestSize);
+                }
+                return updateFrom(state, catnip().requester()
+                        .queue(getChannelMessagesRequest(channelId, lastId, null, null, requestSize)
+                                .streamResponse(true)));
+            }
         };
     }
     
@@ -445,6 +477,24 @@ public class RestChannel extends RestHandler {
     public Observable<JsonArray> getChannelMessagesRaw(@Nonnull final String channelId, @Nullable final String before,
                                                        @Nullable final String after, @Nullable final String around,
                                                        @Nonnegative final int limit) {
+        return catnip().requester()
+                .queue(getChannelMessagesRequest(channelId, before, after, around, limit))
+                .map(ResponsePayload::array);
+    }
+    
+    public Observable<Message> getChannelMessages(@Nonnull final String channelId, @Nullable final String before,
+                                                  @Nullable final String after, @Nullable final String around,
+                                                  @Nonnegative final int limit) {
+        return catnip().requester()
+                .queue(getChannelMessagesRequest(channelId, before, after, around, limit)
+                        .streamResponse(catnip().options().streamRestResponses()))
+                .concatMap(payload -> payload.observeObjects(entityBuilder()::createMessage));
+    }
+    
+    @Nonnull
+    private static OutboundRequest getChannelMessagesRequest(@Nonnull final String channelId, @Nullable final String before,
+                                                             @Nullable final String after, @Nullable final String around,
+                                                             @Nonnegative final int limit) {
         final QueryStringBuilder builder = new QueryStringBuilder();
         
         if(limit > 0) {
@@ -464,18 +514,7 @@ public class RestChannel extends RestHandler {
         }
         
         final String query = builder.build();
-        return catnip().requester()
-                .queue(new OutboundRequest(Routes.GET_CHANNEL_MESSAGES.withMajorParam(channelId).withQueryString(query),
-                        Map.of()))
-                .map(ResponsePayload::array);
-    }
-    
-    public Observable<Message> getChannelMessages(@Nonnull final String channelId, @Nullable final String before,
-                                                  @Nullable final String after, @Nullable final String around,
-                                                  @Nonnegative final int limit) {
-        return getChannelMessagesRaw(channelId, before, after, around, limit)
-                .map(e -> mapObjectContents(entityBuilder()::createMessage).apply(e))
-                .flatMapIterable(e -> e);
+        return new OutboundRequest(Routes.GET_CHANNEL_MESSAGES.withMajorParam(channelId).withQueryString(query), Map.of());
     }
     
     @Nonnull
@@ -403,6 +403,16 @@ public class RestGuild extends RestHandler {
             protected Observable<JsonArray> fetchNext(@Nonnull final RequestState<Member> state, @Nullable final String lastId, final int requestSize) {
                 return listGuildMembersRaw(guildId, state.entitiesToFetch(), lastId);
             }
+            
+            @Nonnull
+            @Override
+            protected Completable fetchInto(@Nonnull final RequestState<Member> state, @Nullable final String lastId, final int requestSize) {
+                if(!catnip().options().streamRestResponses()) {
+                    return super.fetchInto(state, lastId, requestSize);
+                }
+                return updateFrom(state, catnip().requester()
+                        .queue(listGuildMembersRequest(guildId, state.entitiesToFetch(), lastId).streamResponse(true)));
+            }
         };
     }
     
@@ -410,16 +420,23 @@ public class RestGuild extends RestHandler {
     @CheckReturnValue
     public Observable<Member> listGuildMembers(@Nonnull final String guildId, @Nonnegative final int limit,
                                                @Nullable final String after) {
-        return listGuildMembersRaw(guildId, limit, after)
-                .map(e -> mapObjectContents(o -> entityBuilder().createMember(guildId, o)).apply(e))
-                .flatMapIterable(e -> e);
+        return catnip().requester()
+                .queue(listGuildMembersRequest(guildId, limit, after)
+                        .streamResponse(catnip().options().streamRestResponses()))
+                .concatMap(payload -> payload.observeObjects(o -> entityBuilder().createMember(guildId, o)));
     }
     
     @Nonnull
     @CheckReturnValue
     public Observable<JsonArray> listGuildMembersRaw(@Nonnull final String guildId, @Nonnegative final int limit,
                                                      @Nullable final String after) {
-        
+        return catnip().requester().queue(listGuildMembersRequest(guildId, limit, after))
+                .map(ResponsePayload::array);
+    }
+    
+    @Nonnull
+    private static OutboundRequest listGuildMembersRequest(@Nonnull final String guildId, @Nonnegative final int limit,
+                                                           @Nullable final String after) {
         final QueryStringBuilder builder = new QueryStringBuilder();
         
         if(limit > 0) {
@@ -431,9 +448,7 @@ public class RestGuild extends RestHandler {
         
         final String query = builder.build();
         
-        return catnip().requester().queue(new OutboundRequest(Routes.LIST_GUILD_MEMBERS.withMajorParam(guildId).withQueryString(query),
-                Map.of()))
-                .map(ResponsePayload::array);
+        return new OutboundRequest(Routes.LIST_GUILD_MEMBERS.withMajorParam(guildId).withQueryString(query), Map.of());
     }
     
     @Nonnull
@@ -124,6 +124,16 @@ public class RestUser extends RestHandler {
             protected Observable<JsonArray> fetchNext(@Nonnull final RequestState<PartialGuild> state, @Nullable final String lastId, final int requestSize) {
                 return getCurrentUserGuildsRaw(null, lastId, state.entitiesToFetch());
             }
+            
+            @Nonnull
+            @Override
+            protected Completable fetchInto(@Nonnull final RequestState<PartialGuild> state, @Nullable final String lastId, final int requestSize) {
+                if(!catnip().options().streamRestResponses()) {
+                    return super.fetchInto(state, lastId, requestSize);
+                }
+                return updateFrom(state, catnip().requester()
+                        .queue(getCurrentUserGuildsRequest(null, lastId, state.entitiesToFetch()).streamResponse(true)));
+            }
         };
     }
     
@@ -140,6 +150,13 @@ public class RestUser extends RestHandler {
     @CheckReturnValue
     public Observable<JsonArray> getCurrentUserGuildsRaw(@Nullable final String before, @Nullable final String after,
                                                          @Nonnegative final int limit) {
+        return catnip().requester().queue(getCurrentUserGuildsRequest(before, after, limit))
+                .map(ResponsePayload::array);
+    }
+    
+    @Nonnull
+    private static OutboundRequest getCurrentUserGuildsRequest(@Nullable final String before, @Nullable final String after,
+                                                               @Nonnegative final int limit) {
         final QueryStringBuilder builder = new QueryStringBuilder();
         
         if(before != null) {
@@ -155,9 +172,7 @@ public class RestUser extends RestHandler {
         }
         final String query = builder.build();
         
-        return catnip().requester().queue(new OutboundRequest(Routes.GET_CURRENT_USER_GUILDS.withQueryString(query),
-                Map.of()))
-                .map(ResponsePayload::array);
+        return new OutboundRequest(Routes.GET_CURRENT_USER_GUILDS.withQueryString(query), Map.of());
     }
     
     @Nonnull
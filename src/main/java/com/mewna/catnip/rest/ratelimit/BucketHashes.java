@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.ratelimit;
+
+import com.mewna.catnip.rest.Routes.Route;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code X-RateLimit-Bucket} hashes Discord has told us about, and the
+ * keys that ratelimiters keep each route's state under. Until we know which
+ * bucket a route belongs to, its key is {@link Route#ratelimitKey()}.
+ * Afterwards, it's the bucket hash plus the route's major param, so that it
+ * shares its state with every other route in the same bucket.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+final class BucketHashes {
+    // method + template -> bucket hash
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+    
+    /**
+     * @return The hash the route was in before, if any.
+     */
+    @Nullable
+    String put(@Nonnull final Route route, @Nonnull final String bucketHash) {
+        return hashes.put(routeKey(route), bucketHash);
+    }
+    
+    @Nonnull
+    String bucketKey(@Nonnull final Route route) {
+        final String hash = hashes.get(routeKey(route));
+        if(hash == null) {
+            return route.ratelimitKey();
+        }
+        // Bucket hashes never start with a slash, so these can't collide
+        // with the ratelimit keys of routes we haven't learnt the hash of
+        return route.majorParamValue() == null ? hash : hash + ':' + route.majorParamValue();
+    }
+    
+    @Nonnull
+    private static String routeKey(@Nonnull final Route route) {
+        return route.method().name() + ' ' + (route.template() == null ? route.ratelimitKey() : route.template());
+    }
+}
@@ -31,31 +31,106 @@ import com.mewna.catnip.Catnip;
 import com.mewna.catnip.rest.Routes.Route;
 import com.mewna.catnip.util.rx.RxHelpers;
 import io.reactivex.rxjava3.core.Completable;
+import lombok.Getter;
+import lombok.experimental.Accessors;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * The default in-memory ratelimiter. Until Discord has told us which bucket a
+ * route belongs to, its state is kept under {@link Route#ratelimitKey()}.
+ * Once a response carries an {@code X-RateLimit-Bucket} header, the route's
+ * method and template are mapped to that bucket hash, and the route shares
+ * its state with every other route that has the same hash and major param.
+ * <p>
+ * Buckets that haven't been used for {@link #idleTimeout()} ms, and have no
+ * requests waiting on them, are evicted periodically, so that state for
+ * routes we no longer use doesn't pile up over long uptimes.
+ * <p>
+ * Resets are tracked as deadlines on {@link System#nanoTime()}, so they
+ * aren't thrown off when the wall clock is adjusted. Timestamps passed to
+ * {@link #updateReset(Route, long)} and {@link #updateGlobalRateLimit(long)}
+ * are converted when they're received.
+ */
+@Accessors(fluent = true)
 public class DefaultRateLimiter implements RateLimiter {
+    public static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+    
     private final Map<String, BucketContainer> buckets = new ConcurrentHashMap<>();
-    private volatile long globalRateLimitReset;
+    private final BucketHashes bucketHashes = new BucketHashes();
+    // Id of the eviction task, or -1 if it hasn't been started
+    private volatile long evictionTask = -1;
+    private boolean closed;
+    @Getter
+    private final long idleTimeout;
+    // System.nanoTime() deadline
+    private volatile long globalRateLimitReset = System.nanoTime();
     private Catnip catnip;
     
+    public DefaultRateLimiter() {
+        this(DEFAULT_IDLE_TIMEOUT);
+    }
+    
+    /**
+     * @param idleTimeout How long a bucket may go unused before it's evicted,
+     *                    in milliseconds. Also how often idle buckets are
+     *                    looked for, so it must be positive.
+     */
+    public DefaultRateLimiter(@Nonnegative final long idleTimeout) {
+        if(idleTimeout <= 0) {
+            throw new IllegalArgumentException("Idle timeout must be positive, got " + idleTimeout);
+        }
+        this.idleTimeout = idleTimeout;
+    }
+    
     @Override
     public void catnip(@Nonnull final Catnip catnip) {
         this.catnip = catnip;
     }
     
+    private synchronized void startEviction() {
+        if(!closed && evictionTask < 0) {
+            evictionTask = catnip.taskScheduler().setInterval(idleTimeout, __ -> evictIdleBuckets());
+        }
+    }
+    
+    /**
+     * Stops evicting idle buckets. Requests can still be made afterwards,
+     * but buckets are no longer evicted.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if(evictionTask >= 0) {
+            catnip.taskScheduler().cancel(evictionTask);
+            evictionTask = -1;
+        }
+    }
+    
     @Nonnull
     @Override
     public Completable requestExecution(@Nonnull final Route route) {
-        catnip.logAdapter().trace("Requested execution for route {} (ratelimit key = {})", route, route.ratelimitKey());
-        final BucketContainer container = buckets.computeIfAbsent(route.ratelimitKey(), __ -> new BucketContainer());
+        if(evictionTask < 0) {
+            startEviction();
+        }
+        final String key = bucketHashes.bucketKey(route);
+        catnip.logAdapter().trace("Requested execution for route {} (ratelimit key = {})", route, key);
+        final BucketContainer container = container(key);
         //noinspection SynchronizationOnLocalVariableOrMethodParameter
         synchronized(container) {
+            if(container.retired) {
+                // Evicted or merged into a shared bucket between looking it
+                // up and locking it, so try again with whatever replaced it
+                return requestExecution(route);
+            }
             catnip.logAdapter().trace("{} remaining requests", container.remaining);
             if(container.remaining > 0) {
                 container.remaining--;
@@ -74,9 +149,39 @@ public class DefaultRateLimiter implements RateLimiter {
         }
     }
     
+    @Override
+    public void updateBucketHash(@Nonnull final Route route, @Nonnull final String bucketHash) {
+        final String previous = bucketHashes.put(route, bucketHash);
+        if(!bucketHash.equals(previous)) {
+            catnip.logAdapter().trace("Route {} is in bucket {} (was {})", route, bucketHash, previous);
+        }
+        // Requests that were queued before we knew the hash are waiting on
+        // the route's own container. Move them over so that they're released
+        // by the shared bucket, since nothing will update the old one again.
+        final BucketContainer orphan = buckets.remove(route.ratelimitKey());
+        if(orphan == null) {
+            return;
+        }
+        final BucketContainer container = container(route);
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter
+        synchronized(orphan) {
+            orphan.retired = true;
+            //noinspection SynchronizationOnLocalVariableOrMethodParameter
+            synchronized(container) {
+                CompletableFuture<Void> future;
+                while((future = orphan.queue.poll()) != null) {
+                    container.queue.offer(future);
+                }
+                if(!container.queue.isEmpty()) {
+                    queueExecution(container);
+                }
+            }
+        }
+    }
+    
     @Override
     public void updateLimit(@Nonnull final Route route, final int limit) {
-        final BucketContainer container = buckets.computeIfAbsent(route.ratelimitKey(), __ -> new BucketContainer());
+        final BucketContainer container = container(route);
         //noinspection SynchronizationOnLocalVariableOrMethodParameter
         synchronized(container) {
             container.limit = limit;
@@ -85,7 +190,7 @@ public class DefaultRateLimiter implements RateLimiter {
     
     @Override
     public void updateRemaining(@Nonnull final Route route, final int remaining) {
-        final BucketContainer container = buckets.computeIfAbsent(route.ratelimitKey(), __ -> new BucketContainer());
+        final BucketContainer container = container(route);
         //noinspection SynchronizationOnLocalVariableOrMethodParameter
         synchronized(container) {
             container.remaining = remaining;
@@ -94,16 +199,22 @@ public class DefaultRateLimiter implements RateLimiter {
     
     @Override
     public void updateReset(@Nonnull final Route route, final long resetTimestamp) {
-        final BucketContainer container = buckets.computeIfAbsent(route.ratelimitKey(), __ -> new BucketContainer());
+        updateResetAfter(route, resetTimestamp - System.currentTimeMillis());
+    }
+    
+    @Override
+    public void updateResetAfter(@Nonnull final Route route, final long resetAfter) {
+        final long reset = deadline(resetAfter);
+        final BucketContainer container = container(route);
         //noinspection SynchronizationOnLocalVariableOrMethodParameter
         synchronized(container) {
-            container.reset = resetTimestamp;
+            container.reset = reset;
         }
     }
     
     @Override
     public void updateDone(@Nonnull final Route route) {
-        final BucketContainer container = buckets.computeIfAbsent(route.ratelimitKey(), __ -> new BucketContainer());
+        final BucketContainer container = container(route);
         //noinspection SynchronizationOnLocalVariableOrMethodParameter
         synchronized(container) {
             if(!container.queue.isEmpty()) {
@@ -113,13 +224,86 @@ public class DefaultRateLimiter implements RateLimiter {
     }
     
     @Override
-    public synchronized void updateGlobalRateLimit(final long resetTimestamp) {
-        globalRateLimitReset = resetTimestamp;
+    public void updateGlobalRateLimit(final long resetTimestamp) {
+        updateGlobalRateLimitAfter(resetTimestamp - System.currentTimeMillis());
+    }
+    
+    @Override
+    public synchronized void updateGlobalRateLimitAfter(final long retryAfter) {
+        globalRateLimitReset = deadline(retryAfter);
+    }
+    
+    /**
+     * @return The number of buckets currently tracked.
+     */
+    @Nonnegative
+    public int bucketCount() {
+        return buckets.size();
+    }
+    
+    /**
+     * Evicts every bucket that has been idle for longer than
+     * {@link #idleTimeout()}, and whose ratelimit has reset. This runs
+     * periodically on the {@link com.mewna.catnip.util.scheduler.TaskScheduler}
+     * once the first request is made.
+     *
+     * @return The number of buckets evicted.
+     */
+    @Nonnegative
+    public int evictIdleBuckets() {
+        final long now = System.nanoTime();
+        final long idleSince = now - TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        int evicted = 0;
+        for(final Entry<String, BucketContainer> entry : buckets.entrySet()) {
+            final BucketContainer container = entry.getValue();
+            //noinspection SynchronizationOnLocalVariableOrMethodParameter
+            synchronized(container) {
+                if(container.lastUsed - idleSince < 0 && container.queue.isEmpty() && container.timerId == null
+                        && container.reset - now < 0 && buckets.remove(entry.getKey(), container)) {
+                    container.retired = true;
+                    evicted++;
+                }
+            }
+        }
+        catnip.logAdapter().debug("Evicted {} idle ratelimit buckets, {} left", evicted, buckets.size());
+        return evicted;
+    }
+    
+    @Nonnull
+    private BucketContainer container(@Nonnull final Route route) {
+        return container(bucketHashes.bucketKey(route));
+    }
+    
+    @Nonnull
+    private BucketContainer container(@Nonnull final String key) {
+        // Touching the bucket inside compute() means that eviction, which
+        // only removes buckets that haven't been touched for a while, can't
+        // race with a bucket being handed out
+        return buckets.compute(key, (__, container) -> {
+            final BucketContainer touched = container == null ? new BucketContainer() : container;
+            touched.lastUsed = System.nanoTime();
+            return touched;
+        });
+    }
+    
+    private static long deadline(final long millisFromNow) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millisFromNow);
+    }
+    
+    /**
+     * @return The later of the bucket's reset and the global reset. These
+     * are {@link System#nanoTime()} values, so they can only be compared by
+     * subtracting them.
+     */
+    private long resetOf(@Nonnull final BucketContainer container) {
+        final long global = globalRateLimitReset;
+        return container.reset - global > 0 ? container.reset : global;
     }
     
-    private synchronized long retryAfter(final long bucketReset) {
-        catnip.logAdapter().trace("Calculating retry timestamp (bucket = {}, global = {})", bucketReset, globalRateLimitReset);
-        final long retry = Math.max(1, Math.max(bucketReset, globalRateLimitReset) - System.currentTimeMillis());
+    private long retryAfter(@Nonnull final BucketContainer container) {
+        final long remaining = resetOf(container) - System.nanoTime();
+        // Round up, since a timer that fires early would only be set again
+        final long retry = Math.max(1, (remaining + 999_999) / 1_000_000);
         catnip.logAdapter().trace("Retrying in {} ms", retry);
         return retry;
     }
@@ -128,11 +312,10 @@ public class DefaultRateLimiter implements RateLimiter {
         if(container.timerId != null) {
             return;
         }
-        container.timerId = catnip.taskScheduler().setTimer(retryAfter(container.reset), __ -> {
+        container.timerId = catnip.taskScheduler().setTimer(retryAfter(container), __ -> {
             synchronized(container) {
                 container.timerId = null;
-                final long now = System.currentTimeMillis();
-                if(Math.max(container.reset, globalRateLimitReset) < now) {
+                if(resetOf(container) - System.nanoTime() <= 0) {
                     container.remaining = container.limit;
                     while(!container.queue.isEmpty() && container.remaining > 0) {
                         container.remaining--;
@@ -155,7 +338,11 @@ public class DefaultRateLimiter implements RateLimiter {
         private final Queue<CompletableFuture<Void>> queue = new ConcurrentLinkedQueue<>();
         private long limit = 1;
         private long remaining = 1;
-        private long reset = System.currentTimeMillis() - 1;
+        // System.nanoTime() deadline
+        private long reset = System.nanoTime() - 1;
         private Long timerId; //null if not queued
+        private volatile long lastUsed = System.nanoTime();
+        // Set once the container is no longer in the map
+        private boolean retired;
     }
 }
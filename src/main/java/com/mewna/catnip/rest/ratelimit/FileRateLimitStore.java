@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.ratelimit;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link RateLimitStore} that keeps its buckets in a memory-mapped file,
+ * so that every process on the machine that opens the same file shares the
+ * same budgets. Each call takes an exclusive lock on the file for as long as
+ * it takes to read and update one bucket, so processes only wait on each
+ * other for that long, rather than for each other's requests.
+ * <p>
+ * The file is a fixed-size hash table of buckets, keyed by a 64-bit hash of
+ * the bucket's name. Buckets that reset more than {@link #idleTimeout()} ms
+ * ago are reused for new buckets, and if there's no room left at all, calls
+ * fail with an {@link IllegalStateException}. The capacity is set by whoever
+ * creates the file, and is read from it by everyone else.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@Accessors(fluent = true)
+public class FileRateLimitStore implements RateLimitStore, Closeable {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    
+    private static final int MAGIC = 0x434E524C; // CNRL
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 32;
+    private static final int KEY = 0;
+    private static final int RESET = 8;
+    private static final int WINDOW = 16;
+    private static final int LIMIT = 24;
+    private static final int REMAINING = 28;
+    // A JVM can't hold two locks on the same file at once, even through
+    // different channels, so stores for the same file take turns first
+    private static final Map<Path, Object> JVM_LOCKS = new ConcurrentHashMap<>();
+    
+    private final FileChannel channel;
+    // Only touched with jvmLock held, and null once closed
+    private MappedByteBuffer buffer;
+    private final Object jvmLock;
+    @Getter
+    private final int capacity;
+    @Getter
+    private final long idleTimeout;
+    
+    /**
+     * Opens the store at the given path, creating it with the
+     * {@link #DEFAULT_CAPACITY default capacity} if it doesn't exist.
+     */
+    public FileRateLimitStore(@Nonnull final Path path) throws IOException {
+        this(path, DEFAULT_CAPACITY, DefaultRateLimiter.DEFAULT_IDLE_TIMEOUT);
+    }
+    
+    /**
+     * @param path        The file to keep buckets in.
+     * @param capacity    How many buckets the file can hold if it has to be
+     *                    created. Must be a power of two.
+     * @param idleTimeout How long after its reset a bucket may go unused
+     *                    before its space is reused, in milliseconds.
+     */
+    public FileRateLimitStore(@Nonnull final Path path, @Nonnegative final int capacity,
+                              @Nonnegative final long idleTimeout) throws IOException {
+        if(capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+        this.idleTimeout = idleTimeout;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            jvmLock = JVM_LOCKS.computeIfAbsent(path.toRealPath(), __ -> new Object());
+            synchronized(jvmLock) {
+                try(final FileLock ignored = channel.lock()) {
+                    this.capacity = channel.size() == 0 ? create(capacity) : readHeader();
+                }
+            }
+            buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + (long) this.capacity * RECORD_SIZE);
+        } catch(final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    private int create(final int capacity) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(capacity)
+                .putInt(0)
+                .flip();
+        channel.write(header, 0);
+        // Writing the last byte makes the file its full size, and the rest
+        // of it reads as zeroes, which is what empty records look like
+        channel.write(ByteBuffer.allocate(1), HEADER_SIZE + (long) capacity * RECORD_SIZE - 1);
+        return capacity;
+    }
+    
+    private int readHeader() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if(header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IllegalStateException("Not a ratelimit store, or from an incompatible version");
+        }
+        final int capacity = header.getInt();
+        if(capacity <= 0 || Integer.bitCount(capacity) != 1
+                || channel.size() < HEADER_SIZE + (long) capacity * RECORD_SIZE) {
+            throw new IllegalStateException("Ratelimit store is corrupt");
+        }
+        return capacity;
+    }
+    
+    @Override
+    public long tryAcquire(@Nonnull final String bucket, @Nonnegative final int limit,
+                           @Nonnegative final long window, final long now) {
+        return locked(() -> {
+            final int record = record(bucket, now, limit, window);
+            // Buckets created by pausing don't have a limit or window yet
+            if(buffer.getInt(record + LIMIT) <= 0) {
+                buffer.putInt(record + LIMIT, limit);
+            }
+            if(buffer.getLong(record + WINDOW) <= 0) {
+                buffer.putLong(record + WINDOW, window);
+            }
+            if(buffer.getLong(record + RESET) <= now) {
+                buffer.putInt(record + REMAINING, buffer.getInt(record + LIMIT));
+                buffer.putLong(record + RESET, now + buffer.getLong(record + WINDOW));
+            }
+            final int remaining = buffer.getInt(record + REMAINING);
+            if(remaining > 0) {
+                buffer.putInt(record + REMAINING, remaining - 1);
+                return 0;
+            }
+            return buffer.getLong(record + RESET) - now;
+        });
+    }
+    
+    @Override
+    public void update(@Nonnull final String bucket, final int limit, final int remaining, final long reset,
+                       final long now) {
+        locked(() -> {
+            final int record = record(bucket, now, Math.max(limit, 1), Math.max(reset - now, 1));
+            if(limit > 0) {
+                buffer.putInt(record + LIMIT, limit);
+            }
+            if(buffer.getLong(record + RESET) <= now) {
+                // The response is from a window we haven't counted anything in
+                if(remaining >= 0) {
+                    buffer.putInt(record + REMAINING, remaining);
+                }
+                if(reset > now) {
+                    buffer.putLong(record + WINDOW, reset - now);
+                }
+            } else if(remaining >= 0) {
+                buffer.putInt(record + REMAINING, Math.min(buffer.getInt(record + REMAINING), remaining));
+            }
+            if(reset >= 0) {
+                buffer.putLong(record + RESET, reset);
+            }
+            return 0;
+        });
+    }
+    
+    @Override
+    public void pause(@Nonnull final String bucket, final long until, final long now) {
+        locked(() -> {
+            final int record = record(bucket, now, 0, 0);
+            buffer.putInt(record + REMAINING, 0);
+            buffer.putLong(record + RESET, Math.max(buffer.getLong(record + RESET), until));
+            return 0;
+        });
+    }
+    
+    /**
+     * Closes the file. The JDK has no way to unmap a file before its buffer
+     * is garbage collected, so the mapping may outlive this; the store drops
+     * its buffer, and every later call fails with an
+     * {@link IllegalStateException} rather than touching it.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized(jvmLock) {
+            buffer = null;
+            channel.close();
+        }
+    }
+    
+    private long locked(@Nonnull final LongSupplier operation) {
+        synchronized(jvmLock) {
+            if(buffer == null) {
+                throw new IllegalStateException("Ratelimit store is closed");
+            }
+            try(final FileLock ignored = channel.lock()) {
+                return operation.getAsLong();
+            } catch(final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+    
+    /**
+     * Finds the bucket's record, creating it if it doesn't exist. Must be
+     * called with the file locked.
+     *
+     * @return The offset of the record in the buffer.
+     */
+    private int record(@Nonnull final String bucket, final long now, final int limit, final long window) {
+        final long key = hash(bucket);
+        final int mask = capacity - 1;
+        int slot = (int) (key ^ key >>> 32) & mask;
+        int reusable = -1;
+        for(int probes = 0; probes < capacity; probes++, slot = slot + 1 & mask) {
+            final int record = HEADER_SIZE + slot * RECORD_SIZE;
+            final long stored = buffer.getLong(record + KEY);
+            if(stored == key) {
+                return record;
+            }
+            if(stored == 0) {
+                return create(reusable == -1 ? record : reusable, key, limit, window);
+            }
+            // An idle bucket can be replaced, but only once we know that the
+            // bucket we want isn't further along
+            if(reusable == -1 && buffer.getLong(record + RESET) < now - idleTimeout) {
+                reusable = record;
+            }
+        }
+        if(reusable == -1) {
+            throw new IllegalStateException("Ratelimit store is full (" + capacity + " buckets)");
+        }
+        return create(reusable, key, limit, window);
+    }
+    
+    private int create(final int record, final long key, final int limit, final long window) {
+        buffer.putLong(record + KEY, key);
+        buffer.putLong(record + RESET, Long.MIN_VALUE);
+        buffer.putLong(record + WINDOW, window);
+        buffer.putInt(record + LIMIT, limit);
+        buffer.putInt(record + REMAINING, 0);
+        return record;
+    }
+    
+    /**
+     * 64-bit FNV-1a, with a finaliser so that the low bits, which pick the
+     * slot, depend on every char. {@code 0} marks an empty record, so it's
+     * never returned.
+     */
+    private static long hash(@Nonnull final String bucket) {
+        long hash = 0xCBF29CE484222325L;
+        for(int i = 0; i < bucket.length(); i++) {
+            hash ^= bucket.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+}
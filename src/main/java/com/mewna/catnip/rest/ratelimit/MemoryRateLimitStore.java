@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.ratelimit;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link RateLimitStore} that only lives as long as this process. It
+ * shares budgets between every {@link SharedRateLimiter} it's given to, such
+ * as those of several catnip instances with the same token, and serves as
+ * the reference for how other stores should behave.
+ * <p>
+ * Buckets that reset more than {@link #idleTimeout()} ms ago are swept every
+ * so often, so that buckets we no longer use don't pile up.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@Accessors(fluent = true)
+public class MemoryRateLimitStore implements RateLimitStore {
+    private static final int SWEEP_INTERVAL = 4096;
+    
+    private final Map<String, Bucket> buckets = new HashMap<>();
+    @Getter
+    private final long idleTimeout;
+    private int untilSweep = SWEEP_INTERVAL;
+    
+    public MemoryRateLimitStore() {
+        this(DefaultRateLimiter.DEFAULT_IDLE_TIMEOUT);
+    }
+    
+    /**
+     * @param idleTimeout How long after its reset a bucket may go unused
+     *                    before it's swept, in milliseconds.
+     */
+    public MemoryRateLimitStore(@Nonnegative final long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+    
+    @Override
+    public synchronized long tryAcquire(@Nonnull final String bucket, @Nonnegative final int limit,
+                                        @Nonnegative final long window, final long now) {
+        if(--untilSweep <= 0) {
+            untilSweep = SWEEP_INTERVAL;
+            buckets.values().removeIf(b -> b.reset < now - idleTimeout);
+        }
+        final Bucket b = buckets.computeIfAbsent(bucket, __ -> new Bucket(limit, window));
+        b.adopt(limit, window);
+        if(b.reset <= now) {
+            b.remaining = b.limit;
+            b.reset = now + b.window;
+        }
+        if(b.remaining > 0) {
+            b.remaining--;
+            return 0;
+        }
+        return b.reset - now;
+    }
+    
+    @Override
+    public synchronized void update(@Nonnull final String bucket, final int limit, final int remaining,
+                                    final long reset, final long now) {
+        final Bucket b = buckets.computeIfAbsent(bucket, __ -> new Bucket(Math.max(limit, 1), Math.max(reset - now, 1)));
+        if(limit > 0) {
+            b.limit = limit;
+        }
+        if(b.reset <= now) {
+            // The response is from a window we haven't counted anything in
+            if(remaining >= 0) {
+                b.remaining = remaining;
+            }
+            if(reset > now) {
+                b.window = reset - now;
+            }
+        } else if(remaining >= 0) {
+            b.remaining = Math.min(b.remaining, remaining);
+        }
+        if(reset >= 0) {
+            b.reset = reset;
+        }
+    }
+    
+    @Override
+    public synchronized void pause(@Nonnull final String bucket, final long until, final long now) {
+        // Pausing doesn't know the bucket's limit, so the first acquire sets it
+        final Bucket b = buckets.computeIfAbsent(bucket, __ -> new Bucket(0, 0));
+        b.remaining = 0;
+        b.reset = Math.max(b.reset, until);
+    }
+    
+    /**
+     * @return The number of buckets currently stored.
+     */
+    @Nonnegative
+    public synchronized int bucketCount() {
+        return buckets.size();
+    }
+    
+    private static final class Bucket {
+        private int limit;
+        private int remaining;
+        private long window;
+        private long reset = Long.MIN_VALUE;
+        
+        private Bucket(final int limit, final long window) {
+            this.limit = limit;
+            this.window = window;
+        }
+        
+        private void adopt(final int limit, final long window) {
+            if(this.limit <= 0) {
+                this.limit = limit;
+            }
+            if(this.window <= 0) {
+                this.window = window;
+            }
+        }
+    }
+}
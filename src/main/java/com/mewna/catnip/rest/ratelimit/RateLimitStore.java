@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.ratelimit;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Where a {@link SharedRateLimiter} keeps the state of its buckets. Every
+ * ratelimiter using the same store shares the same budgets, so a store that
+ * several processes can see lets them all use one token without going over
+ * its ratelimits, while each of them still makes its own requests.
+ * <p>
+ * Each call must be atomic with respect to every other ratelimiter using the
+ * store. Times are wall clock milliseconds, since {@link System#nanoTime()}
+ * can't be compared between processes, so processes sharing a store across
+ * machines need to keep their clocks in sync.
+ *
+ * @author amy
+ * @since 10/18/26.
+ * @see MemoryRateLimitStore
+ * @see FileRateLimitStore
+ */
+public interface RateLimitStore {
+    /**
+     * Takes one request from a bucket. If the bucket's reset has passed, it
+     * is refilled to its limit first, and until Discord tells us when it
+     * resets next, it's assumed to reset one window from now.
+     *
+     * @param bucket The bucket to take a request from.
+     * @param limit  The limit to give the bucket if the store hasn't seen it
+     *               before.
+     * @param window The window to give the bucket if the store hasn't seen
+     *               it before, in milliseconds.
+     * @param now    The current time.
+     *
+     * @return {@code 0} if a request was taken, otherwise how many
+     * milliseconds until the bucket resets.
+     */
+    @Nonnegative
+    long tryAcquire(@Nonnull String bucket, @Nonnegative int limit, @Nonnegative long window, long now);
+    
+    /**
+     * Updates a bucket with the ratelimit headers of a response. Other
+     * processes may have made requests that weren't counted by the response
+     * yet, so unless the bucket has reset in the meantime, its remaining
+     * requests may only go down.
+     *
+     * @param bucket    The bucket to update.
+     * @param limit     The bucket's limit, or {@code -1} if unknown.
+     * @param remaining The requests remaining, or {@code -1} if unknown.
+     * @param reset     When the bucket resets, or {@code -1} if unknown.
+     * @param now       The current time.
+     */
+    void update(@Nonnull String bucket, int limit, int remaining, long reset, long now);
+    
+    /**
+     * Stops any requests from being taken from a bucket until the given
+     * time, such as after hitting the global ratelimit. Pausing a bucket
+     * that doesn't exist yet mustn't give it a limit; it gets the one passed
+     * to the first {@link #tryAcquire(String, int, long, long)} as usual.
+     *
+     * @param bucket The bucket to pause.
+     * @param until  When requests may be taken again.
+     * @param now    The current time.
+     */
+    void pause(@Nonnull String bucket, long until, long now);
+}
@@ -56,14 +56,61 @@ public interface RateLimiter {
     @CheckReturnValue
     Completable requestExecution(@Nonnull Route route);
     
+    /**
+     * Called with the {@code X-RateLimit-Bucket} header of a response, before
+     * any of the other updates for it. Discord uses the same bucket hash for
+     * every route that shares a ratelimit, so ratelimiters can use it to
+     * share state between routes with the same hash and major param. The
+     * default implementation ignores it.
+     *
+     * @param route      The route that was executed.
+     * @param bucketHash The bucket hash Discord returned for the route.
+     */
+    default void updateBucketHash(@Nonnull final Route route, @Nonnull final String bucketHash) {
+    }
+    
     void updateRemaining(@Nonnull Route route, int remaining);
     
     void updateLimit(@Nonnull Route route, int limit);
     
     void updateReset(@Nonnull Route route, long resetTimestamp);
     
+    /**
+     * Like {@link #updateReset(Route, long)}, but with how long until the
+     * bucket resets, as given by {@code X-RateLimit-Reset-After}, rather than
+     * when. This is what the requester uses whenever Discord sends it, as it
+     * doesn't depend on the local clock agreeing with Discord's. The default
+     * implementation converts it to a timestamp using the local clock.
+     *
+     * @param route      The route that was executed.
+     * @param resetAfter How long until the route's bucket resets, in
+     *                   milliseconds.
+     */
+    default void updateResetAfter(@Nonnull final Route route, final long resetAfter) {
+        updateReset(route, System.currentTimeMillis() + resetAfter);
+    }
+    
     //called after above 3 to signal no further updates will be done
     void updateDone(@Nonnull Route route);
     
     void updateGlobalRateLimit(long resetTimestamp);
+    
+    /**
+     * Like {@link #updateGlobalRateLimit(long)}, but with how long until the
+     * global ratelimit resets rather than when. The default implementation
+     * converts it to a timestamp using the local clock.
+     *
+     * @param retryAfter How long until the global ratelimit resets, in
+     *                   milliseconds.
+     */
+    default void updateGlobalRateLimitAfter(final long retryAfter) {
+        updateGlobalRateLimit(System.currentTimeMillis() + retryAfter);
+    }
+    
+    /**
+     * Stops any background work this ratelimiter scheduled. Called when
+     * catnip shuts down. The default implementation does nothing.
+     */
+    default void close() {
+    }
 }
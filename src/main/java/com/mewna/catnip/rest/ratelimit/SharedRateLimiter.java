@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.ratelimit;
+
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.rest.Routes.Route;
+import io.reactivex.rxjava3.core.Completable;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A ratelimiter that keeps its buckets in a {@link RateLimitStore}, so that
+ * several processes using the same token can share its ratelimits. Every
+ * request takes one request from its route's bucket and one from the global
+ * bucket, which allows {@link #globalLimit()} requests a second, before it's
+ * executed. Each process still makes its own requests, and only goes to the
+ * store to take from and update its budgets.
+ * <p>
+ * Bucket hashes are learnt by each process on its own, like with
+ * {@link DefaultRateLimiter}. Until a process knows a route's hash, it uses
+ * the route's {@link Route#ratelimitKey()}, which is the same in every
+ * process. A bucket that no one has seen a response for yet allows one
+ * request a second.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@Accessors(fluent = true)
+public class SharedRateLimiter implements RateLimiter {
+    /**
+     * Discord allows 50 requests a second per token, across every route.
+     */
+    public static final int DEFAULT_GLOBAL_LIMIT = 50;
+    /**
+     * The name of the global bucket in the store. Ratelimit keys start with
+     * a slash, and bucket hashes are hex, so it can't be mistaken for either.
+     */
+    public static final String GLOBAL_BUCKET = "global";
+    private static final long WINDOW = 1000;
+    
+    private final BucketHashes bucketHashes = new BucketHashes();
+    // Updates are collected until updateDone, so that each response only
+    // goes to the store once
+    private final Map<String, Update> pending = new ConcurrentHashMap<>();
+    @Getter
+    private final RateLimitStore store;
+    @Getter
+    private final int globalLimit;
+    private Catnip catnip;
+    
+    public SharedRateLimiter(@Nonnull final RateLimitStore store) {
+        this(store, DEFAULT_GLOBAL_LIMIT);
+    }
+    
+    /**
+     * @param store       Where to keep buckets.
+     * @param globalLimit How many requests may be made each second, by
+     *                    everything sharing the store.
+     */
+    public SharedRateLimiter(@Nonnull final RateLimitStore store, @Nonnegative final int globalLimit) {
+        if(globalLimit <= 0) {
+            throw new IllegalArgumentException("Global limit must be positive, got " + globalLimit);
+        }
+        this.store = store;
+        this.globalLimit = globalLimit;
+    }
+    
+    @Override
+    public void catnip(@Nonnull final Catnip catnip) {
+        this.catnip = catnip;
+    }
+    
+    @Nonnull
+    @Override
+    public Completable requestExecution(@Nonnull final Route route) {
+        final String key = bucketHashes.bucketKey(route);
+        catnip.logAdapter().trace("Requested execution for route {} (ratelimit key = {})", route, key);
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        acquire(key, false, future);
+        return Completable.fromCompletionStage(future)
+                .subscribeOn(catnip.rxScheduler())
+                .observeOn(catnip.rxScheduler());
+    }
+    
+    private void acquire(@Nonnull final String key, final boolean acquiredBucket,
+                         @Nonnull final CompletableFuture<Void> future) {
+        try {
+            if(!acquiredBucket) {
+                final long wait = store.tryAcquire(key, 1, WINDOW, System.currentTimeMillis());
+                if(wait > 0) {
+                    retry(key, false, future, wait);
+                    return;
+                }
+            }
+            // The bucket's request is kept while waiting on the global
+            // bucket, so that we don't wait for the bucket all over again
+            final long wait = store.tryAcquire(GLOBAL_BUCKET, globalLimit, WINDOW, System.currentTimeMillis());
+            if(wait > 0) {
+                retry(key, true, future, wait);
+                return;
+            }
+        } catch(final RuntimeException e) {
+            future.completeExceptionally(e);
+            return;
+        }
+        future.complete(null);
+    }
+    
+    private void retry(@Nonnull final String key, final boolean acquiredBucket,
+                       @Nonnull final CompletableFuture<Void> future, final long wait) {
+        catnip.logAdapter().trace("Retrying {} in {} ms", acquiredBucket ? GLOBAL_BUCKET : key, wait);
+        catnip.taskScheduler().setTimer(wait, __ -> acquire(key, acquiredBucket, future));
+    }
+    
+    @Override
+    public void updateBucketHash(@Nonnull final Route route, @Nonnull final String bucketHash) {
+        final String previous = bucketHashes.put(route, bucketHash);
+        if(!bucketHash.equals(previous)) {
+            catnip.logAdapter().trace("Route {} is in bucket {} (was {})", route, bucketHash, previous);
+        }
+    }
+    
+    @Override
+    public void updateRemaining(@Nonnull final Route route, final int remaining) {
+        pending(route).remaining(remaining);
+    }
+    
+    @Override
+    public void updateLimit(@Nonnull final Route route, final int limit) {
+        pending(route).limit(limit);
+    }
+    
+    @Override
+    public void updateReset(@Nonnull final Route route, final long resetTimestamp) {
+        pending(route).reset(resetTimestamp);
+    }
+    
+    @Override
+    public void updateDone(@Nonnull final Route route) {
+        final String key = bucketHashes.bucketKey(route);
+        final Update update = pending.remove(key);
+        if(update != null) {
+            //noinspection SynchronizationOnLocalVariableOrMethodParameter
+            synchronized(update) {
+                store.update(key, update.limit, update.remaining, update.reset, System.currentTimeMillis());
+            }
+        }
+    }
+    
+    @Override
+    public void updateGlobalRateLimit(final long resetTimestamp) {
+        store.pause(GLOBAL_BUCKET, resetTimestamp, System.currentTimeMillis());
+    }
+    
+    @Nonnull
+    private Update pending(@Nonnull final Route route) {
+        return pending.computeIfAbsent(bucketHashes.bucketKey(route), __ -> new Update());
+    }
+    
+    /**
+     * The headers of a response. If responses for the same bucket come back
+     * at the same time, they're merged, keeping the fewest remaining requests
+     * and the latest reset.
+     */
+    private static final class Update {
+        private int limit = -1;
+        private int remaining = -1;
+        private long reset = -1;
+        
+        private synchronized void limit(final int limit) {
+            this.limit = limit;
+        }
+        
+        private synchronized void remaining(final int remaining) {
+            this.remaining = this.remaining < 0 ? remaining : Math.min(this.remaining, remaining);
+        }
+        
+        private synchronized void reset(final long reset) {
+            this.reset = Math.max(this.reset, reset);
+        }
+    }
+}
@@ -41,6 +41,7 @@ import com.mewna.catnip.rest.Routes.Route;
 import com.mewna.catnip.rest.ratelimit.RateLimiter;
 import com.mewna.catnip.shard.LifecycleEvent.Raw;
 import com.mewna.catnip.util.CatnipMeta;
+import com.mewna.catnip.util.CatnipOptionsView;
 import com.mewna.catnip.util.Utils;
 import com.mewna.catnip.util.rx.RxHelpers;
 import io.reactivex.rxjava3.core.Observable;
@@ -60,16 +61,17 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpRequest.Builder;
+import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscribers;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 import static com.mewna.catnip.rest.Routes.HttpMethod.DELETE;
 import static com.mewna.catnip.rest.Routes.HttpMethod.GET;
@@ -77,9 +79,18 @@ import static com.mewna.catnip.rest.Routes.HttpMethod.GET;
 @SuppressWarnings("WeakerAccess")
 public abstract class AbstractRequester implements Requester {
     private static final StackWalker STACK_WALKER = StackWalker.getInstance(Set.of(Option.RETAIN_CLASS_REFERENCE));
+    private static final String USER_AGENT = "DiscordBot (https://github.com/mewna/catnip, " + CatnipMeta.VERSION + ')';
+    private static final BodyHandler<ResponsePayload> STRING_BODY =
+            info -> BodySubscribers.mapping(BodyHandlers.ofString().apply(info), ResponsePayload::new);
+    // Ratelimits and errors are handled here, so those are always read in full
+    private static final BodyHandler<ResponsePayload> STREAMED_BODY =
+            info -> info.statusCode() == 429 || info.statusCode() >= 400
+                    ? STRING_BODY.apply(info)
+                    : BodySubscribers.mapping(BodySubscribers.ofInputStream(), ResponsePayload::new);
     
     protected final RateLimiter rateLimiter;
     protected Catnip catnip;
+    private volatile RequestDefaults requestDefaults;
     
     public AbstractRequester(@Nonnull final RateLimiter rateLimiter) {
         this.rateLimiter = rateLimiter;
@@ -91,6 +102,11 @@ public abstract class AbstractRequester implements Requester {
         rateLimiter.catnip(catnip);
     }
     
+    @Override
+    public void close() {
+        rateLimiter.close();
+    }
+    
     @Nonnull
     @Override
     public Observable<ResponsePayload> queue(@Nonnull final OutboundRequest r) {
@@ -116,11 +132,8 @@ public abstract class AbstractRequester implements Requester {
     protected abstract Bucket getBucket(@Nonnull Route route);
     
     protected void executeRequest(@Nonnull final QueuedRequest request) {
-        Route route = request.route();
         // Compile route for usage
-        for(final Entry<String, String> stringStringEntry : request.request().params().entrySet()) {
-            route = route.compile(stringStringEntry.getKey(), stringStringEntry.getValue());
-        }
+        final Route route = request.route().compile(request.request().params());
         if(request.request().buffers() != null) {
             handleRouteBufferBodySend(route, request);
         } else {
@@ -181,8 +194,8 @@ public abstract class AbstractRequester implements Requester {
     
     protected void executeHttpRequest(@Nonnull final Route route, @Nullable final BodyPublisher body,
                                       @Nonnull final QueuedRequest request, @Nonnull final String mediaType) {
-        final String apiHostVersion = catnip.options().apiHost() + "/api/v" + catnip.options().apiVersion();
-        final Builder builder = HttpRequest.newBuilder(URI.create(apiHostVersion + route.baseRoute()));
+        final RequestDefaults defaults = requestDefaults();
+        final Builder builder = HttpRequest.newBuilder(URI.create(defaults.apiPrefix.concat(route.baseRoute())));
         
         if(route.method() == GET) {
             // No body
@@ -203,12 +216,12 @@ public abstract class AbstractRequester implements Requester {
         }
         
         // Required by Discord
-        builder.setHeader("User-Agent", "DiscordBot (https://github.com/mewna/catnip, " + CatnipMeta.VERSION + ')');
+        builder.setHeader("User-Agent", USER_AGENT);
         
         // As of API v8, `X-Ratelimit-Precision` is no longer respected; the relevant headers are ms-precise by default.
         
         if(request.request().needsToken()) {
-            builder.setHeader("Authorization", "Bot " + catnip.options().token());
+            builder.setHeader("Authorization", defaults.authorization);
         }
         if(request.request().reason() != null) {
             catnip.logAdapter().trace("Adding reason header due to specific needs.");
@@ -218,7 +231,7 @@ public abstract class AbstractRequester implements Requester {
         // Update request start time as soon as possible
         // See QueuedRequest docs for why we do this
         request.start = System.nanoTime();
-        catnip.options().httpClient().sendAsync(builder.build(), BodyHandlers.ofString())
+        catnip.options().httpClient().sendAsync(builder.build(), request.request().streamResponse() ? STREAMED_BODY : STRING_BODY)
                 .thenAccept(res -> {
                     final int code = res.statusCode();
                     final long requestEnd = System.nanoTime();
@@ -232,24 +245,37 @@ public abstract class AbstractRequester implements Requester {
                 });
     }
     
+    /**
+     * @return The parts of each request that only depend on the options,
+     * built again whenever the options are replaced.
+     */
+    @Nonnull
+    protected RequestDefaults requestDefaults() {
+        final CatnipOptionsView options = catnip.options();
+        RequestDefaults defaults = requestDefaults;
+        if(defaults == null || defaults.options != options) {
+            defaults = new RequestDefaults(options);
+            requestDefaults = defaults;
+        }
+        return defaults;
+    }
+    
     protected void handleResponse(@Nonnull final Route route, final int statusCode,
                                   final long requestEnd, final String body, final HttpHeaders headers,
                                   @Nonnull final QueuedRequest request) {
-        final String dateHeader = headers.firstValue("Date").orElse(null);
-        final long requestDuration = TimeUnit.NANOSECONDS.toMillis(requestEnd - request.start);
-        final long timeDifference;
-        if(dateHeader == null || route.requiresMsPrecision()) {
-            timeDifference = requestDuration;
-            catnip.logAdapter().trace("No date header, time difference = request duration = {}", timeDifference);
-        } else {
-            final long now = System.currentTimeMillis();
-            final long date = OffsetDateTime.parse(dateHeader, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
-                    .toEpochMilli();
-            timeDifference = now - date + requestDuration;
-            catnip.logAdapter().trace("Have date header, time difference = now - date + request duration = " +
-                            "{} - {} + {} = {}",
-                    now, date, requestDuration, timeDifference);
-        }
+        handleResponse(route, statusCode, requestEnd, new ResponsePayload(body), headers, request);
+    }
+    
+    /**
+     * @param body The response body, which is only streamed for successful
+     *             responses to requests that asked for it.
+     */
+    protected void handleResponse(@Nonnull final Route route, final int statusCode,
+                                  final long requestEnd, @Nonnull final ResponsePayload body,
+                                  final HttpHeaders headers, @Nonnull final QueuedRequest request) {
+        // Only needed when Discord doesn't send X-RateLimit-Reset-After, so
+        // don't parse the date unless we have to
+        final LongSupplier timeDifference = () -> timeDifference(route, requestEnd, headers, request);
         if(statusCode == 429) {
             if(catnip.options().logLifecycleEvents()) {
                 catnip.logAdapter().warn(
@@ -268,21 +294,21 @@ public abstract class AbstractRequester implements Requester {
             String retry = headers.firstValue("Retry-After").orElse(null);
             if(retry == null || retry.isEmpty()) {
                 try {
-                    retry = JsonParser.object().from(body).get("retry_after").toString();
+                    retry = JsonParser.object().from(body.string()).get("retry_after").toString();
                 } catch(final JsonParserException e) {
                     throw new IllegalStateException(e);
                 }
             }
             // Retry-After is now returned in seconds, so convert to be useful
-            final long retryAfter = TimeUnit.SECONDS.toMillis(Long.parseLong(retry));
+            final long retryAfter = secondsToMillis(retry);
             if(Boolean.parseBoolean(headers.firstValue("X-RateLimit-Global").orElse(null))) {
                 catnip.logAdapter().trace("Updating global bucket due to ratelimit.");
-                rateLimiter.updateGlobalRateLimit(System.currentTimeMillis() + timeDifference + retryAfter);
+                rateLimiter.updateGlobalRateLimitAfter(retryAfter);
             } else {
                 catnip.logAdapter().trace("Updating bucket headers due to ratelimit.");
-                updateBucket(route, headers,
-                        System.currentTimeMillis() + timeDifference + retryAfter, timeDifference);
+                updateBucket(route, headers, retryAfter, timeDifference);
             }
+            request.bucket().updateRemaining(0);
             // It should get autodisposed anyway, so we don't need to worry
             // about handling the method result
             //noinspection ResultOfMethodCallIgnored
@@ -296,9 +322,11 @@ public abstract class AbstractRequester implements Requester {
         } else {
             catnip.logAdapter().trace("Updating bucket headers from successful completion with code {}.", statusCode);
             updateBucket(route, headers, -1, timeDifference);
+            headers.firstValueAsLong("X-RateLimit-Remaining")
+                    .ifPresent(remaining -> request.bucket().updateRemaining(Math.toIntExact(remaining)));
             request.bucket().requestDone();
             
-            ResponsePayload payload = new ResponsePayload(body);
+            ResponsePayload payload = body;
             for(final Extension extension : catnip.extensionManager().extensions()) {
                 for(final CatnipHook hook : extension.hooks()) {
                     payload = hook.rawRestReceiveDataHook(route, payload);
@@ -420,44 +448,141 @@ public abstract class AbstractRequester implements Requester {
         }
     }
     
+    /**
+     * @param retryAfter     How long until the route may be retried in ms, if
+     *                       it was ratelimited, or {@code -1}.
+     * @param timeDifference How far ahead of Discord's clock ours is, in ms.
+     *                       Only used if Discord didn't send
+     *                       {@code X-RateLimit-Reset-After}.
+     */
     protected void updateBucket(@Nonnull final Route route, @Nonnull final HttpHeaders headers, final long retryAfter,
-                                final long timeDifference) {
-        final Optional<Long> rateLimitReset = headers.firstValue("X-RateLimit-Reset")
-                .map(s -> Long.parseLong(s.replace(".", "")));
+                                @Nonnull final LongSupplier timeDifference) {
         final OptionalLong rateLimitRemaining = headers.firstValueAsLong("X-RateLimit-Remaining");
         final OptionalLong rateLimitLimit = headers.firstValueAsLong("X-RateLimit-Limit");
-        final Optional<Long> rateLimitResetAfter = headers.firstValue("X-RateLimit-Reset-After")
-                .map(s -> Long.parseLong(s.replace(".", "")));
+        final String rateLimitResetAfter = headers.firstValue("X-RateLimit-Reset-After").orElse(null);
         
         catnip.logAdapter().trace(
-                "Updating headers for {} ({}): remaining = {}, limit = {}, reset = {}, retryAfter = {}, timeDifference = {}",
+                "Updating headers for {} ({}): remaining = {}, limit = {}, reset after = {}, retryAfter = {}",
                 route, route.ratelimitKey(), rateLimitRemaining.orElse(-1L), rateLimitLimit.orElse(-1L),
-                rateLimitReset.orElse(-1L), retryAfter, timeDifference
+                rateLimitResetAfter, retryAfter
         );
         
-        if(retryAfter > 0) {
+        headers.firstValue("X-RateLimit-Bucket").ifPresent(hash -> rateLimiter.updateBucketHash(route, hash));
+        
+        long resetAfter = rateLimitResetAfter == null ? -1 : secondsToMillis(rateLimitResetAfter);
+        if(retryAfter >= 0) {
             rateLimiter.updateRemaining(route, 0);
-            if(catnip.options().restRatelimitsWithoutClockSync() && rateLimitResetAfter.isPresent()) {
-                rateLimiter.updateReset(route, System.currentTimeMillis() + timeDifference
-                        + rateLimitResetAfter.get());
-            } else {
-                rateLimiter.updateReset(route, retryAfter);
-            }
+            // Shared ratelimits can ask us to wait for longer than the bucket
+            resetAfter = Math.max(resetAfter, retryAfter);
+        }
+        if(resetAfter >= 0) {
+            rateLimiter.updateResetAfter(route, resetAfter);
+        } else {
+            // Without Reset-After, we have to go by Discord's clock
+            headers.firstValue("X-RateLimit-Reset").ifPresent(reset ->
+                    rateLimiter.updateReset(route, secondsToMillis(reset) + timeDifference.getAsLong()));
         }
-        
-        rateLimitReset.ifPresent(aLong -> rateLimiter.updateReset(route, aLong + timeDifference));
         rateLimitLimit.ifPresent(aLong -> rateLimiter.updateLimit(route, Math.toIntExact(aLong)));
         rateLimitRemaining.ifPresent(aLong -> rateLimiter.updateRemaining(route, Math.toIntExact(aLong)));
         
         rateLimiter.updateDone(route);
     }
     
+    /**
+     * @return How far ahead of Discord's clock ours is, in ms, going by the
+     * response's {@code Date} header, plus how long the request took.
+     */
+    protected long timeDifference(@Nonnull final Route route, final long requestEnd, @Nonnull final HttpHeaders headers,
+                                  @Nonnull final QueuedRequest request) {
+        final String dateHeader = headers.firstValue("Date").orElse(null);
+        final long requestDuration = TimeUnit.NANOSECONDS.toMillis(requestEnd - request.start);
+        final long timeDifference;
+        if(dateHeader == null || route.requiresMsPrecision()) {
+            timeDifference = requestDuration;
+            catnip.logAdapter().trace("No date header, time difference = request duration = {}", timeDifference);
+        } else {
+            final long now = System.currentTimeMillis();
+            final long date = OffsetDateTime.parse(dateHeader, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
+                    .toEpochMilli();
+            timeDifference = now - date + requestDuration;
+            catnip.logAdapter().trace("Have date header, time difference = now - date + request duration = " +
+                            "{} - {} + {} = {}",
+                    now, date, requestDuration, timeDifference);
+        }
+        return timeDifference;
+    }
+    
+    /**
+     * Parses a number of seconds, as used by Discord's ratelimit headers, ie.
+     * {@code 1}, {@code 0.5} or {@code 1691112321.123}, without going
+     * through a {@code double}. Anything past millisecond precision is
+     * rounded up.
+     *
+     * @param seconds The number of seconds.
+     *
+     * @return The number of milliseconds.
+     */
+    static long secondsToMillis(@Nonnull final CharSequence seconds) {
+        final int length = seconds.length();
+        long whole = 0;
+        long fraction = 0;
+        int fractionDigits = -1;
+        boolean roundUp = false;
+        for(int i = 0; i < length; i++) {
+            final char c = seconds.charAt(i);
+            if(c == '.' && fractionDigits == -1) {
+                fractionDigits = 0;
+            } else if(c >= '0' && c <= '9') {
+                if(fractionDigits == -1) {
+                    whole = Math.addExact(Math.multiplyExact(whole, 10), c - '0');
+                } else if(fractionDigits < 3) {
+                    fraction = fraction * 10 + (c - '0');
+                    fractionDigits++;
+                } else if(c != '0') {
+                    roundUp = true;
+                }
+            } else {
+                throw new NumberFormatException("Not a number of seconds: " + seconds);
+            }
+        }
+        if(length == 0 || fractionDigits == 0 && length == 1) {
+            throw new NumberFormatException("Not a number of seconds: " + seconds);
+        }
+        for(int i = Math.max(fractionDigits, 0); i < 3; i++) {
+            fraction *= 10;
+        }
+        return Math.addExact(Math.multiplyExact(whole, 1000), fraction + (roundUp ? 1 : 0));
+    }
+    
     public interface Bucket {
         void queueRequest(@Nonnull QueuedRequest request);
         
         void failedRequest(@Nonnull QueuedRequest request, @Nonnull Throwable failureCause);
         
         void requestDone();
+        
+        /**
+         * Called with the {@code X-RateLimit-Remaining} header of a response
+         * to one of this bucket's requests, before {@link #requestDone()}.
+         * The default implementation ignores it.
+         *
+         * @param remaining How many more requests the route's ratelimit
+         *                  bucket will currently accept.
+         */
+        default void updateRemaining(final int remaining) {
+        }
+    }
+    
+    protected static final class RequestDefaults {
+        private final CatnipOptionsView options;
+        private final String apiPrefix;
+        private final String authorization;
+        
+        private RequestDefaults(@Nonnull final CatnipOptionsView options) {
+            this.options = options;
+            apiPrefix = options.apiHost() + "/api/v" + options.apiVersion();
+            authorization = "Bot " + options.token();
+        }
     }
     
     @Getter
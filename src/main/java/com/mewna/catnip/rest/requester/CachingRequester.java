@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.requester;
+
+import com.grack.nanojson.JsonObject;
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.rest.ResponsePayload;
+import com.mewna.catnip.rest.Routes.Route;
+import com.mewna.catnip.shard.DiscordEvent.Raw;
+import com.mewna.catnip.util.rx.RxHelpers;
+import io.reactivex.rxjava3.core.Observable;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.mewna.catnip.rest.Routes.*;
+import static com.mewna.catnip.rest.Routes.HttpMethod.GET;
+
+/**
+ * A requester that caches the responses of read-only routes for a short
+ * time, so that data catnip doesn't cache itself, like messages or invites,
+ * isn't fetched again each time it's needed. Each cached route has its own
+ * TTL, and once the cache is full, the least recently used responses are
+ * evicted.
+ * <p>
+ * Responses are keyed by compiled route and query string. Only requests
+ * without a body are cached, and streamed responses never are, as they can
+ * only be read once. Cached responses are dropped early when:
+ * <ul>
+ *     <li>A gateway event makes them stale, eg. {@code MESSAGE_UPDATE} drops
+ *     the cached messages of its channel. See {@link #invalidatedBy(String)}.</li>
+ *     <li>A request that isn't a GET is made for the same channel or guild
+ *     through this requester.</li>
+ * </ul>
+ * Routes outside of {@link #DEFAULT_TTLS} can be cached too, but they're
+ * only ever dropped by writes and their TTL.
+ * <p>
+ * Wraps another requester, which does the actual requesting:
+ * <pre>{@code
+ * new CatnipOptions(token).requester(new CachingRequester(new SerialRequester(new DefaultRateLimiter())));
+ * }</pre>
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@Accessors(fluent = true)
+public class CachingRequester implements Requester {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    /**
+     * How long responses of each route are cached for by default, in
+     * milliseconds.
+     */
+    public static final Map<Route, Long> DEFAULT_TTLS = Map.of(
+            GET_GATEWAY_BOT, TimeUnit.MINUTES.toMillis(1),
+            LIST_GUILD_MEMBERS, TimeUnit.SECONDS.toMillis(10),
+            GET_GUILD_MEMBER, TimeUnit.SECONDS.toMillis(10),
+            GET_CHANNEL_MESSAGES, TimeUnit.SECONDS.toMillis(5),
+            GET_CHANNEL_MESSAGE, TimeUnit.SECONDS.toMillis(5),
+            GET_PINNED_MESSAGES, TimeUnit.SECONDS.toMillis(30),
+            GET_CHANNEL_INVITES, TimeUnit.SECONDS.toMillis(30),
+            GET_GUILD_INVITES, TimeUnit.SECONDS.toMillis(30)
+    );
+    // Which templates each event makes stale, and the field of the event
+    // with the id of the channel or guild whose responses it affects
+    private static final Map<String, List<Invalidation>> INVALIDATIONS = new HashMap<>();
+    
+    static {
+        invalidates("channel_id", List.of(GET_CHANNEL_MESSAGES), Raw.MESSAGE_CREATE);
+        invalidates("channel_id", List.of(GET_CHANNEL_MESSAGES, GET_CHANNEL_MESSAGE, GET_PINNED_MESSAGES),
+                Raw.MESSAGE_UPDATE, Raw.MESSAGE_DELETE, Raw.MESSAGE_DELETE_BULK, Raw.MESSAGE_REACTION_ADD,
+                Raw.MESSAGE_REACTION_REMOVE, Raw.MESSAGE_REACTION_REMOVE_ALL, Raw.MESSAGE_REACTION_REMOVE_EMOJI);
+        invalidates("channel_id", List.of(GET_PINNED_MESSAGES), Raw.CHANNEL_PINS_UPDATE);
+        invalidates("id", List.of(GET_CHANNEL_MESSAGES, GET_CHANNEL_MESSAGE, GET_PINNED_MESSAGES, GET_CHANNEL_INVITES),
+                Raw.CHANNEL_DELETE);
+        invalidates("channel_id", List.of(GET_CHANNEL_INVITES), Raw.INVITE_CREATE, Raw.INVITE_DELETE);
+        invalidates("guild_id", List.of(GET_GUILD_INVITES), Raw.INVITE_CREATE, Raw.INVITE_DELETE);
+        invalidates("guild_id", List.of(LIST_GUILD_MEMBERS, GET_GUILD_MEMBER),
+                Raw.GUILD_MEMBER_ADD, Raw.GUILD_MEMBER_REMOVE, Raw.GUILD_MEMBER_UPDATE);
+        invalidates("id", List.of(LIST_GUILD_MEMBERS, GET_GUILD_MEMBER, GET_GUILD_INVITES), Raw.GUILD_DELETE);
+    }
+    
+    @Getter
+    private final Requester delegate;
+    @Getter
+    private final int maxSize;
+    // TTLs in nanoseconds, by template
+    private final Map<String, Long> ttls;
+    private final Set<String> invalidatingEvents;
+    // Guarded by this, like everything below it
+    private final LinkedHashMap<String, CachedResponse> responses = new LinkedHashMap<>(16, 0.75F, true);
+    // Keys of the cached responses, by the id of their channel or guild
+    private final Map<String, Set<String>> keysByMajor = new HashMap<>();
+    // Requests that will be cached once they complete, unless they're made
+    // stale while in flight
+    private final Set<PendingResponse> pending = new HashSet<>();
+    private Catnip catnip;
+    
+    public CachingRequester(@Nonnull final Requester delegate) {
+        this(delegate, DEFAULT_TTLS, DEFAULT_MAX_SIZE);
+    }
+    
+    /**
+     * @param ttls    How long to cache the responses of each route for, in
+     *                milliseconds. Routes must be given as declared in
+     *                {@link com.mewna.catnip.rest.Routes}, and must all be
+     *                GET routes.
+     * @param maxSize How many responses may be cached at once.
+     */
+    public CachingRequester(@Nonnull final Requester delegate, @Nonnull final Map<Route, Long> ttls,
+                            @Nonnegative final int maxSize) {
+        for(final Route route : ttls.keySet()) {
+            if(route.method() != GET) {
+                throw new IllegalArgumentException("Only GET requests can be cached, but got " + route);
+            }
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttls = ttls.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(e -> e.getKey().template(),
+                        e -> TimeUnit.MILLISECONDS.toNanos(e.getValue())));
+        invalidatingEvents = INVALIDATIONS.entrySet().stream()
+                .filter(e -> e.getValue().stream().anyMatch(i -> this.ttls.containsKey(i.template())))
+                .map(Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+    
+    private static void invalidates(@Nonnull final String field, @Nonnull final List<Route> routes,
+                                    @Nonnull final String... events) {
+        for(final String event : events) {
+            for(final Route route : routes) {
+                INVALIDATIONS.computeIfAbsent(event, __ -> new ArrayList<>())
+                        .add(new Invalidation(field, route.template()));
+            }
+        }
+    }
+    
+    @Override
+    public void catnip(@Nonnull final Catnip catnip) {
+        this.catnip = catnip;
+        delegate.catnip(catnip);
+    }
+    
+    @Override
+    public void close() {
+        delegate.close();
+    }
+    
+    @Nonnull
+    @Override
+    public Observable<ResponsePayload> queue(@Nonnull final OutboundRequest r) {
+        final Route route = r.route();
+        if(route.method() != GET) {
+            // Dropped both before and after the write, so that nothing read
+            // while it's in flight is cached either
+            drop(route.majorParamValue(), null);
+            return forward(r, __ -> drop(route.majorParamValue(), null));
+        }
+        final Long ttl = ttls.get(route.template());
+        if(ttl == null || r.object() != null || r.array() != null || r.buffers() != null || r.streamResponse()) {
+            return delegate.queue(r);
+        }
+        // Requests without a token may well get a different response
+        final String key = route.compile(r.params()).baseRoute() + (r.needsToken() ? "" : " anonymous");
+        final PendingResponse request = new PendingResponse(route.template(), route.majorParamValue());
+        final ResponsePayload cached = begin(key, request);
+        if(cached != null) {
+            catnip.logAdapter().trace("Using cached response for {}", r);
+            return Observable.just(cached).subscribeOn(catnip.rxScheduler());
+        }
+        return forward(r, payload -> finish(key, request, payload, ttl));
+    }
+    
+    /**
+     * @return Whether events of the given type can make any of the cached
+     * routes stale.
+     */
+    @Override
+    public boolean invalidatedBy(@Nonnull final String type) {
+        return invalidatingEvents.contains(type);
+    }
+    
+    @Override
+    public void invalidate(@Nonnull final String type, @Nonnull final JsonObject data) {
+        for(final Invalidation invalidation : INVALIDATIONS.getOrDefault(type, List.of())) {
+            final String id = data.getString(invalidation.field(), null);
+            if(id != null && ttls.containsKey(invalidation.template())) {
+                drop(id, invalidation.template());
+            }
+        }
+    }
+    
+    /**
+     * Drops every cached response.
+     */
+    public synchronized void invalidateAll() {
+        responses.clear();
+        keysByMajor.clear();
+        pending.forEach(request -> request.stale = true);
+    }
+    
+    /**
+     * @return The number of responses currently cached, including any that
+     * have expired but haven't been requested again since.
+     */
+    @Nonnegative
+    public synchronized int size() {
+        return responses.size();
+    }
+    
+    /**
+     * Queues the request with the delegate, and calls the callback with the
+     * response before passing it on. The request is made even if the
+     * returned observable is never subscribed to, like it would be without
+     * this requester.
+     */
+    @Nonnull
+    private Observable<ResponsePayload> forward(@Nonnull final OutboundRequest r,
+                                                @Nonnull final Consumer<ResponsePayload> callback) {
+        final CompletableFuture<ResponsePayload> future = new CompletableFuture<>();
+        delegate.queue(r).subscribe(
+                payload -> {
+                    callback.accept(payload);
+                    future.complete(payload);
+                },
+                e -> {
+                    callback.accept(null);
+                    future.completeExceptionally(e);
+                });
+        return RxHelpers.futureToObservable(future)
+                .subscribeOn(catnip.rxScheduler())
+                .observeOn(catnip.rxScheduler());
+    }
+    
+    /**
+     * @return The cached response for the key, or {@code null} if the
+     * request has to be made, in which case it's tracked until it
+     * {@link #finish(String, PendingResponse, ResponsePayload, long) finishes}.
+     */
+    @Nullable
+    private synchronized ResponsePayload begin(@Nonnull final String key, @Nonnull final PendingResponse request) {
+        final CachedResponse cached = responses.get(key);
+        if(cached != null) {
+            if(cached.expiry() - System.nanoTime() > 0) {
+                return cached.payload();
+            }
+            remove(key);
+        }
+        pending.add(request);
+        return null;
+    }
+    
+    private synchronized void finish(@Nonnull final String key, @Nonnull final PendingResponse request,
+                                     @Nullable final ResponsePayload payload, final long ttl) {
+        pending.remove(request);
+        if(payload == null || request.stale) {
+            return;
+        }
+        remove(key);
+        responses.put(key, new CachedResponse(request.template, request.major, payload, System.nanoTime() + ttl));
+        keysByMajor.computeIfAbsent(String.valueOf(request.major), __ -> new HashSet<>()).add(key);
+        if(responses.size() > maxSize) {
+            // Access ordered, so the first entry is the least recently used
+            remove(responses.keySet().iterator().next());
+        }
+    }
+    
+    /**
+     * Drops the cached responses for a channel or guild.
+     *
+     * @param major    The id of the channel or guild. Routes without a major
+     *                 param are never invalidated.
+     * @param template The template of the routes to drop, or {@code null} to
+     *                 drop every route.
+     */
+    private synchronized void drop(@Nullable final String major, @Nullable final String template) {
+        if(major == null) {
+            return;
+        }
+        for(final PendingResponse request : pending) {
+            if(major.equals(request.major) && (template == null || template.equals(request.template))) {
+                request.stale = true;
+            }
+        }
+        final Set<String> keys = keysByMajor.get(major);
+        if(keys == null) {
+            return;
+        }
+        for(final String key : List.copyOf(keys)) {
+            if(template == null || template.equals(responses.get(key).template())) {
+                remove(key);
+            }
+        }
+    }
+    
+    private void remove(@Nonnull final String key) {
+        final CachedResponse removed = responses.remove(key);
+        if(removed == null) {
+            return;
+        }
+        final String major = String.valueOf(removed.major());
+        final Set<String> keys = keysByMajor.get(major);
+        keys.remove(key);
+        if(keys.isEmpty()) {
+            keysByMajor.remove(major);
+        }
+    }
+    
+    private record Invalidation(String field, String template) {
+    }
+    
+    private record CachedResponse(String template, String major, ResponsePayload payload, long expiry) {
+    }
+    
+    private static final class PendingResponse {
+        private final String template;
+        private final String major;
+        private boolean stale;
+        
+        private PendingResponse(final String template, final String major) {
+            this.template = template;
+            this.major = major;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.requester;
+
+import com.grack.nanojson.JsonObject;
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.rest.ResponsePayload;
+import com.mewna.catnip.rest.Routes;
+import com.mewna.catnip.rest.Routes.Route;
+import com.mewna.catnip.util.rx.RxHelpers;
+import io.reactivex.rxjava3.core.Observable;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static com.mewna.catnip.rest.Routes.HttpMethod.GET;
+
+/**
+ * A requester that merges identical GET requests while they're in flight.
+ * When a request is queued while an identical one is still waiting for its
+ * response, it isn't sent again, and both get the first request's response
+ * instead. This saves on ratelimits when many handlers fetch the same
+ * entity at once, like a guild or a user.
+ * <p>
+ * Requests are identical when they're for the same compiled route and query
+ * string. Only requests for the routes in the allow-list are merged, and only
+ * if they have no body and don't {@link OutboundRequest#streamResponse() stream}
+ * their response, as a streamed response can only be read once.
+ * <p>
+ * Wraps another requester, which does the actual requesting:
+ * <pre>{@code
+ * new CatnipOptions(token).requester(new CoalescingRequester(new SerialRequester(new DefaultRateLimiter())));
+ * }</pre>
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@Accessors(fluent = true)
+public class CoalescingRequester implements Requester {
+    /**
+     * The routes that are merged by default. These are the entities that are
+     * most often fetched by several handlers at once.
+     */
+    public static final List<Route> DEFAULT_ROUTES = List.of(
+            Routes.GET_GUILD,
+            Routes.GET_GUILD_MEMBER,
+            Routes.GET_GUILD_ROLES,
+            Routes.GET_CHANNEL,
+            Routes.GET_USER,
+            Routes.GET_CURRENT_USER
+    );
+    
+    private final Map<String, CompletableFuture<ResponsePayload>> inFlight = new ConcurrentHashMap<>();
+    @Getter
+    private final Requester delegate;
+    // Templates of the allowed routes, which every route compiled from them
+    // shares
+    private final Set<String> templates;
+    private Catnip catnip;
+    
+    public CoalescingRequester(@Nonnull final Requester delegate) {
+        this(delegate, DEFAULT_ROUTES);
+    }
+    
+    /**
+     * @param routes The routes to merge requests for, as declared in
+     *               {@link Routes}. All of them must be GET routes.
+     */
+    public CoalescingRequester(@Nonnull final Requester delegate, @Nonnull final Collection<Route> routes) {
+        for(final Route route : routes) {
+            if(route.method() != GET) {
+                throw new IllegalArgumentException("Only GET requests can be merged, but got " + route);
+            }
+        }
+        this.delegate = delegate;
+        templates = routes.stream().map(Route::template).collect(Collectors.toUnmodifiableSet());
+    }
+    
+    @Override
+    public void catnip(@Nonnull final Catnip catnip) {
+        this.catnip = catnip;
+        delegate.catnip(catnip);
+    }
+    
+    @Override
+    public void close() {
+        delegate.close();
+    }
+    
+    @Nonnull
+    @Override
+    public Observable<ResponsePayload> queue(@Nonnull final OutboundRequest r) {
+        final String key = key(r);
+        if(key == null) {
+            return delegate.queue(r);
+        }
+        final CompletableFuture<ResponsePayload> future = new CompletableFuture<>();
+        final CompletableFuture<ResponsePayload> existing = inFlight.putIfAbsent(key, future);
+        if(existing != null) {
+            catnip.logAdapter().trace("Merged request {} with one in flight", r);
+            return observe(existing);
+        }
+        // Removed before the response is handed out, so anything queued
+        // once it has been handled makes a new request
+        delegate.queue(r).subscribe(
+                payload -> {
+                    inFlight.remove(key, future);
+                    future.complete(payload);
+                },
+                e -> {
+                    inFlight.remove(key, future);
+                    future.completeExceptionally(e);
+                });
+        return observe(future);
+    }
+    
+    @Override
+    public boolean invalidatedBy(@Nonnull final String type) {
+        return delegate.invalidatedBy(type);
+    }
+    
+    @Override
+    public void invalidate(@Nonnull final String type, @Nonnull final JsonObject data) {
+        delegate.invalidate(type, data);
+    }
+    
+    /**
+     * @return Whether requests for the given route may be merged.
+     */
+    @CheckReturnValue
+    public boolean coalesces(@Nonnull final Route route) {
+        return route.method() == GET && templates.contains(route.template());
+    }
+    
+    /**
+     * @return The number of distinct requests currently in flight that other
+     * requests can be merged with.
+     */
+    @Nonnegative
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+    
+    /**
+     * @return The key identical requests share, or {@code null} if the
+     * request can't be merged.
+     */
+    @Nullable
+    private String key(@Nonnull final OutboundRequest r) {
+        if(!coalesces(r.route()) || r.object() != null || r.array() != null || r.buffers() != null
+                || r.reason() != null || r.streamResponse()) {
+            return null;
+        }
+        // Compiled routes include their query string. The token is part of
+        // the key, as requests without one may well get a different response.
+        return r.route().compile(r.params()).baseRoute() + (r.needsToken() ? "" : " anonymous");
+    }
+    
+    @Nonnull
+    private Observable<ResponsePayload> observe(@Nonnull final CompletableFuture<ResponsePayload> future) {
+        return RxHelpers.futureToObservable(future)
+                .subscribeOn(catnip.rxScheduler())
+                .observeOn(catnip.rxScheduler());
+    }
+}
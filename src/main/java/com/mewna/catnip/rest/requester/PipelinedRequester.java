@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.requester;
+
+import com.mewna.catnip.rest.ratelimit.RateLimiter;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link SerialRequester} that lets several requests for the same route be
+ * executing at once, as long as the route's ratelimit bucket has room for
+ * them. Each bucket allows as many requests in flight as the last response's
+ * {@code X-RateLimit-Remaining} header said the bucket would accept. Until a
+ * response has been seen, or once the bucket is exhausted, requests are
+ * executed one at a time, exactly like the serial requester.
+ * <p>
+ * Requests are still sent in the order they were queued, but since several
+ * can be in flight, Discord may not handle them in that order. Don't use this
+ * if, for example, messages in a channel must arrive in the order they were
+ * sent.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public class PipelinedRequester extends SerialRequester {
+    public PipelinedRequester(@Nonnull final RateLimiter rateLimiter) {
+        super(rateLimiter);
+    }
+    
+    /**
+     * @param idleTimeout How long a bucket may go unused before it's evicted,
+     *                    in milliseconds.
+     */
+    public PipelinedRequester(@Nonnull final RateLimiter rateLimiter, @Nonnegative final long idleTimeout) {
+        super(rateLimiter, idleTimeout);
+    }
+    
+    @Nonnull
+    @Override
+    protected SerialBucket createBucket() {
+        return new PipelinedBucket(this);
+    }
+    
+    protected static class PipelinedBucket extends SerialBucket {
+        // Unknown until the first response, so only one request at a time
+        private int remaining = 1;
+        
+        protected PipelinedBucket(final AbstractRequester requester) {
+            super(requester);
+        }
+        
+        @Override
+        public synchronized void updateRemaining(final int remaining) {
+            this.remaining = remaining;
+        }
+        
+        @Override
+        protected synchronized int maxInFlight() {
+            return Math.max(1, remaining);
+        }
+    }
+}
@@ -64,6 +64,41 @@ public interface Requester {
     @CheckReturnValue
     Observable<ResponsePayload> queue(@Nonnull OutboundRequest r);
     
+    /**
+     * Whether gateway events of the given type can make responses that this
+     * requester has cached stale, ie. whether it needs to be given them
+     * through {@link #invalidate(String, JsonObject)}. Shards skip parsing
+     * events that nothing needs, so this should be as narrow as it can be.
+     * The default is {@code false}, as requesters don't cache responses.
+     *
+     * @param type The type of the event, ie. its {@code t} field.
+     *
+     * @return Whether the requester needs events of the type.
+     */
+    default boolean invalidatedBy(@Nonnull final String type) {
+        return false;
+    }
+    
+    /**
+     * Drops any cached responses that a gateway event made stale. This is
+     * only called for events that {@link #invalidatedBy(String)} accepts.
+     *
+     * @param type The type of the event, ie. its {@code t} field.
+     * @param data The event's {@code d}. Events bound straight from the
+     *             payload only have their ids; see
+     *             {@link com.mewna.catnip.shard.BoundDispatch}.
+     */
+    default void invalidate(@Nonnull final String type, @Nonnull final JsonObject data) {
+    }
+    
+    /**
+     * Stops any background work this requester, or its ratelimiter,
+     * scheduled. Called when catnip shuts down. The default implementation
+     * does nothing.
+     */
+    default void close() {
+    }
+    
     /**
      * POJO that represents an outbound request to Discord's REST API.
      */
@@ -88,6 +123,14 @@ public interface Requester {
         @Setter
         private boolean emptyBody;
         
+        /**
+         * Whether to stream the response body instead of reading it into a
+         * string first, so that large arrays can be read an element at a
+         * time. See {@link ResponsePayload}.
+         */
+        @Setter
+        private boolean streamResponse;
+        
         public OutboundRequest(final Route route, final Map<String, String> params) {
             this.route = route;
             this.params = params;
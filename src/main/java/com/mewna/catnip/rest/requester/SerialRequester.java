@@ -29,42 +29,115 @@ package com.mewna.catnip.rest.requester;
 
 import com.mewna.catnip.rest.Routes.Route;
 import com.mewna.catnip.rest.ratelimit.RateLimiter;
+import lombok.Getter;
+import lombok.experimental.Accessors;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Executes requests for each route one at a time, in the order they were
+ * queued. Buckets that haven't been used for {@link #idleTimeout()} ms and
+ * have nothing queued are evicted periodically.
+ */
+@Accessors(fluent = true)
 public class SerialRequester extends AbstractRequester {
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    public static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+    
+    private final Map<String, SerialBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    @Getter
+    private final long idleTimeout;
     
     public SerialRequester(@Nonnull final RateLimiter rateLimiter) {
+        this(rateLimiter, DEFAULT_IDLE_TIMEOUT);
+    }
+    
+    /**
+     * @param idleTimeout How long a bucket may go unused before it's evicted,
+     *                    in milliseconds.
+     */
+    public SerialRequester(@Nonnull final RateLimiter rateLimiter, @Nonnegative final long idleTimeout) {
         super(rateLimiter);
+        this.idleTimeout = idleTimeout;
     }
     
     @Nonnull
     @Override
     protected Bucket getBucket(@Nonnull final Route route) {
-        return buckets.computeIfAbsent(route.baseRoute(), __ -> new SerialBucket(this));
+        if(!evicting.get() && evicting.compareAndSet(false, true)) {
+            catnip.taskScheduler().setInterval(idleTimeout, __ -> evictIdleBuckets());
+        }
+        // Touching the bucket inside compute() means that eviction, which
+        // only removes buckets that haven't been touched for a while, can't
+        // race with a bucket being handed out
+        return buckets.compute(route.baseRoute(), (__, bucket) -> {
+            final SerialBucket touched = bucket == null ? createBucket() : bucket;
+            touched.lastUsed = System.nanoTime();
+            return touched;
+        });
+    }
+    
+    /**
+     * @return The number of buckets currently tracked.
+     */
+    @Nonnegative
+    public int bucketCount() {
+        return buckets.size();
+    }
+    
+    /**
+     * Evicts every bucket that has been idle for longer than
+     * {@link #idleTimeout()}. This runs periodically on the
+     * {@link com.mewna.catnip.util.scheduler.TaskScheduler} once the first
+     * request is made.
+     *
+     * @return The number of buckets evicted.
+     */
+    @Nonnegative
+    public int evictIdleBuckets() {
+        final long idleSince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        int evicted = 0;
+        for(final Entry<String, SerialBucket> entry : buckets.entrySet()) {
+            final SerialBucket bucket = entry.getValue();
+            //noinspection SynchronizationOnLocalVariableOrMethodParameter
+            synchronized(bucket) {
+                if(bucket.lastUsed - idleSince < 0 && bucket.inFlight == 0 && bucket.queue.isEmpty()
+                        && buckets.remove(entry.getKey(), bucket)) {
+                    evicted++;
+                }
+            }
+        }
+        catnip.logAdapter().debug("Evicted {} idle request buckets, {} left", evicted, buckets.size());
+        return evicted;
     }
     
-    private static class SerialBucket implements Bucket {
+    @Nonnull
+    protected SerialBucket createBucket() {
+        return new SerialBucket(this);
+    }
+    
+    protected static class SerialBucket implements Bucket {
         private final Deque<QueuedRequest> queue = new ArrayDeque<>();
         private final AbstractRequester requester;
-        private volatile boolean executingRequest;
+        private int inFlight;
+        private volatile long lastUsed = System.nanoTime();
         
-        SerialBucket(final AbstractRequester requester) {
+        protected SerialBucket(final AbstractRequester requester) {
             this.requester = requester;
         }
         
         @Override
         public synchronized void queueRequest(@Nonnull final QueuedRequest request) {
             queue.offer(request);
-            if(!executingRequest) {
-                executingRequest = true;
-                submit();
-            }
+            submitQueued();
         }
         
         @Override
@@ -72,7 +145,8 @@ public class SerialRequester extends AbstractRequester {
             request.failed();
             if(request.shouldRetry()) {
                 queue.addFirst(request);
-                submit();
+                inFlight--;
+                submitQueued();
             } else {
                 requester.catnip.logAdapter().debug("Request {} failed, giving up!", request.request());
                 request.future().completeExceptionally(failureCause);
@@ -82,18 +156,25 @@ public class SerialRequester extends AbstractRequester {
         
         @Override
         public synchronized void requestDone() {
-            final boolean hadItems = !queue.isEmpty();
-            if(hadItems) {
-                submit();
-            }
-            executingRequest = hadItems;
+            inFlight--;
+            submitQueued();
+        }
+        
+        /**
+         * @return How many of this bucket's requests may be executing at once.
+         */
+        protected int maxInFlight() {
+            return 1;
         }
         
-        private void submit() {
-            final QueuedRequest request = queue.poll();
-            if(request == null) {
-                throw new AssertionError("this should never happen");
+        protected final synchronized void submitQueued() {
+            while(inFlight < maxInFlight() && !queue.isEmpty()) {
+                inFlight++;
+                submit(queue.poll());
             }
+        }
+        
+        private void submit(@Nonnull final QueuedRequest request) {
             //noinspection ResultOfMethodCallIgnored
             requester.rateLimiter.requestExecution(request.route())
                     .subscribe(() -> requester.executeRequest(request),
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard;
+
+import com.grack.nanojson.JsonObject;
+import com.mewna.catnip.entity.Entity;
+import com.mewna.catnip.entity.guild.Guild;
+import com.mewna.catnip.entity.impl.StreamingEntityBinder;
+import com.mewna.catnip.entity.message.Message;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A dispatch whose entity was bound straight from the payload by a
+ * {@link StreamingEntityBinder}. It passes through the event buffer like any
+ * other dispatch, but its {@code d} only has the ids that buffers and
+ * requesters look at - {@code guild_id} and {@code channel_id} for messages,
+ * and {@code id} for guilds - and {@link DispatchEmitter} emits
+ * {@link #entity()} instead of building one.
+ * <p/>
+ * Shards only bind events that the event buffer doesn't need the full
+ * payload of; see {@link com.mewna.catnip.shard.buffer.EventBuffer#needsPayload(String)}.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@Accessors(fluent = true)
+public final class BoundDispatch extends JsonObject {
+    private static final long serialVersionUID = 1L;
+    
+    @Getter
+    private final transient Entity entity;
+    
+    public BoundDispatch(@Nonnull final PayloadHeader header, @Nonnull final Entity entity) {
+        this.entity = entity;
+        final JsonObject data = new JsonObject();
+        if(entity instanceof Message message) {
+            if(message.guildIdAsLong() != 0) {
+                data.put("guild_id", message.guildId());
+            }
+            data.put("channel_id", message.channelId());
+        } else if(entity instanceof Guild guild) {
+            data.put("id", guild.id());
+        }
+        put("op", header.op());
+        put("t", header.type());
+        put("s", header.hasSeq() ? header.seq() : null);
+        put("d", data);
+    }
+}
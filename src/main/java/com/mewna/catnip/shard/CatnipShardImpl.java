@@ -29,6 +29,8 @@ package com.mewna.catnip.shard;
 
 import com.grack.nanojson.*;
 import com.mewna.catnip.Catnip;
+import com.mewna.catnip.entity.Entity;
+import com.mewna.catnip.entity.impl.StreamingEntityBinder;
 import com.mewna.catnip.entity.impl.lifecycle.GatewayClosedImpl;
 import com.mewna.catnip.entity.impl.lifecycle.GatewayConnectionFailedImpl;
 import com.mewna.catnip.entity.impl.lifecycle.HighWebsocketLatencyImpl;
@@ -38,9 +40,15 @@ import com.mewna.catnip.entity.user.Presence;
 import com.mewna.catnip.extension.Extension;
 import com.mewna.catnip.extension.hook.CatnipHook;
 import com.mewna.catnip.shard.LifecycleEvent.Raw;
+import com.mewna.catnip.shard.compression.GatewayDecoder;
+import com.mewna.catnip.shard.compression.GatewayDecoderFactory;
+import com.mewna.catnip.shard.compression.Utf8Reader;
+import com.mewna.catnip.shard.etf.EtfDecoder;
+import com.mewna.catnip.shard.etf.EtfEncoder;
 import com.mewna.catnip.shard.manager.AbstractShardManager;
 import com.mewna.catnip.shard.manager.DefaultShardManager;
 import com.mewna.catnip.shard.manager.ShardManager;
+import com.mewna.catnip.util.JsonTokenReader;
 import com.mewna.catnip.util.JsonUtil;
 import com.mewna.catnip.util.ReentrantLockWebSocket;
 import com.mewna.catnip.util.task.GatewayTask;
@@ -52,20 +60,16 @@ import lombok.experimental.Accessors;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.WebSocket;
 import java.net.http.WebSocket.Listener;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.zip.Inflater;
-import java.util.zip.InflaterOutputStream;
 
 import static com.mewna.catnip.shard.LifecycleState.*;
 import static com.mewna.catnip.shard.ShardConnectState.*;
@@ -95,8 +99,12 @@ public class CatnipShardImpl implements CatnipShard, Listener {
     // This is an AtomicLong instead of a volatile long because IntelliJ got
     // A N G E R Y because I guess longs don't get written atomically.
     private final AtomicLong heartbeatTask = new AtomicLong(-1L);
-    private final ByteArrayOutputStream readBuffer = new ByteArrayOutputStream();
-    private final Inflater inflater = new Inflater();
+    private final Utf8Reader payloadReader = new Utf8Reader();
+    private final EtfDecoder etfDecoder = new EtfDecoder();
+    private final PayloadHeader header = new PayloadHeader();
+    private final JsonTokenReader tokenReader = new JsonTokenReader();
+    private final StreamingEntityBinder binder;
+    private GatewayDecoder decoder;
     private final StringBuffer socketInputBuffer = new StringBuffer(); //Using a StringBuffer instead of a StringBuilder due to async-friendly synchronizations.
     private final GatewayTask<JsonObject> sendTask;
     private final GatewayTask<PresenceImpl> presenceTask;
@@ -120,6 +128,7 @@ public class CatnipShardImpl implements CatnipShard, Listener {
         this.catnip = catnip;
         shardInfo = new ShardInfo(id, limit);
         this.presence = presence;
+        binder = new StreamingEntityBinder(catnip);
         
         sendTask = GatewayTask.gatewaySendTask(catnip, "catnip:gateway:" + id + ":outgoing-send", this::sendToSocket);
         presenceTask = GatewayTask.gatewayPresenceTask(catnip, "catnip:gateway:ws-outgoing:" + id + ":presence-update",
@@ -153,8 +162,12 @@ public class CatnipShardImpl implements CatnipShard, Listener {
         lifecycleState = CONNECTING;
         catnip.dispatchManager().dispatchEvent(Raw.CONNECTING_TO_GATEWAY, shardInfo);
         
+        // Sessions have to be resumed on the url they were given with READY
+        final String resumeUrl = catnip.sessionManager().resumeUrl(shardInfo.id());
         final GatewayInfo info = catnip.gatewayInfo();
-        if(info != null) {
+        if(resumeUrl != null && canResume()) {
+            connectSocket(resumeUrl);
+        } else if(info != null) {
             connectSocket(info.url());
         } else {
             catnip.fetchGatewayInfo().subscribe(i -> connectSocket(i.url()));
@@ -178,10 +191,19 @@ public class CatnipShardImpl implements CatnipShard, Listener {
     
     @SuppressWarnings("squid:HiddenFieldCheck")
     private void connectSocket(String url) {
-        url += "?v=" + catnip.options().apiVersion() + "&encoding=json";
-        if(catnip.options().compressionMode() != CompressionMode.NONE) {
-            url += "&compress=" + catnip.options().compressionMode().asDiscord();
-        }
+        final GatewayDecoderFactory decoderFactory = catnip.options().gatewayDecoderFactory() != null
+                ? catnip.options().gatewayDecoderFactory()
+                : catnip.options().compressionMode();
+        url += "?v=" + catnip.options().apiVersion() + "&encoding=" + catnip.options().gatewayEncoding().asDiscord();
+        if(!decoderFactory.compression().isEmpty()) {
+            url += "&compress=" + decoderFactory.compression();
+        }
+        // Compression contexts don't survive reconnects, so every socket
+        // gets a fresh decoder.
+        if(decoder != null) {
+            decoder.close();
+        }
+        decoder = decoderFactory.create(shardInfo);
         catnip.options().httpClient().newWebSocketBuilder().buildAsync(URI.create(url), this).thenAcceptAsync(ws -> {
             lifecycleState = CONNECTED;
             socket = new ReentrantLockWebSocket(ws);
@@ -205,6 +227,78 @@ public class CatnipShardImpl implements CatnipShard, Listener {
         });
     }
     
+    /**
+     * Raw gateway hooks get to see (and rewrite) every payload, so nothing
+     * can be skipped while any are installed.
+     */
+    private boolean canSkipDispatches() {
+        for(final Extension extension : catnip.extensionManager().extensions()) {
+            if(!extension.hooks().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Drops a dispatch without parsing it, if nothing would do anything with
+     * it: it isn't needed by the event buffer (eg. for caching), and nothing
+     * is listening for it. The seqnum is still updated, so that heartbeats
+     * and resumes stay correct.
+     *
+     * @param scanned Whether {@link #header} was read from the payload.
+     *
+     * @return Whether the payload was dropped.
+     */
+    private boolean skipUnneededDispatch(final boolean scanned) {
+        if(!scanned || header.op() != GatewayOp.DISPATCH.opcode() || header.type() == null) {
+            return false;
+        }
+        final String type = header.type();
+        if(DiscordEvent.Raw.READY.equals(type) || DiscordEvent.Raw.RESUMED.equals(type)
+                || catnip.eventBuffer().needsEvent(type)) {
+            return false;
+        }
+        if(header.hasSeq()) {
+            catnip.sessionManager().seqnum(shardInfo.id(), header.seq());
+        }
+        return true;
+    }
+    
+    /**
+     * Binds a dispatch's entity straight from the payload and buffers it, if
+     * the user asked for events of its type to be bound and the event buffer
+     * doesn't need the full payload. Anything that can't be bound is left to
+     * be parsed normally.
+     *
+     * @param scanned Whether {@link #header} was read from the payload.
+     * @param reader  A reader at the start of the payload.
+     *
+     * @return Whether the payload was bound.
+     */
+    private boolean bindDispatch(final boolean scanned, final JsonTokenReader reader) {
+        if(!scanned || header.op() != GatewayOp.DISPATCH.opcode() || header.type() == null) {
+            return false;
+        }
+        final String type = header.type();
+        if(!catnip.options().streamBoundEvents().contains(type) || catnip.eventBuffer().needsPayload(type)) {
+            return false;
+        }
+        final Entity entity;
+        try {
+            entity = binder.bindDispatch(type, reader);
+        } catch(final RuntimeException e) {
+            catnip.logAdapter().debug("Shard {}: Couldn't bind dispatch {}, parsing it instead", shardInfo.id(), type, e);
+            return false;
+        }
+        if(entity == null) {
+            return false;
+        }
+        catnip.logAdapter().trace("Shard {}: Bound dispatch {}", shardInfo.id(), type);
+        handleDispatch(new BoundDispatch(header, entity));
+        return true;
+    }
+    
     private void handleSocketData(JsonObject payload) {
         for(final Extension extension : catnip.extensionManager().extensions()) {
             for(final CatnipHook hook : extension.hooks()) {
@@ -248,7 +342,10 @@ public class CatnipShardImpl implements CatnipShard, Listener {
         if(last) {
             try {
                 final var payload = !socketInputBuffer.isEmpty() ? socketInputBuffer.append(data).toString() : data.toString();
-                handleSocketData(JsonParser.object().from(payload));
+                final boolean scanned = canSkipDispatches() && header.scan(payload);
+                if(!skipUnneededDispatch(scanned) && !bindDispatch(scanned, tokenReader.reset(payload))) {
+                    handleSocketData(JsonParser.object().from(payload));
+                }
             } catch(final JsonParserException e) {
                 catnip.logAdapter().error("Shard {}: Error parsing payload", shardInfo, e);
                 stateReply(FAILED);
@@ -269,21 +366,31 @@ public class CatnipShardImpl implements CatnipShard, Listener {
             socket = new ReentrantLockWebSocket(webSocket);
             socketOpen = true;
         }
-        // If we get a packet <4 bytes, then we shouldn't check if it's the zlib suffix
-        final boolean isEnd = data.remaining() >= 4 && data.getInt(data.remaining() - 4) == ZLIB_SUFFIX;
-        readBuffer.write(data.array(), data.position() + data.arrayOffset(), data.remaining());
-        if(isEnd) {
-            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-            try(final InflaterOutputStream decompressor = new InflaterOutputStream(buffer, inflater)) {
-                readBuffer.writeTo(decompressor);
-                readBuffer.reset();
-                handleSocketData(JsonParser.object().from(buffer.toString(StandardCharsets.UTF_8)));
-            } catch(final IOException e) {
-                catnip.logAdapter().error("Shard {}: Error decompressing payload", shardInfo, e);
-                disconnectFromSocket(FAILED);
-            } catch(final JsonParserException e) {
-                catnip.logAdapter().error("Shard {}: Error parsing payload", shardInfo, e);
-                disconnectFromSocket(FAILED);
+        boolean complete = false;
+        try {
+            complete = decoder.decode(data, last);
+            if(complete) {
+                final ByteBuffer payload = decoder.message();
+                final boolean etf = catnip.options().gatewayEncoding() == GatewayEncoding.ETF;
+                final boolean scanned = canSkipDispatches()
+                        && (etf ? etfDecoder.readHeader(payload, header) : header.scan(payload));
+                if(skipUnneededDispatch(scanned)) {
+                    catnip.logAdapter().trace("Shard {}: Skipped unneeded dispatch {}", shardInfo.id(), header.type());
+                } else if(etf) {
+                    handleSocketData(etfDecoder.decode(payload));
+                } else if(!bindDispatch(scanned, tokenReader.reset(payload))) {
+                    handleSocketData(JsonParser.object().from(payloadReader.reset(payload)));
+                }
+            }
+        } catch(final IOException e) {
+            catnip.logAdapter().error("Shard {}: Error decoding payload", shardInfo, e);
+            disconnectFromSocket(FAILED);
+        } catch(final JsonParserException e) {
+            catnip.logAdapter().error("Shard {}: Error parsing payload", shardInfo, e);
+            disconnectFromSocket(FAILED);
+        } finally {
+            if(complete) {
+                decoder.release();
             }
         }
         socket.request(1L);
@@ -431,9 +538,21 @@ public class CatnipShardImpl implements CatnipShard, Listener {
                     payload = hook.rawGatewaySendHook(shardInfo, payload);
                 }
             }
-            final var json = JsonWriter.string(payload);
-            catnip.logAdapter().trace("Sending payload:\n{}", json);
-            socket.sendText(json, true);
+            if(catnip.options().gatewayEncoding() == GatewayEncoding.ETF) {
+                // Only written as JSON if the log adapter formats the message
+                final JsonObject sent = payload;
+                catnip.logAdapter().trace("Sending payload:\n{}", new Object() {
+                    @Override
+                    public String toString() {
+                        return JsonWriter.string(sent);
+                    }
+                });
+                socket.sendBinary(EtfEncoder.encode(payload), true);
+            } else {
+                final var json = JsonWriter.string(payload);
+                catnip.logAdapter().trace("Sending payload:\n{}", json);
+                socket.sendText(json, true);
+            }
         }
     }
     
@@ -480,7 +599,7 @@ public class CatnipShardImpl implements CatnipShard, Listener {
         heartbeatTask.set(taskId);
         
         // Check if we can RESUME instead
-        if(catnip.sessionManager().session(shardInfo.id()) != null && catnip.sessionManager().seqnum(shardInfo.id()) > 0) {
+        if(canResume()) {
             // Some useful notes on how RESUME works, based off of some
             // commentary from Jake in DAPI.
             // tldr, RESUME works as long as you're not trying to RESUME too
@@ -499,6 +618,10 @@ public class CatnipShardImpl implements CatnipShard, Listener {
         }
     }
     
+    private boolean canResume() {
+        return catnip.sessionManager().session(shardInfo.id()) != null && catnip.sessionManager().seqnum(shardInfo.id()) > 0;
+    }
+    
     private void handleDispatch(final JsonObject event) {
         catnip.logAdapter().trace("Handling dispatch");
         // Should be safe to ignore
@@ -523,6 +646,10 @@ public class CatnipShardImpl implements CatnipShard, Listener {
             case "READY" -> {
                 lifecycleState = LOGGED_IN;
                 catnip.sessionManager().session(shardInfo.id(), data.getString("session_id"));
+                final String resumeUrl = data.getString("resume_gateway_url", null);
+                if(resumeUrl != null) {
+                    catnip.sessionManager().resumeUrl(shardInfo.id(), resumeUrl);
+                }
                 // Reply after IDENTIFY ratelimit
                 catnip.dispatchManager().dispatchEvent(Raw.IDENTIFIED, shardInfo);
                 stateReply(READY);
@@ -27,6 +27,8 @@
 
 package com.mewna.catnip.shard;
 
+import com.mewna.catnip.shard.compression.*;
+
 import javax.annotation.Nonnull;
 
 /**
@@ -35,15 +37,38 @@ import javax.annotation.Nonnull;
  * @author amy
  * @since 8/5/19.
  */
-public enum CompressionMode {
+public enum CompressionMode implements GatewayDecoderFactory {
     /**
      * No compression. Uses more bandwidth but less CPU.
      */
-    NONE(""),
+    NONE("") {
+        @Nonnull
+        @Override
+        public GatewayDecoder create(@Nonnull final ShardInfo shardInfo) {
+            return new UncompressedDecoder();
+        }
+    },
     /**
      * Zlib compression. Uses less bandwidth but more CPU.
      */
-    ZLIB("zlib-stream"),
+    ZLIB("zlib-stream") {
+        @Nonnull
+        @Override
+        public GatewayDecoder create(@Nonnull final ShardInfo shardInfo) {
+            return new ZlibStreamDecoder();
+        }
+    },
+    /**
+     * Zstandard compression. Compresses better than zlib, and is usually
+     * cheaper to decompress.
+     */
+    ZSTD("zstd-stream") {
+        @Nonnull
+        @Override
+        public GatewayDecoder create(@Nonnull final ShardInfo shardInfo) {
+            return new ZstdStreamDecoder();
+        }
+    },
     ;
     
     private final String discord;
@@ -56,4 +81,10 @@ public enum CompressionMode {
     public String asDiscord() {
         return discord;
     }
+    
+    @Nonnull
+    @Override
+    public String compression() {
+        return discord;
+    }
 }
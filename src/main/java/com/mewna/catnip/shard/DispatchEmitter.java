@@ -41,6 +41,8 @@ import com.mewna.catnip.entity.user.Presence.OnlineStatus;
 import com.mewna.catnip.entity.user.PresenceUpdate;
 import com.mewna.catnip.entity.user.User;
 import com.mewna.catnip.internal.CatnipImpl;
+import com.mewna.catnip.rest.requester.Requester;
+import com.mewna.catnip.shard.event.DispatchManager;
 import com.mewna.catnip.util.JsonUtil;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 
@@ -62,6 +64,29 @@ public final class DispatchEmitter {
         this.catnip = catnip;
     }
     
+    /**
+     * @param type The type of a gateway event.
+     *
+     * @return Whether emitting an event of this type could reach any
+     * consumers.
+     */
+    public boolean wantsEvent(@Nonnull final String type) {
+        if(catnip.options().requester().invalidatedBy(type)) {
+            return true;
+        }
+        if(!catnip.options().emitEventObjects() || catnip.options().disabledEvents().contains(type)) {
+            return false;
+        }
+        final DispatchManager manager = catnip.dispatchManager();
+        return manager.hasConsumers(type) || switch(type) {
+            // Events that are sometimes emitted under a different name
+            case Raw.MESSAGE_UPDATE -> manager.hasConsumers(Raw.MESSAGE_EMBEDS_UPDATE);
+            case Raw.GUILD_CREATE -> manager.hasConsumers(Raw.GUILD_AVAILABLE);
+            case Raw.GUILD_DELETE -> manager.hasConsumers(Raw.GUILD_UNAVAILABLE);
+            default -> false;
+        };
+    }
+    
     public void emit(@Nonnull final String type, @Nonnull final Entity payload) {
         if(!catnip.options().emitEventObjects()) {
             return;
@@ -77,10 +102,11 @@ public final class DispatchEmitter {
     }
     
     public void emit(@Nonnull final JsonObject payload) {
+        final String type = payload.getString("t");
+        invalidateResponses(type, payload);
         if(!catnip.options().emitEventObjects()) {
             return;
         }
-        final String type = payload.getString("t");
         if(catnip.options().disabledEvents().contains(type)) {
             return;
         }
@@ -116,9 +142,13 @@ public final class DispatchEmitter {
             }
             
             // Messages
-            case Raw.MESSAGE_CREATE -> catnip.dispatchManager().dispatchEvent(type, catnip.entityBuilder().createMessage(data));
+            case Raw.MESSAGE_CREATE -> catnip.dispatchManager().dispatchEvent(type,
+                    payload instanceof BoundDispatch bound ? bound.entity() : catnip.entityBuilder().createMessage(data));
             case Raw.MESSAGE_UPDATE -> {
-                if(data.getObject("author", null) == null) {
+                if(payload instanceof BoundDispatch bound) {
+                    // Only full messages are bound
+                    catnip.dispatchManager().dispatchEvent(type, bound.entity());
+                } else if(data.getObject("author", null) == null) {
                     // Embeds update, emit the special case
                     catnip.dispatchManager().dispatchEvent(Raw.MESSAGE_EMBEDS_UPDATE,
                             catnip.entityBuilder().createMessageEmbedUpdate(data));
@@ -158,7 +188,9 @@ public final class DispatchEmitter {
             // Guilds
             case Raw.GUILD_CREATE -> {
                 final String id = data.getString("id");
-                final Guild guild = catnip.entityBuilder().createGuild(data);
+                final Guild guild = payload instanceof BoundDispatch bound
+                        ? (Guild) bound.entity()
+                        : catnip.entityBuilder().createGuild(data);
                 if(catnip.isUnavailable(id)) {
                     catnip.dispatchManager().dispatchEvent(Raw.GUILD_AVAILABLE, guild);
                     ((CatnipImpl) catnip).markAvailable(id);
@@ -337,6 +369,22 @@ public final class DispatchEmitter {
         }
     }
     
+    /**
+     * Lets the requester drop any REST responses it has cached that the
+     * event made stale. This happens whether or not the event is emitted.
+     */
+    private void invalidateResponses(@Nonnull final String type, @Nonnull final JsonObject payload) {
+        final Requester requester = catnip.options().requester();
+        if(!requester.invalidatedBy(type)) {
+            return;
+        }
+        try {
+            requester.invalidate(type, payload.getObject("d"));
+        } catch(final Exception e) {
+            catnip.logAdapter().error("Error invalidating REST responses with payload {}", payload, e);
+        }
+    }
+    
     private void cacheErrorLog(final String eventType, final Throwable e) {
         if(catnip.options().logEntityPresenceWarningOnCustomCache()) {
             catnip.logAdapter().error("Couldn't fetch previous entity from cache for update event {}:", eventType, e);
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * The {@code op}, {@code t}, and {@code s} fields of a gateway payload, read
+ * without parsing the rest of it. This lets a shard decide whether an event is
+ * worth parsing at all.
+ * <p/>
+ * Scanning JSON stops as soon as all three fields have been seen; since
+ * Discord sends them before {@code d}, the event data itself is usually never
+ * looked at. Anything unexpected makes the scan fail, in which case the
+ * payload should just be parsed normally.
+ * <p/>
+ * Instances are reused between payloads, and are NOT thread-safe.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@Accessors(fluent = true)
+public final class PayloadHeader {
+    private final Bytes bytes = new Bytes();
+    @Getter
+    private int op;
+    @Getter
+    @Nullable
+    private String type;
+    @Getter
+    private boolean hasSeq;
+    @Getter
+    private int seq;
+    
+    // Scanner state
+    private CharSequence in;
+    private int pos;
+    
+    /**
+     * Resets this header to the given values. Used by decoders for binary
+     * encodings.
+     */
+    public void set(final int op, @Nullable final String type, final boolean hasSeq, final int seq) {
+        this.op = op;
+        this.type = type;
+        this.hasSeq = hasSeq;
+        this.seq = seq;
+    }
+    
+    /**
+     * Scans a UTF-8 JSON payload. The position of {@code json} is not changed.
+     *
+     * @return Whether the payload could be scanned and had an {@code op}.
+     */
+    public boolean scan(@Nonnull final ByteBuffer json) {
+        bytes.buffer = json;
+        bytes.offset = json.position();
+        bytes.length = json.remaining();
+        try {
+            return scan(bytes);
+        } finally {
+            bytes.buffer = null;
+        }
+    }
+    
+    /**
+     * Scans a JSON payload.
+     *
+     * @return Whether the payload could be scanned and had an {@code op}.
+     */
+    public boolean scan(@Nonnull final CharSequence json) {
+        set(-1, null, false, 0);
+        in = json;
+        pos = 0;
+        try {
+            return scanObject();
+        } catch(final IndexOutOfBoundsException | NumberFormatException e) {
+            return false;
+        } finally {
+            in = null;
+        }
+    }
+    
+    private boolean scanObject() {
+        if(next() != '{') {
+            return false;
+        }
+        boolean seenOp = false;
+        boolean seenType = false;
+        boolean seenSeq = false;
+        if(peek() == '}') {
+            return false;
+        }
+        while(!(seenOp && seenType && seenSeq)) {
+            if(next() != '"') {
+                return false;
+            }
+            final int keyStart = pos;
+            skipString();
+            final int keyLength = pos - keyStart - 1;
+            if(next() != ':') {
+                return false;
+            }
+            if(keyLength == 2 && in.charAt(keyStart) == 'o' && in.charAt(keyStart + 1) == 'p') {
+                op = (int) readLong();
+                seenOp = true;
+            } else if(keyLength == 1 && in.charAt(keyStart) == 't') {
+                type = readNullableString();
+                seenType = true;
+            } else if(keyLength == 1 && in.charAt(keyStart) == 's') {
+                if(peek() == 'n') {
+                    skipLiteral();
+                    hasSeq = false;
+                } else {
+                    seq = (int) readLong();
+                    hasSeq = true;
+                }
+                seenSeq = true;
+            } else {
+                skipValue();
+            }
+            final char separator = next();
+            if(separator == '}') {
+                break;
+            }
+            if(separator != ',') {
+                return false;
+            }
+        }
+        return seenOp;
+    }
+    
+    private char next() {
+        char c;
+        do {
+            c = in.charAt(pos++);
+        } while(c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+    
+    private char peek() {
+        final char c = next();
+        pos--;
+        return c;
+    }
+    
+    /**
+     * Skips the rest of a string whose opening quote has already been read.
+     */
+    private void skipString() {
+        while(true) {
+            final char c = in.charAt(pos++);
+            if(c == '"') {
+                return;
+            }
+            if(c == '\\') {
+                pos++;
+            }
+        }
+    }
+    
+    private String readNullableString() {
+        final char c = next();
+        if(c == 'n') {
+            pos--;
+            skipLiteral();
+            return null;
+        }
+        if(c != '"') {
+            throw new NumberFormatException("Expected a string");
+        }
+        final int start = pos;
+        skipString();
+        final StringBuilder builder = new StringBuilder(pos - start - 1);
+        for(int i = start; i < pos - 1; i++) {
+            final char ch = in.charAt(i);
+            if(ch == '\\' || ch > 0x7F) {
+                // Event names are plain ASCII; don't bother with anything else
+                throw new NumberFormatException("Unexpected character in event type");
+            }
+            builder.append(ch);
+        }
+        return builder.toString();
+    }
+    
+    private long readLong() {
+        char c = next();
+        final boolean negative = c == '-';
+        if(negative) {
+            c = in.charAt(pos++);
+        }
+        if(c < '0' || c > '9') {
+            throw new NumberFormatException("Expected a number");
+        }
+        long value = 0;
+        while(c >= '0' && c <= '9') {
+            value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+            c = in.charAt(pos++);
+        }
+        if(c == '.' || c == 'e' || c == 'E') {
+            throw new NumberFormatException("Expected an integer");
+        }
+        pos--;
+        return negative ? -value : value;
+    }
+    
+    private void skipLiteral() {
+        next();
+        while(Character.isLetter(in.charAt(pos))) {
+            pos++;
+        }
+    }
+    
+    private void skipValue() {
+        final char c = next();
+        switch(c) {
+            case '"' -> skipString();
+            case '{', '[' -> {
+                int depth = 1;
+                while(depth > 0) {
+                    final char ch = in.charAt(pos++);
+                    switch(ch) {
+                        case '"' -> skipString();
+                        case '{', '[' -> depth++;
+                        case '}', ']' -> depth--;
+                        default -> {
+                        }
+                    }
+                }
+            }
+            default -> {
+                // Numbers and literals
+                while(true) {
+                    final char ch = in.charAt(pos);
+                    if(ch == ',' || ch == '}' || ch == ']' || ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t') {
+                        break;
+                    }
+                    pos++;
+                }
+            }
+        }
+    }
+    
+    /**
+     * UTF-8 bytes as chars. Only structural characters are ever compared, and
+     * those are all ASCII, so multi-byte sequences don't need decoding.
+     */
+    private static final class Bytes implements CharSequence {
+        private ByteBuffer buffer;
+        private int offset;
+        private int length;
+        
+        @Override
+        public int length() {
+            return length;
+        }
+        
+        @Override
+        public char charAt(final int index) {
+            if(index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+        
+        @Nonnull
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -49,4 +49,14 @@ public abstract class AbstractBuffer implements EventBuffer {
         this.catnip = catnip;
         emitter = new DispatchEmitter(catnip);
     }
+    
+    @Override
+    public boolean needsEvent(final String type) {
+        return emitter.wantsEvent(type);
+    }
+    
+    @Override
+    public boolean needsPayload(final String type) {
+        return false;
+    }
 }
@@ -28,6 +28,7 @@
 package com.mewna.catnip.shard.buffer;
 
 import com.grack.nanojson.JsonObject;
+import com.mewna.catnip.cache.NoopEntityCache;
 import com.mewna.catnip.entity.impl.lifecycle.ChunkingDoneImpl;
 import com.mewna.catnip.entity.impl.lifecycle.MemberChunkRerequestImpl;
 import com.mewna.catnip.shard.GatewayIntent;
@@ -45,6 +46,7 @@ import lombok.experimental.Accessors;
 import java.util.Deque;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 
@@ -93,6 +95,29 @@ public class CachingBuffer extends AbstractBuffer {
     );
     
     private final Map<Integer, BufferState> buffers = new ConcurrentHashMap<>();
+    /**
+     * The last event queued up for each ordering key, which completes once
+     * that event has been cached and emitted.
+     */
+    private final Map<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    
+    @Override
+    public boolean needsEvent(final String type) {
+        return switch(type) {
+            // Needed for tracking which guilds are still streaming in
+            case Raw.READY, Raw.GUILD_CREATE, Raw.GUILD_MEMBERS_CHUNK -> true;
+            default -> CACHE_EVENTS.contains(type) && !(catnip().cacheWorker() instanceof NoopEntityCache)
+                    || super.needsEvent(type);
+        };
+    }
+    
+    @Override
+    public boolean needsPayload(final String type) {
+        return switch(type) {
+            case Raw.READY, Raw.GUILD_CREATE, Raw.GUILD_MEMBERS_CHUNK -> true;
+            default -> CACHE_EVENTS.contains(type) && !(catnip().cacheWorker() instanceof NoopEntityCache);
+        };
+    }
     
     @Override
     public void buffer(final JsonObject event) {
@@ -244,17 +269,61 @@ public class CachingBuffer extends AbstractBuffer {
         }
     }
     
+    /**
+     * Caches and emits the event once every earlier event for the same
+     * guild (or, for events without one, the same shard) has been cached and
+     * emitted. Events in {@link #FIRE_BEFORE_CACHING} are emitted before
+     * they're cached, so that handlers can still see the old state in the
+     * cache; everything else is cached first. Nothing here waits on the cache
+     * worker: an event that has to wait for an earlier one is chained onto
+     * it, and runs on the rx scheduler once the earlier one is done.
+     */
     private void cacheAndDispatch(final String type, final int id, final JsonObject event) {
-        final JsonObject d = event.getObject("d");
-        if(FIRE_BEFORE_CACHING.contains(type)) {
-            // TODO: Will this work always?
-            emitter().emit(event);
-            // TODO: Make this not be blocking
-            maybeCache(type, id, d).blockingSubscribe();
+        final String key = orderingKey(type, id, event.getObject("d"));
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        final CompletableFuture<Void> previous = pending.put(key, done);
+        if(previous == null) {
+            cacheAndDispatch(type, id, event, key, done);
         } else {
-            //noinspection ResultOfMethodCallIgnored
-            maybeCache(type, id, d).subscribe(() -> emitter().emit(event));
+            previous.thenRunAsync(() -> cacheAndDispatch(type, id, event, key, done),
+                    task -> catnip().rxScheduler().scheduleDirect(task));
+        }
+    }
+    
+    private void cacheAndDispatch(final String type, final int id, final JsonObject event, final String key,
+                                  final CompletableFuture<Void> done) {
+        final JsonObject d = event.getObject("d");
+        final Completable emit = Completable.fromAction(() -> emitter().emit(event));
+        final Completable cache = Completable.defer(() -> maybeCache(type, id, d));
+        // Everything goes through the one subscription, so that an error in
+        // either step can't leave later events for the key waiting forever
+        final Completable work = FIRE_BEFORE_CACHING.contains(type) ? emit.andThen(cache) : cache.andThen(emit);
+        //noinspection ResultOfMethodCallIgnored
+        work.subscribe(() -> finish(key, done), e -> {
+            try {
+                catnip().logAdapter().warn("Got error caching or emitting payload {}", type, e);
+            } finally {
+                finish(key, done);
+            }
+        });
+    }
+    
+    private void finish(final String key, final CompletableFuture<Void> done) {
+        // Only forget about the key if no later event has queued up behind
+        // this one, or it would never run
+        pending.remove(key, done);
+        done.complete(null);
+    }
+    
+    private static String orderingKey(final String type, final int shardId, final JsonObject data) {
+        final String guildId = data.getString("guild_id", null);
+        if(guildId != null) {
+            return guildId;
         }
+        return switch(type) {
+            case Raw.GUILD_CREATE, Raw.GUILD_UPDATE, Raw.GUILD_DELETE -> data.getString("id");
+            default -> "shard:" + shardId;
+        };
     }
     
     private Completable maybeCache(final String eventType, final int shardId, final JsonObject data) {
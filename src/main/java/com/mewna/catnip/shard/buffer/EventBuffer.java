@@ -44,5 +44,36 @@ public interface EventBuffer {
      */
     void buffer(JsonObject event);
     
+    /**
+     * Whether events of the given type have to be passed to
+     * {@link #buffer(JsonObject)}. Shards skip parsing dispatches that no
+     * one needs, so buffers that can't tell should return {@code true}, which
+     * is the default. Shards still handle {@code READY} and {@code RESUMED}
+     * regardless.
+     *
+     * @param type The type of the event, ie. its {@code t} field.
+     *
+     * @return Whether the event is needed.
+     */
+    default boolean needsEvent(final String type) {
+        return true;
+    }
+    
+    /**
+     * Whether buffering events of the given type needs more of their payload
+     * than {@code d.guild_id}, eg. because they get cached. When it doesn't,
+     * shards may bind the event's entity straight from the payload instead of
+     * parsing it, and pass a {@link com.mewna.catnip.shard.BoundDispatch} to
+     * {@link #buffer(JsonObject)}. The default is {@code true}, ie. events are
+     * always parsed.
+     *
+     * @param type The type of the event, ie. its {@code t} field.
+     *
+     * @return Whether the full payload is needed.
+     */
+    default boolean needsPayload(final String type) {
+        return true;
+    }
+    
     void catnip(Catnip catnip);
 }
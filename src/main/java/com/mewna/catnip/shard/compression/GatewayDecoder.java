@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.compression;
+
+import com.mewna.catnip.shard.CompressionMode;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes the binary frames a shard receives from the gateway back into
+ * complete payloads. Every shard gets its own decoder from a
+ * {@link GatewayDecoderFactory}; decoders are stateful (transport
+ * compression is a single stream over the whole connection), and do not need
+ * to be thread-safe.
+ * <p/>
+ * The lifecycle of a payload is:
+ * <ol>
+ *     <li>{@link #decode(ByteBuffer, boolean)} is called for every frame
+ *     until it returns {@code true}.</li>
+ *     <li>{@link #message()} is used to read the decoded payload.</li>
+ *     <li>{@link #release()} is called once the payload has been handled,
+ *     so that the decoder can reuse its buffers for the next one.</li>
+ * </ol>
+ *
+ * @author amy
+ * @since 10/18/26.
+ * @see CompressionMode
+ */
+public interface GatewayDecoder {
+    /**
+     * Decodes a frame. The frame is fully consumed by this method, and the
+     * caller is free to reuse it once it returns.
+     *
+     * @param frame The frame that was received.
+     * @param last  Whether or not this is the last frame of a websocket
+     *              message.
+     *
+     * @return Whether or not a complete payload is now available from
+     * {@link #message()}.
+     *
+     * @throws IOException If the frame couldn't be decoded.
+     */
+    boolean decode(@Nonnull ByteBuffer frame, boolean last) throws IOException;
+    
+    /**
+     * @return A view over the bytes of the current payload, from its position
+     * to its limit. The view shares the decoder's buffers; it must not be
+     * modified, and is only valid until {@link #release()} is called.
+     */
+    @Nonnull
+    ByteBuffer message();
+    
+    /**
+     * Releases the current payload, allowing the decoder to reuse its
+     * buffers.
+     */
+    void release();
+    
+    /**
+     * Frees any resources held by the decoder. The decoder cannot be used
+     * after this is called.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.compression;
+
+import com.mewna.catnip.CatnipOptions;
+import com.mewna.catnip.shard.CompressionMode;
+import com.mewna.catnip.shard.ShardInfo;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Creates the {@link GatewayDecoder} for each shard. {@link CompressionMode}
+ * provides the built-in factories; a custom one can be set with
+ * {@link CatnipOptions#gatewayDecoderFactory(GatewayDecoderFactory)}.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public interface GatewayDecoderFactory {
+    /**
+     * @return The value of the {@code compress} query parameter sent when
+     * connecting to the gateway, or an empty string to not send it.
+     */
+    @Nonnull
+    String compression();
+    
+    /**
+     * @param shardInfo The shard that the decoder is for.
+     *
+     * @return A new decoder for the shard.
+     */
+    @Nonnull
+    GatewayDecoder create(@Nonnull ShardInfo shardInfo);
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.compression;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link Reader} over UTF-8 bytes, decoded into a char buffer that's reused
+ * between payloads. This lets a decoded payload be handed to a JSON parser
+ * without turning it into a {@link String} first.
+ * <p/>
+ * Instances are NOT thread-safe; every shard needs its own.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public final class Utf8Reader extends Reader {
+    private static final int DEFAULT_INITIAL_CAPACITY = 64 * 1024;
+    private static final int DEFAULT_MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+    
+    private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+    private CharBuffer chars;
+    
+    public Utf8Reader() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_RETAINED_CAPACITY);
+    }
+    
+    /**
+     * @param initialCapacity     The initial size of the char buffer.
+     * @param maxRetainedCapacity The largest the char buffer is allowed to
+     *                            stay between payloads.
+     */
+    public Utf8Reader(@Nonnegative final int initialCapacity, @Nonnegative final int maxRetainedCapacity) {
+        this.initialCapacity = Math.max(initialCapacity, 1);
+        this.maxRetainedCapacity = Math.max(maxRetainedCapacity, this.initialCapacity);
+        chars = CharBuffer.allocate(this.initialCapacity);
+        chars.flip();
+    }
+    
+    /**
+     * Decodes the given bytes, replacing anything that was left unread from
+     * the previous payload. The position of {@code bytes} is not changed.
+     *
+     * @param bytes The UTF-8 bytes to read.
+     *
+     * @return This reader.
+     */
+    @Nonnull
+    public Utf8Reader reset(@Nonnull final ByteBuffer bytes) {
+        final int length = bytes.remaining();
+        if(chars.capacity() < length || chars.capacity() > maxRetainedCapacity && length <= initialCapacity) {
+            // UTF-8 never decodes to more chars than it has bytes
+            chars = CharBuffer.allocate(Math.max(length, initialCapacity));
+        }
+        chars.clear();
+        utf8.reset();
+        utf8.decode(bytes.duplicate(), chars, true);
+        utf8.flush(chars);
+        chars.flip();
+        return this;
+    }
+    
+    @Override
+    public int read() {
+        return chars.hasRemaining() ? chars.get() : -1;
+    }
+    
+    @Override
+    public int read(@Nonnull final char[] cbuf, final int off, final int len) {
+        if(len == 0) {
+            return 0;
+        }
+        if(!chars.hasRemaining()) {
+            return -1;
+        }
+        final int count = Math.min(len, chars.remaining());
+        chars.get(cbuf, off, count);
+        return count;
+    }
+    
+    @Override
+    public long skip(final long n) {
+        final int skipped = (int) Math.max(0, Math.min(n, chars.remaining()));
+        chars.position(chars.position() + skipped);
+        return skipped;
+    }
+    
+    @Override
+    public boolean ready() {
+        return true;
+    }
+    
+    @Override
+    public void close() {
+        // The buffer is reused for the next payload, so there's nothing to do
+    }
+}
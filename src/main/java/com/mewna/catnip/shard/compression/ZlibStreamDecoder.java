@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.compression;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes Discord's {@code zlib-stream} gateway transport compression.
+ * <p/>
+ * The whole connection is a single zlib stream, and every payload ends with
+ * a {@code Z_SYNC_FLUSH} (the {@code 00 00 FF FF} suffix). Rather than
+ * buffering compressed frames and inflating into a fresh buffer for every
+ * payload, frames are fed straight into the {@link Inflater} as they arrive,
+ * and inflated into a single output buffer that's reused for the lifetime
+ * of the decoder.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public final class ZlibStreamDecoder implements GatewayDecoder {
+    public static final int ZLIB_SUFFIX = 0x0000FFFF;
+    
+    private static final int DEFAULT_INITIAL_CAPACITY = 64 * 1024;
+    private static final int DEFAULT_MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+    
+    private final Inflater inflater = new Inflater();
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+    private byte[] buffer;
+    private ByteBuffer view;
+    private int length;
+    private int suffixBytes;
+    private int suffix;
+    
+    public ZlibStreamDecoder() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_RETAINED_CAPACITY);
+    }
+    
+    /**
+     * @param initialCapacity     The initial size of the output buffer.
+     * @param maxRetainedCapacity The largest the output buffer is allowed to
+     *                            stay between payloads. If a payload (ex. a
+     *                            large GUILD_CREATE) grows the buffer past
+     *                            this, it's dropped back to the initial size
+     *                            once the payload is released.
+     */
+    public ZlibStreamDecoder(@Nonnegative final int initialCapacity, @Nonnegative final int maxRetainedCapacity) {
+        this.initialCapacity = Math.max(initialCapacity, 1);
+        this.maxRetainedCapacity = Math.max(maxRetainedCapacity, this.initialCapacity);
+        allocate(this.initialCapacity);
+    }
+    
+    @Override
+    public boolean decode(@Nonnull final ByteBuffer frame, final boolean last) throws IOException {
+        // The suffix can be split across frames, so track the last four
+        // bytes we've seen rather than only looking at this frame.
+        for(int i = Math.max(frame.position(), frame.limit() - 4); i < frame.limit(); i++) {
+            suffix = suffix << 8 | frame.get(i) & 0xFF;
+            suffixBytes++;
+        }
+        inflater.setInput(frame);
+        try {
+            while(true) {
+                if(length == buffer.length) {
+                    grow();
+                }
+                final int inflated = inflater.inflate(buffer, length, buffer.length - length);
+                length += inflated;
+                if(length < buffer.length && (inflated == 0 || inflater.needsInput())) {
+                    // Either all input was consumed and there was room left
+                    // over for more output, or the inflater is stuck (ex. it
+                    // wants a dictionary). Either way, we're done here.
+                    break;
+                }
+            }
+        } catch(final DataFormatException e) {
+            throw new IOException("Invalid zlib-stream data", e);
+        }
+        if(suffixBytes >= 4 && suffix == ZLIB_SUFFIX) {
+            suffixBytes = 0;
+            suffix = 0;
+            return true;
+        }
+        return false;
+    }
+    
+    @Nonnull
+    @Override
+    public ByteBuffer message() {
+        return view.limit(length).position(0);
+    }
+    
+    @Override
+    public void release() {
+        length = 0;
+        if(buffer.length > maxRetainedCapacity) {
+            allocate(initialCapacity);
+        }
+    }
+    
+    @Override
+    public void close() {
+        inflater.end();
+    }
+    
+    private void grow() {
+        final byte[] old = buffer;
+        allocate(old.length << 1);
+        System.arraycopy(old, 0, buffer, 0, length);
+    }
+    
+    private void allocate(final int capacity) {
+        buffer = new byte[capacity];
+        view = ByteBuffer.wrap(buffer);
+    }
+}
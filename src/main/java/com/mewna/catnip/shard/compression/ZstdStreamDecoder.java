@@ -0,0 +1,998 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.compression;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Decodes Discord's {@code zstd-stream} gateway transport compression.
+ * <p/>
+ * Like {@code zlib-stream}, the whole connection is a single zstd frame, and
+ * the gateway flushes the compressor at the end of every payload, so each
+ * websocket message decodes to exactly one payload. This is a pure-Java
+ * implementation of the decompression side of
+ * <a href="https://www.rfc-editor.org/rfc/rfc8878">RFC 8878</a>; dictionaries
+ * aren't supported, since the gateway doesn't use them, and content
+ * checksums are skipped rather than verified.
+ * <p/>
+ * Decoded payloads are written into a history buffer that's reused for the
+ * lifetime of the decoder; {@link #message()} is a view into it, so payloads
+ * are never copied out.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@SuppressWarnings({"squid:S3776", "OverlyComplexMethod"})
+public final class ZstdStreamDecoder implements GatewayDecoder {
+    private static final int MAGIC = 0xFD2FB528;
+    private static final int SKIPPABLE_MAGIC = 0x184D2A50;
+    private static final int SKIPPABLE_MAGIC_MASK = 0xFFFFFFF0;
+    private static final int MAX_BLOCK_SIZE = 128 * 1024;
+    // Same as libzstd's default limit
+    private static final int MAX_WINDOW_SIZE = 1 << 27;
+    private static final int INITIAL_OUTPUT_CAPACITY = 256 * 1024;
+    private static final int INITIAL_INPUT_CAPACITY = 16 * 1024;
+    
+    private static final int BLOCK_RAW = 0;
+    private static final int BLOCK_RLE = 1;
+    private static final int BLOCK_COMPRESSED = 2;
+    
+    private static final int LITERALS_RAW = 0;
+    private static final int LITERALS_RLE = 1;
+    private static final int LITERALS_COMPRESSED = 2;
+    
+    private static final int MODE_PREDEFINED = 0;
+    private static final int MODE_RLE = 1;
+    private static final int MODE_FSE = 2;
+    
+    private static final int LITERAL_LENGTH = 0;
+    private static final int OFFSET = 1;
+    private static final int MATCH_LENGTH = 2;
+    
+    private static final int[] MAX_SYMBOL = {35, 31, 52};
+    private static final int[] MAX_ACCURACY_LOG = {9, 8, 9};
+    
+    private static final int[] LITERAL_LENGTH_BASE = {
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+            16, 18, 20, 22, 24, 28, 32, 40, 48, 64, 128, 256, 512, 1024, 2048, 4096,
+            8192, 16384, 32768, 65536,
+    };
+    private static final int[] LITERAL_LENGTH_BITS = {
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            1, 1, 1, 1, 2, 2, 3, 3, 4, 6, 7, 8, 9, 10, 11, 12,
+            13, 14, 15, 16,
+    };
+    private static final int[] MATCH_LENGTH_BASE = {
+            3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18,
+            19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34,
+            35, 37, 39, 41, 43, 47, 51, 59, 67, 83, 99, 131, 259, 515, 1027, 2051,
+            4099, 8195, 16387, 32771, 65539,
+    };
+    private static final int[] MATCH_LENGTH_BITS = {
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            1, 1, 1, 1, 2, 2, 3, 3, 4, 4, 5, 7, 8, 9, 10, 11,
+            12, 13, 14, 15, 16,
+    };
+    
+    private static final FseTable[] PREDEFINED = {
+            FseTable.predefined(6, new short[]{
+                    4, 3, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 1, 1, 1,
+                    2, 2, 2, 2, 2, 2, 2, 2, 2, 3, 2, 1, 1, 1, 1, 1,
+                    -1, -1, -1, -1,
+            }),
+            FseTable.predefined(5, new short[]{
+                    1, 1, 1, 1, 1, 1, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1,
+                    1, 1, 1, 1, 1, 1, 1, 1, -1, -1, -1, -1, -1,
+            }),
+            FseTable.predefined(6, new short[]{
+                    1, 4, 3, 2, 2, 2, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1,
+                    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+                    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, -1, -1,
+                    -1, -1, -1, -1, -1,
+            }),
+    };
+    
+    private static final int STATE_FRAME_HEADER = 0;
+    private static final int STATE_SKIPPABLE = 1;
+    private static final int STATE_BLOCK_HEADER = 2;
+    private static final int STATE_BLOCK = 3;
+    private static final int STATE_CHECKSUM = 4;
+    
+    // Compressed input that hasn't been decoded yet
+    private byte[] input = new byte[INITIAL_INPUT_CAPACITY];
+    private int inputStart;
+    private int inputEnd;
+    
+    // Decoded output, which doubles as the match history
+    private byte[] output = new byte[INITIAL_OUTPUT_CAPACITY];
+    private ByteBuffer view = ByteBuffer.wrap(output);
+    private int outputPos;
+    private int messageStart;
+    private int frameStart;
+    
+    private int state = STATE_FRAME_HEADER;
+    private long skipRemaining;
+    private int windowSize;
+    private boolean hasChecksum;
+    private boolean lastBlock;
+    private int blockType;
+    private int blockSize;
+    
+    // Entropy state, carried between the blocks of a frame
+    private final int[] repeatOffsets = new int[3];
+    private final FseTable[] tables = new FseTable[3];
+    private final FseTable[] fseTables = {new FseTable(), new FseTable(), new FseTable()};
+    private final FseTable[] rleTables = {new FseTable(), new FseTable(), new FseTable()};
+    private final HuffmanTable huffman = new HuffmanTable();
+    private boolean hasHuffman;
+    
+    // Scratch space
+    private final BitReader bits = new BitReader();
+    private final short[] normalizedCounts = new short[256];
+    private final int[] weights = new int[256];
+    private final FseTable weightTable = new FseTable();
+    private byte[] literals = new byte[MAX_BLOCK_SIZE];
+    private int literalsLength;
+    private int literalsPos;
+    
+    @Override
+    public boolean decode(@Nonnull final ByteBuffer frame, final boolean last) throws IOException {
+        append(frame);
+        //noinspection StatementWithEmptyBody
+        while(step()) {
+        }
+        return last;
+    }
+    
+    @Nonnull
+    @Override
+    public ByteBuffer message() {
+        return view.limit(outputPos).position(messageStart);
+    }
+    
+    @Override
+    public void release() {
+        messageStart = outputPos;
+    }
+    
+    private void append(final ByteBuffer frame) {
+        final int length = frame.remaining();
+        if(input.length - inputEnd < length) {
+            final int pending = inputEnd - inputStart;
+            final byte[] target = pending + length > input.length
+                    ? new byte[Math.max(input.length << 1, pending + length)]
+                    : input;
+            System.arraycopy(input, inputStart, target, 0, pending);
+            input = target;
+            inputStart = 0;
+            inputEnd = pending;
+        }
+        frame.get(input, inputEnd, length);
+        inputEnd += length;
+    }
+    
+    /**
+     * Makes as much progress as possible with the input that's available.
+     *
+     * @return Whether or not anything was consumed, ie. whether it's worth
+     * trying again.
+     */
+    private boolean step() throws IOException {
+        final int available = inputEnd - inputStart;
+        switch(state) {
+            case STATE_FRAME_HEADER -> {
+                return readFrameHeader(available);
+            }
+            case STATE_SKIPPABLE -> {
+                final int skipped = (int) Math.min(available, skipRemaining);
+                inputStart += skipped;
+                skipRemaining -= skipped;
+                if(skipRemaining == 0) {
+                    state = STATE_FRAME_HEADER;
+                }
+                return skipped > 0;
+            }
+            case STATE_BLOCK_HEADER -> {
+                if(available < 3) {
+                    return false;
+                }
+                final int header = input[inputStart] & 0xFF | (input[inputStart + 1] & 0xFF) << 8
+                        | (input[inputStart + 2] & 0xFF) << 16;
+                inputStart += 3;
+                lastBlock = (header & 1) == 1;
+                blockType = header >>> 1 & 3;
+                blockSize = header >>> 3;
+                if(blockType == 3) {
+                    throw new IOException("Reserved zstd block type");
+                }
+                if(blockSize > Math.min(MAX_BLOCK_SIZE, Math.max(windowSize, 1))) {
+                    throw new IOException("zstd block size " + blockSize + " exceeds maximum");
+                }
+                state = STATE_BLOCK;
+                return true;
+            }
+            case STATE_BLOCK -> {
+                final int needed = blockType == BLOCK_RLE ? 1 : blockSize;
+                if(available < needed) {
+                    return false;
+                }
+                switch(blockType) {
+                    case BLOCK_RAW -> {
+                        ensureOutput(blockSize);
+                        System.arraycopy(input, inputStart, output, outputPos, blockSize);
+                        outputPos += blockSize;
+                    }
+                    case BLOCK_RLE -> {
+                        ensureOutput(blockSize);
+                        Arrays.fill(output, outputPos, outputPos + blockSize, input[inputStart]);
+                        outputPos += blockSize;
+                    }
+                    default -> decodeCompressedBlock(inputStart, inputStart + blockSize);
+                }
+                inputStart += needed;
+                if(lastBlock) {
+                    state = hasChecksum ? STATE_CHECKSUM : STATE_FRAME_HEADER;
+                } else {
+                    state = STATE_BLOCK_HEADER;
+                }
+                return true;
+            }
+            case STATE_CHECKSUM -> {
+                if(available < 4) {
+                    return false;
+                }
+                inputStart += 4;
+                state = STATE_FRAME_HEADER;
+                return true;
+            }
+            default -> throw new IllegalStateException("Unknown decoder state " + state);
+        }
+    }
+    
+    private boolean readFrameHeader(final int available) throws IOException {
+        if(available < 4) {
+            return false;
+        }
+        final int magic = readIntLE(input, inputStart);
+        if((magic & SKIPPABLE_MAGIC_MASK) == SKIPPABLE_MAGIC) {
+            if(available < 8) {
+                return false;
+            }
+            skipRemaining = readIntLE(input, inputStart + 4) & 0xFFFFFFFFL;
+            inputStart += 8;
+            state = STATE_SKIPPABLE;
+            return true;
+        }
+        if(magic != MAGIC) {
+            throw new IOException("Invalid zstd frame magic: " + Integer.toHexString(magic));
+        }
+        if(available < 5) {
+            return false;
+        }
+        final int descriptor = input[inputStart + 4] & 0xFF;
+        final int contentSizeFlag = descriptor >>> 6;
+        final boolean singleSegment = (descriptor & 0x20) != 0;
+        final int dictionaryIdFlag = descriptor & 3;
+        if((descriptor & 0x08) != 0) {
+            throw new IOException("Reserved bit set in zstd frame header");
+        }
+        final int dictionaryIdSize = dictionaryIdFlag == 3 ? 4 : dictionaryIdFlag;
+        final int contentSizeSize = switch(contentSizeFlag) {
+            case 0 -> singleSegment ? 1 : 0;
+            case 1 -> 2;
+            case 2 -> 4;
+            default -> 8;
+        };
+        final int headerSize = 5 + (singleSegment ? 0 : 1) + dictionaryIdSize + contentSizeSize;
+        if(available < headerSize) {
+            return false;
+        }
+        int pos = inputStart + 5;
+        long window = 0;
+        if(!singleSegment) {
+            final int windowDescriptor = input[pos++] & 0xFF;
+            final int windowLog = 10 + (windowDescriptor >>> 3);
+            final long windowBase = 1L << windowLog;
+            window = windowBase + (windowBase >>> 3) * (windowDescriptor & 7);
+        }
+        long dictionaryId = 0;
+        for(int i = 0; i < dictionaryIdSize; i++) {
+            dictionaryId |= (input[pos++] & 0xFFL) << 8 * i;
+        }
+        if(dictionaryId != 0) {
+            throw new IOException("zstd dictionaries are not supported");
+        }
+        long contentSize = 0;
+        for(int i = 0; i < contentSizeSize; i++) {
+            contentSize |= (input[pos++] & 0xFFL) << 8 * i;
+        }
+        if(contentSizeSize == 2) {
+            contentSize += 256;
+        }
+        if(singleSegment) {
+            window = contentSize;
+        }
+        if(window < 0 || window > MAX_WINDOW_SIZE) {
+            throw new IOException("zstd window size " + window + " exceeds maximum");
+        }
+        windowSize = (int) window;
+        hasChecksum = (descriptor & 0x04) != 0;
+        inputStart += headerSize;
+        
+        // New frame, new history and entropy state
+        frameStart = outputPos;
+        repeatOffsets[0] = 1;
+        repeatOffsets[1] = 4;
+        repeatOffsets[2] = 8;
+        Arrays.fill(tables, null);
+        hasHuffman = false;
+        state = STATE_BLOCK_HEADER;
+        return true;
+    }
+    
+    /**
+     * Makes sure that there's room for at least {@code length} more bytes of
+     * output, discarding history that can no longer be referenced.
+     */
+    private void ensureOutput(final int length) {
+        if(output.length - outputPos >= length) {
+            return;
+        }
+        final int keepFrom = Math.min(messageStart, Math.max(frameStart, outputPos - windowSize));
+        final int kept = outputPos - keepFrom;
+        if(kept + length > output.length) {
+            output = Arrays.copyOfRange(output, keepFrom, Math.max(output.length << 1, kept + length));
+            view = ByteBuffer.wrap(output);
+        } else {
+            System.arraycopy(output, keepFrom, output, 0, kept);
+        }
+        outputPos -= keepFrom;
+        messageStart -= keepFrom;
+        frameStart = Math.max(0, frameStart - keepFrom);
+    }
+    
+    private void decodeCompressedBlock(final int start, final int end) throws IOException {
+        ensureOutput(MAX_BLOCK_SIZE);
+        final int blockOutputLimit = outputPos + MAX_BLOCK_SIZE;
+        final int pos = decodeLiterals(start, end);
+        decodeSequences(pos, end, blockOutputLimit);
+    }
+    
+    // Literals //
+    
+    private int decodeLiterals(int pos, final int end) throws IOException {
+        final byte[] in = input;
+        final int header = in[pos] & 0xFF;
+        final int type = header & 3;
+        final int sizeFormat = header >>> 2 & 3;
+        literalsPos = 0;
+        if(type == LITERALS_RAW || type == LITERALS_RLE) {
+            final int size;
+            switch(sizeFormat) {
+                case 1 -> {
+                    size = (header >>> 4) + ((in[pos + 1] & 0xFF) << 4);
+                    pos += 2;
+                }
+                case 3 -> {
+                    size = (header >>> 4) + ((in[pos + 1] & 0xFF) << 4) + ((in[pos + 2] & 0xFF) << 12);
+                    pos += 3;
+                }
+                default -> {
+                    size = header >>> 3;
+                    pos++;
+                }
+            }
+            if(size > MAX_BLOCK_SIZE) {
+                throw new IOException("zstd literals size exceeds maximum");
+            }
+            if(type == LITERALS_RAW) {
+                checkBounds(pos + size, end);
+                System.arraycopy(in, pos, literals, 0, size);
+                pos += size;
+            } else {
+                checkBounds(pos + 1, end);
+                Arrays.fill(literals, 0, size, in[pos]);
+                pos++;
+            }
+            literalsLength = size;
+            return pos;
+        }
+        
+        final int headerSize;
+        final int fieldBits;
+        switch(sizeFormat) {
+            case 0, 1 -> {
+                headerSize = 3;
+                fieldBits = 10;
+            }
+            case 2 -> {
+                headerSize = 4;
+                fieldBits = 14;
+            }
+            default -> {
+                headerSize = 5;
+                fieldBits = 18;
+            }
+        }
+        checkBounds(pos + headerSize, end);
+        long value = 0;
+        for(int i = 0; i < headerSize; i++) {
+            value |= (in[pos + i] & 0xFFL) << 8 * i;
+        }
+        final int mask = (1 << fieldBits) - 1;
+        final int regeneratedSize = (int) (value >>> 4 & mask);
+        final int compressedSize = (int) (value >>> 4 + fieldBits & mask);
+        if(regeneratedSize > MAX_BLOCK_SIZE) {
+            throw new IOException("zstd literals size exceeds maximum");
+        }
+        pos += headerSize;
+        final int literalsEnd = pos + compressedSize;
+        checkBounds(literalsEnd, end);
+        if(type == LITERALS_COMPRESSED) {
+            pos = readHuffmanTable(pos, literalsEnd);
+            hasHuffman = true;
+        } else if(!hasHuffman) {
+            throw new IOException("zstd treeless literals without a previous Huffman table");
+        }
+        if(sizeFormat == 0) {
+            decodeHuffmanStream(pos, literalsEnd, 0, regeneratedSize);
+        } else {
+            checkBounds(pos + 6, literalsEnd);
+            final int size1 = readShortLE(in, pos);
+            final int size2 = readShortLE(in, pos + 2);
+            final int size3 = readShortLE(in, pos + 4);
+            final int start1 = pos + 6;
+            final int start2 = start1 + size1;
+            final int start3 = start2 + size2;
+            final int start4 = start3 + size3;
+            checkBounds(start4, literalsEnd);
+            final int segment = (regeneratedSize + 3) / 4;
+            if(3 * segment > regeneratedSize) {
+                throw new IOException("zstd literals too small for four streams");
+            }
+            decodeHuffmanStream(start1, start2, 0, segment);
+            decodeHuffmanStream(start2, start3, segment, segment);
+            decodeHuffmanStream(start3, start4, 2 * segment, segment);
+            decodeHuffmanStream(start4, literalsEnd, 3 * segment, regeneratedSize - 3 * segment);
+        }
+        literalsLength = regeneratedSize;
+        return literalsEnd;
+    }
+    
+    private int readHuffmanTable(int pos, final int end) throws IOException {
+        checkBounds(pos + 1, end);
+        final int header = input[pos++] & 0xFF;
+        int count;
+        if(header < 128) {
+            checkBounds(pos + header, end);
+            count = decodeHuffmanWeights(pos, pos + header);
+            pos += header;
+        } else {
+            count = header - 127;
+            final int bytes = (count + 1) / 2;
+            checkBounds(pos + bytes, end);
+            for(int i = 0; i < count; i++) {
+                final int b = input[pos + i / 2] & 0xFF;
+                weights[i] = (i & 1) == 0 ? b >>> 4 : b & 0xF;
+            }
+            pos += bytes;
+        }
+        if(count > 255) {
+            throw new IOException("Too many zstd Huffman weights");
+        }
+        
+        // The weight of the last symbol is implied: it's whatever makes the
+        // total a power of two.
+        int total = 0;
+        for(int i = 0; i < count; i++) {
+            if(weights[i] > 11) {
+                throw new IOException("zstd Huffman weight out of range");
+            }
+            if(weights[i] > 0) {
+                total += 1 << weights[i] - 1;
+            }
+        }
+        if(total == 0) {
+            throw new IOException("zstd Huffman table has no symbols");
+        }
+        final int maxBits = 32 - Integer.numberOfLeadingZeros(total);
+        final int rest = (1 << maxBits) - total;
+        if(Integer.bitCount(rest) != 1 || maxBits > 11) {
+            throw new IOException("Invalid zstd Huffman weights");
+        }
+        weights[count++] = Integer.numberOfTrailingZeros(rest) + 1;
+        huffman.build(weights, count, maxBits);
+        return pos;
+    }
+    
+    private int decodeHuffmanWeights(final int start, final int end) throws IOException {
+        final int consumed = readFseTable(start, end, 255, 6);
+        final int maxSymbol = lastMaxSymbol;
+        weightTable.build(normalizedCounts, maxSymbol, lastAccuracyLog);
+        
+        final BitReader reader = bits;
+        reader.init(input, start + consumed, end);
+        final FseTable table = weightTable;
+        int state1 = (int) reader.read(table.log);
+        int state2 = (int) reader.read(table.log);
+        int count = 0;
+        while(true) {
+            if(count > 253) {
+                throw new IOException("Too many zstd Huffman weights");
+            }
+            weights[count++] = table.symbol[state1];
+            state1 = table.base[state1] + (int) reader.read(table.bits[state1]);
+            if(reader.overflowed()) {
+                weights[count++] = table.symbol[state2];
+                break;
+            }
+            weights[count++] = table.symbol[state2];
+            state2 = table.base[state2] + (int) reader.read(table.bits[state2]);
+            if(reader.overflowed()) {
+                weights[count++] = table.symbol[state1];
+                break;
+            }
+        }
+        return count;
+    }
+    
+    private void decodeHuffmanStream(final int start, final int end, final int outputOffset, final int length)
+            throws IOException {
+        final BitReader reader = bits;
+        reader.init(input, start, end);
+        final HuffmanTable table = huffman;
+        final int log = table.log;
+        final byte[] symbols = table.symbol;
+        final byte[] lengths = table.bits;
+        final byte[] out = literals;
+        for(int i = outputOffset, limit = outputOffset + length; i < limit; i++) {
+            final int index = (int) reader.peek(log);
+            out[i] = symbols[index];
+            reader.skip(lengths[index]);
+        }
+        if(!reader.finished()) {
+            throw new IOException("Corrupted zstd Huffman stream");
+        }
+    }
+    
+    // Sequences //
+    
+    private void decodeSequences(int pos, final int end, final int outputLimit) throws IOException {
+        final byte[] in = input;
+        checkBounds(pos + 1, end);
+        final int header = in[pos++] & 0xFF;
+        final int count;
+        if(header < 128) {
+            count = header;
+        } else if(header < 255) {
+            checkBounds(pos + 1, end);
+            count = (header - 128 << 8) + (in[pos++] & 0xFF);
+        } else {
+            checkBounds(pos + 2, end);
+            count = (in[pos] & 0xFF) + ((in[pos + 1] & 0xFF) << 8) + 0x7F00;
+            pos += 2;
+        }
+        if(count == 0) {
+            copyLiterals(literalsLength - literalsPos, outputLimit);
+            return;
+        }
+        
+        checkBounds(pos + 1, end);
+        final int modes = in[pos++] & 0xFF;
+        if((modes & 3) != 0) {
+            throw new IOException("Reserved bits set in zstd sequence modes");
+        }
+        pos = selectTable(LITERAL_LENGTH, modes >>> 6, pos, end);
+        pos = selectTable(OFFSET, modes >>> 4 & 3, pos, end);
+        pos = selectTable(MATCH_LENGTH, modes >>> 2 & 3, pos, end);
+        
+        final FseTable literalLengths = tables[LITERAL_LENGTH];
+        final FseTable offsets = tables[OFFSET];
+        final FseTable matchLengths = tables[MATCH_LENGTH];
+        final int[] reps = repeatOffsets;
+        final BitReader reader = bits;
+        reader.init(in, pos, end);
+        int literalLengthState = (int) reader.read(literalLengths.log);
+        int offsetState = (int) reader.read(offsets.log);
+        int matchLengthState = (int) reader.read(matchLengths.log);
+        
+        for(int i = 0; i < count; i++) {
+            final int offsetCode = offsets.symbol[offsetState];
+            final int matchLengthCode = matchLengths.symbol[matchLengthState];
+            final int literalLengthCode = literalLengths.symbol[literalLengthState];
+            if(offsetCode > 31) {
+                throw new IOException("zstd offset code out of range");
+            }
+            final long offsetValue = (1L << offsetCode) + reader.read(offsetCode);
+            final int matchLength = MATCH_LENGTH_BASE[matchLengthCode] + (int) reader.read(MATCH_LENGTH_BITS[matchLengthCode]);
+            final int literalLength = LITERAL_LENGTH_BASE[literalLengthCode] + (int) reader.read(LITERAL_LENGTH_BITS[literalLengthCode]);
+            
+            final int offset;
+            if(offsetValue > 3) {
+                if(offsetValue - 3 > MAX_WINDOW_SIZE) {
+                    throw new IOException("zstd offset out of range");
+                }
+                offset = (int) (offsetValue - 3);
+                reps[2] = reps[1];
+                reps[1] = reps[0];
+                reps[0] = offset;
+            } else {
+                final int index = (int) offsetValue - 1 + (literalLength == 0 ? 1 : 0);
+                if(index == 0) {
+                    offset = reps[0];
+                } else {
+                    offset = index == 3 ? reps[0] - 1 : reps[index];
+                    if(index != 1) {
+                        reps[2] = reps[1];
+                    }
+                    reps[1] = reps[0];
+                    reps[0] = offset;
+                }
+            }
+            
+            if(i != count - 1) {
+                literalLengthState = literalLengths.base[literalLengthState]
+                        + (int) reader.read(literalLengths.bits[literalLengthState]);
+                matchLengthState = matchLengths.base[matchLengthState]
+                        + (int) reader.read(matchLengths.bits[matchLengthState]);
+                offsetState = offsets.base[offsetState] + (int) reader.read(offsets.bits[offsetState]);
+            }
+            
+            copyLiterals(literalLength, outputLimit);
+            copyMatch(offset, matchLength, outputLimit);
+        }
+        if(!reader.finished()) {
+            throw new IOException("Corrupted zstd sequences stream");
+        }
+        copyLiterals(literalsLength - literalsPos, outputLimit);
+    }
+    
+    private int selectTable(final int kind, final int mode, int pos, final int end) throws IOException {
+        switch(mode) {
+            case MODE_PREDEFINED -> tables[kind] = PREDEFINED[kind];
+            case MODE_RLE -> {
+                checkBounds(pos + 1, end);
+                final int symbol = input[pos++] & 0xFF;
+                if(symbol > MAX_SYMBOL[kind]) {
+                    throw new IOException("zstd RLE symbol out of range");
+                }
+                rleTables[kind].rle(symbol);
+                tables[kind] = rleTables[kind];
+            }
+            case MODE_FSE -> {
+                pos += readFseTable(pos, end, MAX_SYMBOL[kind], MAX_ACCURACY_LOG[kind]);
+                fseTables[kind].build(normalizedCounts, lastMaxSymbol, lastAccuracyLog);
+                tables[kind] = fseTables[kind];
+            }
+            default -> {
+                if(tables[kind] == null) {
+                    throw new IOException("zstd repeat mode without a previous table");
+                }
+            }
+        }
+        return pos;
+    }
+    
+    private void copyLiterals(final int length, final int outputLimit) throws IOException {
+        if(length < 0 || literalsPos + length > literalsLength || outputPos + length > outputLimit) {
+            throw new IOException("zstd literal length out of range");
+        }
+        System.arraycopy(literals, literalsPos, output, outputPos, length);
+        literalsPos += length;
+        outputPos += length;
+    }
+    
+    private void copyMatch(final int offset, final int length, final int outputLimit) throws IOException {
+        if(offset <= 0 || offset > outputPos - frameStart || outputPos + length > outputLimit) {
+            throw new IOException("zstd match out of range");
+        }
+        final byte[] out = output;
+        int from = outputPos - offset;
+        if(offset >= length) {
+            System.arraycopy(out, from, out, outputPos, length);
+            outputPos += length;
+        } else {
+            // Overlapping matches repeat the last `offset` bytes
+            for(int i = 0; i < length; i++) {
+                out[outputPos++] = out[from++];
+            }
+        }
+    }
+    
+    // FSE //
+    
+    private int lastMaxSymbol;
+    private int lastAccuracyLog;
+    
+    /**
+     * Reads an FSE table description into {@link #normalizedCounts}.
+     *
+     * @return The number of bytes consumed.
+     */
+    private int readFseTable(final int start, final int end, final int maxSymbol, final int maxLog) throws IOException {
+        final byte[] in = input;
+        final int availableBits = (end - start) * 8;
+        int bitOffset = 0;
+        final int accuracyLog = (int) peekForward(in, start, end, bitOffset, 4) + 5;
+        bitOffset += 4;
+        if(accuracyLog > maxLog) {
+            throw new IOException("zstd FSE accuracy log out of range");
+        }
+        int remaining = (1 << accuracyLog) + 1;
+        int threshold = 1 << accuracyLog;
+        int nbBits = accuracyLog + 1;
+        int symbol = 0;
+        boolean previousZero = false;
+        while(remaining > 1 && symbol <= maxSymbol) {
+            if(previousZero) {
+                int zeroes = symbol;
+                while(true) {
+                    final int repeat = (int) peekForward(in, start, end, bitOffset, 2);
+                    bitOffset += 2;
+                    zeroes += repeat;
+                    if(repeat != 3) {
+                        break;
+                    }
+                    if(bitOffset > availableBits) {
+                        throw new IOException("Corrupted zstd FSE table");
+                    }
+                }
+                if(zeroes > maxSymbol) {
+                    throw new IOException("zstd FSE symbol out of range");
+                }
+                while(symbol < zeroes) {
+                    normalizedCounts[symbol++] = 0;
+                }
+            }
+            final int max = 2 * threshold - 1 - remaining;
+            final int value = (int) peekForward(in, start, end, bitOffset, nbBits);
+            int count;
+            if((value & threshold - 1) < max) {
+                count = value & threshold - 1;
+                bitOffset += nbBits - 1;
+            } else {
+                count = value & 2 * threshold - 1;
+                if(count >= threshold) {
+                    count -= max;
+                }
+                bitOffset += nbBits;
+            }
+            // -1 is a special "less than one" probability
+            count--;
+            remaining -= Math.abs(count);
+            normalizedCounts[symbol++] = (short) count;
+            previousZero = count == 0;
+            while(remaining < threshold) {
+                nbBits--;
+                threshold >>>= 1;
+            }
+            if(bitOffset > availableBits) {
+                throw new IOException("Corrupted zstd FSE table");
+            }
+        }
+        if(remaining != 1 || bitOffset > availableBits) {
+            throw new IOException("Corrupted zstd FSE table");
+        }
+        lastMaxSymbol = symbol - 1;
+        lastAccuracyLog = accuracyLog;
+        return bitOffset + 7 >>> 3;
+    }
+    
+    // Helpers //
+    
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    
+    private static void checkBounds(final int needed, final int end) throws IOException {
+        if(needed > end) {
+            throw new IOException("Truncated zstd block");
+        }
+    }
+    
+    private static int readIntLE(final byte[] in, final int pos) {
+        return in[pos] & 0xFF | (in[pos + 1] & 0xFF) << 8 | (in[pos + 2] & 0xFF) << 16 | (in[pos + 3] & 0xFF) << 24;
+    }
+    
+    private static int readShortLE(final byte[] in, final int pos) {
+        return in[pos] & 0xFF | (in[pos + 1] & 0xFF) << 8;
+    }
+    
+    /**
+     * Reads up to 57 bits of the little-endian number stored in
+     * {@code in[start, end)}, starting at bit {@code offset}. Bits past the
+     * end read as zero; bits before the start (negative offsets) do too.
+     */
+    private static long peekForward(final byte[] in, final int start, final int end, final int offset, final int count) {
+        if(count == 0) {
+            return 0;
+        }
+        if(offset < 0) {
+            if(offset + count <= 0) {
+                return 0;
+            }
+            return peekForward(in, start, end, 0, offset + count) << -offset;
+        }
+        final int index = start + (offset >>> 3);
+        final long word;
+        if(index + 8 <= end) {
+            word = (long) LONG_LE.get(in, index);
+        } else {
+            long partial = 0;
+            for(int i = 0; index + i < end; i++) {
+                partial |= (in[index + i] & 0xFFL) << 8 * i;
+            }
+            word = partial;
+        }
+        return word >>> (offset & 7) & (1L << count) - 1;
+    }
+    
+    /**
+     * Reads a zstd backwards bitstream, which starts from the highest set bit
+     * of its last byte and is read towards its first byte.
+     */
+    private static final class BitReader {
+        private byte[] in;
+        private int start;
+        private int end;
+        // Number of unread bits; reads come from the top
+        private int position;
+        
+        void init(final byte[] in, final int start, final int end) throws IOException {
+            if(end <= start || in[end - 1] == 0) {
+                throw new IOException("Corrupted zstd bitstream");
+            }
+            this.in = in;
+            this.start = start;
+            this.end = end;
+            position = (end - start - 1) * 8 + 31 - Integer.numberOfLeadingZeros(in[end - 1] & 0xFF);
+        }
+        
+        long peek(final int count) {
+            return peekForward(in, start, end, position - count, count);
+        }
+        
+        void skip(final int count) {
+            position -= count;
+        }
+        
+        long read(final int count) {
+            position -= count;
+            return peekForward(in, start, end, position, count);
+        }
+        
+        boolean overflowed() {
+            return position < 0;
+        }
+        
+        boolean finished() {
+            return position == 0;
+        }
+    }
+    
+    private static final class FseTable {
+        private int log;
+        private byte[] symbol = new byte[0];
+        private byte[] bits = new byte[0];
+        private int[] base = new int[0];
+        // Scratch space for building
+        private final int[] next = new int[256];
+        
+        static FseTable predefined(final int log, final short[] counts) {
+            final FseTable table = new FseTable();
+            table.build(counts, counts.length - 1, log);
+            return table;
+        }
+        
+        void rle(final int value) {
+            ensure(1);
+            log = 0;
+            symbol[0] = (byte) value;
+            bits[0] = 0;
+            base[0] = 0;
+        }
+        
+        void build(final short[] counts, final int maxSymbol, final int tableLog) {
+            final int size = 1 << tableLog;
+            ensure(size);
+            log = tableLog;
+            int high = size - 1;
+            for(int s = 0; s <= maxSymbol; s++) {
+                if(counts[s] == -1) {
+                    symbol[high--] = (byte) s;
+                    next[s] = 1;
+                } else {
+                    next[s] = counts[s];
+                }
+            }
+            final int mask = size - 1;
+            final int step = (size >>> 1) + (size >>> 3) + 3;
+            int position = 0;
+            for(int s = 0; s <= maxSymbol; s++) {
+                for(int i = 0; i < counts[s]; i++) {
+                    symbol[position] = (byte) s;
+                    do {
+                        position = position + step & mask;
+                    } while(position > high);
+                }
+            }
+            for(int u = 0; u < size; u++) {
+                final int s = symbol[u] & 0xFF;
+                final int nextState = next[s]++;
+                final int nb = tableLog - (31 - Integer.numberOfLeadingZeros(nextState));
+                bits[u] = (byte) nb;
+                base[u] = (nextState << nb) - size;
+            }
+        }
+        
+        private void ensure(final int size) {
+            if(symbol.length < size) {
+                symbol = new byte[size];
+                bits = new byte[size];
+                base = new int[size];
+            }
+        }
+    }
+    
+    private static final class HuffmanTable {
+        private int log;
+        private final byte[] symbol = new byte[1 << 11];
+        private final byte[] bits = new byte[1 << 11];
+        private final int[] rankStart = new int[13];
+        
+        void build(final int[] weights, final int count, final int maxBits) {
+            log = maxBits;
+            Arrays.fill(rankStart, 0);
+            for(int i = 0; i < count; i++) {
+                rankStart[weights[i]]++;
+            }
+            int next = 0;
+            for(int w = 1; w <= maxBits; w++) {
+                final int current = next;
+                next += rankStart[w] << w - 1;
+                rankStart[w] = current;
+            }
+            for(int s = 0; s < count; s++) {
+                final int w = weights[s];
+                if(w == 0) {
+                    continue;
+                }
+                final int length = 1 << w - 1;
+                final int from = rankStart[w];
+                Arrays.fill(symbol, from, from + length, (byte) s);
+                Arrays.fill(bits, from, from + length, (byte) (maxBits + 1 - w));
+                rankStart[w] += length;
+            }
+        }
+    }
+}
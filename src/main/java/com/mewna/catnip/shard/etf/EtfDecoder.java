@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.etf;
+
+import com.grack.nanojson.JsonObject;
+import com.mewna.catnip.shard.PayloadHeader;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.mewna.catnip.shard.etf.EtfTags.*;
+
+/**
+ * Decodes gateway payloads sent with {@code encoding=etf} into
+ * {@link EtfObject}s, so that everything downstream of the shard can keep
+ * working with {@link JsonObject}s.
+ * <p/>
+ * Terms map to what nanojson would have produced for the same JSON payload:
+ * maps become {@link EtfObject}s, lists and tuples become {@link EtfArray}s,
+ * binaries and non-special atoms become strings, and {@code true},
+ * {@code false}, {@code nil} and {@code null} atoms become booleans and
+ * {@code null}. The exception is bignums, which is how Discord sends
+ * snowflakes: these are kept as {@link Long}s rather than being turned into
+ * strings.
+ * <p/>
+ * Map keys are interned in a small per-decoder cache, since the same few
+ * dozen keys make up most of every payload.
+ * <p/>
+ * Instances are NOT thread-safe; every shard needs its own.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public final class EtfDecoder {
+    private static final int KEY_CACHE_SIZE = 1024;
+    private static final int MAX_CACHED_KEY_LENGTH = 32;
+    
+    private final String[] keys = new String[KEY_CACHE_SIZE];
+    private final byte[][] keyBytes = new byte[KEY_CACHE_SIZE][];
+    private byte[] scratch = new byte[256];
+    
+    /**
+     * Decodes a single payload. The position of {@code payload} is not
+     * changed.
+     *
+     * @param payload The ETF-encoded payload, starting with the version byte.
+     *
+     * @return The decoded payload.
+     *
+     * @throws IOException If the payload isn't valid ETF, or isn't a map.
+     */
+    @Nonnull
+    public EtfObject decode(@Nonnull final ByteBuffer payload) throws IOException {
+        final ByteBuffer in = payload.duplicate().order(ByteOrder.BIG_ENDIAN);
+        try {
+            if((in.get() & 0xFF) != VERSION) {
+                throw new IOException("Unsupported ETF version");
+            }
+            final Object term = readTerm(in);
+            if(!(term instanceof EtfObject object)) {
+                throw new IOException("Expected an ETF map, but found " + (term == null ? "null" : term.getClass()));
+            }
+            return object;
+        } catch(final RuntimeException e) {
+            // Buffer underflows, negative sizes, etc.
+            throw new IOException("Malformed ETF payload", e);
+        }
+    }
+    
+    /**
+     * Reads the {@code op}, {@code t}, and {@code s} fields of a payload
+     * without decoding anything else. Other values are skipped over by their
+     * length prefixes, so nothing is allocated for them. The position of
+     * {@code payload} is not changed.
+     *
+     * @param payload The ETF-encoded payload, starting with the version byte.
+     * @param header  The header to fill in.
+     *
+     * @return Whether the header could be read. If not, the payload should
+     * be decoded normally.
+     */
+    public boolean readHeader(@Nonnull final ByteBuffer payload, @Nonnull final PayloadHeader header) {
+        final ByteBuffer in = payload.duplicate().order(ByteOrder.BIG_ENDIAN);
+        try {
+            if((in.get() & 0xFF) != VERSION || (in.get() & 0xFF) != MAP_EXT) {
+                return false;
+            }
+            final int length = in.getInt();
+            int op = -1;
+            String type = null;
+            boolean hasSeq = false;
+            int seq = 0;
+            int seen = 0;
+            for(int i = 0; i < length && seen < 3; i++) {
+                switch(readKey(in)) {
+                    case "op" -> {
+                        op = ((Number) readTerm(in)).intValue();
+                        seen++;
+                    }
+                    case "t" -> {
+                        type = readTerm(in) instanceof String string ? string : null;
+                        seen++;
+                    }
+                    case "s" -> {
+                        if(readTerm(in) instanceof Number number) {
+                            hasSeq = true;
+                            seq = number.intValue();
+                        }
+                        seen++;
+                    }
+                    default -> skipTerm(in);
+                }
+            }
+            if(op < 0) {
+                return false;
+            }
+            header.set(op, type, hasSeq, seq);
+            return true;
+        } catch(final IOException | RuntimeException e) {
+            return false;
+        }
+    }
+    
+    private static void skipTerm(final ByteBuffer in) throws IOException {
+        final int tag = in.get() & 0xFF;
+        final long skip = switch(tag) {
+            case SMALL_INTEGER_EXT -> 1;
+            case INTEGER_EXT -> 4;
+            case NEW_FLOAT_EXT -> 8;
+            case FLOAT_EXT -> 31;
+            case SMALL_BIG_EXT -> (in.get() & 0xFF) + 1L;
+            case LARGE_BIG_EXT -> (in.getInt() & 0xFFFFFFFFL) + 1;
+            case ATOM_EXT, ATOM_UTF8_EXT, STRING_EXT -> in.getShort() & 0xFFFF;
+            case SMALL_ATOM_EXT, SMALL_ATOM_UTF8_EXT -> in.get() & 0xFF;
+            case BINARY_EXT -> in.getInt() & 0xFFFFFFFFL;
+            case NIL_EXT -> 0;
+            case LIST_EXT -> {
+                final int length = in.getInt();
+                for(int i = 0; i < length; i++) {
+                    skipTerm(in);
+                }
+                skipTerm(in);
+                yield 0;
+            }
+            case SMALL_TUPLE_EXT, LARGE_TUPLE_EXT -> {
+                final int length = tag == SMALL_TUPLE_EXT ? in.get() & 0xFF : in.getInt();
+                for(int i = 0; i < length; i++) {
+                    skipTerm(in);
+                }
+                yield 0;
+            }
+            case MAP_EXT -> {
+                final int length = in.getInt();
+                for(int i = 0; i < length; i++) {
+                    skipTerm(in);
+                    skipTerm(in);
+                }
+                yield 0;
+            }
+            default -> throw new IOException("Can't skip ETF tag " + tag);
+        };
+        checkLength(in, skip);
+        in.position(in.position() + (int) skip);
+    }
+    
+    private Object readTerm(final ByteBuffer in) throws IOException {
+        final int tag = in.get() & 0xFF;
+        return switch(tag) {
+            case SMALL_INTEGER_EXT -> in.get() & 0xFF;
+            case INTEGER_EXT -> in.getInt();
+            case NEW_FLOAT_EXT -> in.getDouble();
+            case FLOAT_EXT -> {
+                final byte[] text = new byte[31];
+                in.get(text);
+                int length = 0;
+                while(length < text.length && text[length] != 0) {
+                    length++;
+                }
+                yield Double.parseDouble(new String(text, 0, length, StandardCharsets.ISO_8859_1));
+            }
+            case SMALL_BIG_EXT -> readBig(in, in.get() & 0xFF);
+            case LARGE_BIG_EXT -> readBig(in, in.getInt());
+            case ATOM_EXT, ATOM_UTF8_EXT -> atom(readString(in, in.getShort() & 0xFFFF));
+            case SMALL_ATOM_EXT, SMALL_ATOM_UTF8_EXT -> atom(readString(in, in.get() & 0xFF));
+            case BINARY_EXT -> readString(in, in.getInt());
+            case STRING_EXT -> readString(in, in.getShort() & 0xFFFF);
+            case NIL_EXT -> new EtfArray(0);
+            case LIST_EXT -> {
+                final EtfArray list = readArray(in, in.getInt());
+                // Proper lists end with NIL_EXT; improper tails are kept as
+                // the last element.
+                final Object tail = readTerm(in);
+                if(!(tail instanceof EtfArray empty && empty.isEmpty())) {
+                    list.add(tail);
+                }
+                yield list;
+            }
+            case SMALL_TUPLE_EXT -> readArray(in, in.get() & 0xFF);
+            case LARGE_TUPLE_EXT -> readArray(in, in.getInt());
+            case MAP_EXT -> readMap(in, in.getInt());
+            case COMPRESSED -> readCompressed(in);
+            default -> throw new IOException("Unsupported ETF tag " + tag);
+        };
+    }
+    
+    private EtfArray readArray(final ByteBuffer in, final int length) throws IOException {
+        checkLength(in, length);
+        final EtfArray array = new EtfArray(length);
+        for(int i = 0; i < length; i++) {
+            array.add(readTerm(in));
+        }
+        return array;
+    }
+    
+    private EtfObject readMap(final ByteBuffer in, final int length) throws IOException {
+        // Each entry takes at least two bytes
+        checkLength(in, length * 2L);
+        // Sized so that the map never has to resize
+        final EtfObject map = new EtfObject(length + (length >>> 1) + 1);
+        for(int i = 0; i < length; i++) {
+            final String key = readKey(in);
+            map.put(key, readTerm(in));
+        }
+        return map;
+    }
+    
+    private String readKey(final ByteBuffer in) throws IOException {
+        final int tag = in.get() & 0xFF;
+        final int length = switch(tag) {
+            case SMALL_ATOM_EXT, SMALL_ATOM_UTF8_EXT -> in.get() & 0xFF;
+            case ATOM_EXT, ATOM_UTF8_EXT, STRING_EXT -> in.getShort() & 0xFFFF;
+            case BINARY_EXT -> in.getInt();
+            default -> {
+                // Non-string keys don't exist in JSON, so stringify them
+                in.position(in.position() - 1);
+                yield -1;
+            }
+        };
+        if(length < 0) {
+            return String.valueOf(readTerm(in));
+        }
+        if(length > MAX_CACHED_KEY_LENGTH) {
+            return readString(in, length);
+        }
+        checkLength(in, length);
+        final int start = in.position();
+        int hash = length;
+        for(int i = 0; i < length; i++) {
+            hash = 31 * hash + in.get(start + i);
+        }
+        final int slot = hash & KEY_CACHE_SIZE - 1;
+        final byte[] cached = keyBytes[slot];
+        if(cached != null && cached.length == length && matches(in, start, cached)) {
+            in.position(start + length);
+            return keys[slot];
+        }
+        final byte[] bytes = new byte[length];
+        in.get(bytes);
+        final String key = new String(bytes, StandardCharsets.UTF_8);
+        keyBytes[slot] = bytes;
+        keys[slot] = key;
+        return key;
+    }
+    
+    private static boolean matches(final ByteBuffer in, final int start, final byte[] bytes) {
+        for(int i = 0; i < bytes.length; i++) {
+            if(in.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private String readString(final ByteBuffer in, final int length) throws IOException {
+        checkLength(in, length);
+        final String value;
+        if(in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            if(scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length << 1)];
+            }
+            in.get(scratch, 0, length);
+            value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+    
+    private static Object atom(final String name) {
+        return switch(name) {
+            case "true" -> Boolean.TRUE;
+            case "false" -> Boolean.FALSE;
+            case "nil", "null" -> null;
+            default -> name;
+        };
+    }
+    
+    private static Object readBig(final ByteBuffer in, final int length) throws IOException {
+        checkLength(in, length + 1L);
+        final boolean negative = in.get() != 0;
+        if(length <= 8) {
+            long value = 0;
+            for(int i = 0; i < length; i++) {
+                value |= (in.get() & 0xFFL) << 8 * i;
+            }
+            if(value >= 0) {
+                return negative ? -value : value;
+            }
+            // Doesn't fit in a signed long; rewind and fall through
+            in.position(in.position() - length);
+        }
+        final byte[] magnitude = new byte[length];
+        for(int i = length - 1; i >= 0; i--) {
+            magnitude[i] = in.get();
+        }
+        final BigInteger value = new BigInteger(1, magnitude);
+        return negative ? value.negate() : value;
+    }
+    
+    private Object readCompressed(final ByteBuffer in) throws IOException {
+        final int size = in.getInt();
+        if(size < 0) {
+            throw new IOException("Invalid compressed ETF term size");
+        }
+        // Discord doesn't compress terms when transport compression is on,
+        // so this path is rare enough to not bother reusing the inflater.
+        final Inflater inflater = new Inflater();
+        inflater.setInput(in);
+        final byte[] out = new byte[size];
+        try {
+            final int inflated = inflater.inflate(out);
+            if(inflated != size || !inflater.finished()) {
+                throw new IOException("Compressed ETF term has the wrong size");
+            }
+        } catch(final DataFormatException e) {
+            throw new IOException("Invalid compressed ETF term", e);
+        } finally {
+            inflater.end();
+        }
+        return readTerm(ByteBuffer.wrap(out));
+    }
+    
+    private static void checkLength(final ByteBuffer in, final long length) throws IOException {
+        if(length < 0 || length > in.remaining()) {
+            throw new IOException("ETF term length " + length + " exceeds the payload");
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.etf;
+
+import com.grack.nanojson.JsonObject;
+
+import javax.annotation.Nonnull;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+import static com.mewna.catnip.shard.etf.EtfTags.*;
+
+/**
+ * Encodes outgoing gateway payloads for {@code encoding=etf}. Discord requires
+ * clients to send payloads in the same encoding they receive them in.
+ * <p/>
+ * Strings are sent as binaries, {@code null} as the {@code nil} atom, and
+ * booleans as atoms; everything else maps onto the closest ETF term.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public final class EtfEncoder {
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NIL = "nil".getBytes(StandardCharsets.US_ASCII);
+    
+    private byte[] buffer = new byte[256];
+    private int length;
+    
+    private EtfEncoder() {
+    }
+    
+    /**
+     * @param payload The payload to encode.
+     *
+     * @return A new buffer containing the encoded payload.
+     *
+     * @throws IllegalArgumentException If the payload contains a value that
+     *                                  can't be represented in JSON.
+     */
+    @Nonnull
+    public static ByteBuffer encode(@Nonnull final JsonObject payload) {
+        final EtfEncoder encoder = new EtfEncoder();
+        encoder.writeByte(VERSION);
+        encoder.writeTerm(payload);
+        return ByteBuffer.wrap(Arrays.copyOf(encoder.buffer, encoder.length));
+    }
+    
+    private void writeTerm(final Object value) {
+        if(value == null) {
+            writeAtom(NIL);
+        } else if(value instanceof String string) {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeByte(BINARY_EXT);
+            writeInt(bytes.length);
+            writeBytes(bytes);
+        } else if(value instanceof Boolean bool) {
+            writeAtom(bool ? TRUE : FALSE);
+        } else if(value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof Long) {
+            writeLong(((Number) value).longValue());
+        } else if(value instanceof BigInteger big) {
+            if(big.bitLength() < 64) {
+                writeLong(big.longValue());
+            } else {
+                writeBig(big.signum() < 0, big.abs().toByteArray());
+            }
+        } else if(value instanceof Number number) {
+            writeByte(NEW_FLOAT_EXT);
+            writeLong64(Double.doubleToRawLongBits(number.doubleValue()));
+        } else if(value instanceof Map<?, ?> map) {
+            writeByte(MAP_EXT);
+            writeInt(map.size());
+            for(final Map.Entry<?, ?> entry : map.entrySet()) {
+                writeTerm(String.valueOf(entry.getKey()));
+                writeTerm(entry.getValue());
+            }
+        } else if(value instanceof Collection<?> collection) {
+            if(collection.isEmpty()) {
+                writeByte(NIL_EXT);
+            } else {
+                writeByte(LIST_EXT);
+                writeInt(collection.size());
+                for(final Object element : collection) {
+                    writeTerm(element);
+                }
+                writeByte(NIL_EXT);
+            }
+        } else if(value instanceof Object[] array) {
+            writeTerm(Arrays.asList(array));
+        } else {
+            throw new IllegalArgumentException("Can't encode " + value.getClass() + " as ETF");
+        }
+    }
+    
+    private void writeLong(final long value) {
+        if(value >= 0 && value <= 0xFF) {
+            writeByte(SMALL_INTEGER_EXT);
+            writeByte((int) value);
+        } else if(value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            writeByte(INTEGER_EXT);
+            writeInt((int) value);
+        } else {
+            final long magnitude = Math.abs(value);
+            final byte[] bytes = new byte[8];
+            for(int i = 0; i < 8; i++) {
+                bytes[7 - i] = (byte) (magnitude >>> 8 * i);
+            }
+            writeBig(value < 0, bytes);
+        }
+    }
+    
+    /**
+     * @param magnitude Big-endian magnitude, possibly with leading zeroes.
+     */
+    private void writeBig(final boolean negative, final byte[] magnitude) {
+        int start = 0;
+        while(start < magnitude.length - 1 && magnitude[start] == 0) {
+            start++;
+        }
+        final int digits = magnitude.length - start;
+        if(digits <= 0xFF) {
+            writeByte(SMALL_BIG_EXT);
+            writeByte(digits);
+        } else {
+            writeByte(LARGE_BIG_EXT);
+            writeInt(digits);
+        }
+        writeByte(negative ? 1 : 0);
+        for(int i = magnitude.length - 1; i >= start; i--) {
+            writeByte(magnitude[i]);
+        }
+    }
+    
+    private void writeAtom(final byte[] name) {
+        writeByte(SMALL_ATOM_UTF8_EXT);
+        writeByte(name.length);
+        writeBytes(name);
+    }
+    
+    private void ensure(final int bytes) {
+        if(buffer.length - length < bytes) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, length + bytes));
+        }
+    }
+    
+    private void writeByte(final int value) {
+        ensure(1);
+        buffer[length++] = (byte) value;
+    }
+    
+    private void writeInt(final int value) {
+        ensure(4);
+        buffer[length++] = (byte) (value >>> 24);
+        buffer[length++] = (byte) (value >>> 16);
+        buffer[length++] = (byte) (value >>> 8);
+        buffer[length++] = (byte) value;
+    }
+    
+    private void writeLong64(final long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+    
+    private void writeBytes(final byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.etf;
+
+import com.grack.nanojson.JsonObject;
+
+/**
+ * A {@link JsonObject} decoded from ETF. Snowflakes arrive as integers and are
+ * stored as {@link Long}s; code that still reads them with
+ * {@link #getString(String)} gets the same string that the JSON encoding
+ * would have produced.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public class EtfObject extends JsonObject {
+    private static final long serialVersionUID = 1L;
+    
+    public EtfObject() {
+    }
+    
+    public EtfObject(final int initialCapacity) {
+        super(initialCapacity);
+    }
+    
+    @Override
+    public String getString(final String key) {
+        return getString(key, null);
+    }
+    
+    @Override
+    public String getString(final String key, final String defaultValue) {
+        final Object value = get(key);
+        if(value instanceof String string) {
+            return string;
+        }
+        if(value instanceof Long snowflake) {
+            return Long.toUnsignedString(snowflake);
+        }
+        return defaultValue;
+    }
+    
+    @Override
+    public boolean isString(final String key) {
+        final Object value = get(key);
+        return value instanceof String || value instanceof Long;
+    }
+}
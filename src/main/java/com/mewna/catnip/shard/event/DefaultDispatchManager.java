@@ -28,7 +28,17 @@
 package com.mewna.catnip.shard.event;
 
 import com.mewna.catnip.Catnip;
+import com.mewna.catnip.entity.guild.Guild;
+import com.mewna.catnip.entity.guild.UnavailableGuild;
+import com.mewna.catnip.entity.lifecycle.GatewayClosed;
+import com.mewna.catnip.entity.lifecycle.GatewayConnectionFailed;
+import com.mewna.catnip.entity.lifecycle.HighWebsocketLatency;
+import com.mewna.catnip.entity.lifecycle.MemberChunkRerequest;
+import com.mewna.catnip.entity.message.Message;
+import com.mewna.catnip.entity.misc.Ready;
+import com.mewna.catnip.entity.partials.HasGuild;
 import com.mewna.catnip.shard.GatewayIntent;
+import com.mewna.catnip.shard.ShardInfo;
 import io.reactivex.rxjava3.core.BackpressureStrategy;
 import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Observable;
@@ -36,25 +46,64 @@ import io.reactivex.rxjava3.core.Scheduler.Worker;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.Consumer;
 
+/**
+ * The default dispatch manager. Events are dispatched on one or more lanes,
+ * each of which is a serial {@link Worker} taken from
+ * {@link Catnip#rxScheduler()}.
+ * <p>
+ * With a single lane (the default), every event is handled in the order it
+ * was dispatched. With more than one lane, events are partitioned by guild
+ * id, or by shard id for events that aren't guild-scoped; ordering is only
+ * guaranteed within a partition, so one slow handler for a guild doesn't
+ * stall events for every other guild.
+ *
+ * @see #partitionKey(Object)
+ */
 public class DefaultDispatchManager extends AbstractDispatchManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultDispatchManager.class);
     private final Map<String, Set<DefaultMessageConsumer<?>>> consumers = new ConcurrentHashMap<>();
-    private Worker worker;
+    private final int lanes;
+    private final AtomicIntegerArray queueDepths;
+    private Worker[] workers;
+    
+    public DefaultDispatchManager() {
+        this(1);
+    }
+    
+    /**
+     * @param lanes The number of lanes to partition events across. Must be
+     *              at least 1.
+     */
+    public DefaultDispatchManager(@Nonnegative final int lanes) {
+        if(lanes < 1) {
+            throw new IllegalArgumentException("Dispatch lane count must be at least 1, got " + lanes);
+        }
+        this.lanes = lanes;
+        queueDepths = new AtomicIntegerArray(lanes);
+    }
     
     @Override
     public void catnip(final Catnip catnip) {
         super.catnip(catnip);
-        worker = catnip().rxScheduler().createWorker();
+        final var created = new Worker[lanes];
+        for(int i = 0; i < lanes; i++) {
+            created[i] = catnip().rxScheduler().createWorker();
+        }
+        workers = created;
     }
     
     @Override
@@ -62,14 +111,102 @@ public class DefaultDispatchManager extends AbstractDispatchManager {
         final var addressConsumers = consumers.get(address);
         
         if(addressConsumers != null) {
-            if(worker == null) {
+            final var current = workers;
+            if(current == null) {
                 LOGGER.warn("Please configure the Catnip parent instance before dispatching events.");
                 throw new IllegalStateException("dispatchEvent was called before DefaultDispatchManager was configured.");
             }
-            worker.schedule(() -> addressConsumers.forEach(c -> c.handle(event)));
+            final int lane = lane(event);
+            queueDepths.incrementAndGet(lane);
+            current[lane].schedule(() -> {
+                try {
+                    addressConsumers.forEach(c -> c.handle(event));
+                } finally {
+                    queueDepths.decrementAndGet(lane);
+                }
+            });
         }
     }
     
+    /**
+     * @return The number of lanes events are partitioned across.
+     */
+    @Nonnegative
+    public int laneCount() {
+        return lanes;
+    }
+    
+    /**
+     * @param lane The lane to check.
+     *
+     * @return The number of events dispatched to the lane that haven't
+     * finished being handled yet.
+     */
+    @Nonnegative
+    public int queueDepth(@Nonnegative final int lane) {
+        return queueDepths.get(lane);
+    }
+    
+    /**
+     * @return A snapshot of {@link #queueDepth(int)} for every lane.
+     */
+    @Nonnull
+    public int[] queueDepths() {
+        final int[] out = new int[lanes];
+        for(int i = 0; i < lanes; i++) {
+            out[i] = queueDepths.get(i);
+        }
+        return out;
+    }
+    
+    /**
+     * Computes the key an event is partitioned on. Events with the same key
+     * are always handled in dispatch order. By default this is the guild id
+     * for guild-scoped events, the channel id for DM messages, and the shard
+     * id for lifecycle events; anything else falls back to {@code 0}. For
+     * update events, which are dispatched as an old/new {@link Pair}, the new
+     * entity is used.
+     *
+     * @param event The event being dispatched.
+     *
+     * @return The partition key for the event.
+     */
+    protected long partitionKey(@Nonnull final Object event) {
+        final Object target = event instanceof final Pair<?, ?> pair ? pair.getRight() : event;
+        if(target instanceof final HasGuild hasGuild) {
+            return hasGuild.guildIdAsLong();
+        } else if(target instanceof final Message message) {
+            final long guild = message.guildIdAsLong();
+            return guild != 0 ? guild : message.channelIdAsLong();
+        } else if(target instanceof final Guild guild) {
+            return guild.idAsLong();
+        } else if(target instanceof final UnavailableGuild guild) {
+            return guild.idAsLong();
+        } else if(target instanceof final ShardInfo shardInfo) {
+            return shardInfo.id();
+        } else if(target instanceof final Ready ready) {
+            return ready.shardId();
+        } else if(target instanceof final GatewayClosed closed) {
+            return closed.shardInfo().id();
+        } else if(target instanceof final GatewayConnectionFailed failed) {
+            return failed.shardInfo().id();
+        } else if(target instanceof final HighWebsocketLatency latency) {
+            return latency.shardInfo().id();
+        } else if(target instanceof final MemberChunkRerequest rerequest) {
+            return rerequest.shardInfo().id();
+        }
+        return 0L;
+    }
+    
+    private int lane(final Object event) {
+        if(lanes == 1 || event == null) {
+            return 0;
+        }
+        // Snowflakes have very regular low bits, so mix before reducing
+        final long mixed = partitionKey(event) * 0x9E3779B97F4A7C15L;
+        return Math.floorMod(mixed ^ mixed >>> 32, lanes);
+    }
+    
     @Override
     public <T> MessageConsumer<T> createConsumer(final String address) {
         // Nullability concerns are not met during tests
@@ -94,10 +231,21 @@ public class DefaultDispatchManager extends AbstractDispatchManager {
         return consumer;
     }
     
+    @Override
+    public boolean hasConsumers(final String address) {
+        final var addressConsumers = consumers.get(address);
+        return addressConsumers != null && !addressConsumers.isEmpty();
+    }
+    
     @Override
     public void close() {
-        worker.dispose();
-        worker = null;
+        final var current = workers;
+        workers = null;
+        if(current != null) {
+            for(final Worker worker : current) {
+                worker.dispose();
+            }
+        }
     }
     
     @Getter
@@ -118,13 +266,15 @@ public class DefaultDispatchManager extends AbstractDispatchManager {
         // This method is specific to Catnip#on and can be safely removed if wanted.
         @Override
         public MessageConsumer<T> handler(final Consumer<T> handler) {
-            internalHandler = event -> worker.schedule(() -> {
+            // We're already running on the event's lane, so there's no need
+            // to hop back onto a worker here.
+            internalHandler = event -> {
                 try {
                     handler.accept(event);
                 } catch(final Exception e) {
                     LOGGER.error("Exception handling event on address " + address, e);
                 }
-            });
+            };
             return this;
         }
         
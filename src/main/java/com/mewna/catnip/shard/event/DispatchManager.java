@@ -52,6 +52,19 @@ public interface DispatchManager extends Closeable {
      */
     <T> MessageConsumer<T> createConsumer(String address);
     
+    /**
+     * Whether anything is listening on the provided address. Shards use this
+     * to skip parsing events that nothing would receive, so implementations
+     * that can't tell should return {@code true}, which is the default.
+     *
+     * @param address Address to check.
+     *
+     * @return Whether an event sent to the address might be received.
+     */
+    default boolean hasConsumers(final String address) {
+        return true;
+    }
+    
     @Override
     void close();
 }
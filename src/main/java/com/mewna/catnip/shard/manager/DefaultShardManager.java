@@ -36,6 +36,7 @@ import com.mewna.catnip.shard.LifecycleState;
 import com.mewna.catnip.shard.event.MessageConsumer;
 import com.mewna.catnip.util.task.QueueTask;
 import com.mewna.catnip.util.task.ShardConnectTask;
+import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.Single;
 import lombok.Getter;
 import lombok.experimental.Accessors;
@@ -60,6 +61,13 @@ public class DefaultShardManager extends AbstractShardManager {
     private final Collection<Integer> shardIds;
     @Getter
     private int shardCount;
+    /**
+     * How many shards may identify at once, from the gateway info. Each
+     * round of identifies starts the first queued shard of up to this many
+     * ratelimit keys, ie. {@code shard_id % max_concurrency}.
+     */
+    @Getter
+    private volatile int maxConcurrency = 1;
     @Getter
     private final QueueTask<Integer> connectQueue = new ShardConnectTask(this::startShard);
     private volatile boolean started;
@@ -152,6 +160,11 @@ public class DefaultShardManager extends AbstractShardManager {
             catnip().logAdapter().warn("Token reset incoming!");
         }
         
+        maxConcurrency = Math.max(1, gatewayInfo.maxConcurrency());
+        if(maxConcurrency > 1) {
+            catnip().logAdapter().info("Identifying up to {} shards at once", maxConcurrency);
+        }
+        
         // Actually start shards
         if(shardCount == 0) {
             shardCount = gatewayInfo.shards();
@@ -248,33 +261,69 @@ public class DefaultShardManager extends AbstractShardManager {
             return;
         }
         
-        final int id = connectQueue.peek();
-        catnip().logAdapter().debug("Peeked id {} off of connect queue", id);
+        final List<Integer> batch = identifyBatch(connectQueue.queue(), maxConcurrency);
+        catnip().logAdapter().debug("Peeked ids {} off of connect queue", batch);
         
-        if(conditions().isEmpty()) {
-            connectNextShard();
-        } else {
-            //noinspection ResultOfMethodCallIgnored
-            Single.zip(conditions().stream().map(e -> e.preshard(id)).toList(),
-                    // Yikes
-                    data -> Arrays.stream(data).allMatch(e -> e == Boolean.TRUE))
-                    .subscribe(res -> {
-                        if(res) {
-                            connectNextShard();
-                        } else {
-                            catnip().logAdapter().debug("Not all shard conditions succeeded, trying again in 1s");
-                            catnip().taskScheduler().setTimer(1000L, t -> runConnectQueue());
-                        }
-                    }, e -> {
-                        catnip().logAdapter().debug("Couldn't complete shard conditions, trying again in 1s", e);
+        // Conditions are checked one shard at a time, so that conditions
+        // which hand out permits see each shard on its own
+        //noinspection ResultOfMethodCallIgnored
+        Observable.fromIterable(batch)
+                .concatMapSingle(id -> checkConditions(id).map(res -> res ? id : -1))
+                .filter(id -> id >= 0)
+                .toList()
+                .subscribe(ready -> {
+                    if(ready.isEmpty()) {
+                        catnip().logAdapter().debug("Not all shard conditions succeeded, trying again in 1s");
                         catnip().taskScheduler().setTimer(1000L, t -> runConnectQueue());
-                    });
+                    } else {
+                        connectNextShards(ready);
+                    }
+                }, e -> {
+                    catnip().logAdapter().debug("Couldn't complete shard conditions, trying again in 1s", e);
+                    catnip().taskScheduler().setTimer(1000L, t -> runConnectQueue());
+                });
+    }
+    
+    /**
+     * Picks the shards to identify in the next round: the first queued shard
+     * for each ratelimit key, in queue order, up to
+     * {@code maxConcurrency} of them.
+     *
+     * @param queue          The queued shard ids.
+     * @param maxConcurrency The {@code max_concurrency} of the bot.
+     *
+     * @return The ids of the shards to identify.
+     */
+    @Nonnull
+    static List<Integer> identifyBatch(@Nonnull final Iterable<Integer> queue, @Nonnegative final int maxConcurrency) {
+        final Map<Integer, Integer> byKey = new LinkedHashMap<>();
+        for(final int id : queue) {
+            if(byKey.size() == maxConcurrency) {
+                break;
+            }
+            byKey.putIfAbsent(id % maxConcurrency, id);
+        }
+        return List.copyOf(byKey.values());
+    }
+    
+    @Nonnull
+    Single<Boolean> checkConditions(final int id) {
+        if(conditions().isEmpty()) {
+            return Single.just(true);
         }
+        // Conditions are checked in order, and the first one to fail stops
+        // the rest from being checked, so that conditions that use something
+        // up when they pass (eg. SharedIdentifyCondition) aren't charged for
+        // shards that an earlier condition rejects.
+        return Observable.fromIterable(conditions())
+                .concatMapSingle(e -> e.preshard(id))
+                .all(Boolean.TRUE::equals);
     }
     
-    private void connectNextShard() {
-        catnip().logAdapter().debug("Connecting next shard: {}", connectQueue.peek());
-        connectQueue.run();
+    private void connectNextShards(@Nonnull final List<Integer> ids) {
+        catnip().logAdapter().debug("Connecting next shards: {}", ids);
+        ids.forEach(connectQueue::run);
+        // Each ratelimit key may identify once every 5 seconds
         catnip().taskScheduler().setTimer(5500, r -> runConnectQueue());
     }
     
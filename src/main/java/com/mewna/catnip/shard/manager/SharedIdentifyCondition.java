@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.manager;
+
+import com.mewna.catnip.rest.ratelimit.FileRateLimitStore;
+import com.mewna.catnip.rest.ratelimit.MemoryRateLimitStore;
+import com.mewna.catnip.rest.ratelimit.RateLimitStore;
+import com.mewna.catnip.shard.ShardConnectState;
+import io.reactivex.rxjava3.core.Single;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.function.IntSupplier;
+
+/**
+ * A shard condition that lets shards identify only when their ratelimit key,
+ * ie. {@code shard_id % max_concurrency}, has an identify to spare. Identifies
+ * are taken from a {@link RateLimitStore}, so shard managers in several
+ * processes that use the same store take turns, rather than each of them
+ * waiting between identifies on its own and all of them identifying at
+ * once. A {@link MemoryRateLimitStore} coordinates the shard managers of one
+ * process, and a {@link FileRateLimitStore} those of every process on the
+ * machine. This can be the same store as a
+ * {@link com.mewna.catnip.rest.ratelimit.SharedRateLimiter}'s.
+ * <p>
+ * A shard that can't identify yet fails the condition, and the shard manager
+ * tries it again later. Identifies are taken when the condition is checked,
+ * so this should be added after any other conditions: the
+ * {@link DefaultShardManager} checks conditions in the order they were added
+ * and stops at the first one that fails, so shards that fail an earlier
+ * condition don't use up an identify.
+ * <pre>{@code
+ * final DefaultShardManager manager = new DefaultShardManager();
+ * manager.addCondition(new SharedIdentifyCondition(new FileRateLimitStore(path), manager::maxConcurrency));
+ * }</pre>
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@Accessors(fluent = true)
+public class SharedIdentifyCondition implements ShardCondition {
+    /**
+     * How long each ratelimit key has to wait between identifies. Discord
+     * asks for 5 seconds, which this leaves some room on top of, as the
+     * shard managers do.
+     */
+    public static final long DEFAULT_WINDOW = 5500;
+    /**
+     * The prefix of the identify buckets in the store, which are named after
+     * their ratelimit key. It can't be mistaken for a REST bucket.
+     */
+    public static final String BUCKET_PREFIX = "identify:";
+    
+    @Getter
+    private final RateLimitStore store;
+    private final IntSupplier maxConcurrency;
+    @Getter
+    private final long window;
+    
+    public SharedIdentifyCondition(@Nonnull final RateLimitStore store, @Nonnegative final int maxConcurrency) {
+        this(store, () -> maxConcurrency);
+    }
+    
+    /**
+     * @param maxConcurrency The bot's {@code max_concurrency}, which is read
+     *                       every time a shard is checked, eg.
+     *                       {@link DefaultShardManager#maxConcurrency()}.
+     */
+    public SharedIdentifyCondition(@Nonnull final RateLimitStore store, @Nonnull final IntSupplier maxConcurrency) {
+        this(store, maxConcurrency, DEFAULT_WINDOW);
+    }
+    
+    /**
+     * @param window How long each ratelimit key has to wait between
+     *               identifies, in milliseconds.
+     */
+    public SharedIdentifyCondition(@Nonnull final RateLimitStore store, @Nonnull final IntSupplier maxConcurrency,
+                                   @Nonnegative final long window) {
+        this.store = store;
+        this.maxConcurrency = maxConcurrency;
+        this.window = window;
+    }
+    
+    @Override
+    public Single<Boolean> preshard(@Nonnegative final int shardId) {
+        return Single.fromCallable(() -> {
+            final int key = shardId % Math.max(1, maxConcurrency.getAsInt());
+            return store.tryAcquire(BUCKET_PREFIX + key, 1, window, System.currentTimeMillis()) == 0;
+        });
+    }
+    
+    @Override
+    public void postshard(@Nonnegative final int shardId, @Nonnull final ShardConnectState state) {
+        // Identifies can't be given back, as Discord counts them whether or
+        // not the shard connects
+    }
+}
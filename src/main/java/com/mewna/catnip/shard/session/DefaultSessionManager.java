@@ -40,6 +40,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class DefaultSessionManager implements SessionManager {
     private final Map<Integer, String> sessions = new ConcurrentHashMap<>();
     private final Map<Integer, Integer> seqnums = new ConcurrentHashMap<>();
+    private final Map<Integer, String> resumeUrls = new ConcurrentHashMap<>();
     
     @Override
     public void session(@Nonnegative final int shardId, @Nonnull final String session) {
@@ -65,9 +66,21 @@ public class DefaultSessionManager implements SessionManager {
         return seqnums.get(shardId);
     }
     
+    @Override
+    public void resumeUrl(@Nonnegative final int shardId, @Nonnull final String url) {
+        resumeUrls.put(shardId, url);
+    }
+    
+    @Override
+    @Nullable
+    public String resumeUrl(@Nonnegative final int shardId) {
+        return resumeUrls.get(shardId);
+    }
+    
     @Override
     public void clearSession(@Nonnegative final int shardId) {
         sessions.remove(shardId);
+        resumeUrls.remove(shardId);
     }
     
     @Override
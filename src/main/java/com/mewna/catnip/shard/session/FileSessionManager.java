@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.session;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A session manager that keeps each shard's session id, seqnum and resume
+ * url in a memory-mapped file, so that a restarted process can resume its
+ * shards' sessions instead of identifying them again. Sessions are only
+ * resumable for a few minutes after their shard disconnects, so sessions
+ * that haven't been updated for {@link #maxAge()} ms when the file is opened
+ * are dropped.
+ * <p>
+ * Updates are written straight to the mapped file, and so reach the OS as
+ * soon as they're made, which is enough for them to survive the process
+ * restarting. They're only forced to disk at most once every
+ * {@link #flushInterval()} ms, as every dispatch updates a seqnum, and on
+ * {@link #close()}.
+ * <p>
+ * The file has one record per shard id, up to its capacity, which is set by
+ * whoever creates the file. Processes running different shards can share a
+ * file.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+@Accessors(fluent = true)
+public class FileSessionManager implements SessionManager, Closeable {
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final long DEFAULT_MAX_AGE = TimeUnit.MINUTES.toMillis(5);
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+    
+    private static final int MAGIC = 0x434E5353; // CNSS
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 256;
+    private static final int SEQNUM = 0;
+    private static final int SESSION_LENGTH = 4;
+    private static final int URL_LENGTH = 6;
+    private static final int UPDATED = 8;
+    private static final int SESSION = 16;
+    private static final int MAX_SESSION_LENGTH = 64;
+    private static final int URL = SESSION + MAX_SESSION_LENGTH;
+    private static final int MAX_URL_LENGTH = RECORD_SIZE - URL;
+    
+    private final FileChannel channel;
+    // Null once closed
+    private MappedByteBuffer buffer;
+    @Getter
+    private final int capacity;
+    @Getter
+    private final long maxAge;
+    @Getter
+    private final long flushInterval;
+    private boolean dirty;
+    private long lastFlush = System.nanoTime();
+    
+    /**
+     * Opens the sessions at the given path, creating the file with the
+     * {@link #DEFAULT_CAPACITY default capacity} if it doesn't exist.
+     */
+    public FileSessionManager(@Nonnull final Path path) throws IOException {
+        this(path, DEFAULT_CAPACITY, DEFAULT_MAX_AGE, DEFAULT_FLUSH_INTERVAL);
+    }
+    
+    /**
+     * @param path          The file to keep sessions in.
+     * @param capacity      How many shards the file can hold if it has to be
+     *                      created. Shard ids must be below it.
+     * @param maxAge        How long a session may go without updates before
+     *                      it's dropped when the file is opened, in
+     *                      milliseconds.
+     * @param flushInterval How often updates may be forced to disk, in
+     *                      milliseconds.
+     */
+    public FileSessionManager(@Nonnull final Path path, @Nonnegative final int capacity,
+                              @Nonnegative final long maxAge, @Nonnegative final long flushInterval) throws IOException {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        }
+        this.maxAge = maxAge;
+        this.flushInterval = flushInterval;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            try(final FileLock ignored = channel.lock()) {
+                this.capacity = channel.size() == 0 ? create(capacity) : readHeader();
+            }
+            buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + (long) this.capacity * RECORD_SIZE);
+        } catch(final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        dropStaleSessions();
+    }
+    
+    private int create(final int capacity) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(capacity)
+                .putInt(0)
+                .flip();
+        channel.write(header, 0);
+        // Zeroes are what empty records look like
+        channel.write(ByteBuffer.allocate(1), HEADER_SIZE + (long) capacity * RECORD_SIZE - 1);
+        return capacity;
+    }
+    
+    private int readHeader() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if(header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IllegalStateException("Not a session file, or from an incompatible version");
+        }
+        final int capacity = header.getInt();
+        if(capacity <= 0 || channel.size() < HEADER_SIZE + (long) capacity * RECORD_SIZE) {
+            throw new IllegalStateException("Session file is corrupt");
+        }
+        return capacity;
+    }
+    
+    private synchronized void dropStaleSessions() {
+        final long staleBefore = System.currentTimeMillis() - maxAge;
+        for(int shardId = 0; shardId < capacity; shardId++) {
+            final int record = HEADER_SIZE + shardId * RECORD_SIZE;
+            if(buffer.getLong(record + UPDATED) < staleBefore
+                    && (buffer.getShort(record + SESSION_LENGTH) != 0 || buffer.getInt(record + SEQNUM) != 0)) {
+                buffer.putInt(record + SEQNUM, 0);
+                buffer.putShort(record + SESSION_LENGTH, (short) 0);
+                buffer.putShort(record + URL_LENGTH, (short) 0);
+                dirty = true;
+            }
+        }
+    }
+    
+    @Override
+    public synchronized void session(@Nonnegative final int shardId, @Nonnull final String session) {
+        final int record = record(shardId);
+        putString(record + SESSION, record + SESSION_LENGTH, MAX_SESSION_LENGTH, session);
+        // A new session never has the old one's resume url
+        buffer.putShort(record + URL_LENGTH, (short) 0);
+        updated(record);
+    }
+    
+    @Override
+    @Nullable
+    public synchronized String session(@Nonnegative final int shardId) {
+        final int record = record(shardId);
+        return getString(record + SESSION, record + SESSION_LENGTH);
+    }
+    
+    @Override
+    public synchronized void seqnum(@Nonnegative final int shardId, final int seqnum) {
+        final int record = record(shardId);
+        buffer.putInt(record + SEQNUM, seqnum);
+        updated(record);
+    }
+    
+    @Override
+    public synchronized int seqnum(@Nonnegative final int shardId) {
+        return buffer.getInt(record(shardId) + SEQNUM);
+    }
+    
+    @Override
+    public synchronized void resumeUrl(@Nonnegative final int shardId, @Nonnull final String url) {
+        final int record = record(shardId);
+        putString(record + URL, record + URL_LENGTH, MAX_URL_LENGTH, url);
+        updated(record);
+    }
+    
+    @Override
+    @Nullable
+    public synchronized String resumeUrl(@Nonnegative final int shardId) {
+        final int record = record(shardId);
+        return getString(record + URL, record + URL_LENGTH);
+    }
+    
+    @Override
+    public synchronized void clearSession(@Nonnegative final int shardId) {
+        final int record = record(shardId);
+        buffer.putShort(record + SESSION_LENGTH, (short) 0);
+        buffer.putShort(record + URL_LENGTH, (short) 0);
+        updated(record);
+    }
+    
+    @Override
+    public synchronized void clearSeqnum(@Nonnegative final int shardId) {
+        final int record = record(shardId);
+        buffer.putInt(record + SEQNUM, 0);
+        updated(record);
+    }
+    
+    /**
+     * Forces any updates that haven't been yet to disk.
+     */
+    public synchronized void flush() {
+        ensureOpen();
+        if(dirty) {
+            buffer.force();
+            dirty = false;
+        }
+        lastFlush = System.nanoTime();
+    }
+    
+    /**
+     * Forces any updates to disk and closes the file. The JDK has no way to
+     * unmap a file before its buffer is garbage collected, so the mapping may
+     * outlive this; the manager drops its buffer, and every later call fails
+     * with an {@link IllegalStateException} rather than touching it.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(buffer != null) {
+            flush();
+            buffer = null;
+        }
+        channel.close();
+    }
+    
+    private void ensureOpen() {
+        if(buffer == null) {
+            throw new IllegalStateException("Session file is closed");
+        }
+    }
+    
+    private int record(final int shardId) {
+        ensureOpen();
+        if(shardId < 0 || shardId >= capacity) {
+            throw new IllegalArgumentException("Shard " + shardId + " doesn't fit in a session file of " + capacity + " shards");
+        }
+        return HEADER_SIZE + shardId * RECORD_SIZE;
+    }
+    
+    private void updated(final int record) {
+        buffer.putLong(record + UPDATED, System.currentTimeMillis());
+        dirty = true;
+        if(System.nanoTime() - lastFlush >= TimeUnit.MILLISECONDS.toNanos(flushInterval)) {
+            flush();
+        }
+    }
+    
+    private void putString(final int offset, final int lengthOffset, final int maxLength, @Nonnull final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if(bytes.length > maxLength) {
+            throw new IllegalArgumentException("Can't store more than " + maxLength + " bytes, got " + value);
+        }
+        buffer.put(offset, bytes);
+        buffer.putShort(lengthOffset, (short) bytes.length);
+    }
+    
+    @Nullable
+    private String getString(final int offset, final int lengthOffset) {
+        final int length = buffer.getShort(lengthOffset);
+        if(length == 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -45,6 +45,29 @@ public interface SessionManager {
     
     int seqnum(@Nonnegative int shardId);
     
+    /**
+     * Stores the {@code resume_gateway_url} that a shard's session has to be
+     * resumed on. It's cleared along with the session. The default
+     * implementation doesn't store it, in which case shards resume on the
+     * usual gateway url.
+     *
+     * @param shardId The id of the shard.
+     * @param url     The url to resume the shard's session on.
+     */
+    default void resumeUrl(@Nonnegative final int shardId, @Nonnull final String url) {
+    }
+    
+    /**
+     * @param shardId The id of the shard.
+     *
+     * @return The url to resume the shard's session on, or {@code null} if
+     * it isn't known.
+     */
+    @Nullable
+    default String resumeUrl(@Nonnegative final int shardId) {
+        return null;
+    }
+    
     void clearSession(@Nonnegative int shardId);
     
     void clearSeqnum(@Nonnegative int shardId);
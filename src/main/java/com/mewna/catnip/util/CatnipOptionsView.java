@@ -35,19 +35,23 @@ import com.mewna.catnip.cache.NoopEntityCache;
 import com.mewna.catnip.cache.SplitMemoryEntityCache;
 import com.mewna.catnip.entity.delegate.EntityDelegator;
 import com.mewna.catnip.entity.guild.Guild;
+import com.mewna.catnip.entity.impl.StreamingEntityBinder;
 import com.mewna.catnip.entity.lifecycle.HighWebsocketLatency;
 import com.mewna.catnip.entity.lifecycle.MemberChunkRerequest;
 import com.mewna.catnip.entity.serialization.EntitySerializer;
 import com.mewna.catnip.entity.user.Presence;
 import com.mewna.catnip.extension.Extension;
+import com.mewna.catnip.rest.requester.PipelinedRequester;
 import com.mewna.catnip.rest.requester.Requester;
 import com.mewna.catnip.rest.requester.SerialRequester;
 import com.mewna.catnip.shard.CompressionMode;
 import com.mewna.catnip.shard.DiscordEvent.Raw;
+import com.mewna.catnip.shard.GatewayEncoding;
 import com.mewna.catnip.shard.GatewayIntent;
 import com.mewna.catnip.shard.buffer.CachingBuffer;
 import com.mewna.catnip.shard.buffer.EventBuffer;
 import com.mewna.catnip.shard.buffer.NoopBuffer;
+import com.mewna.catnip.shard.compression.GatewayDecoderFactory;
 import com.mewna.catnip.shard.event.DefaultDispatchManager;
 import com.mewna.catnip.shard.event.DispatchManager;
 import com.mewna.catnip.shard.manager.DefaultShardManager;
@@ -100,7 +104,9 @@ public interface CatnipOptionsView {
     ShardManager shardManager();
     
     /**
-     * The session manager for catnip to use. Defaults to {@link DefaultSessionManager}
+     * The session manager for catnip to use. Defaults to {@link DefaultSessionManager}.
+     * {@link com.mewna.catnip.shard.session.FileSessionManager} keeps
+     * sessions in a file, so that shards can resume them after a restart.
      */
     @Nonnull
     SessionManager sessionManager();
@@ -131,6 +137,9 @@ public interface CatnipOptionsView {
     /**
      * The cache worker for catnip to use. Defaults to {@link SplitMemoryEntityCache}.
      * Change this if you want to use your own {@link EntityCacheWorker}.
+     * For bots with very many users and members,
+     * {@link com.mewna.catnip.cache.OffHeapEntityCache} keeps those out of
+     * the heap.
      */
     @Nonnull
     EntityCacheWorker cacheWorker();
@@ -180,6 +189,15 @@ public interface CatnipOptionsView {
     
     /**
      * The requester catnip uses for REST requests. Defaults to {@link SerialRequester}.
+     * {@link PipelinedRequester} can have several requests per route in
+     * flight, at the cost of Discord not always handling them in order.
+     * Requesters are given a {@link com.mewna.catnip.rest.ratelimit.RateLimiter};
+     * {@link com.mewna.catnip.rest.ratelimit.SharedRateLimiter} lets several
+     * processes using the same token share its ratelimits.
+     * {@link com.mewna.catnip.rest.requester.CoalescingRequester} can wrap
+     * any requester to merge identical GET requests that are in flight at the
+     * same time, and {@link com.mewna.catnip.rest.requester.CachingRequester}
+     * to cache the responses of read-only routes for a short time.
      */
     @Nonnull
     Requester requester();
@@ -300,6 +318,39 @@ public interface CatnipOptionsView {
     @Nonnull
     CompressionMode compressionMode();
     
+    /**
+     * Creates the decoders that shards use for incoming gateway payloads. If
+     * set, this takes precedence over {@link #compressionMode()}. Default is
+     * {@code null}, ie. use the decoder for the compression mode.
+     */
+    @Nullable
+    GatewayDecoderFactory gatewayDecoderFactory();
+    
+    /**
+     * How payloads are encoded on the gateway. Default is
+     * {@link GatewayEncoding#JSON}. With {@link GatewayEncoding#ETF},
+     * snowflakes arrive as integers and are never turned into strings on the
+     * way to the entity builder; the {@link JsonObject}s passed to hooks,
+     * buffers, and the cache will hold them as {@link Long}s.
+     */
+    @Nonnull
+    GatewayEncoding gatewayEncoding();
+    
+    /**
+     * The events whose entities are bound straight from the JSON payload,
+     * rather than from a parsed {@link JsonObject}. This skips building the
+     * intermediate object tree, which cuts down on allocations for busy events
+     * like {@link Raw#MESSAGE_CREATE}. Default is no events. See
+     * {@link StreamingEntityBinder#SUPPORTED_EVENTS} for the events that can be
+     * bound.
+     * <p/>
+     * Events are still parsed normally when raw gateway hooks are installed,
+     * when the event buffer needs the full payload (eg. to cache it), and with
+     * {@link GatewayEncoding#ETF}.
+     */
+    @Nonnull
+    Set<String> streamBoundEvents();
+    
     /**
      * Whether or not catnip should assume the inability to have a properly
      * synchronized clock when computing REST ratelimits. When this option is
@@ -307,9 +358,28 @@ public interface CatnipOptionsView {
      * properly synced, and will use a less-efficient method provided by
      * Discord for computing REST ratelimits. See
      * https://github.com/discord/discord-api-docs/pull/1069 for more info.
+     * <p>
+     * This no longer has any effect: catnip always goes by
+     * {@code X-RateLimit-Reset-After} when Discord sends it, and tracks
+     * resets on a monotonic clock, so the local clock never has to be synced.
+     *
+     * @deprecated Has no effect, and will be removed.
      */
+    @Deprecated
     boolean restRatelimitsWithoutClockSync();
     
+    /**
+     * Whether catnip should stream the bodies of REST responses that can be
+     * large arrays, such as guild members and message history, and build
+     * entities from them one element at a time, rather than reading the
+     * whole body into a string and parsing it into a tree first. This keeps
+     * memory use bounded by the size of an element rather than the size of
+     * a response. Only the methods and paginators that return entities
+     * stream; the raw JSON methods always read the whole body. Defaults to
+     * {@code false}.
+     */
+    boolean streamRestResponses();
+    
     /**
      * If heartbeat latency takes longer than this much time, catnip will emit
      * a {@link HighWebsocketLatency} event containing information about which
@@ -323,7 +393,9 @@ public interface CatnipOptionsView {
      * The entity serializer that catnip uses for de/serializing entities for
      * external usage. The value of this option will not affect how catnip
      * behaves internally, but rather will affect user-controlled serialization
-     * for interfacing with the outside world.
+     * for interfacing with the outside world. See
+     * {@link com.mewna.catnip.entity.serialization.BinaryEntitySerializer}
+     * for a compact binary serializer.
      */
     @Nonnull
     EntitySerializer<?> entitySerializer();
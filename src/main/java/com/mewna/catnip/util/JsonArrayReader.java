@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.util;
+
+import com.grack.nanojson.JsonObject;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a UTF-8 JSON array from a stream one element at a time, so that only
+ * the element being read has to be held in memory, rather than the whole
+ * array and the text it was parsed from. Elements are read with a
+ * {@link JsonTokenReader}, so they come out exactly as nanojson would parse
+ * them.
+ * <p/>
+ * The stream is closed once the end of the array has been read, or when the
+ * reader is {@link #close() closed}. Reading from the stream may block, and
+ * failing to fails with an {@link UncheckedIOException}.
+ * <p/>
+ * Instances are NOT thread-safe.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public final class JsonArrayReader implements Iterator<Object>, Closeable {
+    private static final int CHUNK_SIZE = 8192;
+    
+    private final InputStream in;
+    private final JsonTokenReader reader = new JsonTokenReader();
+    private byte[] buffer = new byte[CHUNK_SIZE];
+    // Unread bytes are buffer[start, end)
+    private int start;
+    private int end;
+    // Length of the next element, which starts at start, or -1 if it hasn't
+    // been found yet
+    private int element = -1;
+    private boolean began;
+    private boolean finished;
+    
+    public JsonArrayReader(@Nonnull final InputStream in) {
+        this.in = in;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if(element >= 0) {
+            return true;
+        }
+        if(finished) {
+            return false;
+        }
+        try {
+            int offset = skipWhitespace(0);
+            int c = byteAt(offset);
+            if(!began) {
+                if(c != '[') {
+                    throw error("'['", c);
+                }
+                began = true;
+                offset = skipWhitespace(offset + 1);
+                c = byteAt(offset);
+            } else if(c == ',') {
+                offset = skipWhitespace(offset + 1);
+                c = byteAt(offset);
+            }
+            if(c == ']') {
+                start += offset + 1;
+                close();
+                return false;
+            }
+            if(c == -1) {
+                throw error("an element", c);
+            }
+            start += offset;
+            element = elementLength();
+            return true;
+        } catch(final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * @return The next element, as nanojson would parse it.
+     */
+    @Nullable
+    @Override
+    public Object next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Object value = reader.reset(ByteBuffer.wrap(buffer, start, element)).readValue();
+        start += element;
+        element = -1;
+        return value;
+    }
+    
+    /**
+     * @return The next element, which must be an object.
+     */
+    @Nonnull
+    public JsonObject nextObject() {
+        final Object value = next();
+        if(!(value instanceof JsonObject object)) {
+            throw new IllegalArgumentException("Expected array to contain only objects, but found " +
+                    (value == null ? "null" : value.getClass()));
+        }
+        return object;
+    }
+    
+    @Override
+    public void close() {
+        finished = true;
+        element = -1;
+        try {
+            in.close();
+        } catch(final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Finds where the element starting at {@link #start} ends, reading more
+     * of the stream as needed. Only brackets and strings need to be tracked
+     * for that; the element is checked properly when it's parsed.
+     */
+    private int elementLength() throws IOException {
+        int c = byteAt(0);
+        if(c == '{' || c == '[') {
+            int depth = 0;
+            boolean inString = false;
+            for(int offset = 0; ; offset++) {
+                c = byteAt(offset);
+                if(c == -1) {
+                    throw error("the end of the element", c);
+                }
+                if(inString) {
+                    if(c == '\\') {
+                        offset++;
+                    } else if(c == '"') {
+                        inString = false;
+                    }
+                } else if(c == '"') {
+                    inString = true;
+                } else if(c == '{' || c == '[') {
+                    depth++;
+                } else if((c == '}' || c == ']') && --depth == 0) {
+                    return offset + 1;
+                }
+            }
+        }
+        if(c == '"') {
+            for(int offset = 1; ; offset++) {
+                c = byteAt(offset);
+                if(c == -1) {
+                    throw error("the end of the string", c);
+                }
+                if(c == '\\') {
+                    offset++;
+                } else if(c == '"') {
+                    return offset + 1;
+                }
+            }
+        }
+        // Numbers and literals run until the next delimiter
+        for(int offset = 0; ; offset++) {
+            c = byteAt(offset);
+            if(c == -1 || c == ',' || c == ']' || isWhitespace(c)) {
+                return offset;
+            }
+        }
+    }
+    
+    private int skipWhitespace(int offset) throws IOException {
+        while(isWhitespace(byteAt(offset))) {
+            offset++;
+        }
+        return offset;
+    }
+    
+    /**
+     * @return The byte {@code offset} bytes after {@link #start}, or
+     * {@code -1} if the stream ends before it.
+     */
+    private int byteAt(final int offset) throws IOException {
+        while(start + offset >= end) {
+            if(!fill()) {
+                return -1;
+            }
+        }
+        return buffer[start + offset] & 0xFF;
+    }
+    
+    private boolean fill() throws IOException {
+        if(start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        if(end == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        final int read = in.read(buffer, end, buffer.length - end);
+        if(read < 0) {
+            return false;
+        }
+        end += read;
+        return true;
+    }
+    
+    private static boolean isWhitespace(final int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+    
+    private static IllegalStateException error(final String expected, final int found) {
+        return new IllegalStateException("Expected " + expected + " in JSON array, but found "
+                + (found == -1 ? "end of stream" : "'" + (char) found + '\''));
+    }
+}
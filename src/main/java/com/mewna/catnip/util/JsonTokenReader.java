@@ -0,0 +1,594 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.util;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * A pull reader over JSON text, for binding values straight into entities
+ * without building a {@link JsonObject} tree first.
+ * <p/>
+ * Objects are walked with {@link #beginObject()} and {@link #nextKey()}, and
+ * arrays with {@link #beginArray()} and {@link #hasNext()}:
+ * <pre>{@code
+ * reader.beginObject();
+ * String key;
+ * while((key = reader.nextKey()) != null) {
+ *     switch(key) {
+ *         case "id" -> id = reader.nextSnowflake();
+ *         default -> reader.skipValue();
+ *     }
+ * }
+ * }</pre>
+ * Object keys are interned in a small per-reader cache, since the same few
+ * dozen keys make up most of every payload, and snowflakes are read into
+ * {@code long}s without going through a {@link String}. Subtrees that aren't
+ * worth binding by hand can still be read with {@link #readObject()}.
+ * <p/>
+ * The reader trusts its input: it is lenient about separators, and malformed
+ * JSON fails with an {@link IllegalStateException} or an
+ * {@link IndexOutOfBoundsException} rather than a descriptive error.
+ * <p/>
+ * Instances are reused between payloads, and are NOT thread-safe.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public final class JsonTokenReader {
+    private static final int KEY_CACHE_SIZE = 512;
+    private static final int MAX_CACHED_KEY_LENGTH = 32;
+    /**
+     * Any 19-digit number fits in an unsigned long, so it can be accumulated
+     * without overflow checks.
+     */
+    private static final int MAX_UNCHECKED_DIGITS = 19;
+    
+    private final Bytes bytes = new Bytes();
+    private final String[] keys = new String[KEY_CACHE_SIZE];
+    private char[] scratch = new char[256];
+    private CharSequence in;
+    private boolean utf8;
+    private int pos;
+    
+    /**
+     * Starts reading a UTF-8 JSON payload. The position of {@code json} is not
+     * changed, and it must not be modified while it's being read.
+     *
+     * @return This reader.
+     */
+    @Nonnull
+    public JsonTokenReader reset(@Nonnull final ByteBuffer json) {
+        bytes.buffer = json;
+        bytes.offset = json.position();
+        bytes.length = json.remaining();
+        in = bytes;
+        utf8 = true;
+        pos = 0;
+        return this;
+    }
+    
+    /**
+     * Starts reading a JSON payload.
+     *
+     * @return This reader.
+     */
+    @Nonnull
+    public JsonTokenReader reset(@Nonnull final CharSequence json) {
+        bytes.buffer = null;
+        in = json;
+        utf8 = false;
+        pos = 0;
+        return this;
+    }
+    
+    /**
+     * Consumes the opening brace of an object.
+     */
+    public void beginObject() {
+        expect('{');
+    }
+    
+    /**
+     * Reads the next key of the current object, leaving the reader at its
+     * value. Every key's value MUST be consumed before asking for the next
+     * key.
+     *
+     * @return The key, or {@code null} once the end of the object has been
+     * consumed.
+     */
+    @Nullable
+    public String nextKey() {
+        char c = next();
+        if(c == ',') {
+            c = next();
+        }
+        if(c == '}') {
+            return null;
+        }
+        if(c != '"') {
+            throw error("a key");
+        }
+        final String key = readKey();
+        expect(':');
+        return key;
+    }
+    
+    /**
+     * Consumes the opening bracket of an array.
+     */
+    public void beginArray() {
+        expect('[');
+    }
+    
+    /**
+     * @return Whether the current array has another value. Once this returns
+     * {@code false}, the end of the array has been consumed.
+     */
+    public boolean hasNext() {
+        char c = peek();
+        if(c == ',') {
+            pos++;
+            c = peek();
+        }
+        if(c == ']') {
+            pos++;
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Consumes the next value if it is {@code null}.
+     *
+     * @return Whether the next value was {@code null}.
+     */
+    public boolean nextNull() {
+        if(peek() == 'n') {
+            skipLiteral();
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * @return The next value, which must be a string or {@code null}.
+     */
+    @Nullable
+    public String nextString() {
+        if(nextNull()) {
+            return null;
+        }
+        expect('"');
+        return readString();
+    }
+    
+    /**
+     * @return The next value, which must be {@code true} or {@code false}.
+     */
+    public boolean nextBoolean() {
+        final char c = peek();
+        if(c != 't' && c != 'f') {
+            throw error("a boolean");
+        }
+        skipLiteral();
+        return c == 't';
+    }
+    
+    /**
+     * @return The next value, which must be an integer.
+     */
+    public long nextLong() {
+        char c = next();
+        final boolean negative = c == '-';
+        if(negative) {
+            c = in.charAt(pos++);
+        }
+        if(c < '0' || c > '9') {
+            throw error("a number");
+        }
+        long value = 0;
+        while(c >= '0' && c <= '9') {
+            value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+            c = charOrEnd(pos++);
+        }
+        if(c == '.' || c == 'e' || c == 'E') {
+            throw error("an integer");
+        }
+        pos--;
+        return negative ? -value : value;
+    }
+    
+    /**
+     * @return The next value, which must be an integer that fits in an
+     * {@code int}.
+     */
+    public int nextInt() {
+        return Math.toIntExact(nextLong());
+    }
+    
+    /**
+     * Reads a snowflake, which Discord sends as a string but which may also
+     * be a plain number.
+     *
+     * @return The snowflake, or {@code 0} if the value was {@code null}.
+     */
+    public long nextSnowflake() {
+        if(nextNull()) {
+            return 0L;
+        }
+        if(peek() != '"') {
+            return nextLong();
+        }
+        pos++;
+        final int start = pos;
+        long value = 0;
+        char c;
+        while((c = in.charAt(pos++)) != '"') {
+            if(c < '0' || c > '9') {
+                throw error("a snowflake");
+            }
+            value = value * 10 + (c - '0');
+        }
+        final int digits = pos - start - 1;
+        if(digits == 0) {
+            throw error("a snowflake");
+        }
+        if(digits > MAX_UNCHECKED_DIGITS) {
+            return Long.parseUnsignedLong(in.subSequence(start, pos - 1).toString());
+        }
+        return value;
+    }
+    
+    /**
+     * Skips over the next value, however deeply nested it is.
+     */
+    public void skipValue() {
+        final char c = next();
+        switch(c) {
+            case '"' -> skipString();
+            case '{', '[' -> {
+                int depth = 1;
+                while(depth > 0) {
+                    final char ch = in.charAt(pos++);
+                    switch(ch) {
+                        case '"' -> skipString();
+                        case '{', '[' -> depth++;
+                        case '}', ']' -> depth--;
+                        default -> {
+                        }
+                    }
+                }
+            }
+            default -> {
+                // Numbers and literals
+                while(!isDelimiter(charOrEnd(pos))) {
+                    pos++;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reads the next value the way nanojson would: objects and arrays become
+     * {@link JsonObject}s and {@link JsonArray}s, and numbers become
+     * {@link Integer}s, {@link Long}s, or {@link Double}s.
+     */
+    @Nullable
+    public Object readValue() {
+        return switch(peek()) {
+            case '{' -> readObject();
+            case '[' -> readArray();
+            case '"' -> nextString();
+            case 't', 'f' -> nextBoolean();
+            case 'n' -> {
+                skipLiteral();
+                yield null;
+            }
+            default -> readNumber();
+        };
+    }
+    
+    /**
+     * @return The next value as a {@link JsonObject}, or {@code null} if it was
+     * {@code null}.
+     */
+    @Nullable
+    public JsonObject readObject() {
+        if(nextNull()) {
+            return null;
+        }
+        beginObject();
+        final JsonObject object = new JsonObject();
+        String key;
+        while((key = nextKey()) != null) {
+            object.put(key, readValue());
+        }
+        return object;
+    }
+    
+    /**
+     * @return The next value as a {@link JsonArray}, or {@code null} if it was
+     * {@code null}.
+     */
+    @Nullable
+    public JsonArray readArray() {
+        if(nextNull()) {
+            return null;
+        }
+        beginArray();
+        final JsonArray array = new JsonArray();
+        while(hasNext()) {
+            array.add(readValue());
+        }
+        return array;
+    }
+    
+    private Number readNumber() {
+        final int start = skipWhitespace();
+        boolean integral = true;
+        int end = start;
+        for(char c = charOrEnd(end); !isDelimiter(c); c = charOrEnd(++end)) {
+            if(c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+            }
+        }
+        if(!integral) {
+            pos = end;
+            return Double.parseDouble(in.subSequence(start, end).toString());
+        }
+        final long value = nextLong();
+        if(value == (int) value) {
+            return (int) value;
+        }
+        return value;
+    }
+    
+    /**
+     * Reads a key whose opening quote has already been read. Short ASCII keys
+     * come from the cache.
+     */
+    private String readKey() {
+        final int start = pos;
+        int hash = 0;
+        char c;
+        while((c = in.charAt(pos)) != '"' && c != '\\' && c < 0x80) {
+            hash = 31 * hash + c;
+            pos++;
+        }
+        final int length = pos - start;
+        if(c != '"' || length > MAX_CACHED_KEY_LENGTH) {
+            pos = start;
+            return readString();
+        }
+        pos++;
+        final int slot = (hash ^ hash >>> 16) & KEY_CACHE_SIZE - 1;
+        final String cached = keys[slot];
+        if(cached != null && matches(cached, start, length)) {
+            return cached;
+        }
+        final char[] chars = scratch(length);
+        for(int i = 0; i < length; i++) {
+            chars[i] = in.charAt(start + i);
+        }
+        final String key = new String(chars, 0, length);
+        keys[slot] = key;
+        return key;
+    }
+    
+    private boolean matches(final String cached, final int start, final int length) {
+        if(cached.length() != length) {
+            return false;
+        }
+        for(int i = 0; i < length; i++) {
+            if(cached.charAt(i) != in.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Reads the rest of a string whose opening quote has already been read.
+     */
+    private String readString() {
+        int length = 0;
+        char[] chars = scratch;
+        while(true) {
+            char c = in.charAt(pos++);
+            if(c == '"') {
+                return new String(chars, 0, length);
+            }
+            if(length + 2 > chars.length) {
+                chars = grow(length + 2);
+            }
+            if(c == '\\') {
+                c = in.charAt(pos++);
+                chars[length++] = switch(c) {
+                    case 'b' -> '\b';
+                    case 'f' -> '\f';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    case 't' -> '\t';
+                    case 'u' -> {
+                        final int value = Integer.parseInt(in.subSequence(pos, pos + 4).toString(), 16);
+                        pos += 4;
+                        yield (char) value;
+                    }
+                    default -> c;
+                };
+            } else if(utf8 && c >= 0x80) {
+                final int codePoint = readCodePoint(c);
+                length += Character.toChars(codePoint, chars, length);
+            } else {
+                chars[length++] = c;
+            }
+        }
+    }
+    
+    /**
+     * Decodes the rest of a UTF-8 sequence, given its leading byte.
+     */
+    private int readCodePoint(final char lead) {
+        final int continuations;
+        int codePoint;
+        if(lead >= 0xF0) {
+            continuations = 3;
+            codePoint = lead & 0x07;
+        } else if(lead >= 0xE0) {
+            continuations = 2;
+            codePoint = lead & 0x0F;
+        } else if(lead >= 0xC0) {
+            continuations = 1;
+            codePoint = lead & 0x1F;
+        } else {
+            return 0xFFFD;
+        }
+        for(int i = 0; i < continuations; i++) {
+            codePoint = codePoint << 6 | in.charAt(pos++) & 0x3F;
+        }
+        return Character.isValidCodePoint(codePoint) ? codePoint : 0xFFFD;
+    }
+    
+    private char[] scratch(final int length) {
+        return length > scratch.length ? grow(length) : scratch;
+    }
+    
+    private char[] grow(final int length) {
+        final char[] grown = new char[Math.max(length, scratch.length * 2)];
+        System.arraycopy(scratch, 0, grown, 0, scratch.length);
+        scratch = grown;
+        return grown;
+    }
+    
+    /**
+     * Skips the rest of a string whose opening quote has already been read.
+     */
+    private void skipString() {
+        while(true) {
+            final char c = in.charAt(pos++);
+            if(c == '"') {
+                return;
+            }
+            if(c == '\\') {
+                pos++;
+            }
+        }
+    }
+    
+    private void skipLiteral() {
+        next();
+        while(Character.isLetter(charOrEnd(pos))) {
+            pos++;
+        }
+    }
+    
+    private void expect(final char expected) {
+        if(next() != expected) {
+            pos--;
+            throw error("'" + expected + '\'');
+        }
+    }
+    
+    private char next() {
+        char c;
+        do {
+            c = in.charAt(pos++);
+        } while(isWhitespace(c));
+        return c;
+    }
+    
+    private char peek() {
+        final char c = next();
+        pos--;
+        return c;
+    }
+    
+    private int skipWhitespace() {
+        peek();
+        return pos;
+    }
+    
+    /**
+     * Numbers and literals can end the payload, so running out of input there
+     * reads as a delimiter rather than failing.
+     */
+    private char charOrEnd(final int index) {
+        return index < in.length() ? in.charAt(index) : ' ';
+    }
+    
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+    
+    private static boolean isDelimiter(final char c) {
+        return c == ',' || c == '}' || c == ']' || isWhitespace(c);
+    }
+    
+    private IllegalStateException error(final String expected) {
+        return new IllegalStateException("Expected " + expected + " at offset " + pos);
+    }
+    
+    /**
+     * UTF-8 bytes as chars. Structural characters are all ASCII, so only
+     * strings need their multi-byte sequences decoded.
+     */
+    private static final class Bytes implements CharSequence {
+        private ByteBuffer buffer;
+        private int offset;
+        private int length;
+        
+        @Override
+        public int length() {
+            return length;
+        }
+        
+        @Override
+        public char charAt(final int index) {
+            if(index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+        
+        @Nonnull
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            // Only ever used for short ASCII runs, like numbers
+            final StringBuilder builder = new StringBuilder(end - start);
+            for(int i = start; i < end; i++) {
+                builder.append(charAt(i));
+            }
+            return builder;
+        }
+    }
+}
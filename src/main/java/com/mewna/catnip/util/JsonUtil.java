@@ -39,6 +39,7 @@ import java.util.function.Function;
 
 public final class JsonUtil {
     public static final long MAX_SAFE_INTEGER = 9007199254740991L;
+    private static final long[] NO_SNOWFLAKES = new long[0];
     
     private JsonUtil() {
     }
@@ -113,6 +114,44 @@ public final class JsonUtil {
         return json;
     }
     
+    /**
+     * Reads a snowflake without going through a string when possible. JSON
+     * payloads carry snowflakes as strings, but ETF payloads carry them as
+     * integers.
+     *
+     * @param json The object to read from.
+     * @param key  The key of the snowflake.
+     *
+     * @return The snowflake.
+     *
+     * @throws NumberFormatException If the key is missing or isn't a
+     *                               snowflake.
+     */
+    @CheckReturnValue
+    public static long snowflake(@Nonnull final JsonObject json, @Nonnull final String key) {
+        final Object value = json.get(key);
+        if(value instanceof Long snowflake) {
+            return snowflake;
+        }
+        if(value instanceof String string) {
+            return Long.parseUnsignedLong(string);
+        }
+        if(value instanceof Number number) {
+            return number.longValue();
+        }
+        throw new NumberFormatException("Expected a snowflake for '" + key + "', but found " +
+                (value == null ? "null" : value.getClass()));
+    }
+    
+    /**
+     * Like {@link #snowflake(JsonObject, String)}, but returns the given
+     * default if the key is missing or {@code null}.
+     */
+    @CheckReturnValue
+    public static long snowflake(@Nonnull final JsonObject json, @Nonnull final String key, final long defaultValue) {
+        return json.get(key) == null ? defaultValue : snowflake(json, key);
+    }
+    
     @Nonnull
     @CheckReturnValue
     public static <T> List<T> toList(@Nullable final JsonArray array, @Nonnull final Function<JsonObject, T> mapper) {
@@ -204,11 +243,7 @@ public final class JsonUtil {
         }
         final Collection<String> ret = new ArrayList<>(array.size());
         for(final Object object : array) {
-            if(!(object instanceof String)) {
-                throw new IllegalArgumentException("Expected all values to be strings, but found " +
-                        (object == null ? "null" : object.getClass()));
-            }
-            ret.add((String) object);
+            ret.add(stringValue(object));
         }
         return List.copyOf(ret);
     }
@@ -222,11 +257,7 @@ public final class JsonUtil {
         }
         final Collection<T> ret = new ArrayList<>(array.size());
         for(final Object object : array) {
-            if(!(object instanceof String)) {
-                throw new IllegalArgumentException("Expected all values to be strings, but found " +
-                        (object == null ? "null" : object.getClass()));
-            }
-            ret.add(mapper.apply((String) object));
+            ret.add(mapper.apply(stringValue(object)));
         }
         return List.copyOf(ret);
     }
@@ -239,15 +270,44 @@ public final class JsonUtil {
         }
         final Set<String> ret = new HashSet<>(array.size());
         for(final Object object : array) {
-            if(!(object instanceof String)) {
-                throw new IllegalArgumentException("Expected all values to be strings, but found " +
-                        (object == null ? "null" : object.getClass()));
-            }
-            ret.add((String) object);
+            ret.add(stringValue(object));
         }
         return Collections.unmodifiableSet(ret);
     }
     
+    /**
+     * @return The snowflakes in the array, sorted and deduplicated for use
+     * with {@link SnowflakeSet}.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static long[] toSortedSnowflakes(@Nullable final JsonArray array) {
+        if(array == null) {
+            return NO_SNOWFLAKES;
+        }
+        final long[] ret = new long[array.size()];
+        for(int i = 0; i < ret.length; i++) {
+            final Object object = array.get(i);
+            ret[i] = object instanceof Long snowflake ? snowflake : Long.parseUnsignedLong(stringValue(object));
+        }
+        return SnowflakeSet.sortedIds(ret, ret.length);
+    }
+    
+    /**
+     * Snowflakes in ETF payloads are longs; everywhere that still wants them
+     * as strings gets the same string the JSON encoding would've sent.
+     */
+    private static String stringValue(final Object object) {
+        if(object instanceof String string) {
+            return string;
+        }
+        if(object instanceof Long snowflake) {
+            return Long.toUnsignedString(snowflake);
+        }
+        throw new IllegalArgumentException("Expected all values to be strings, but found " +
+                (object == null ? "null" : object.getClass()));
+    }
+    
     @Nonnull
     @CheckReturnValue
     public static List<Long> toSnowflakeList(@Nullable final JsonArray array) {
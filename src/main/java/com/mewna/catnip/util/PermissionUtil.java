@@ -42,6 +42,7 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Set;
 
 @SuppressWarnings("ConstantConditions")
 public final class PermissionUtil {
@@ -83,9 +84,11 @@ public final class PermissionUtil {
         long deny = Permission.NONE;
         long allow = Permission.NONE;
         if(holder instanceof Member) {
-            for(final String role : ((Member) holder).roleIds()) {
-                final PermissionOverride override = find(list, role);
-                if(override != null) {
+            // Members usually have more roles than a channel has overrides, and
+            // role ids are a binary search away
+            final Set<String> roles = ((Member) holder).roleIds();
+            for(final PermissionOverride override : list) {
+                if(roles.contains(override.id())) {
                     allow |= override.allowRaw();
                     deny |= override.denyRaw();
                 }
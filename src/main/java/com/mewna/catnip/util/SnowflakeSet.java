@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.util;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable {@link java.util.Set} of snowflake strings, backed by a sorted
+ * {@code long[]}. Entities that are cached in large numbers, like members,
+ * store their ids this way instead of as a {@link java.util.HashSet} of
+ * {@link String}s, and only hand out sets as views over the array. Strings
+ * are created as the set is iterated, and {@link #contains(Object)} is a
+ * binary search.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+public final class SnowflakeSet extends AbstractSet<String> {
+    private static final long[] NO_IDS = new long[0];
+    private static final SnowflakeSet EMPTY = new SnowflakeSet(NO_IDS);
+    
+    private final long[] ids;
+    
+    private SnowflakeSet(final long[] ids) {
+        this.ids = ids;
+    }
+    
+    /**
+     * @param sortedIds Ids sorted with {@link #sortedIds(long[], int)}. The
+     *                  array is not copied, and must not be modified
+     *                  afterwards.
+     *
+     * @return A view over the ids.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static SnowflakeSet of(@Nonnull final long[] sortedIds) {
+        return sortedIds.length == 0 ? EMPTY : new SnowflakeSet(sortedIds);
+    }
+    
+    /**
+     * Sorts and deduplicates the first {@code length} ids of the array, in
+     * place.
+     *
+     * @return An array of exactly the unique ids, which may be {@code ids}
+     * itself.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static long[] sortedIds(@Nonnull final long[] ids, @Nonnegative final int length) {
+        if(length == 0) {
+            return NO_IDS;
+        }
+        Arrays.sort(ids, 0, length);
+        int unique = 1;
+        for(int i = 1; i < length; i++) {
+            if(ids[i] != ids[unique - 1]) {
+                ids[unique++] = ids[i];
+            }
+        }
+        return unique == ids.length ? ids : Arrays.copyOf(ids, unique);
+    }
+    
+    /**
+     * @return The given snowflake strings as sorted, unique ids.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static long[] sortedIds(@Nonnull final Collection<String> ids) {
+        if(ids instanceof SnowflakeSet set) {
+            return set.ids;
+        }
+        final long[] parsed = new long[ids.size()];
+        int i = 0;
+        for(final String id : ids) {
+            parsed[i++] = Long.parseUnsignedLong(id);
+        }
+        return sortedIds(parsed, parsed.length);
+    }
+    
+    /**
+     * @return Whether the set contains the given id.
+     */
+    public boolean contains(final long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+    
+    @Override
+    public boolean contains(final Object o) {
+        if(!(o instanceof String string)) {
+            return false;
+        }
+        try {
+            return contains(Long.parseUnsignedLong(string));
+        } catch(final NumberFormatException e) {
+            return false;
+        }
+    }
+    
+    @Override
+    public int size() {
+        return ids.length;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+    
+    @Nonnull
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int next;
+            
+            @Override
+            public boolean hasNext() {
+                return next < ids.length;
+            }
+            
+            @Override
+            public String next() {
+                if(next >= ids.length) {
+                    throw new NoSuchElementException();
+                }
+                return Long.toUnsignedString(ids[next++]);
+            }
+        };
+    }
+    
+    @Override
+    public boolean equals(final Object o) {
+        if(o instanceof SnowflakeSet other) {
+            return Arrays.equals(ids, other.ids);
+        }
+        return super.equals(o);
+    }
+}
@@ -43,6 +43,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
@@ -71,6 +72,47 @@ public final class Utils {
         return instant.atOffset(ZoneOffset.UTC);
     }
     
+    /**
+     * @param timestamp An ISO-8601 timestamp, as sent by Discord.
+     *
+     * @return The timestamp in microseconds since the epoch, or {@code 0} if
+     * it was {@code null}.
+     */
+    public static long epochMicros(@Nullable final CharSequence timestamp) {
+        if(timestamp == null) {
+            return 0L;
+        }
+        return epochMicros(OffsetDateTime.parse(timestamp));
+    }
+    
+    /**
+     * @param time A timestamp.
+     *
+     * @return The timestamp in microseconds since the epoch, or {@code 0} if
+     * it was {@code null}.
+     */
+    public static long epochMicros(@Nullable final OffsetDateTime time) {
+        if(time == null) {
+            return 0L;
+        }
+        final Instant instant = time.toInstant();
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000L);
+    }
+    
+    /**
+     * @param epochMicros A timestamp from {@link #epochMicros(CharSequence)}.
+     *
+     * @return The timestamp in UTC, or {@code null} if it was {@code 0}.
+     */
+    @Nullable
+    @CheckReturnValue
+    public static OffsetDateTime fromEpochMicros(final long epochMicros) {
+        if(epochMicros == 0L) {
+            return null;
+        }
+        return Instant.EPOCH.plus(epochMicros, ChronoUnit.MICROS).atOffset(ZoneOffset.UTC);
+    }
+    
     public static void validateImageUri(@Nonnull final URI imageUri) {
         if(!imageUri.getScheme().equals("data")) {
             throw new IllegalArgumentException("Only data URIs are supported");
@@ -150,9 +192,12 @@ public final class Utils {
     @CheckReturnValue
     public static boolean startsWithIgnoreCase(@Nonnull final String str, @Nonnull final String search) {
         final int length = search.length();
-        if(length == 0 || length > str.length()) {
+        if(length == 0) {
             return true;
         }
+        if(length > str.length()) {
+            return false;
+        }
         return str.regionMatches(true, 0, search, 0, length);
     }
     
@@ -51,9 +51,11 @@ public class DefaultLogAdapter implements LogAdapter {
         //noinspection OptionalGetWithoutIsPresent
         final Class<?> caller = stackWalker.walk(s -> s.skip(2).findFirst()).get().getDeclaringClass();
         final Logger logger = LoggerFactory.getLogger(caller);
-        final FormattingTuple tuple = MessageFormatter.arrayFormat(message, objects);
-        final String formatted = tuple.getMessage();
-        if(logger != null) {
+        // Don't format messages that won't be logged, as their arguments may
+        // be expensive to turn into strings
+        if(logger != null && enabled(logger, level)) {
+            final FormattingTuple tuple = MessageFormatter.arrayFormat(message, objects);
+            final String formatted = tuple.getMessage();
             switch(level) {
                 case TRACE -> {
                     logger.trace(formatted);
@@ -88,4 +90,14 @@ public class DefaultLogAdapter implements LogAdapter {
             }
         }
     }
+    
+    private static boolean enabled(@Nonnull final Logger logger, @Nonnull final Level level) {
+        return switch(level) {
+            case TRACE -> logger.isTraceEnabled();
+            case DEBUG -> logger.isDebugEnabled();
+            case INFO -> logger.isInfoEnabled();
+            case WARN -> logger.isWarnEnabled();
+            case ERROR -> logger.isErrorEnabled();
+        };
+    }
 }
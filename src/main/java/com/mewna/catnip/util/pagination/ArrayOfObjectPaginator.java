@@ -29,7 +29,11 @@ package com.mewna.catnip.util.pagination;
 
 import com.grack.nanojson.JsonArray;
 import com.grack.nanojson.JsonObject;
+import com.mewna.catnip.rest.ResponsePayload;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
 
+import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import java.util.function.Function;
@@ -61,4 +65,24 @@ public abstract class ArrayOfObjectPaginator<T, P extends ArrayOfObjectPaginator
             }
         }
     }
+    
+    /**
+     * Reads pages from responses whose bodies are the pages' arrays, for
+     * {@link #fetchInto(RequestState, String, int)}. A streamed body is read
+     * one object at a time, and closed as soon as the state is done.
+     *
+     * @param state     The state of the pagination.
+     * @param responses The responses to read.
+     *
+     * @return A completable that completes once the pages have been read.
+     */
+    @Nonnull
+    @CheckReturnValue
+    protected Completable updateFrom(@Nonnull final RequestState<T> state,
+                                     @Nonnull final Observable<ResponsePayload> responses) {
+        return responses.concatMap(payload -> payload.observeObjects(mapper))
+                .takeWhile(__ -> !state.done())
+                .doOnNext(state::update)
+                .ignoreElements();
+    }
 }
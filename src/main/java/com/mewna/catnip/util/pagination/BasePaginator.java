@@ -29,15 +29,17 @@ package com.mewna.catnip.util.pagination;
 
 import com.mewna.catnip.util.UnitHelper;
 import com.mewna.catnip.util.UnitHelper.Unit;
-import com.mewna.catnip.util.rx.RxHelpers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.processors.UnicastProcessor;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -109,20 +111,17 @@ public abstract class BasePaginator<T, J, P extends BasePaginator<T, J, P>> {
     }
     
     /**
-     * Fetches up to {@link #limit(int) limit} entities, returning a list
-     * containing all of them.
-     * <br><b>This method will keep all entities in memory</b>, so for unbounded
-     * pagination it should be avoided.
+     * Fetches up to {@link #limit(int) limit} entities, emitting them as
+     * they're fetched. This is {@link #flowable()} without backpressure, so
+     * if entities are consumed slower than they're fetched, they'll pile up
+     * in memory.
      *
-     * @return A list containing all the fetched entities.
+     * @return An observable of the fetched entities.
      */
     @Nonnull
     @CheckReturnValue
     public Observable<T> fetch() {
-        final List<T> list = new ArrayList<>();
-        return forEach(list::add)
-                .map(__ -> Collections.unmodifiableList(list))
-                .flatMapIterable(e -> e);
+        return flowable().toObservable();
     }
     
     /**
@@ -164,26 +163,119 @@ public abstract class BasePaginator<T, J, P extends BasePaginator<T, J, P>> {
         return fetch(callback);
     }
     
+    /**
+     * Fetches up to {@link #limit(int) limit} entities, only fetching pages
+     * as the subscriber asks for entities. The next page is requested as
+     * soon as the subscriber gets the first entity of the current one, so
+     * that it's usually there by the time it's needed, but pages are never
+     * fetched more than one ahead of the subscriber. This keeps at most two
+     * pages in memory, and at most one request queued on the route's
+     * ratelimit bucket, no matter how many entities are paginated.
+     *
+     * @return A flowable of the fetched entities.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public Flowable<T> flowable() {
+        return Flowable.defer(() -> {
+            final List<T> page = new ArrayList<>(requestSize);
+            final RequestState<T> state = createState(page::add);
+            // Each page is fetched once the subscriber gets the first entity
+            // of the page before it
+            final UnicastProcessor<Unit> fetches = UnicastProcessor.create();
+            fetches.onNext(UnitHelper.UNIT);
+            return fetches
+                    .concatMapSingle(__ -> fetchPage(state, page))
+                    .doOnNext(next -> {
+                        if(next.last()) {
+                            fetches.onComplete();
+                        }
+                    })
+                    .concatMapIterable(next -> next.last()
+                            ? next.entities()
+                            : onFirstEntity(next.entities(), () -> fetches.onNext(UnitHelper.UNIT)), 1);
+        });
+    }
+    
+    /**
+     * @return The entities, running the action just before the first of
+     * them is handed out.
+     */
+    @Nonnull
+    private static <T> Iterable<T> onFirstEntity(@Nonnull final List<T> entities, @Nonnull final Runnable action) {
+        return () -> new Iterator<>() {
+            private int next;
+            
+            @Override
+            public boolean hasNext() {
+                return next < entities.size();
+            }
+            
+            @Override
+            public T next() {
+                if(next == 0) {
+                    action.run();
+                }
+                return entities.get(next++);
+            }
+        };
+    }
+    
     @Nonnull
     @CheckReturnValue
     protected Observable<Unit> fetch(@Nonnull final PaginationCallback<T> action) {
-        return fetch(null, new RequestState<>(limit, requestSize, action));
+        return flowable()
+                .takeWhile(action::accept)
+                .ignoreElements()
+                .andThen(Observable.just(UnitHelper.UNIT));
+    }
+    
+    /**
+     * Creates the state for a pagination. Subclasses can override this to add
+     * {@link RequestState#extra(String, Object) extras} for
+     * {@link #fetchNext(RequestState, String, int)} to use.
+     *
+     * @param callback Receives the entities of each page as it's fetched.
+     */
+    @Nonnull
+    @CheckReturnValue
+    protected RequestState<T> createState(@Nonnull final PaginationCallback<T> callback) {
+        return new RequestState<>(limit, requestSize, callback);
     }
     
     @Nonnull
     @CheckReturnValue
-    protected Observable<Unit> fetch(@Nullable final String id, @Nonnull final RequestState<T> state) {
+    private Single<Page<T>> fetchPage(@Nonnull final RequestState<T> state, @Nonnull final List<T> page) {
         final int fetchCount = state.entitiesToFetch();
-        return fetchNext(state, id, fetchCount).compose(data -> {
-            final int remaining = state.remaining();
-            // FIXME: This should *probably* be non-blocking
-            data.blockingSubscribe(entity -> update(state, entity));
-            final T last = state.last();
-            if(state.done() || remaining - fetchCount != state.remaining() || last == null) {
-                return RxHelpers.futureToObservable(CompletableFuture.completedFuture(UnitHelper.UNIT));
-            }
-            return fetch(idOf.apply(last), state);
-        });
+        final T last = state.last();
+        return fetchInto(state, last == null ? null : idOf.apply(last), fetchCount)
+                .toSingle(() -> {
+                    final List<T> entities = List.copyOf(page);
+                    page.clear();
+                    // A short page means there's nothing left to fetch
+                    return new Page<>(entities, state.done() || entities.size() < fetchCount || entities.isEmpty());
+                });
+    }
+    
+    /**
+     * Fetches the next page and passes its entities to the state. The
+     * default fetches it with {@link #fetchNext(RequestState, String, int)}
+     * and reads it with {@link #update(RequestState, Object)}; subclasses
+     * that can read a page as it arrives override this instead.
+     *
+     * @param state       The state of the pagination.
+     * @param lastId      The id of the last entity fetched, if any.
+     * @param requestSize How many entities to fetch.
+     *
+     * @return A completable that completes once the page has been read.
+     */
+    @Nonnull
+    @CheckReturnValue
+    protected Completable fetchInto(@Nonnull final RequestState<T> state, @Nullable final String lastId,
+                                    @Nonnegative final int requestSize) {
+        return Single.fromObservable(fetchNext(state, lastId, requestSize))
+                .doOnSuccess(data -> update(state, data))
+                .ignoreElement();
     }
     
     protected abstract void update(@Nonnull RequestState<T> state, @Nonnull J data);
@@ -193,6 +285,9 @@ public abstract class BasePaginator<T, J, P extends BasePaginator<T, J, P>> {
     protected abstract Observable<J> fetchNext(@Nonnull RequestState<T> state, @Nullable String lastId,
                                                @Nonnegative int requestSize);
     
+    private record Page<T>(List<T> entities, boolean last) {
+    }
+    
     protected static class RequestState<T> {
         private final Map<String, Object> extras = new HashMap<>();
         private final int limit;
@@ -224,7 +319,7 @@ public abstract class BasePaginator<T, J, P extends BasePaginator<T, J, P>> {
         
         @CheckReturnValue
         public int entitiesToFetch() {
-            return Math.min(requestSize, remaining());
+            return limit > 0 ? Math.min(requestSize, remaining()) : requestSize;
         }
         
         @CheckReturnValue
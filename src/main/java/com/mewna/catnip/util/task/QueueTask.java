@@ -43,6 +43,22 @@ public abstract class QueueTask<T> {
     
     public abstract void run();
     
+    /**
+     * Takes a specific item out of the queue and runs the action on it.
+     *
+     * @param item The item to run.
+     *
+     * @return Whether the item was queued. If it wasn't, the action isn't
+     * run.
+     */
+    public boolean run(final T item) {
+        if(!queue.remove(item)) {
+            return false;
+        }
+        action.accept(item);
+        return true;
+    }
+    
     @Nonnull
     @CheckReturnValue
     public Queue<T> queue() {
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache;
+
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.entity.guild.Member;
+import com.mewna.catnip.entity.impl.channel.TextChannelImpl;
+import com.mewna.catnip.entity.impl.guild.GuildImpl;
+import com.mewna.catnip.entity.impl.guild.MemberImpl;
+import com.mewna.catnip.entity.impl.guild.RoleImpl;
+import com.mewna.catnip.entity.impl.user.UserImpl;
+import com.mewna.catnip.shard.manager.ShardManager;
+import com.mewna.catnip.util.logging.DefaultLogAdapter;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class MemoryEntityCacheSnapshotTest {
+    private static final long GUILD = 1028876540230230332L;
+    private static final long USER = 914314665527340972L;
+    
+    // On shard 1 of 2; GUILD is on shard 0
+    private static final long OTHER_GUILD = 1028876540234424636L;
+    private static final long OTHER_USER = 914314665527340973L;
+    
+    private final Catnip catnip = catnip(1);
+    
+    private static Catnip catnip(final int shardCount) {
+        final Catnip catnip = Mockito.mock(Catnip.class);
+        final ShardManager shardManager = Mockito.mock(ShardManager.class);
+        when(shardManager.shardCount()).thenReturn(shardCount);
+        when(catnip.shardManager()).thenReturn(shardManager);
+        when(catnip.logAdapter()).thenReturn(new DefaultLogAdapter());
+        return catnip;
+    }
+    
+    private <T extends MemoryEntityCache> T cache(final T cache) {
+        cache.catnip(catnip);
+        return cache;
+    }
+    
+    private static Member member(final long guild, final long user) {
+        return MemberImpl.builder().idAsLong(user).guildIdAsLong(guild).roleIds(Set.of())
+                .joinedAt("2020-06-27T04:57:02.954925+00:00").build();
+    }
+    
+    private static Path tempFile() throws Exception {
+        final Path path = Files.createTempFile("catnip-cache", ".snapshot");
+        path.toFile().deleteOnExit();
+        path.resolveSibling(path.getFileName() + ".tmp").toFile().deleteOnExit();
+        return path;
+    }
+    
+    @Test
+    void loadsWhatWasWritten() throws Exception {
+        final UnifiedMemoryEntityCache cache = cache(new UnifiedMemoryEntityCache());
+        cache.guildCache.put(GUILD, GuildImpl.builder().idAsLong(GUILD).name("cats").build());
+        cache.channelCache(GUILD, false).put(2L, TextChannelImpl.builder().idAsLong(2L).guildIdAsLong(GUILD).name("general")
+                .overrides(List.of()).build());
+        cache.bulkCacheRoles(0, List.of(RoleImpl.builder().idAsLong(8L).guildIdAsLong(GUILD).name("mods").color(0xFF00FF).build()));
+        cache.bulkCacheUsers(0, List.of(UserImpl.builder().idAsLong(USER).username("trill").build()));
+        cache.bulkCacheMembers(0, List.of(MemberImpl.builder().idAsLong(USER).guildIdAsLong(GUILD).nick("kitten")
+                .roleIds(Set.of("8")).joinedAt("2020-06-27T04:57:02.954925+00:00").build()));
+        cache.selfUser.set(UserImpl.builder().idAsLong(1L).username("catnip").build());
+        
+        final Path path = tempFile();
+        cache.writeSnapshot(path);
+        final UnifiedMemoryEntityCache loaded = cache(new UnifiedMemoryEntityCache());
+        assertTrue(loaded.loadSnapshot(path, Set.of(0)));
+        
+        assertEquals("cats", loaded.guilds().getById(GUILD).name());
+        assertEquals("general", loaded.channels(GUILD).getById(2L).name());
+        assertEquals(0xFF00FF, loaded.roles(GUILD).getById(8L).color());
+        assertEquals("trill", loaded.users().getById(USER).username());
+        assertEquals("catnip", loaded.selfUser.get().username());
+        final Member member = loaded.members(GUILD).getById(USER);
+        assertEquals("kitten", member.nick());
+        assertEquals(Set.of("8"), member.roleIds());
+        assertEquals(cache.members(GUILD).getById(USER).joinedAt(), member.joinedAt());
+        assertSame(catnip, member.catnip());
+    }
+    
+    @Test
+    void keepsUsersOnTheirShard() throws Exception {
+        final SplitMemoryEntityCache cache = cache(new SplitMemoryEntityCache());
+        cache.bulkCacheUsers(3, List.of(UserImpl.builder().idAsLong(USER).username("trill").build()));
+        cache.bulkCacheMembers(0, List.of(member(GUILD, USER)));
+        final Path path = tempFile();
+        cache.writeSnapshot(path);
+        final SplitMemoryEntityCache loaded = cache(new SplitMemoryEntityCache());
+        assertTrue(loaded.loadSnapshot(path, Set.of(0)));
+        assertEquals(Set.of(3), loaded.userCache.keySet());
+        assertEquals("trill", loaded.userCache.get(3).getById(USER).username());
+    }
+    
+    @Test
+    void ignoresMissingAndForeignSnapshots() throws Exception {
+        final UnifiedMemoryEntityCache cache = cache(new UnifiedMemoryEntityCache());
+        final Path path = tempFile();
+        Files.delete(path);
+        assertFalse(cache.loadSnapshot(path, Set.of(0)));
+        Files.write(path, new byte[] {'n', 'o', 'p', 'e', 0, 0, 0, 1});
+        path.toFile().deleteOnExit();
+        assertFalse(cache.loadSnapshot(path, Set.of(0)));
+        assertTrue(cache.guilds().isEmpty());
+    }
+    
+    @Test
+    void loadsOnlyTheGivenShards() throws Exception {
+        final Catnip catnip = catnip(2);
+        final UnifiedMemoryEntityCache cache = new UnifiedMemoryEntityCache();
+        cache.catnip(catnip);
+        cache.guildCache.put(GUILD, GuildImpl.builder().idAsLong(GUILD).name("cats").build());
+        cache.guildCache.put(OTHER_GUILD, GuildImpl.builder().idAsLong(OTHER_GUILD).name("dogs").build());
+        cache.bulkCacheRoles(0, List.of(RoleImpl.builder().idAsLong(8L).guildIdAsLong(GUILD).name("mods").build()));
+        cache.bulkCacheRoles(1, List.of(RoleImpl.builder().idAsLong(9L).guildIdAsLong(OTHER_GUILD).name("mods").build()));
+        cache.bulkCacheUsers(0, List.of(UserImpl.builder().idAsLong(USER).username("trill").build(),
+                UserImpl.builder().idAsLong(OTHER_USER).username("rex").build()));
+        cache.bulkCacheMembers(0, List.of(member(GUILD, USER)));
+        cache.bulkCacheMembers(1, List.of(member(OTHER_GUILD, OTHER_USER)));
+        final Path path = tempFile();
+        cache.writeSnapshot(path);
+        
+        // Only shard 1 is resuming
+        final UnifiedMemoryEntityCache loaded = new UnifiedMemoryEntityCache();
+        loaded.catnip(catnip);
+        assertTrue(loaded.loadSnapshot(path, Set.of(1)));
+        assertEquals(Set.of(OTHER_GUILD), Set.copyOf(loaded.guilds().keys()));
+        assertTrue(loaded.roles(GUILD).isEmpty());
+        assertEquals("mods", loaded.roles(OTHER_GUILD).getById(9L).name());
+        assertTrue(loaded.members(GUILD).isEmpty());
+        assertNotNull(loaded.members(OTHER_GUILD).getById(OTHER_USER));
+        assertEquals(Set.of(OTHER_USER), Set.copyOf(loaded.users().keys()));
+    }
+}
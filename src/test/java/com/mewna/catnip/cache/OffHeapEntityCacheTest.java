@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache;
+
+import com.grack.nanojson.JsonParser;
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.CatnipOptions;
+import com.mewna.catnip.entity.guild.Member;
+import com.mewna.catnip.entity.impl.EntityBuilder;
+import com.mewna.catnip.entity.user.User;
+import com.mewna.catnip.shard.manager.ShardManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class OffHeapEntityCacheTest {
+    private static final String GUILD = "1028876540230230332";
+    private static final String USER = "{\"id\":\"914314665527340972\",\"username\":\"trill\",\"discriminator\":\"8828\","
+            + "\"avatar\":\"a_95d7a0012500876b2d3f5254ac08cabf\",\"bot\":true,\"public_flags\":65792,"
+            + "\"accent_color\":16711680,\"banner\":null}";
+    private static final String MEMBER = "{\"user\":" + USER + ",\"roles\":[\"8\",\"5\"],\"nick\":\"kitten 🐱\","
+            + "\"joined_at\":\"2020-06-27T04:57:02.954925+00:00\",\"premium_since\":null,\"avatar\":null}";
+    
+    private final Catnip catnip = Mockito.mock(Catnip.class);
+    private final EntityBuilder builder = new EntityBuilder(catnip);
+    private final OffHeapEntityCache cache = new OffHeapEntityCache();
+    
+    OffHeapEntityCacheTest() {
+        when(catnip.options()).thenReturn(new CatnipOptions("token"));
+        when(catnip.entityBuilder()).thenReturn(builder);
+        when(catnip.cacheWorker()).thenReturn(cache);
+        when(catnip.shardManager()).thenReturn(Mockito.mock(ShardManager.class));
+        cache.catnip(catnip);
+    }
+    
+    @Test
+    void readsUsersBack() throws Exception {
+        final User user = builder.createUser(JsonParser.object().from(USER));
+        cache.bulkCacheUsers(0, List.of(user));
+        final User cached = cache.users().getById(user.idAsLong());
+        assertNotSame(user, cached);
+        assertEquals(user.idAsLong(), cached.idAsLong());
+        assertEquals(user.username(), cached.username());
+        assertEquals(user.discriminator(), cached.discriminator());
+        assertEquals(user.avatar(), cached.avatar());
+        assertEquals(user.bot(), cached.bot());
+        assertEquals(user.publicFlags(), cached.publicFlags());
+        assertEquals(user.accentColor(), cached.accentColor());
+        assertNull(cached.banner());
+        assertSame(catnip, cached.catnip());
+    }
+    
+    @Test
+    void readsMembersBack() throws Exception {
+        final Member member = builder.createMember(GUILD, JsonParser.object().from(MEMBER));
+        cache.bulkCacheMembers(0, List.of(member));
+        final Member cached = cache.members(Long.parseUnsignedLong(GUILD)).getById(member.idAsLong());
+        assertNotSame(member, cached);
+        assertEquals(member.idAsLong(), cached.idAsLong());
+        assertEquals(member.guildIdAsLong(), cached.guildIdAsLong());
+        assertEquals(member.nick(), cached.nick());
+        assertEquals(member.roleIds(), cached.roleIds());
+        assertEquals(member.joinedAt(), cached.joinedAt());
+        assertNull(cached.premiumSince());
+        assertNull(cached.avatarHash());
+        assertEquals(List.of(cached), List.copyOf(cache.members().findByName("kitten 🐱")));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache.view;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.function.Function;
+
+public class ConcurrentCacheViewTests {
+    @Test
+    public void putGetRemove() {
+        final ConcurrentCacheView<String> cache = new ConcurrentCacheView<>();
+        for(long i = 0; i < 1_000; i++) {
+            Assertions.assertNull(cache.put(i, "entity " + i));
+        }
+        Assertions.assertEquals(1_000, cache.size());
+        Assertions.assertEquals("entity 42", cache.put(42, "replaced"));
+        Assertions.assertEquals("replaced", cache.remove(42));
+        cache.justPut(42, "again");
+        Assertions.assertEquals("again", cache.getById(42));
+        cache.justRemove(42);
+        Assertions.assertNull(cache.getById(42));
+        cache.removeIf(id -> id % 2 == 0);
+        Assertions.assertEquals(500, cache.size());
+        Assertions.assertEquals(500, cache.count(e -> e.startsWith("entity")));
+    }
+    
+    @Test
+    public void writesDontWaitForReads() throws InterruptedException {
+        final ConcurrentNamedCacheView<String> cache = new ConcurrentNamedCacheView<>(Function.identity());
+        cache.put(1, "first");
+        cache.forEach(__ -> {
+            // A locked view would hold its read lock here, and the writer
+            // would wait for it forever
+            final Thread writer = new Thread(() -> cache.put(2, "second"));
+            writer.start();
+            try {
+                writer.join(5_000);
+            } catch(final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            Assertions.assertFalse(writer.isAlive());
+        });
+        Assertions.assertEquals(Set.of("first", "second"), Set.copyOf(cache.findByNameContains("s")));
+    }
+}
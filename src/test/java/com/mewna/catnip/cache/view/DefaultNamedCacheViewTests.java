@@ -78,6 +78,13 @@ public class DefaultNamedCacheViewTests {
         Assertions.assertFalse(cache.findByNameStartsWith("StR", true).isEmpty());
     }
     
+    @Test
+    public void findByNameStartsWithLongerName() {
+        final DefaultNamedCacheView<String> cache = new DefaultNamedCacheView<>(Function.identity());
+        cache.put(123, "str");
+        Assertions.assertTrue(cache.findByNameStartsWith("string", true).isEmpty());
+    }
+    
     @Test
     public void findByNameEndsWith() {
         final DefaultNamedCacheView<String> cache = new DefaultNamedCacheView<>(Function.identity());
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache.view;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+public class IndexedNamedCacheViewTests {
+    private static final List<String> NAMES = List.of("string", "String", "STRING", "strings", "substring",
+            "kitten", "Kitty", "kit", "ß", "SS", "ǅ", "ǆ", "İstanbul", "istanbul", "", "ıı");
+    
+    @Test
+    public void findsLikeDefaultNamedCacheView() {
+        final DefaultNamedCacheView<String> expected = new DefaultNamedCacheView<>(Function.identity());
+        final IndexedNamedCacheView<String> cache = new IndexedNamedCacheView<>(Function.identity());
+        for(int i = 0; i < NAMES.size(); i++) {
+            expected.put(i, NAMES.get(i));
+            cache.put(i, NAMES.get(i));
+        }
+        for(final String name : List.of("string", "STRING", "str", "sTr", "ing", "InG", "kit", "KIT", "ß", "ss",
+                "ǅ", "ǆ", "Ǆ", "i̇", "İ", "ı", "I", "")) {
+            for(final boolean ignoreCase : new boolean[] {false, true}) {
+                final String query = name + " (ignoreCase=" + ignoreCase + ')';
+                Assertions.assertEquals(Set.copyOf(expected.findByName(name, ignoreCase)),
+                        Set.copyOf(cache.findByName(name, ignoreCase)), query);
+                Assertions.assertEquals(Set.copyOf(expected.findByNameContains(name, ignoreCase)),
+                        Set.copyOf(cache.findByNameContains(name, ignoreCase)), query);
+                Assertions.assertEquals(Set.copyOf(expected.findByNameStartsWith(name, ignoreCase)),
+                        Set.copyOf(cache.findByNameStartsWith(name, ignoreCase)), query);
+                Assertions.assertEquals(Set.copyOf(expected.findByNameEndsWith(name, ignoreCase)),
+                        Set.copyOf(cache.findByNameEndsWith(name, ignoreCase)), query);
+            }
+        }
+    }
+    
+    @Test
+    public void keepsIndexUpToDate() {
+        final IndexedNamedCacheView<String> cache = new IndexedNamedCacheView<>(Function.identity());
+        cache.put(123, "string");
+        cache.put(456, "String");
+        Assertions.assertEquals(2, cache.findByName("STRING", true).size());
+        cache.put(123, "renamed");
+        Assertions.assertEquals(List.of("String"), List.copyOf(cache.findByName("string", true)));
+        Assertions.assertEquals(List.of("renamed"), List.copyOf(cache.findByNameStartsWith("ren")));
+        cache.remove(456);
+        Assertions.assertTrue(cache.findByName("string", true).isEmpty());
+        cache.put(789, "rename");
+        cache.removeIf(id -> id == 123);
+        Assertions.assertEquals(List.of("rename"), List.copyOf(cache.findByNameStartsWith("rena")));
+        Assertions.assertEquals(Set.of(789L), new HashSet<>(cache.keys()));
+    }
+    
+    @Test
+    public void checksCurrentNames() {
+        final String[] name = {"before"};
+        final IndexedNamedCacheView<Object> cache = new IndexedNamedCacheView<>(__ -> name[0]);
+        final Object entity = new Object();
+        cache.put(123, entity);
+        name[0] = "after";
+        Assertions.assertTrue(cache.findByName("before").isEmpty());
+        cache.put(123, entity);
+        Assertions.assertEquals(List.of(entity), List.copyOf(cache.findByName("after")));
+    }
+}
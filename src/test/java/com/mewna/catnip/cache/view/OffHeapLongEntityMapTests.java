@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache.view;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OffHeapLongEntityMapTests {
+    private static final EntityCodec<String> STRINGS = new EntityCodec<>() {
+        @Override
+        public void write(@Nonnull final String entity, @Nonnull final DataOutput out) throws IOException {
+            out.writeUTF(entity);
+        }
+        
+        @Nonnull
+        @Override
+        public String read(@Nonnull final DataInput in) throws IOException {
+            return in.readUTF();
+        }
+    };
+    
+    @Test
+    public void putGetRemove() {
+        final OffHeapLongEntityMap<String> map = new OffHeapLongEntityMap<>(STRINGS);
+        Assertions.assertNull(map.get(123));
+        Assertions.assertNull(map.put(123, "some string"));
+        Assertions.assertEquals("some string", map.get(123));
+        Assertions.assertEquals("some string", map.put(123, "some other string"));
+        Assertions.assertEquals("some other string", map.get(123));
+        Assertions.assertEquals(1, map.size());
+        Assertions.assertEquals("some other string", map.remove(123));
+        Assertions.assertNull(map.remove(123));
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertEquals(0, map.offHeapBytes());
+    }
+    
+    @Test
+    public void matchesHashMap() {
+        final OffHeapLongEntityMap<String> map = new OffHeapLongEntityMap<>(STRINGS);
+        final Map<Long, String> expected = new HashMap<>();
+        // Snowflakes from the same worker only differ in their low bits, and
+        // the keys collide a lot once they're masked
+        for(long i = 0; i < 20_000; i++) {
+            final long key = (i % 5_000 << 22) + i % 7;
+            final String value = "entity " + i;
+            Assertions.assertEquals(expected.put(key, value), map.put(key, value));
+            if(i % 3 == 0) {
+                final long removed = (i / 2 % 5_000 << 22) + i / 2 % 7;
+                Assertions.assertEquals(expected.remove(removed), map.remove(removed));
+            }
+        }
+        Assertions.assertEquals(expected.size(), map.size());
+        Assertions.assertEquals(expected, new HashMap<>(map));
+        Assertions.assertEquals(expected.keySet(), new HashSet<>(map.keySet()));
+        for(final long key : expected.keySet()) {
+            Assertions.assertTrue(map.containsKey(key));
+        }
+        Assertions.assertFalse(map.containsKey(-1L));
+    }
+    
+    @Test
+    public void compactsGarbage() {
+        final OffHeapLongEntityMap<String> map = new OffHeapLongEntityMap<>(STRINGS);
+        for(long i = 0; i < 10_000; i++) {
+            map.put(i, "some fairly long string for entity " + i);
+        }
+        final long full = map.offHeapBytes();
+        for(long i = 0; i < 9_900; i++) {
+            map.remove(i);
+        }
+        Assertions.assertTrue(map.offHeapBytes() < full / 10);
+        for(long i = 0; i < 100_000; i++) {
+            map.put(9_999, "replaced " + i);
+        }
+        Assertions.assertTrue(map.offHeapBytes() < full / 10);
+        Assertions.assertEquals("replaced 99999", map.get(9_999));
+        Assertions.assertEquals("some fairly long string for entity 9900", map.get(9_900));
+    }
+    
+    @Test
+    public void backsCacheViews() {
+        final DefaultNamedCacheView<String> cache = new DefaultNamedCacheView<>(s -> s,
+                new OffHeapLongEntityMap<>(STRINGS));
+        cache.put(123, "some string");
+        cache.put(456, "some other string");
+        cache.put(789, "string");
+        Assertions.assertEquals(3, cache.size());
+        Assertions.assertEquals(2, cache.findByNameContains("some").size());
+        Assertions.assertEquals(3, cache.snapshot().size());
+        cache.removeIf(id -> id > 400);
+        Assertions.assertEquals(Set.of(123L), new HashSet<>(cache.keys()));
+        Assertions.assertEquals(List.of("some string"), List.copyOf(cache.values()));
+    }
+    
+    @Test
+    public void justPutAndJustRemoveDontDecode() {
+        final AtomicInteger reads = new AtomicInteger();
+        final OffHeapLongEntityMap<String> map = new OffHeapLongEntityMap<>(new EntityCodec<>() {
+            @Override
+            public void write(@Nonnull final String entity, @Nonnull final DataOutput out) throws IOException {
+                STRINGS.write(entity, out);
+            }
+            
+            @Nonnull
+            @Override
+            public String read(@Nonnull final DataInput in) throws IOException {
+                reads.incrementAndGet();
+                return STRINGS.read(in);
+            }
+        });
+        for(long i = 0; i < 1_000; i++) {
+            map.justPut(i, "entity " + i);
+            map.justPut(i, "updated entity " + i);
+        }
+        Assertions.assertTrue(map.justRemove(5));
+        Assertions.assertFalse(map.justRemove(5));
+        Assertions.assertEquals(0, reads.get());
+        Assertions.assertEquals("updated entity 6", map.get(6));
+        Assertions.assertEquals(1, reads.get());
+        Assertions.assertEquals(999, map.size());
+    }
+    
+    @Test
+    public void readsEveryPrimitiveFromTheArena() {
+        final OffHeapLongEntityMap<long[]> map = new OffHeapLongEntityMap<>(new EntityCodec<>() {
+            @Override
+            public void write(@Nonnull final long[] entity, @Nonnull final DataOutput out) throws IOException {
+                out.writeBoolean(entity[0] != 0);
+                out.writeByte((int) entity[1]);
+                out.writeShort((int) entity[2]);
+                out.writeChar((int) entity[3]);
+                out.writeInt((int) entity[4]);
+                out.writeLong(entity[5]);
+                out.writeDouble(entity[6]);
+                out.writeUTF("\u00e9t\u00e9");
+            }
+            
+            @Nonnull
+            @Override
+            public long[] read(@Nonnull final DataInput in) throws IOException {
+                final long[] entity = {in.readBoolean() ? 1 : 0, in.readUnsignedByte(), in.readShort(), in.readChar(),
+                        in.readInt(), in.readLong(), (long) in.readDouble()};
+                Assertions.assertEquals("\u00e9t\u00e9", in.readUTF());
+                return entity;
+            }
+        });
+        final long[] entity = {1, 200, -300, 'c', Integer.MIN_VALUE, Long.MAX_VALUE, 12345};
+        map.justPut(1, entity);
+        Assertions.assertArrayEquals(entity, map.get(1));
+    }
+    
+    @Test
+    public void emptiedMapsReleaseTheirArena() {
+        final OffHeapLongEntityMap<String> map = new OffHeapLongEntityMap<>(STRINGS);
+        for(long i = 0; i < 1_000; i++) {
+            map.justPut(i, "entity " + i);
+        }
+        Assertions.assertTrue(map.offHeapBytes() > 0);
+        map.clear();
+        Assertions.assertEquals(0, map.offHeapBytes());
+        map.justPut(1, "again");
+        Assertions.assertEquals("again", map.get(1));
+    }
+}
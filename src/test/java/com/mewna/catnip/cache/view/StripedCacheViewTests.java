@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.cache.view;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+public class StripedCacheViewTests {
+    @Test
+    public void putGetRemove() {
+        final StripedCacheView<String> cache = new StripedCacheView<>();
+        for(long i = 0; i < 1_000; i++) {
+            Assertions.assertNull(cache.put(i << 22, "entity " + i));
+        }
+        Assertions.assertEquals(1_000, cache.size());
+        Assertions.assertEquals("entity 42", cache.getById(42L << 22));
+        Assertions.assertEquals("entity 42", cache.put(42L << 22, "replaced"));
+        Assertions.assertEquals("replaced", cache.remove(42L << 22));
+        Assertions.assertNull(cache.getById(42L << 22));
+        Assertions.assertTrue(cache.keys().contains(43L << 22));
+        Assertions.assertFalse(cache.keys().contains(42L << 22));
+        cache.removeIf(id -> (id >> 22) % 2 == 0);
+        Assertions.assertEquals(500, cache.size());
+        Assertions.assertEquals(500, new HashSet<>(cache.keys()).size());
+        // Every stripe should be used
+        for(final MutableCacheView<String> stripe : cache.stripes) {
+            Assertions.assertFalse(stripe.isEmpty());
+        }
+    }
+    
+    @Test
+    public void singleStripe() {
+        final StripedCacheView<String> cache = new StripedCacheView<>(1, DefaultCacheView::new);
+        cache.put(123, "some string");
+        Assertions.assertEquals("some string", cache.getById(123));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StripedCacheView<>(3, DefaultCacheView::new));
+    }
+    
+    @Test
+    public void findsByNameInEveryStripe() {
+        final StripedNamedCacheView<String> cache = new StripedNamedCacheView<>(4,
+                () -> new IndexedNamedCacheView<>(Function.identity()));
+        for(long i = 0; i < 100; i++) {
+            cache.put(i, i % 2 == 0 ? "string " + i : "other " + i);
+        }
+        Assertions.assertEquals(50, cache.findByNameStartsWith("STRING", true).size());
+        Assertions.assertEquals(Set.of("other 99"), Set.copyOf(cache.findByName("other 99")));
+        Assertions.assertEquals(10, cache.findByNameEndsWith("9").size());
+        Assertions.assertEquals(100, cache.findByNameContains(" ").size());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.entity.impl;
+
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.CatnipOptions;
+import com.mewna.catnip.cache.EntityCacheWorker;
+import com.mewna.catnip.shard.PayloadHeader;
+import com.mewna.catnip.shard.manager.ShardManager;
+import com.mewna.catnip.util.logging.DefaultLogAdapter;
+import org.mockito.Mockito;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Recorded gateway payloads, and a catnip that's just enough to build
+ * entities from them, for binder tests and benchmarks.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+final class BindingFixtures {
+    static final String EVENTS = "gateway/events.jsonl";
+    static final String GUILD_CREATE = "gateway/guild_create.json";
+    
+    private BindingFixtures() {
+    }
+    
+    /**
+     * @return Every payload of the given type in the resource, one per line.
+     */
+    static List<String> payloads(final String resource, final String type) throws IOException {
+        final InputStream stream = BindingFixtures.class.getClassLoader().getResourceAsStream(resource);
+        if(stream == null) {
+            throw new IOException("Missing test resource " + resource);
+        }
+        final PayloadHeader header = new PayloadHeader();
+        try(final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            final List<String> payloads = new ArrayList<>();
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(header.scan(line) && type.equals(header.type())) {
+                    payloads.add(line);
+                }
+            }
+            return payloads;
+        }
+    }
+    
+    static Catnip catnip() {
+        final Catnip catnip = Mockito.mock(Catnip.class);
+        final CatnipOptions options = new CatnipOptions("token");
+        final EntityBuilder builder = new EntityBuilder(catnip);
+        final EntityCacheWorker cacheWorker = Mockito.mock(EntityCacheWorker.class);
+        final ShardManager shardManager = Mockito.mock(ShardManager.class);
+        when(catnip.options()).thenReturn(options);
+        when(catnip.entityBuilder()).thenReturn(builder);
+        when(catnip.cacheWorker()).thenReturn(cacheWorker);
+        when(catnip.shardManager()).thenReturn(shardManager);
+        when(catnip.logAdapter()).thenReturn(new DefaultLogAdapter());
+        return catnip;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.entity.impl;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.entity.guild.Guild;
+import com.mewna.catnip.entity.message.Message;
+import com.mewna.catnip.shard.DiscordEvent.Raw;
+import com.mewna.catnip.util.JsonTokenReader;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingEntityBinderTest {
+    private static final String RICH_MESSAGE = "{\"op\":0,\"s\":9,\"t\":\"MESSAGE_CREATE\",\"d\":{"
+            + "\"type\":19,\"tts\":false,\"timestamp\":\"2026-10-18T12:00:00.000000+00:00\","
+            + "\"referenced_message\":{\"id\":\"1000000000000000001\",\"channel_id\":\"2\",\"author\":"
+            + "{\"id\":\"3\",\"username\":\"mew\",\"discriminator\":\"0001\",\"avatar\":null},\"content\":\"first\","
+            + "\"timestamp\":\"2026-10-18T11:59:00.000000+00:00\",\"mentions\":[],\"mention_roles\":[],"
+            + "\"attachments\":[],\"embeds\":[]},"
+            + "\"pinned\":false,\"nonce\":12345,"
+            + "\"mentions\":[{\"id\":\"4\",\"username\":\"purr \\\"loaf\\\"\",\"discriminator\":\"0002\",\"avatar\":\"a\","
+            + "\"public_flags\":64,\"member\":{\"roles\":[\"5\"],\"joined_at\":\"2020-01-01T00:00:00+00:00\","
+            + "\"nick\":\"nyå\"}}],"
+            + "\"mention_roles\":[\"6\",\"7\"],\"mention_everyone\":true,"
+            + "\"member\":{\"roles\":[\"5\",\"8\"],\"premium_since\":null,\"nick\":\"kitten 🐱\","
+            + "\"joined_at\":\"2020-06-27T04:57:02.954925+00:00\",\"avatar\":null,\"deaf\":false},"
+            + "\"id\":\"1043314519537651363\",\"flags\":4,"
+            + "\"embeds\":[{\"type\":\"rich\",\"title\":\"meow\",\"description\":\"line\\nbreak \\u00e9\","
+            + "\"fields\":[{\"name\":\"a\",\"value\":\"b\",\"inline\":true}],\"color\":16711680}],"
+            + "\"edited_timestamp\":null,\"content\":\"hi \\\\ there \\u2764 ❤ \\ud83d\\udc31\","
+            + "\"components\":[],\"channel_id\":\"1146763086200934856\","
+            + "\"author\":{\"id\":\"914314665527340972\",\"username\":\"trill\",\"discriminator\":\"8828\","
+            + "\"avatar\":\"95d7a0012500876b2d3f5254ac08cabf\",\"bot\":true,\"public_flags\":256,"
+            + "\"accent_color\":null,\"banner\":null},"
+            + "\"attachments\":[{\"id\":\"9\",\"filename\":\"cat.png\",\"size\":1024,\"url\":\"https://x/cat.png\","
+            + "\"proxy_url\":\"https://y/cat.png\",\"width\":64,\"height\":64}],"
+            + "\"reactions\":[{\"count\":2,\"me\":false,\"emoji\":{\"id\":null,\"name\":\"🐱\"}}],"
+            + "\"message_reference\":{\"channel_id\":\"1146763086200934856\",\"message_id\":\"1000000000000000001\","
+            + "\"guild_id\":\"1028876540230230332\"},"
+            + "\"guild_id\":\"1028876540230230332\"}}";
+    
+    private final Catnip catnip = BindingFixtures.catnip();
+    private final StreamingEntityBinder binder = new StreamingEntityBinder(catnip);
+    
+    private static ByteBuffer utf8(final String json) {
+        return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static JsonObject data(final String payload) throws Exception {
+        return JsonParser.object().from(payload).getObject("d");
+    }
+    
+    @Test
+    void bindsRecordedMessagesLikeEntityBuilder() throws Exception {
+        final List<String> payloads = BindingFixtures.payloads(BindingFixtures.EVENTS, Raw.MESSAGE_CREATE);
+        assertFalse(payloads.isEmpty());
+        final JsonTokenReader reader = new JsonTokenReader();
+        for(final String payload : payloads) {
+            final Message expected = catnip.entityBuilder().createMessage(data(payload));
+            assertSameEntity(expected, binder.bindDispatch(Raw.MESSAGE_CREATE, reader.reset(utf8(payload))), "message");
+            assertSameEntity(expected, binder.bindDispatch(Raw.MESSAGE_CREATE, reader.reset(payload)), "message");
+        }
+    }
+    
+    @Test
+    void bindsEveryPartOfAMessage() throws Exception {
+        final Message expected = catnip.entityBuilder().createMessage(data(RICH_MESSAGE));
+        final Message bound = (Message) binder.bindDispatch(Raw.MESSAGE_CREATE,
+                new JsonTokenReader().reset(utf8(RICH_MESSAGE)));
+        assertSameEntity(expected, bound, "message");
+        assertEquals("hi \\ there \u2764 \u2764 \uD83D\uDC31", bound.content());
+        assertEquals("kitten \uD83D\uDC31", bound.member().nick());
+        assertEquals(1028876540230230332L, bound.member().guildIdAsLong());
+        assertEquals(914314665527340972L, bound.member().idAsLong());
+        assertEquals(Set.of("5", "8"), bound.member().roleIds());
+        assertEquals(OffsetDateTime.parse("2020-06-27T04:57:02.954925Z"), bound.member().joinedAt());
+        assertEquals("12345", bound.nonce());
+        assertEquals(1, bound.mentionedMembers().size());
+        assertNotNull(bound.referencedMessage());
+    }
+    
+    @Test
+    void bindsGuildLikeEntityBuilder() throws Exception {
+        final String payload = BindingFixtures.payloads(BindingFixtures.GUILD_CREATE, Raw.GUILD_CREATE).get(0);
+        final Guild expected = catnip.entityBuilder().createGuild(data(payload));
+        final Guild bound = (Guild) binder.bindDispatch(Raw.GUILD_CREATE, new JsonTokenReader().reset(utf8(payload)));
+        assertSameEntity(expected, bound, "guild");
+        assertEquals("Cat Caf\u00e9 \"Whiskers\"", bound.name());
+    }
+    
+    @Test
+    void leavesEmbedUpdatesAndUnsupportedEventsToBeParsed() {
+        final JsonTokenReader reader = new JsonTokenReader();
+        assertNull(binder.bindDispatch(Raw.MESSAGE_UPDATE, reader.reset(
+                "{\"op\":0,\"s\":1,\"t\":\"MESSAGE_UPDATE\",\"d\":{\"id\":\"1\",\"channel_id\":\"2\",\"embeds\":[]}}")));
+        assertNull(binder.bindDispatch(Raw.TYPING_START, reader.reset(
+                "{\"op\":0,\"s\":1,\"t\":\"TYPING_START\",\"d\":{\"channel_id\":\"2\"}}")));
+    }
+    
+    /**
+     * Compares entities field by field, since entities only compare their ids
+     * in {@code equals}.
+     */
+    private static void assertSameEntity(final Object expected, final Object actual, final String path) throws Exception {
+        if(expected == null || actual == null) {
+            assertEquals(expected, actual, path);
+            return;
+        }
+        assertEquals(expected.getClass(), actual.getClass(), path);
+        if(expected instanceof List<?> expectedList) {
+            final List<?> actualList = (List<?>) actual;
+            assertEquals(expectedList.size(), actualList.size(), path + ".size()");
+            for(int i = 0; i < expectedList.size(); i++) {
+                assertSameEntity(expectedList.get(i), actualList.get(i), path + '[' + i + ']');
+            }
+            return;
+        }
+        if(expected.getClass().isArray()) {
+            assertTrue(Objects.deepEquals(expected, actual), path);
+            return;
+        }
+        if(!expected.getClass().getName().startsWith("com.mewna.catnip.entity.impl")) {
+            assertEquals(expected, actual, path);
+            return;
+        }
+        for(Class<?> type = expected.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for(final Field field : type.getDeclaredFields()) {
+                if(Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                assertSameEntity(field.get(expected), field.get(actual), path + '.' + field.getName());
+            }
+        }
+    }
+}
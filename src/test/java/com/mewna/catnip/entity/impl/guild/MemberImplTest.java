@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.entity.impl.guild;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberImplTest {
+    @Test
+    void roleIdsAreSortedAndCopied() {
+        final long[] roles = {30L, 10L, 20L, 10L};
+        final MemberImpl member = MemberImpl.builder().roleIdsAsLong(roles).build();
+        roles[0] = 99L;
+        assertArrayEquals(new long[] {10L, 20L, 30L}, member.roleIdsAsLong());
+        assertEquals(Set.of("10", "20", "30"), member.roleIds());
+        
+        member.roleIdsAsLong()[0] = 99L;
+        assertEquals(Set.of("10", "20", "30"), member.roleIds());
+        
+        final long[] updated = {5L, 1L};
+        member.roleIdsAsLong(updated);
+        updated[0] = 99L;
+        assertEquals(Set.of("1", "5"), member.roleIds());
+    }
+    
+    @Test
+    void missingJoinDateIsNull() {
+        assertNull(MemberImpl.builder().build().joinedAt());
+        assertNotNull(MemberImpl.builder().joinedAt("2020-06-27T04:57:02.954925+00:00").build().joinedAt());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.entity.serialization;
+
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.entity.channel.Channel.ChannelType;
+import com.mewna.catnip.entity.channel.TextChannel;
+import com.mewna.catnip.entity.guild.Guild;
+import com.mewna.catnip.entity.guild.Guild.VerificationLevel;
+import com.mewna.catnip.entity.guild.GuildFeature;
+import com.mewna.catnip.entity.guild.Member;
+import com.mewna.catnip.entity.guild.PermissionOverride.OverrideType;
+import com.mewna.catnip.entity.impl.channel.TextChannelImpl;
+import com.mewna.catnip.entity.impl.guild.GuildImpl;
+import com.mewna.catnip.entity.impl.guild.PermissionOverrideImpl;
+import com.mewna.catnip.entity.impl.user.UserImpl;
+import com.mewna.catnip.entity.user.User;
+import com.mewna.catnip.entity.user.UserFlag;
+import com.mewna.catnip.entity.util.Permission;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryEntitySerializerTest {
+    private final Catnip catnip = Mockito.mock(Catnip.class);
+    private final BinaryEntitySerializer serializer = new BinaryEntitySerializer();
+    
+    BinaryEntitySerializerTest() {
+        serializer.catnip(catnip);
+    }
+    
+    @Test
+    void roundTripsNestedEntities() {
+        final TextChannelImpl channel = TextChannelImpl.builder()
+                .idAsLong(1028876540230230400L)
+                .guildIdAsLong(1028876540230230332L)
+                .name("general")
+                .position(3)
+                .topic(null)
+                .nsfw(true)
+                .overrides(List.of(PermissionOverrideImpl.builder()
+                        .idAsLong(8L)
+                        .type(OverrideType.ROLE)
+                        .allowRaw(Permission.SEND_MESSAGES.value())
+                        .build()))
+                .build();
+        final TextChannel read = serializer.deserialize(serializer.serialize(channel), TextChannel.class);
+        assertNotSame(channel, read);
+        assertEquals(channel.idAsLong(), read.idAsLong());
+        assertEquals(channel.guildIdAsLong(), read.guildIdAsLong());
+        assertEquals("general", read.name());
+        assertEquals(3, read.position());
+        assertNull(read.topic());
+        assertTrue(read.nsfw());
+        assertEquals(ChannelType.TEXT, read.type());
+        assertEquals(1, read.overrides().size());
+        assertEquals(OverrideType.ROLE, read.overrides().get(0).type());
+        assertEquals(Permission.SEND_MESSAGES.value(), read.overrides().get(0).allowRaw());
+        assertSame(catnip, read.catnip());
+        assertSame(catnip, read.overrides().get(0).catnip());
+    }
+    
+    @Test
+    void roundTripsEnumsAndSets() {
+        final GuildImpl guild = GuildImpl.builder()
+                .idAsLong(1028876540230230332L)
+                .name("cats")
+                .permissions(EnumSet.of(Permission.ADMINISTRATOR, Permission.KICK_MEMBERS))
+                .features(List.of(GuildFeature.INVITE_SPLASH))
+                .verificationLevel(VerificationLevel.LOW)
+                .maxMembers(500000)
+                .build();
+        final Guild read = serializer.deserialize(serializer.serialize(guild), Guild.class);
+        assertEquals("cats", read.name());
+        assertEquals(Set.of(Permission.ADMINISTRATOR, Permission.KICK_MEMBERS), read.permissions());
+        assertEquals(List.of(GuildFeature.INVITE_SPLASH), read.features());
+        assertEquals(VerificationLevel.LOW, read.verificationLevel());
+        assertEquals(500000, read.maxMembers());
+        assertNull(read.description());
+    }
+    
+    @Test
+    void rejectsTheWrongEntityType() {
+        final byte[] data = serializer.serialize(UserImpl.builder()
+                .idAsLong(914314665527340972L)
+                .username("trill")
+                .publicFlags(Set.of(UserFlag.BUG_HUNTER_LEVEL_1))
+                .build());
+        assertEquals("trill", serializer.deserialize(data, User.class).username());
+        assertThrows(IllegalStateException.class, () -> serializer.deserialize(data, Member.class));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest;
+
+import com.grack.nanojson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponsePayloadTest {
+    private static final String MEMBERS = "[{\"user\":{\"id\":\"1\"},\"nick\":\"mew\"},{\"user\":{\"id\":\"2\"},\"nick\":null}]";
+    
+    private static ResponsePayload streamed(final String body) {
+        return new ResponsePayload(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    private static List<String> ids(final Iterable<String> ids) {
+        final List<String> list = new ArrayList<>();
+        ids.forEach(list::add);
+        return list;
+    }
+    
+    @Test
+    void streamedPayloadsMapElementsAsTheyAreRead() {
+        final ResponsePayload payload = streamed(MEMBERS);
+        assertTrue(payload.streaming());
+        final Iterable<String> ids = payload.mapObjects(o -> o.getObject("user").getString("id"));
+        // Nothing is read until the elements are iterated
+        assertTrue(payload.streaming());
+        assertEquals(List.of("1", "2"), ids(ids));
+        assertFalse(payload.streaming());
+    }
+    
+    @Test
+    void stringPayloadsMapElementsToo() {
+        final ResponsePayload payload = new ResponsePayload(MEMBERS);
+        assertFalse(payload.streaming());
+        final Iterable<String> ids = payload.mapObjects(o -> o.getObject("user").getString("id"));
+        assertEquals(List.of("1", "2"), ids(ids));
+        assertEquals(List.of("1", "2"), ids(ids));
+        assertEquals("mew", payload.elements().nextObject().getString("nick"));
+    }
+    
+    @Test
+    void streamedPayloadsCanBeReadInFull() {
+        final ResponsePayload payload = streamed("{\"id\":\"3\"}");
+        final JsonObject object = payload.object();
+        assertEquals("3", object.getString("id"));
+        assertEquals("{\"id\":\"3\"}", payload.string());
+        assertFalse(payload.streaming());
+    }
+    
+    @Test
+    void observedStreamsAreClosedWhenCancelledOrFailed() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final ResponsePayload payload = new ResponsePayload(new ByteArrayInputStream(MEMBERS.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        });
+        final List<String> ids = payload.observeObjects(o -> o.getObject("user").getString("id")).take(1).toList().blockingGet();
+        assertEquals(List.of("1"), ids);
+        assertTrue(closed.get());
+        
+        closed.set(false);
+        final ResponsePayload failing = new ResponsePayload(new ByteArrayInputStream(MEMBERS.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        });
+        failing.observeObjects(o -> {
+            throw new IllegalStateException("mapper failed");
+        }).test().assertError(IllegalStateException.class);
+        assertTrue(closed.get());
+    }
+}
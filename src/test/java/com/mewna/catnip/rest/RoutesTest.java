@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest;
+
+import com.mewna.catnip.rest.Routes.Route;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutesTest {
+    private static Route compileOneByOne(Route route, final Map<String, String> params) {
+        for(final Entry<String, String> entry : params.entrySet()) {
+            route = route.compile(entry.getKey(), entry.getValue());
+        }
+        return route;
+    }
+    
+    @Test
+    void compilesEveryRouteLikeCompilingParamsOneByOne() throws Exception {
+        int checked = 0;
+        for(final Field field : Routes.class.getDeclaredFields()) {
+            if(field.getType() != Route.class || !Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            final Route route = (Route) field.get(null);
+            final Map<String, String> params = new HashMap<>();
+            int value = 0;
+            for(final String part : route.baseRoute().split("/")) {
+                if(part.startsWith(":") && !part.substring(1).equals(route.majorParam())) {
+                    params.put(part.substring(1), String.valueOf(++value));
+                }
+            }
+            final Route bound = route.majorParam() == null ? route : route.withMajorParam("1043314519537651363");
+            final Route withQuery = bound.withQueryString("?limit=100&after=:after");
+            for(final Route r : new Route[] {bound, withQuery}) {
+                final Route expected = compileOneByOne(r, params);
+                final Route compiled = r.compile(params);
+                assertEquals(expected.baseRoute(), compiled.baseRoute(), field.getName());
+                assertEquals(expected.ratelimitKey(), compiled.ratelimitKey(), field.getName());
+                assertEquals(expected.template(), compiled.template(), field.getName());
+                assertEquals(expected.majorParamValue(), compiled.majorParamValue(), field.getName());
+                final StringBuilder builder = new StringBuilder("https://discord.com/api/v9");
+                r.render(builder, params);
+                assertEquals("https://discord.com/api/v9" + expected.baseRoute(), builder.toString(), field.getName());
+            }
+            checked++;
+        }
+        assertTrue(checked > 100);
+    }
+    
+    @Test
+    void leavesMissingParamsAlone() {
+        final Route route = Routes.DELETE_USER_REACTION.withMajorParam("1");
+        assertEquals("/channels/1/messages/2/reactions/:emojis/:user",
+                route.compile(Map.of("message", "2")).baseRoute());
+        assertEquals("/channels/1/messages/2/reactions/%F0%9F%90%B1/3",
+                route.compile("message", "2").compile(Map.of("emojis", "%F0%9F%90%B1", "user", "3")).baseRoute());
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.ratelimit;
+
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.rest.Routes;
+import com.mewna.catnip.rest.Routes.Route;
+import com.mewna.catnip.util.logging.LogAdapter;
+import com.mewna.catnip.util.scheduler.RxTaskScheduler;
+import com.mewna.catnip.util.scheduler.TaskScheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class DefaultRateLimiterTest {
+    private final Catnip catnip = Mockito.mock(Catnip.class);
+    private final DefaultRateLimiter rateLimiter = new DefaultRateLimiter();
+    
+    DefaultRateLimiterTest() {
+        final RxTaskScheduler taskScheduler = new RxTaskScheduler();
+        when(catnip.logAdapter()).thenReturn(Mockito.mock(LogAdapter.class));
+        when(catnip.rxScheduler()).thenReturn(Schedulers.io());
+        when(catnip.taskScheduler()).thenReturn(taskScheduler);
+        taskScheduler.catnip(catnip);
+        rateLimiter.catnip(catnip);
+    }
+    
+    private static boolean executesNow(final DefaultRateLimiter rateLimiter, final Route route) throws InterruptedException {
+        return rateLimiter.requestExecution(route).test().await(100, TimeUnit.MILLISECONDS);
+    }
+    
+    private void exhaust(final Route route, final String bucketHash) {
+        rateLimiter.updateBucketHash(route, bucketHash);
+        rateLimiter.updateReset(route, System.currentTimeMillis() + 60_000);
+        rateLimiter.updateLimit(route, 5);
+        rateLimiter.updateRemaining(route, 0);
+        rateLimiter.updateDone(route);
+    }
+    
+    @Test
+    void compiledRoutesKeepTheirTemplate() {
+        final Route route = Routes.DELETE_MESSAGE.withMajorParam("1").compile("message", "2").withQueryString("?a=b");
+        assertEquals("/channels/1/messages/2?a=b", route.baseRoute());
+        assertEquals("/channels/:channel/messages/:message", route.template());
+        assertEquals("1", route.majorParamValue());
+        assertNull(Routes.GET_USER.compile("user", "3").majorParamValue());
+    }
+    
+    @Test
+    void routesWithTheSameHashAndMajorParamShareABucket() throws InterruptedException {
+        exhaust(Routes.CREATE_MESSAGE.withMajorParam("1"), "abcd");
+        // Never seen before, so it can't be known to be in the same bucket yet
+        assertTrue(executesNow(rateLimiter, Routes.EDIT_MESSAGE.withMajorParam("1")));
+        rateLimiter.updateBucketHash(Routes.EDIT_MESSAGE.withMajorParam("1"), "abcd");
+        assertFalse(executesNow(rateLimiter, Routes.EDIT_MESSAGE.withMajorParam("1")));
+        assertFalse(executesNow(rateLimiter, Routes.CREATE_MESSAGE.withMajorParam("1")));
+        // Other channels are split off by the major param
+        assertTrue(executesNow(rateLimiter, Routes.CREATE_MESSAGE.withMajorParam("2")));
+        // As are other buckets
+        assertTrue(executesNow(rateLimiter, Routes.GET_CHANNEL_MESSAGE.withMajorParam("1")));
+    }
+    
+    @Test
+    void learningTheHashMovesQueuedRequests() throws InterruptedException {
+        final Route route = Routes.CREATE_MESSAGE.withMajorParam("1");
+        rateLimiter.updateReset(route, System.currentTimeMillis() + 60_000);
+        // Takes the only request the default bucket allows
+        assertTrue(executesNow(rateLimiter, route));
+        final var queued = rateLimiter.requestExecution(route).test();
+        queued.assertNotComplete();
+        // The response for the first request tells us the bucket, which has
+        // room for more
+        rateLimiter.updateBucketHash(route, "abcd");
+        rateLimiter.updateReset(route, System.currentTimeMillis() - 1);
+        rateLimiter.updateLimit(route, 5);
+        rateLimiter.updateRemaining(route, 4);
+        rateLimiter.updateDone(route);
+        queued.awaitDone(5, TimeUnit.SECONDS).assertComplete();
+    }
+    
+    @Test
+    void evictsIdleBucketsOnceTheyReset() throws InterruptedException {
+        final Catnip catnip = Mockito.mock(Catnip.class);
+        // Eviction is run by hand here
+        when(catnip.taskScheduler()).thenReturn(Mockito.mock(TaskScheduler.class));
+        when(catnip.logAdapter()).thenReturn(Mockito.mock(LogAdapter.class));
+        when(catnip.rxScheduler()).thenReturn(Schedulers.io());
+        final DefaultRateLimiter rateLimiter = new DefaultRateLimiter(500);
+        rateLimiter.catnip(catnip);
+        
+        final Route idle = Routes.CREATE_MESSAGE.withMajorParam("1");
+        final Route waiting = Routes.CREATE_MESSAGE.withMajorParam("2");
+        assertTrue(executesNow(rateLimiter, idle));
+        assertTrue(executesNow(rateLimiter, waiting));
+        rateLimiter.updateReset(waiting, System.currentTimeMillis() + 60_000);
+        assertEquals(2, rateLimiter.bucketCount());
+        assertEquals(0, rateLimiter.evictIdleBuckets());
+        
+        Thread.sleep(600);
+        assertEquals(1, rateLimiter.evictIdleBuckets());
+        assertEquals(1, rateLimiter.bucketCount());
+        // Evicted buckets come back fresh
+        assertTrue(executesNow(rateLimiter, idle));
+        assertEquals(2, rateLimiter.bucketCount());
+    }
+    
+    @Test
+    void releasesQueuedRequestsWhenTheResetAfterPasses() throws InterruptedException {
+        final Route route = Routes.CREATE_MESSAGE.withMajorParam("1");
+        rateLimiter.updateResetAfter(route, 200);
+        rateLimiter.updateLimit(route, 5);
+        rateLimiter.updateRemaining(route, 0);
+        rateLimiter.updateDone(route);
+        final long start = System.nanoTime();
+        final var queued = rateLimiter.requestExecution(route).test();
+        assertFalse(queued.await(100, TimeUnit.MILLISECONDS));
+        queued.awaitDone(5, TimeUnit.SECONDS).assertComplete();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        
+        // The global ratelimit holds back queued requests too
+        rateLimiter.updateGlobalRateLimitAfter(300);
+        rateLimiter.updateResetAfter(route, 0);
+        rateLimiter.updateRemaining(route, 0);
+        final long globalStart = System.nanoTime();
+        rateLimiter.requestExecution(route).test().awaitDone(5, TimeUnit.SECONDS).assertComplete();
+        assertTrue(System.nanoTime() - globalStart >= TimeUnit.MILLISECONDS.toNanos(250));
+    }
+    
+    @Test
+    void rejectsAZeroIdleTimeout() {
+        assertThrows(IllegalArgumentException.class, () -> new DefaultRateLimiter(0));
+    }
+    
+    @Test
+    void closingCancelsEviction() throws InterruptedException {
+        final Set<Long> scheduled = new HashSet<>();
+        final Catnip catnip = Mockito.mock(Catnip.class);
+        when(catnip.taskScheduler()).thenReturn(new RxTaskScheduler() {
+            @Override
+            public long setInterval(final long ms, @Nonnull final Consumer<Long> task) {
+                final long id = 7L + scheduled.size();
+                scheduled.add(id);
+                return id;
+            }
+            
+            @Override
+            public boolean cancel(final long id) {
+                return scheduled.remove(id);
+            }
+        });
+        when(catnip.logAdapter()).thenReturn(Mockito.mock(LogAdapter.class));
+        when(catnip.rxScheduler()).thenReturn(Schedulers.io());
+        final DefaultRateLimiter rateLimiter = new DefaultRateLimiter(500);
+        rateLimiter.catnip(catnip);
+        
+        assertTrue(executesNow(rateLimiter, Routes.CREATE_MESSAGE.withMajorParam("1")));
+        assertTrue(executesNow(rateLimiter, Routes.CREATE_MESSAGE.withMajorParam("2")));
+        assertEquals(Set.of(7L), scheduled);
+        rateLimiter.close();
+        assertTrue(scheduled.isEmpty());
+        // Requests still go through, but eviction isn't started again
+        assertTrue(executesNow(rateLimiter, Routes.CREATE_MESSAGE.withMajorParam("3")));
+        assertTrue(scheduled.isEmpty());
+    }
+}
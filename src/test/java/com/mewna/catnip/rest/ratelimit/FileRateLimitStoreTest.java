@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileRateLimitStoreTest {
+    private static final long NOW = 1_700_000_000_000L;
+    
+    private static Path file() throws IOException {
+        final Path path = Files.createTempFile("catnip-ratelimits", ".bin");
+        Files.delete(path);
+        path.toFile().deleteOnExit();
+        return path;
+    }
+    
+    @Test
+    void storesOpenedOnTheSameFileShareBuckets() throws IOException {
+        final Path path = file();
+        try(final FileRateLimitStore first = new FileRateLimitStore(path, 64, 1000);
+            final FileRateLimitStore second = new FileRateLimitStore(path)) {
+            assertEquals(64, second.capacity());
+            assertEquals(0, first.tryAcquire("global", 2, 1000, NOW));
+            assertEquals(0, second.tryAcquire("global", 2, 1000, NOW + 10));
+            assertEquals(980, first.tryAcquire("global", 2, 1000, NOW + 20));
+            assertEquals(0, second.tryAcquire("global", 2, 1000, NOW + 1000));
+            
+            first.update("abcd:1", 5, 0, NOW + 5000, NOW);
+            assertEquals(5000, second.tryAcquire("abcd:1", 1, 1000, NOW));
+            second.pause("global", NOW + 3000, NOW);
+            assertEquals(2000, first.tryAcquire("global", 2, 1000, NOW + 1000));
+        }
+    }
+    
+    private static void pausingDoesNotSetTheLimit(final RateLimitStore store) {
+        store.pause("global", NOW + 500, NOW);
+        assertEquals(500, store.tryAcquire("global", 3, 1000, NOW));
+        for(int i = 0; i < 3; i++) {
+            assertEquals(0, store.tryAcquire("global", 3, 1000, NOW + 500));
+        }
+        assertEquals(1000, store.tryAcquire("global", 3, 1000, NOW + 500));
+    }
+    
+    @Test
+    void pausingANewBucketDoesNotSetItsLimit() throws IOException {
+        pausingDoesNotSetTheLimit(new MemoryRateLimitStore(1000));
+        try(final FileRateLimitStore store = new FileRateLimitStore(file(), 16, 1000)) {
+            pausingDoesNotSetTheLimit(store);
+        }
+    }
+    
+    /**
+     * Runs a mix of operations on a handful of buckets, and records what
+     * each acquire returned.
+     */
+    private static String exercise(final RateLimitStore store) {
+        final StringBuilder results = new StringBuilder();
+        for(long now = NOW; now < NOW + 10_000; now += 97) {
+            final String bucket = "bucket" + now % 5;
+            results.append(store.tryAcquire(bucket, 2, 700, now)).append(',');
+            if(now % 7 == 0) {
+                store.update(bucket, 3, (int) (now % 4), now + now % 1500, now);
+            } else if(now % 11 == 0) {
+                store.pause(bucket, now + 400, now);
+            }
+        }
+        return results.toString();
+    }
+    
+    @Test
+    void behavesLikeTheMemoryStore() throws IOException {
+        try(final FileRateLimitStore store = new FileRateLimitStore(file(), 16, 1000)) {
+            assertEquals(exercise(new MemoryRateLimitStore(1000)), exercise(store));
+        }
+    }
+    
+    @Test
+    void reusesIdleBucketsOnceFull() throws IOException {
+        try(final FileRateLimitStore store = new FileRateLimitStore(file(), 4, 1000)) {
+            for(int i = 0; i < 4; i++) {
+                assertEquals(0, store.tryAcquire("bucket" + i, 1, 100, NOW));
+            }
+            assertThrows(IllegalStateException.class, () -> store.tryAcquire("another", 1, 100, NOW));
+            assertEquals(0, store.tryAcquire("another", 1, 100, NOW + 2000));
+            assertEquals(0, store.tryAcquire("bucket3", 1, 100, NOW + 2000));
+        }
+    }
+    
+    @Test
+    void pausingOnlyReusesBucketsThatAreIdleNow() throws IOException {
+        try(final FileRateLimitStore store = new FileRateLimitStore(file(), 4, 1000)) {
+            for(int i = 0; i < 4; i++) {
+                assertEquals(0, store.tryAcquire("bucket" + i, 1, 100, NOW));
+            }
+            // A pause far in the future mustn't make the buckets look idle
+            assertThrows(IllegalStateException.class, () -> store.pause("global", NOW + 5000, NOW));
+            store.pause("global", NOW + 5000, NOW + 2000);
+            assertEquals(3000, store.tryAcquire("global", 1, 100, NOW + 2000));
+        }
+    }
+    
+    @Test
+    void callsFailOnceClosed() throws IOException {
+        final FileRateLimitStore store = new FileRateLimitStore(file(), 16, 1000);
+        assertEquals(0, store.tryAcquire("global", 1, 100, NOW));
+        store.close();
+        assertThrows(IllegalStateException.class, () -> store.tryAcquire("global", 1, 100, NOW));
+        assertThrows(IllegalStateException.class, () -> store.pause("global", NOW + 100, NOW));
+    }
+    
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        final Path path = file();
+        Files.writeString(path, "definitely not a ratelimit store");
+        assertThrows(IllegalStateException.class, () -> new FileRateLimitStore(path));
+        assertThrows(IllegalArgumentException.class, () -> new FileRateLimitStore(file(), 12, 1000));
+    }
+}
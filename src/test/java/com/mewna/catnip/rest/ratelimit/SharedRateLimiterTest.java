@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.ratelimit;
+
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.rest.Routes;
+import com.mewna.catnip.rest.Routes.Route;
+import com.mewna.catnip.util.logging.LogAdapter;
+import com.mewna.catnip.util.scheduler.RxTaskScheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class SharedRateLimiterTest {
+    private final Catnip catnip = Mockito.mock(Catnip.class);
+    private final MemoryRateLimitStore store = new MemoryRateLimitStore();
+    
+    SharedRateLimiterTest() {
+        final RxTaskScheduler taskScheduler = new RxTaskScheduler();
+        when(catnip.logAdapter()).thenReturn(Mockito.mock(LogAdapter.class));
+        when(catnip.rxScheduler()).thenReturn(Schedulers.io());
+        when(catnip.taskScheduler()).thenReturn(taskScheduler);
+        taskScheduler.catnip(catnip);
+    }
+    
+    private SharedRateLimiter node(final int globalLimit) {
+        final SharedRateLimiter rateLimiter = new SharedRateLimiter(store, globalLimit);
+        rateLimiter.catnip(catnip);
+        return rateLimiter;
+    }
+    
+    private static boolean executesNow(final RateLimiter rateLimiter, final Route route) throws InterruptedException {
+        return rateLimiter.requestExecution(route).test().await(100, TimeUnit.MILLISECONDS);
+    }
+    
+    private static void update(final RateLimiter rateLimiter, final Route route, final int remaining, final long resetAfter) {
+        rateLimiter.updateBucketHash(route, "abcd");
+        rateLimiter.updateResetAfter(route, resetAfter);
+        rateLimiter.updateLimit(route, 5);
+        rateLimiter.updateRemaining(route, remaining);
+        rateLimiter.updateDone(route);
+    }
+    
+    @Test
+    void globalBudgetIsSharedBetweenNodes() throws InterruptedException {
+        final SharedRateLimiter first = node(3);
+        final SharedRateLimiter second = node(3);
+        assertTrue(executesNow(first, Routes.GET_GATEWAY_BOT));
+        assertTrue(executesNow(second, Routes.GET_CURRENT_USER));
+        assertTrue(executesNow(first, Routes.GET_CURRENT_USER_GUILDS));
+        assertFalse(executesNow(second, Routes.GET_GUILD.withMajorParam("1")));
+    }
+    
+    @Test
+    void bucketBudgetIsSharedBetweenNodes() throws InterruptedException {
+        final SharedRateLimiter first = node(SharedRateLimiter.DEFAULT_GLOBAL_LIMIT);
+        final SharedRateLimiter second = node(SharedRateLimiter.DEFAULT_GLOBAL_LIMIT);
+        final Route route = Routes.CREATE_MESSAGE.withMajorParam("1");
+        update(first, route, 2, 60_000);
+        // The second node hasn't learnt the hash, so it has to be told too
+        update(second, route, 2, 60_000);
+        assertTrue(executesNow(first, route));
+        assertTrue(executesNow(second, route));
+        assertFalse(executesNow(first, route));
+        assertFalse(executesNow(second, route));
+        assertTrue(executesNow(second, Routes.CREATE_MESSAGE.withMajorParam("2")));
+    }
+    
+    @Test
+    void responsesCanOnlyLowerRemainingRequestsWithinAWindow() throws InterruptedException {
+        final SharedRateLimiter first = node(SharedRateLimiter.DEFAULT_GLOBAL_LIMIT);
+        final SharedRateLimiter second = node(SharedRateLimiter.DEFAULT_GLOBAL_LIMIT);
+        final Route route = Routes.DELETE_MESSAGE.withMajorParam("1");
+        update(first, route, 1, 60_000);
+        update(second, route, 1, 60_000);
+        assertTrue(executesNow(first, route));
+        // A response from before the request above was counted
+        update(second, route, 1, 60_000);
+        assertFalse(executesNow(second, route));
+    }
+    
+    @Test
+    void waitingRequestsRunOnceTheBucketResets() throws InterruptedException {
+        final SharedRateLimiter rateLimiter = node(SharedRateLimiter.DEFAULT_GLOBAL_LIMIT);
+        final Route route = Routes.EDIT_MESSAGE.withMajorParam("1");
+        update(rateLimiter, route, 0, 300);
+        assertTrue(rateLimiter.requestExecution(route).test().await(2, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void globalRateLimitPausesEveryNode() throws InterruptedException {
+        final SharedRateLimiter first = node(SharedRateLimiter.DEFAULT_GLOBAL_LIMIT);
+        final SharedRateLimiter second = node(SharedRateLimiter.DEFAULT_GLOBAL_LIMIT);
+        first.updateGlobalRateLimitAfter(60_000);
+        assertFalse(executesNow(second, Routes.GET_GATEWAY_BOT));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.requester;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractRequesterTest {
+    @Test
+    void parsesRatelimitSeconds() {
+        assertEquals(0, AbstractRequester.secondsToMillis("0"));
+        assertEquals(12_000, AbstractRequester.secondsToMillis("12"));
+        assertEquals(500, AbstractRequester.secondsToMillis("0.5"));
+        assertEquals(64_570, AbstractRequester.secondsToMillis("64.57"));
+        assertEquals(941, AbstractRequester.secondsToMillis("0.941"));
+        assertEquals(1_691_112_321_123L, AbstractRequester.secondsToMillis("1691112321.123"));
+        assertEquals(1_235, AbstractRequester.secondsToMillis("1.2341"));
+        assertEquals(1_234, AbstractRequester.secondsToMillis("1.2340"));
+        assertEquals(1_000, AbstractRequester.secondsToMillis("1."));
+        assertThrows(NumberFormatException.class, () -> AbstractRequester.secondsToMillis(""));
+        assertThrows(NumberFormatException.class, () -> AbstractRequester.secondsToMillis("."));
+        assertThrows(NumberFormatException.class, () -> AbstractRequester.secondsToMillis("-1"));
+        assertThrows(NumberFormatException.class, () -> AbstractRequester.secondsToMillis("1.2.3"));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.requester;
+
+import com.grack.nanojson.JsonObject;
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.rest.ResponsePayload;
+import com.mewna.catnip.rest.Routes;
+import com.mewna.catnip.rest.Routes.Route;
+import com.mewna.catnip.rest.requester.Requester.OutboundRequest;
+import com.mewna.catnip.shard.DiscordEvent.Raw;
+import com.mewna.catnip.util.logging.LogAdapter;
+import com.mewna.catnip.util.rx.RxHelpers;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class CachingRequesterTest {
+    private final Catnip catnip = Mockito.mock(Catnip.class);
+    private final RecordingRequester delegate = new RecordingRequester();
+    
+    CachingRequesterTest() {
+        when(catnip.rxScheduler()).thenReturn(Schedulers.io());
+        when(catnip.logAdapter()).thenReturn(Mockito.mock(LogAdapter.class));
+    }
+    
+    private CachingRequester requester(final Map<Route, Long> ttls, final int maxSize) {
+        final CachingRequester requester = new CachingRequester(delegate, ttls, maxSize);
+        requester.catnip(catnip);
+        return requester;
+    }
+    
+    private static OutboundRequest messages(final String channel) {
+        return new OutboundRequest(Routes.GET_CHANNEL_MESSAGES.withMajorParam(channel), Map.of());
+    }
+    
+    private static ResponsePayload fetch(final CachingRequester requester, final OutboundRequest request)
+            throws InterruptedException {
+        return requester.queue(request).test().await().values().get(0);
+    }
+    
+    @Test
+    void responsesAreCachedUntilTheyExpire() throws InterruptedException {
+        final CachingRequester requester = requester(Map.of(Routes.GET_CHANNEL_MESSAGES, 200L), 10);
+        final ResponsePayload first = fetch(requester, messages("1"));
+        assertSame(first, fetch(requester, messages("1")));
+        assertEquals(1, delegate.requests.size());
+        
+        // Differing query strings are different responses
+        fetch(requester, new OutboundRequest(Routes.GET_CHANNEL_MESSAGES.withMajorParam("1")
+                .withQueryString("?limit=5"), Map.of()));
+        assertEquals(2, delegate.requests.size());
+        
+        Thread.sleep(400);
+        assertNotSame(first, fetch(requester, messages("1")));
+        assertEquals(3, delegate.requests.size());
+    }
+    
+    @Test
+    void eventsInvalidateTheirChannel() throws InterruptedException {
+        final CachingRequester requester = requester(CachingRequester.DEFAULT_TTLS, 10);
+        assertTrue(requester.invalidatedBy(Raw.MESSAGE_CREATE));
+        assertFalse(requester.invalidatedBy(Raw.GUILD_ROLE_CREATE));
+        
+        fetch(requester, messages("1"));
+        fetch(requester, messages("2"));
+        requester.invalidate(Raw.MESSAGE_CREATE, new JsonObject(Map.of("channel_id", "1", "id", "3")));
+        assertEquals(1, requester.size());
+        fetch(requester, messages("1"));
+        fetch(requester, messages("2"));
+        assertEquals(3, delegate.requests.size());
+        
+        // Creating a message doesn't change the pins
+        fetch(requester, new OutboundRequest(Routes.GET_PINNED_MESSAGES.withMajorParam("1"), Map.of()));
+        requester.invalidate(Raw.MESSAGE_CREATE, new JsonObject(Map.of("channel_id", "1", "id", "4")));
+        assertEquals(2, requester.size());
+    }
+    
+    @Test
+    void responsesMadeStaleInFlightArentCached() {
+        final CachingRequester requester = requester(CachingRequester.DEFAULT_TTLS, 10);
+        delegate.respond = false;
+        //noinspection ResultOfMethodCallIgnored
+        requester.queue(messages("1")).test();
+        requester.invalidate(Raw.MESSAGE_DELETE, new JsonObject(Map.of("channel_id", "1", "id", "3")));
+        delegate.responses.get(0).complete(new ResponsePayload("[]"));
+        assertEquals(0, requester.size());
+    }
+    
+    @Test
+    void writesInvalidateTheirChannel() throws InterruptedException {
+        final CachingRequester requester = requester(CachingRequester.DEFAULT_TTLS, 10);
+        fetch(requester, messages("1"));
+        fetch(requester, messages("2"));
+        fetch(requester, new OutboundRequest(Routes.CREATE_MESSAGE.withMajorParam("1"), Map.of(),
+                new JsonObject(Map.of("content", "hi"))));
+        assertEquals(1, requester.size());
+        fetch(requester, messages("1"));
+        assertEquals(4, delegate.requests.size());
+    }
+    
+    @Test
+    void leastRecentlyUsedResponsesAreEvicted() throws InterruptedException {
+        final CachingRequester requester = requester(CachingRequester.DEFAULT_TTLS, 2);
+        final ResponsePayload first = fetch(requester, messages("1"));
+        fetch(requester, messages("2"));
+        // Makes 2 the least recently used
+        fetch(requester, messages("1"));
+        fetch(requester, messages("3"));
+        assertEquals(2, requester.size());
+        assertSame(first, fetch(requester, messages("1")));
+        fetch(requester, messages("2"));
+        assertEquals(4, delegate.requests.size());
+    }
+    
+    @Test
+    void uncachedRoutesArePassedThrough() throws InterruptedException {
+        final CachingRequester requester = requester(CachingRequester.DEFAULT_TTLS, 10);
+        final OutboundRequest guild = new OutboundRequest(Routes.GET_GUILD.withMajorParam("1"), Map.of());
+        fetch(requester, guild);
+        fetch(requester, guild);
+        fetch(requester, messages("1").streamResponse(true));
+        fetch(requester, messages("1").streamResponse(true));
+        assertEquals(4, delegate.requests.size());
+        assertEquals(0, requester.size());
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachingRequester(delegate, Map.of(Routes.MODIFY_GUILD, 1000L), 10));
+    }
+    
+    private static final class RecordingRequester implements Requester {
+        private final List<OutboundRequest> requests = new ArrayList<>();
+        private final List<CompletableFuture<ResponsePayload>> responses = new ArrayList<>();
+        private boolean respond = true;
+        
+        @Override
+        public void catnip(@Nonnull final Catnip catnip) {
+        }
+        
+        @Nonnull
+        @Override
+        public Observable<ResponsePayload> queue(@Nonnull final OutboundRequest r) {
+            final CompletableFuture<ResponsePayload> future = new CompletableFuture<>();
+            requests.add(r);
+            responses.add(future);
+            if(respond) {
+                future.complete(new ResponsePayload("[]"));
+            }
+            return RxHelpers.futureToObservable(future);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.requester;
+
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.rest.ResponsePayload;
+import com.mewna.catnip.rest.Routes;
+import com.mewna.catnip.rest.requester.Requester.OutboundRequest;
+import com.mewna.catnip.util.logging.LogAdapter;
+import com.mewna.catnip.util.rx.RxHelpers;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class CoalescingRequesterTest {
+    private final Catnip catnip = Mockito.mock(Catnip.class);
+    private final RecordingRequester delegate = new RecordingRequester();
+    private final CoalescingRequester requester = new CoalescingRequester(delegate);
+    
+    CoalescingRequesterTest() {
+        when(catnip.rxScheduler()).thenReturn(Schedulers.io());
+        when(catnip.logAdapter()).thenReturn(Mockito.mock(LogAdapter.class));
+        requester.catnip(catnip);
+    }
+    
+    private static OutboundRequest getGuild(final String id) {
+        return new OutboundRequest(Routes.GET_GUILD.withMajorParam(id), Map.of());
+    }
+    
+    @Test
+    void identicalRequestsShareOneResponse() throws InterruptedException {
+        final TestObserver<ResponsePayload> first = requester.queue(getGuild("1")).test();
+        final TestObserver<ResponsePayload> second = requester.queue(getGuild("1")).test();
+        final TestObserver<ResponsePayload> other = requester.queue(getGuild("2")).test();
+        assertEquals(2, delegate.requests.size());
+        assertEquals(2, requester.inFlightCount());
+        
+        final ResponsePayload payload = new ResponsePayload("{\"id\":\"1\"}");
+        delegate.responses.get(0).complete(payload);
+        first.await().assertValue(payload);
+        second.await().assertValue(payload);
+        other.assertNoValues();
+        assertEquals(1, requester.inFlightCount());
+        
+        // The first request is done, so this one is sent again
+        //noinspection ResultOfMethodCallIgnored
+        requester.queue(getGuild("1")).test();
+        assertEquals(3, delegate.requests.size());
+    }
+    
+    @Test
+    void failuresAreShared() throws InterruptedException {
+        final TestObserver<ResponsePayload> first = requester.queue(getGuild("1")).test();
+        final TestObserver<ResponsePayload> second = requester.queue(getGuild("1")).test();
+        final IllegalStateException error = new IllegalStateException("oh no");
+        delegate.responses.get(0).completeExceptionally(error);
+        first.await().assertError(error);
+        second.await().assertError(error);
+        assertEquals(0, requester.inFlightCount());
+    }
+    
+    @Test
+    void onlyAllowedBodilessRequestsAreMerged() {
+        final OutboundRequest messages = new OutboundRequest(Routes.GET_CHANNEL_MESSAGES.withMajorParam("1"), Map.of());
+        //noinspection ResultOfMethodCallIgnored
+        requester.queue(messages).test();
+        //noinspection ResultOfMethodCallIgnored
+        requester.queue(messages).test();
+        assertEquals(2, delegate.requests.size());
+        
+        //noinspection ResultOfMethodCallIgnored
+        requester.queue(getGuild("1").streamResponse(true)).test();
+        //noinspection ResultOfMethodCallIgnored
+        requester.queue(getGuild("1").streamResponse(true)).test();
+        assertEquals(4, delegate.requests.size());
+        
+        // Differing query strings are different requests
+        //noinspection ResultOfMethodCallIgnored
+        requester.queue(new OutboundRequest(Routes.GET_GUILD.withMajorParam("1").withQueryString("?with_counts=true"),
+                Map.of())).test();
+        //noinspection ResultOfMethodCallIgnored
+        requester.queue(getGuild("1")).test();
+        assertEquals(6, delegate.requests.size());
+        assertEquals(2, requester.inFlightCount());
+    }
+    
+    @Test
+    void onlyGetRoutesCanBeAllowed() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CoalescingRequester(delegate, List.of(Routes.MODIFY_GUILD)));
+        assertTrue(requester.coalesces(Routes.GET_USER.compile("user", "1")));
+        assertFalse(requester.coalesces(Routes.MODIFY_GUILD.withMajorParam("1")));
+    }
+    
+    private static final class RecordingRequester implements Requester {
+        private final List<OutboundRequest> requests = new ArrayList<>();
+        private final List<CompletableFuture<ResponsePayload>> responses = new ArrayList<>();
+        
+        @Override
+        public void catnip(@Nonnull final Catnip catnip) {
+        }
+        
+        @Nonnull
+        @Override
+        public Observable<ResponsePayload> queue(@Nonnull final OutboundRequest r) {
+            final CompletableFuture<ResponsePayload> future = new CompletableFuture<>();
+            requests.add(r);
+            responses.add(future);
+            return RxHelpers.futureToObservable(future);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.requester;
+
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.CatnipOptions;
+import com.mewna.catnip.rest.Routes;
+import com.mewna.catnip.rest.Routes.Route;
+import com.mewna.catnip.rest.ratelimit.RateLimiter;
+import com.mewna.catnip.rest.requester.AbstractRequester.QueuedRequest;
+import com.mewna.catnip.rest.requester.Requester.OutboundRequest;
+import com.mewna.catnip.util.logging.LogAdapter;
+import com.mewna.catnip.util.scheduler.TaskScheduler;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class PipelinedRequesterTest {
+    private final Catnip catnip = Mockito.mock(Catnip.class);
+    private final List<QueuedRequest> executing = new ArrayList<>();
+    
+    PipelinedRequesterTest() {
+        when(catnip.options()).thenReturn(new CatnipOptions("token"));
+        when(catnip.rxScheduler()).thenReturn(Schedulers.trampoline());
+        when(catnip.taskScheduler()).thenReturn(Mockito.mock(TaskScheduler.class));
+        when(catnip.logAdapter()).thenReturn(Mockito.mock(LogAdapter.class));
+    }
+    
+    private <T extends SerialRequester> T requester(final Function<RateLimiter, T> factory) {
+        final T requester = factory.apply(new UnlimitedRateLimiter());
+        requester.catnip(catnip);
+        return requester;
+    }
+    
+    private void queue(final AbstractRequester requester, final int requests) {
+        for(int i = 0; i < requests; i++) {
+            //noinspection ResultOfMethodCallIgnored
+            requester.queue(new OutboundRequest(Routes.ADD_GUILD_MEMBER_ROLE.withMajorParam("1"),
+                    Map.of("user", "2", "role", String.valueOf(i)))).subscribe();
+        }
+    }
+    
+    private void respond(final int remaining) {
+        final QueuedRequest request = executing.remove(0);
+        request.bucket().updateRemaining(remaining);
+        request.bucket().requestDone();
+    }
+    
+    @Test
+    void pipelinesUpToTheRemainingRequests() {
+        final PipelinedRequester requester = requester(rateLimiter -> new PipelinedRequester(rateLimiter) {
+            @Override
+            protected void executeRequest(@Nonnull final QueuedRequest request) {
+                executing.add(request);
+            }
+        });
+        queue(requester, 8);
+        // Nothing is known about the bucket yet
+        assertEquals(1, executing.size());
+        respond(3);
+        assertEquals(3, executing.size());
+        assertEquals("1", executing.get(0).request().params().get("role"));
+        assertEquals("3", executing.get(2).request().params().get("role"));
+        // Exhausted, so back to one at a time
+        respond(0);
+        respond(0);
+        respond(0);
+        assertEquals(1, executing.size());
+        assertEquals("4", executing.get(0).request().params().get("role"));
+        respond(5);
+        assertEquals(3, executing.size());
+        respond(5);
+        respond(5);
+        respond(5);
+        assertTrue(executing.isEmpty());
+        assertEquals(1, requester.bucketCount());
+    }
+    
+    @Test
+    void serialRequesterIgnoresRemainingRequests() {
+        final SerialRequester requester = requester(rateLimiter -> new SerialRequester(rateLimiter) {
+            @Override
+            protected void executeRequest(@Nonnull final QueuedRequest request) {
+                executing.add(request);
+            }
+        });
+        queue(requester, 3);
+        assertEquals(1, executing.size());
+        respond(5);
+        assertEquals(1, executing.size());
+        respond(5);
+        respond(5);
+        assertTrue(executing.isEmpty());
+    }
+    
+    private static final class UnlimitedRateLimiter implements RateLimiter {
+        @Override
+        public void catnip(@Nonnull final Catnip catnip) {
+        }
+        
+        @Nonnull
+        @Override
+        public Completable requestExecution(@Nonnull final Route route) {
+            return Completable.complete();
+        }
+        
+        @Override
+        public void updateRemaining(@Nonnull final Route route, final int remaining) {
+        }
+        
+        @Override
+        public void updateLimit(@Nonnull final Route route, final int limit) {
+        }
+        
+        @Override
+        public void updateReset(@Nonnull final Route route, final long resetTimestamp) {
+        }
+        
+        @Override
+        public void updateDone(@Nonnull final Route route) {
+        }
+        
+        @Override
+        public void updateGlobalRateLimit(final long resetTimestamp) {
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.rest.requester;
+
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.rest.Routes;
+import com.mewna.catnip.rest.ratelimit.RateLimiter;
+import com.mewna.catnip.util.logging.LogAdapter;
+import com.mewna.catnip.util.scheduler.TaskScheduler;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class SerialRequesterTest {
+    @Test
+    void evictsIdleBuckets() throws InterruptedException {
+        final Catnip catnip = Mockito.mock(Catnip.class);
+        // Eviction is run by hand here
+        when(catnip.taskScheduler()).thenReturn(Mockito.mock(TaskScheduler.class));
+        when(catnip.logAdapter()).thenReturn(Mockito.mock(LogAdapter.class));
+        final SerialRequester requester = new SerialRequester(Mockito.mock(RateLimiter.class), 500);
+        requester.catnip(catnip);
+        
+        final var bucket = requester.getBucket(Routes.GET_GUILD.withMajorParam("1"));
+        assertSame(bucket, requester.getBucket(Routes.GET_GUILD.withMajorParam("1")));
+        requester.getBucket(Routes.GET_GUILD.withMajorParam("2"));
+        assertEquals(2, requester.bucketCount());
+        assertEquals(0, requester.evictIdleBuckets());
+        
+        Thread.sleep(600);
+        requester.getBucket(Routes.GET_GUILD.withMajorParam("2"));
+        assertEquals(1, requester.evictIdleBuckets());
+        assertEquals(1, requester.bucketCount());
+        assertNotSame(bucket, requester.getBucket(Routes.GET_GUILD.withMajorParam("1")));
+    }
+}
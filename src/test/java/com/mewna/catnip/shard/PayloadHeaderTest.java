@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadHeaderTest {
+    private static PayloadHeader scanBytes(final String json) {
+        final PayloadHeader header = new PayloadHeader();
+        final ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        assertTrue(header.scan(buffer), "Couldn't scan " + json);
+        assertEquals(0, buffer.position());
+        return header;
+    }
+    
+    @Test
+    void scansDispatch() {
+        final PayloadHeader header = scanBytes("{\"t\":\"TYPING_START\",\"s\":42,\"op\":0,\"d\":{\"channel_id\":\"1\"}}");
+        assertEquals(0, header.op());
+        assertEquals("TYPING_START", header.type());
+        assertTrue(header.hasSeq());
+        assertEquals(42, header.seq());
+    }
+    
+    @Test
+    void skipsDataBeforeHeader() {
+        final PayloadHeader header = scanBytes("{ \"d\" : {\"content\":\"}\\\"{ \\u00e9 ñ\",\"a\":[1,{\"b\":null}],\"t\":\"x\"},\n"
+                + "\"op\" : 0, \"s\": 7, \"t\": \"MESSAGE_CREATE\" }");
+        assertEquals(0, header.op());
+        assertEquals("MESSAGE_CREATE", header.type());
+        assertEquals(7, header.seq());
+    }
+    
+    @Test
+    void scansNonDispatch() {
+        final PayloadHeader header = new PayloadHeader();
+        assertTrue(header.scan("{\"t\":null,\"s\":null,\"op\":11,\"d\":null}"));
+        assertEquals(11, header.op());
+        assertNull(header.type());
+        assertFalse(header.hasSeq());
+        
+        assertTrue(header.scan("{\"op\":10,\"d\":{\"heartbeat_interval\":41250}}"));
+        assertEquals(10, header.op());
+        assertNull(header.type());
+        assertFalse(header.hasSeq());
+    }
+    
+    @Test
+    void rejectsMalformedPayloads() {
+        final PayloadHeader header = new PayloadHeader();
+        assertFalse(header.scan(""));
+        assertFalse(header.scan("[]"));
+        assertFalse(header.scan("{}"));
+        assertFalse(header.scan("{\"t\":\"READY\",\"s\":1"));
+        assertFalse(header.scan("{\"op\":1.5}"));
+        assertFalse(header.scan("{\"d\":{\"unterminated\":\"}"));
+    }
+}
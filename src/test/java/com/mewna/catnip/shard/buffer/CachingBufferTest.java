@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.buffer;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.mewna.catnip.Catnip;
+import com.mewna.catnip.CatnipOptions;
+import com.mewna.catnip.cache.EntityCacheWorker.CachedEntityState;
+import com.mewna.catnip.cache.UnifiedMemoryEntityCache;
+import com.mewna.catnip.entity.guild.Role;
+import com.mewna.catnip.entity.impl.EntityBuilder;
+import com.mewna.catnip.shard.event.DefaultDispatchManager;
+import com.mewna.catnip.util.logging.DefaultLogAdapter;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.event.Level;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.mewna.catnip.shard.DiscordEvent.Raw;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class CachingBufferTest {
+    private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+    private final Catnip catnip = Mockito.mock(Catnip.class);
+    private final CachingBuffer buffer = new CachingBuffer();
+    
+    CachingBufferTest() {
+        final DefaultDispatchManager dispatchManager = new DefaultDispatchManager(1);
+        when(catnip.rxScheduler()).thenReturn(Schedulers.io());
+        when(catnip.logAdapter()).thenReturn(new DefaultLogAdapter());
+        when(catnip.options()).thenReturn(new CatnipOptions("token").disabledEvents(Set.of(Raw.READY)));
+        when(catnip.entityBuilder()).thenReturn(new EntityBuilder(catnip));
+        when(catnip.cacheWorker()).thenReturn(new SlowCache(Map.of("a", 300L, "b", 150L, "c", 50L, "x", 300L)));
+        when(catnip.dispatchManager()).thenReturn(dispatchManager);
+        dispatchManager.catnip(catnip);
+        dispatchManager.<Role>createConsumer(Raw.GUILD_ROLE_CREATE).handler(role -> log.add("emit " + role.name()));
+        dispatchManager.<Pair<Role, Role>>createConsumer(Raw.GUILD_ROLE_UPDATE).handler(pair -> log.add("emit " + pair.getRight().name()));
+        buffer.catnip(catnip);
+        buffer.buffer(event(Raw.READY, "{\"guilds\":[]}"));
+    }
+    
+    private static JsonObject event(final String type, final String d) {
+        try {
+            return JsonParser.object().from("{\"shard\":{\"id\":0,\"limit\":1},\"t\":\"" + type + "\",\"d\":" + d + '}');
+        } catch(final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static JsonObject role(final String type, final String guild, final String name) {
+        return event(type, "{\"guild_id\":\"" + guild + "\",\"role\":{\"id\":\"10\",\"name\":\"" + name + "\","
+                + "\"color\":0,\"hoist\":false,\"position\":1,\"permissions\":\"0\",\"managed\":false,\"mentionable\":false}}");
+    }
+    
+    private void awaitLog(final int size) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(log.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, log.size(), "Log was " + log);
+    }
+    
+    @Test
+    void keepsGuildOrderWithoutBlocking() throws InterruptedException {
+        final long start = System.nanoTime();
+        buffer.buffer(role(Raw.GUILD_ROLE_CREATE, "1", "a"));
+        buffer.buffer(role(Raw.GUILD_ROLE_UPDATE, "1", "b"));
+        buffer.buffer(role(Raw.GUILD_ROLE_UPDATE, "1", "c"));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(150), "Buffering waited on the cache");
+        
+        awaitLog(6);
+        assertEquals(List.of("cache a", "emit a", "emit b", "cache b", "emit c", "cache c"), log);
+    }
+    
+    @Test
+    void doesNotHoldUpOtherGuilds() throws InterruptedException {
+        buffer.buffer(role(Raw.GUILD_ROLE_CREATE, "1", "x"));
+        buffer.buffer(role(Raw.GUILD_ROLE_UPDATE, "2", "y"));
+        
+        awaitLog(4);
+        assertTrue(log.indexOf("emit y") < log.indexOf("cache x"), "Log was " + log);
+        assertTrue(log.indexOf("cache x") < log.indexOf("emit x"), "Log was " + log);
+    }
+    
+    @Test
+    void keepsGoingAfterACacheError() throws InterruptedException {
+        buffer.buffer(role(Raw.GUILD_ROLE_UPDATE, "1", "broken"));
+        buffer.buffer(role(Raw.GUILD_ROLE_UPDATE, "1", "c"));
+        
+        awaitLog(3);
+        assertEquals(List.of("emit broken", "emit c", "cache c"), log);
+    }
+    
+    @Test
+    void keepsGoingAfterEmittingThrows() throws InterruptedException {
+        when(catnip.logAdapter()).thenReturn((level, message, objects) -> {
+            if(level == Level.ERROR) {
+                throw new IllegalStateException(message);
+            }
+        });
+        buffer.buffer(role(Raw.GUILD_ROLE_CREATE, "1", "a"));
+        // No role to build an entity from, so emitting it fails
+        buffer.buffer(event(Raw.GUILD_ROLE_UPDATE, "{\"guild_id\":\"1\"}"));
+        buffer.buffer(role(Raw.GUILD_ROLE_UPDATE, "1", "c"));
+        
+        awaitLog(4);
+        assertEquals(List.of("cache a", "emit a", "emit c", "cache c"), log);
+    }
+    
+    private final class SlowCache extends UnifiedMemoryEntityCache {
+        private final Map<String, Long> delays;
+        
+        private SlowCache(final Map<String, Long> delays) {
+            this.delays = delays;
+        }
+        
+        @Override
+        public boolean canProvidePreviousState(@Nonnull final CachedEntityState state) {
+            return false;
+        }
+        
+        @Nonnull
+        @Override
+        public Completable updateCache(@Nonnull final String eventType, final int shardId, @Nonnull final JsonObject payload) {
+            final JsonObject role = payload.getObject("role");
+            if(role == null) {
+                return Completable.complete();
+            }
+            final String name = role.getString("name");
+            if(name.equals("broken")) {
+                return Completable.timer(100L, TimeUnit.MILLISECONDS, Schedulers.io())
+                        .andThen(Completable.error(new IllegalStateException("Cache worker failed")));
+            }
+            return Completable.timer(delays.getOrDefault(name, 0L), TimeUnit.MILLISECONDS, Schedulers.io())
+                    .doOnComplete(() -> log.add("cache " + name));
+        }
+    }
+}
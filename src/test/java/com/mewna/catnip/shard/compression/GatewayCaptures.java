@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.compression;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded gateway traffic, for decoder tests and benchmarks.
+ * <p/>
+ * {@code gateway/events.jsonl} holds one payload per line. Each
+ * {@code .bin} capture is the same payloads as sent by the gateway: every
+ * websocket message is stored as a big-endian 32-bit length followed by the
+ * message's bytes.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+final class GatewayCaptures {
+    static final String EVENTS = "gateway/events.jsonl";
+    static final String ZSTD_DEFAULT = "gateway/events.zstd-3.bin";
+    static final String ZSTD_MAX = "gateway/events.zstd-19.bin";
+    static final String ZSTD_FAST = "gateway/events.zstd-fast.bin";
+    
+    private GatewayCaptures() {
+    }
+    
+    static List<String> events() throws IOException {
+        try(final BufferedReader reader = new BufferedReader(new InputStreamReader(open(EVENTS), StandardCharsets.UTF_8))) {
+            final List<String> events = new ArrayList<>();
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(!line.isEmpty()) {
+                    events.add(line);
+                }
+            }
+            return events;
+        }
+    }
+    
+    static List<byte[]> messages(final String capture) throws IOException {
+        return messages(open(capture));
+    }
+    
+    static List<byte[]> messages(final InputStream capture) throws IOException {
+        try(final DataInputStream in = new DataInputStream(capture)) {
+            final List<byte[]> messages = new ArrayList<>();
+            while(true) {
+                final int length;
+                try {
+                    length = in.readInt();
+                } catch(final EOFException e) {
+                    return messages;
+                }
+                final byte[] message = new byte[length];
+                in.readFully(message);
+                messages.add(message);
+            }
+        }
+    }
+    
+    private static InputStream open(final String resource) throws IOException {
+        final InputStream stream = GatewayCaptures.class.getClassLoader().getResourceAsStream(resource);
+        if(stream == null) {
+            throw new IOException("Missing test resource " + resource);
+        }
+        return stream;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.compression;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZlibStreamDecoderTest {
+    private static final int MESSAGES = 200;
+    
+    private static String message(final int i) {
+        final StringBuilder members = new StringBuilder();
+        for(int m = 0; m < i % 100 + 1; m++) {
+            if(m > 0) {
+                members.append(',');
+            }
+            members.append("{\"user\":{\"id\":\"").append(1000000000000000L + m)
+                    .append("\",\"username\":\"cat").append(m).append("\"},\"roles\":[\"")
+                    .append(2000000000000000L + m).append("\"]}");
+        }
+        return "{\"op\":0,\"s\":" + i + ",\"t\":\"GUILD_MEMBERS_CHUNK\",\"d\":{\"guild_id\":\"" + (1000000000000000L + i)
+                + "\",\"members\":[" + members + "]}}";
+    }
+    
+    /**
+     * Compresses the given messages the same way Discord's zlib-stream
+     * transport does: one continuous stream with a sync flush after every
+     * message, split up into websocket frames of at most {@code frameSize}
+     * bytes.
+     */
+    private static List<List<ByteBuffer>> compress(final List<String> messages, final int frameSize) {
+        final Deflater deflater = new Deflater();
+        final byte[] chunk = new byte[8192];
+        final List<List<ByteBuffer>> out = new ArrayList<>();
+        for(final String message : messages) {
+            deflater.setInput(message.getBytes(StandardCharsets.UTF_8));
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            int count;
+            while((count = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH)) > 0) {
+                compressed.write(chunk, 0, count);
+            }
+            final byte[] bytes = compressed.toByteArray();
+            final List<ByteBuffer> frames = new ArrayList<>();
+            for(int i = 0; i < bytes.length; i += frameSize) {
+                final byte[] frame = new byte[Math.min(frameSize, bytes.length - i)];
+                System.arraycopy(bytes, i, frame, 0, frame.length);
+                frames.add(ByteBuffer.wrap(frame));
+            }
+            out.add(frames);
+        }
+        deflater.end();
+        return out;
+    }
+    
+    private static List<String> messages() {
+        final List<String> messages = new ArrayList<>();
+        for(int i = 0; i < MESSAGES; i++) {
+            messages.add(message(i));
+        }
+        return messages;
+    }
+    
+    @Test
+    void decodesSplitFrames() throws IOException, JsonParserException {
+        final List<String> messages = messages();
+        // Small frames and a tiny output buffer, to make sure that frames
+        // split mid-message and buffer growth are both handled
+        final List<List<ByteBuffer>> frames = compress(messages, 7);
+        final ZlibStreamDecoder decoder = new ZlibStreamDecoder(16, 64);
+        final Utf8Reader reader = new Utf8Reader(16, 64);
+        for(int i = 0; i < messages.size(); i++) {
+            final List<ByteBuffer> messageFrames = frames.get(i);
+            for(int f = 0; f < messageFrames.size(); f++) {
+                // Completion is detected from the zlib suffix, not the frame flag
+                final boolean complete = decoder.decode(messageFrames.get(f), false);
+                assertEquals(f == messageFrames.size() - 1, complete, "Message " + i + " completed on the wrong frame");
+            }
+            final JsonObject parsed = JsonParser.object().from(reader.reset(decoder.message()));
+            assertEquals(JsonParser.object().from(messages.get(i)), parsed);
+            decoder.release();
+        }
+        decoder.close();
+    }
+    
+    @Test
+    void decodesDirectBuffers() throws IOException, JsonParserException {
+        final List<String> messages = messages();
+        final List<List<ByteBuffer>> frames = compress(messages, 4096);
+        final ZlibStreamDecoder decoder = new ZlibStreamDecoder();
+        final Utf8Reader reader = new Utf8Reader();
+        for(int i = 0; i < messages.size(); i++) {
+            for(final ByteBuffer frame : frames.get(i)) {
+                final ByteBuffer direct = ByteBuffer.allocateDirect(frame.remaining());
+                direct.put(frame).flip();
+                decoder.decode(direct, false);
+                assertFalse(direct.hasRemaining(), "Frame was not fully consumed");
+            }
+            assertEquals(JsonParser.object().from(messages.get(i)), JsonParser.object().from(reader.reset(decoder.message())));
+            decoder.release();
+        }
+        decoder.close();
+    }
+    
+    /**
+     * Compares allocations against the old decompression path, which buffered
+     * every frame, inflated into a fresh stream per message, and built a
+     * String for the parser.
+     */
+    @Test
+    void allocatesLessThanBufferingPath() throws IOException, JsonParserException {
+        final var bean = ManagementFactory.getThreadMXBean();
+        if(!(bean instanceof final com.sun.management.ThreadMXBean threadBean)
+                || !threadBean.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        final List<List<ByteBuffer>> oldFrames = compress(messages(), 1024);
+        final List<List<ByteBuffer>> newFrames = compress(messages(), 1024);
+        final long thread = Thread.currentThread().getId();
+        
+        final long oldStart = threadBean.getThreadAllocatedBytes(thread);
+        final ByteArrayOutputStream readBuffer = new ByteArrayOutputStream();
+        final Inflater inflater = new Inflater();
+        for(final List<ByteBuffer> message : oldFrames) {
+            for(final ByteBuffer frame : message) {
+                readBuffer.write(frame.array(), frame.position() + frame.arrayOffset(), frame.remaining());
+            }
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try(final InflaterOutputStream decompressor = new InflaterOutputStream(buffer, inflater)) {
+                readBuffer.writeTo(decompressor);
+                readBuffer.reset();
+                JsonParser.object().from(buffer.toString(StandardCharsets.UTF_8));
+            }
+        }
+        final long oldAllocated = threadBean.getThreadAllocatedBytes(thread) - oldStart;
+        
+        final long newStart = threadBean.getThreadAllocatedBytes(thread);
+        final ZlibStreamDecoder decoder = new ZlibStreamDecoder();
+        final Utf8Reader reader = new Utf8Reader();
+        for(final List<ByteBuffer> message : newFrames) {
+            for(final ByteBuffer frame : message) {
+                decoder.decode(frame, false);
+            }
+            JsonParser.object().from(reader.reset(decoder.message()));
+            decoder.release();
+        }
+        final long newAllocated = threadBean.getThreadAllocatedBytes(thread) - newStart;
+        decoder.close();
+        
+        assertTrue(newAllocated < oldAllocated,
+                "Streaming decoder allocated " + newAllocated + " bytes, buffering path allocated " + oldAllocated);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.compression;
+
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZstdStreamDecoderTest {
+    private static void assertDecodes(final String capture, final int frameSize) throws IOException {
+        final List<String> events = GatewayCaptures.events();
+        final List<byte[]> messages = GatewayCaptures.messages(capture);
+        assertEquals(events.size(), messages.size());
+        final ZstdStreamDecoder decoder = new ZstdStreamDecoder();
+        for(int i = 0; i < messages.size(); i++) {
+            final byte[] message = messages.get(i);
+            for(int offset = 0; offset < message.length; offset += frameSize) {
+                final int length = Math.min(frameSize, message.length - offset);
+                final boolean last = offset + length == message.length;
+                assertEquals(last, decoder.decode(ByteBuffer.wrap(message, offset, length), last));
+            }
+            assertEquals(events.get(i), StandardCharsets.UTF_8.decode(decoder.message()).toString(),
+                    "Payload " + i + " of " + capture + " decoded incorrectly");
+            decoder.release();
+        }
+        decoder.close();
+    }
+    
+    @Test
+    void decodesDefaultLevel() throws IOException {
+        assertDecodes(GatewayCaptures.ZSTD_DEFAULT, Integer.MAX_VALUE);
+    }
+    
+    @Test
+    void decodesMaxLevelWithChecksums() throws IOException {
+        assertDecodes(GatewayCaptures.ZSTD_MAX, Integer.MAX_VALUE);
+    }
+    
+    @Test
+    void decodesFastLevel() throws IOException {
+        assertDecodes(GatewayCaptures.ZSTD_FAST, Integer.MAX_VALUE);
+    }
+    
+    @Test
+    void decodesSplitFrames() throws IOException {
+        assertDecodes(GatewayCaptures.ZSTD_DEFAULT, 7);
+    }
+    
+    @Test
+    void messageIsParseable() throws IOException, JsonParserException {
+        final List<String> events = GatewayCaptures.events();
+        final byte[] first = GatewayCaptures.messages(GatewayCaptures.ZSTD_DEFAULT).get(0);
+        final ZstdStreamDecoder decoder = new ZstdStreamDecoder();
+        final Utf8Reader reader = new Utf8Reader();
+        assertTrue(decoder.decode(ByteBuffer.wrap(first), true));
+        assertEquals(JsonParser.object().from(events.get(0)), JsonParser.object().from(reader.reset(decoder.message())));
+    }
+    
+    @Test
+    void rejectsInvalidMagic() {
+        final ZstdStreamDecoder decoder = new ZstdStreamDecoder();
+        assertThrows(IOException.class, () -> decoder.decode(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6}), true));
+    }
+}
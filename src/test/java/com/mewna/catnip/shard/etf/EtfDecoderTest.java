@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.etf;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+import com.grack.nanojson.JsonWriter;
+import com.mewna.catnip.shard.PayloadHeader;
+import com.mewna.catnip.util.JsonUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EtfDecoderTest {
+    private static final long SNOWFLAKE = 1036374548120092733L;
+    
+    /**
+     * {@code #{op => 0, d => #{id => SNOWFLAKE, name => <<"catnip">>,
+     * roles => [SNOWFLAKE], bot => true, avatar => nil}}}, encoded the same
+     * way Discord does: atom keys, and snowflakes as bignums.
+     */
+    private static ByteBuffer handEncoded() {
+        final ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.put((byte) 131).put((byte) 116).putInt(2);
+        atom(buffer, "op");
+        buffer.put((byte) 97).put((byte) 0);
+        atom(buffer, "d");
+        buffer.put((byte) 116).putInt(5);
+        atom(buffer, "id");
+        snowflake(buffer);
+        atom(buffer, "name");
+        buffer.put((byte) 109).putInt(6).put("catnip".getBytes(StandardCharsets.UTF_8));
+        atom(buffer, "roles");
+        buffer.put((byte) 108).putInt(1);
+        snowflake(buffer);
+        buffer.put((byte) 106);
+        atom(buffer, "bot");
+        atom(buffer, "true");
+        atom(buffer, "avatar");
+        atom(buffer, "nil");
+        return buffer.flip();
+    }
+    
+    private static void atom(final ByteBuffer buffer, final String name) {
+        buffer.put((byte) 119).put((byte) name.length()).put(name.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static void snowflake(final ByteBuffer buffer) {
+        buffer.put((byte) 110).put((byte) 8).put((byte) 0);
+        for(int i = 0; i < 8; i++) {
+            buffer.put((byte) (SNOWFLAKE >>> 8 * i));
+        }
+    }
+    
+    @Test
+    void keepsSnowflakesAsLongs() throws IOException {
+        final EtfObject payload = new EtfDecoder().decode(handEncoded());
+        assertEquals(0, payload.getInt("op"));
+        final JsonObject d = payload.getObject("d");
+        assertEquals(SNOWFLAKE, d.get("id"));
+        assertEquals(SNOWFLAKE, JsonUtil.snowflake(d, "id"));
+        assertEquals("catnip", d.getString("name"));
+        assertTrue(d.getBoolean("bot"));
+        assertTrue(d.has("avatar"));
+        assertNull(d.get("avatar"));
+        assertEquals(SNOWFLAKE, d.getArray("roles").get(0));
+    }
+    
+    @Test
+    void stringifiesSnowflakesOnRequest() throws IOException {
+        final JsonObject d = new EtfDecoder().decode(handEncoded()).getObject("d");
+        assertEquals(Long.toString(SNOWFLAKE), d.getString("id"));
+        assertEquals(Long.toString(SNOWFLAKE), d.getArray("roles").getString(0));
+        assertEquals(Set.of(Long.toString(SNOWFLAKE)), JsonUtil.toStringSet(d.getArray("roles")));
+        assertNull(d.getString("bot"));
+    }
+    
+    @Test
+    void decodesLargeIntegers() throws IOException {
+        final JsonObject payload = new JsonObject();
+        payload.put("small", 7);
+        payload.put("negative", -70000);
+        payload.put("long", -SNOWFLAKE);
+        payload.put("huge", BigInteger.TWO.pow(80).add(BigInteger.ONE));
+        payload.put("unsigned", new BigInteger("18000000000000000000"));
+        payload.put("float", 1.5);
+        final EtfObject decoded = new EtfDecoder().decode(EtfEncoder.encode(payload));
+        assertEquals(7, decoded.get("small"));
+        assertEquals(-70000, decoded.get("negative"));
+        assertEquals(-SNOWFLAKE, decoded.get("long"));
+        assertEquals(BigInteger.TWO.pow(80).add(BigInteger.ONE), decoded.get("huge"));
+        assertEquals(new BigInteger("18000000000000000000"), decoded.get("unsigned"));
+        assertEquals(1.5, decoded.get("float"));
+    }
+    
+    @Test
+    void roundTripsGatewayEvents() throws IOException, JsonParserException {
+        final EtfDecoder decoder = new EtfDecoder();
+        try(final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("gateway/events.jsonl")),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                final JsonObject json = JsonParser.object().from(line);
+                final JsonObject etf = EtfPayloads.withLongSnowflakes(json);
+                final EtfObject decoded = decoder.decode(EtfEncoder.encode(etf));
+                // nanojson picks Integer or Long by digit count, not by
+                // value, so compare the written form rather than the maps
+                assertEquals(JsonWriter.string(etf), JsonWriter.string(decoded));
+                final JsonObject d = json.getObject("d");
+                assertEquals(d.getString("guild_id"), decoded.getObject("d").getString("guild_id"));
+                assertEquals(Long.parseUnsignedLong(d.getString("guild_id")),
+                        JsonUtil.snowflake(decoded.getObject("d"), "guild_id"));
+            }
+        }
+    }
+    
+    @Test
+    void readsHeaderWithoutDecodingData() throws IOException {
+        // Erlang sorts small maps by key, so d comes first
+        final JsonObject payload = new JsonObject();
+        payload.put("d", new EtfDecoder().decode(handEncoded()).getObject("d"));
+        payload.put("op", 0);
+        payload.put("s", 1234);
+        payload.put("t", "PRESENCE_UPDATE");
+        final ByteBuffer encoded = EtfEncoder.encode(payload);
+        final PayloadHeader header = new PayloadHeader();
+        assertTrue(new EtfDecoder().readHeader(encoded, header));
+        assertEquals(0, encoded.position());
+        assertEquals(0, header.op());
+        assertEquals("PRESENCE_UPDATE", header.type());
+        assertTrue(header.hasSeq());
+        assertEquals(1234, header.seq());
+        
+        assertTrue(new EtfDecoder().readHeader(handEncoded(), header));
+        assertEquals(0, header.op());
+        assertNull(header.type());
+        assertFalse(header.hasSeq());
+    }
+    
+    @Test
+    void rejectsTruncatedPayloads() {
+        final ByteBuffer payload = handEncoded();
+        payload.limit(payload.limit() - 3);
+        assertThrows(IOException.class, () -> new EtfDecoder().decode(payload));
+    }
+    
+    @Test
+    void rejectsNonMapPayloads() {
+        final ByteBuffer payload = ByteBuffer.wrap(new byte[]{(byte) 131, 97, 1});
+        assertThrows(IOException.class, () -> new EtfDecoder().decode(payload));
+    }
+}
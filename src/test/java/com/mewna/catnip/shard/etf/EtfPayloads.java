@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.etf;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+
+import java.util.Map.Entry;
+
+/**
+ * Turns JSON payloads into what Discord would send over ETF, for tests and
+ * benchmarks.
+ *
+ * @author amy
+ * @since 10/18/26.
+ */
+final class EtfPayloads {
+    private EtfPayloads() {
+    }
+    
+    /**
+     * Replaces snowflake strings (ids, and lists of role ids) with longs.
+     *
+     * @return A copy of the payload.
+     */
+    static JsonObject withLongSnowflakes(final JsonObject json) {
+        final JsonObject out = new JsonObject();
+        for(final Entry<String, Object> entry : json.entrySet()) {
+            out.put(entry.getKey(), convert(entry.getKey(), entry.getValue()));
+        }
+        return out;
+    }
+    
+    private static Object convert(final String key, final Object value) {
+        if(value instanceof JsonObject object) {
+            return withLongSnowflakes(object);
+        }
+        if(value instanceof JsonArray array) {
+            final JsonArray out = new JsonArray();
+            for(final Object element : array) {
+                out.add(convert(key, element));
+            }
+            return out;
+        }
+        if(value instanceof String string && isSnowflakeKey(key) && !string.isEmpty()
+                && string.chars().allMatch(Character::isDigit)) {
+            return Long.parseUnsignedLong(string);
+        }
+        return value;
+    }
+    
+    private static boolean isSnowflakeKey(final String key) {
+        return key.equals("id") || key.endsWith("_id") || key.equals("roles") || key.equals("nonce");
+    }
+}
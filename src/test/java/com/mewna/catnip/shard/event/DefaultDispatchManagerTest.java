@@ -1,16 +1,25 @@
 package com.mewna.catnip.shard.event;
 
 import com.mewna.catnip.Catnip;
+import com.mewna.catnip.shard.ShardInfo;
 import com.mewna.catnip.util.rx.RxHelpers;
 import io.reactivex.rxjava3.core.Scheduler;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -20,10 +29,14 @@ class DefaultDispatchManagerTest {
     private final long timeout = 500;
     
     private DispatchManager dispatchManager() {
+        return dispatchManager(1);
+    }
+    
+    private DefaultDispatchManager dispatchManager(final int lanes) {
         final var mock = Mockito.mock(Catnip.class);
         when(mock.rxScheduler()).thenReturn(scheduler);
         
-        final var dispatchManager = new DefaultDispatchManager();
+        final var dispatchManager = new DefaultDispatchManager(lanes);
         dispatchManager.catnip(mock);
         return dispatchManager;
     }
@@ -110,4 +123,56 @@ class DefaultDispatchManagerTest {
         
         assertEquals(amount, counted.get(), "Flowable was not disposed");
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testPartitionedOrdering() throws InterruptedException {
+        final var dispatchManager = dispatchManager(4);
+        final var shards = 8;
+        final var amount = 100;
+        final Semaphore semaphore = new Semaphore(shards * amount);
+        semaphore.acquire(shards * amount);
+        final Map<Integer, List<Integer>> seen = new ConcurrentHashMap<>();
+        
+        dispatchManager.<SequencedShardInfo>createConsumer("testPartitionedOrdering").handler(info -> {
+            seen.computeIfAbsent(info.id(), __ -> new CopyOnWriteArrayList<>()).add(info.sequence);
+            semaphore.release();
+        });
+        
+        for(int i = 0; i < amount; i++) {
+            for(int shard = 0; shard < shards; shard++) {
+                dispatchManager.dispatchEvent("testPartitionedOrdering", new SequencedShardInfo(shard, shards, i));
+            }
+        }
+        
+        assertTrue(semaphore.tryAcquire(shards * amount, timeout, TimeUnit.MILLISECONDS), "Not all events were dispatched");
+        final var expected = IntStream.range(0, amount).boxed().collect(Collectors.toList());
+        for(int shard = 0; shard < shards; shard++) {
+            assertEquals(expected, seen.get(shard), "Events for shard " + shard + " were reordered");
+        }
+    }
+    
+    @Test
+    void testHasConsumers() {
+        final var dispatchManager = dispatchManager();
+        assertFalse(dispatchManager.hasConsumers("testHasConsumers"));
+        final var consumer = dispatchManager.createConsumer("testHasConsumers");
+        assertTrue(dispatchManager.hasConsumers("testHasConsumers"));
+        assertFalse(dispatchManager.hasConsumers("somethingElse"));
+        consumer.close();
+        assertFalse(dispatchManager.hasConsumers("testHasConsumers"));
+    }
+    
+    @Test
+    void testInvalidLaneCount() {
+        assertThrows(IllegalArgumentException.class, () -> new DefaultDispatchManager(0));
+    }
+    
+    private static final class SequencedShardInfo extends ShardInfo {
+        private final int sequence;
+        
+        private SequencedShardInfo(final int id, final int limit, final int sequence) {
+            super(id, limit);
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultShardManagerTest {
+    private static List<Integer> range(final int end) {
+        return IntStream.range(0, end).boxed().collect(Collectors.toList());
+    }
+    
+    @Test
+    void identifiesOneShardAtATimeWithoutConcurrency() {
+        assertEquals(List.of(0), DefaultShardManager.identifyBatch(range(16), 1));
+        assertEquals(List.of(7), DefaultShardManager.identifyBatch(List.of(7, 3), 1));
+    }
+    
+    @Test
+    void identifiesOneShardPerRatelimitKey() {
+        assertEquals(range(16), DefaultShardManager.identifyBatch(range(512), 16));
+        // 16 and 0 share a key, so only the first of them goes in this round
+        assertEquals(List.of(16, 1, 2, 19), DefaultShardManager.identifyBatch(List.of(16, 1, 0, 2, 17, 19), 16));
+    }
+    
+    @Test
+    void batchesCoverEveryShardInTheMinimumNumberOfRounds() {
+        final List<Integer> queue = range(512);
+        int rounds = 0;
+        while(!queue.isEmpty()) {
+            final List<Integer> batch = DefaultShardManager.identifyBatch(queue, 16);
+            assertEquals(16, batch.stream().map(id -> id % 16).distinct().count());
+            queue.removeAll(batch);
+            rounds++;
+        }
+        assertEquals(32, rounds);
+    }
+}
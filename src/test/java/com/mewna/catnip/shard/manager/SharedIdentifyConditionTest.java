@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.manager;
+
+import com.mewna.catnip.rest.ratelimit.FileRateLimitStore;
+import com.mewna.catnip.rest.ratelimit.MemoryRateLimitStore;
+import com.mewna.catnip.rest.ratelimit.RateLimitStore;
+import com.mewna.catnip.shard.ShardConnectState;
+import io.reactivex.rxjava3.core.Single;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedIdentifyConditionTest {
+    private static boolean check(final ShardCondition condition, final int shard) {
+        return condition.preshard(shard).blockingGet();
+    }
+    
+    private static void assertSharesIdentifies(final RateLimitStore first, final RateLimitStore second)
+            throws InterruptedException {
+        // Two shard managers, eg. in two processes, with max_concurrency 2
+        final SharedIdentifyCondition a = new SharedIdentifyCondition(first, () -> 2, 200);
+        final SharedIdentifyCondition b = new SharedIdentifyCondition(second, () -> 2, 200);
+        assertTrue(check(a, 0));
+        // Shard 2 has the same key as shard 0
+        assertFalse(check(b, 2));
+        assertTrue(check(b, 1));
+        assertFalse(check(a, 3));
+        Thread.sleep(400);
+        assertTrue(check(b, 2));
+        assertTrue(check(a, 3));
+    }
+    
+    @Test
+    void managersInOneProcessTakeTurns() throws InterruptedException {
+        final MemoryRateLimitStore store = new MemoryRateLimitStore();
+        assertSharesIdentifies(store, store);
+    }
+    
+    @Test
+    void managersSharingAFileTakeTurns() throws IOException, InterruptedException {
+        final Path path = Files.createTempFile("catnip-identify", ".bin");
+        Files.delete(path);
+        try(final FileRateLimitStore first = new FileRateLimitStore(path, 16, 60_000);
+            final FileRateLimitStore second = new FileRateLimitStore(path, 16, 60_000)) {
+            assertSharesIdentifies(first, second);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+    
+    @Test
+    void maxConcurrencyIsReadForEachShard() {
+        final AtomicInteger maxConcurrency = new AtomicInteger(1);
+        final SharedIdentifyCondition condition = new SharedIdentifyCondition(new MemoryRateLimitStore(),
+                maxConcurrency::get);
+        assertTrue(check(condition, 0));
+        assertFalse(check(condition, 1));
+        maxConcurrency.set(16);
+        assertTrue(check(condition, 1));
+        assertFalse(check(condition, 16));
+    }
+    
+    @Test
+    void shardsRejectedByAnEarlierConditionDontUseAnIdentify() {
+        final MemoryRateLimitStore store = new MemoryRateLimitStore();
+        final DefaultShardManager manager = new DefaultShardManager();
+        final AtomicInteger open = new AtomicInteger(0);
+        manager.addCondition(new ShardCondition() {
+            @Override
+            public Single<Boolean> preshard(final int shardId) {
+                return Single.just(open.get() > 0);
+            }
+            
+            @Override
+            public void postshard(final int shardId, final ShardConnectState state) {
+            }
+        });
+        manager.addCondition(new SharedIdentifyCondition(store, () -> 1, 60_000));
+        assertFalse(manager.checkConditions(0).blockingGet());
+        assertFalse(manager.checkConditions(0).blockingGet());
+        // Neither of the rejected checks took the key's identify
+        open.set(1);
+        assertTrue(manager.checkConditions(0).blockingGet());
+        assertFalse(manager.checkConditions(0).blockingGet());
+    }
+}
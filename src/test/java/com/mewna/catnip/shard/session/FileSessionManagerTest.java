@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.shard.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSessionManagerTest {
+    private static final String SESSION = "0123456789abcdef0123456789abcdef";
+    private static final String RESUME_URL = "wss://gateway-us-east1-b.discord.gg";
+    
+    private final Path path;
+    
+    FileSessionManagerTest() throws IOException {
+        path = Files.createTempFile("catnip-sessions", ".bin");
+        Files.delete(path);
+        path.toFile().deleteOnExit();
+    }
+    
+    private FileSessionManager open(final long maxAge) throws IOException {
+        return new FileSessionManager(path, 16, maxAge, 0);
+    }
+    
+    @Test
+    void sessionsSurviveReopening() throws IOException {
+        try(final FileSessionManager sessions = open(60_000)) {
+            assertNull(sessions.session(3));
+            assertEquals(0, sessions.seqnum(3));
+            sessions.session(3, SESSION);
+            sessions.resumeUrl(3, RESUME_URL);
+            sessions.seqnum(3, 1234);
+            sessions.seqnum(4, 5);
+        }
+        try(final FileSessionManager sessions = open(60_000)) {
+            assertEquals(SESSION, sessions.session(3));
+            assertEquals(RESUME_URL, sessions.resumeUrl(3));
+            assertEquals(1234, sessions.seqnum(3));
+            assertNull(sessions.session(4));
+            assertEquals(5, sessions.seqnum(4));
+        }
+    }
+    
+    @Test
+    void clearingASessionClearsItsResumeUrl() throws IOException {
+        try(final FileSessionManager sessions = open(60_000)) {
+            sessions.session(0, SESSION);
+            sessions.resumeUrl(0, RESUME_URL);
+            sessions.seqnum(0, 10);
+            sessions.clearSession(0);
+            sessions.clearSeqnum(0);
+            assertNull(sessions.session(0));
+            assertNull(sessions.resumeUrl(0));
+            assertEquals(0, sessions.seqnum(0));
+            
+            // New sessions get their own resume url
+            sessions.session(0, SESSION);
+            sessions.resumeUrl(0, RESUME_URL);
+            sessions.session(0, "fedcba9876543210fedcba9876543210");
+            assertNull(sessions.resumeUrl(0));
+        }
+    }
+    
+    @Test
+    void staleSessionsAreDroppedWhenOpened() throws IOException, InterruptedException {
+        try(final FileSessionManager sessions = open(60_000)) {
+            sessions.session(1, SESSION);
+            sessions.seqnum(1, 10);
+        }
+        Thread.sleep(100);
+        try(final FileSessionManager sessions = open(50)) {
+            assertNull(sessions.session(1));
+            assertEquals(0, sessions.seqnum(1));
+        }
+    }
+    
+    @Test
+    void rejectsWhatDoesntFit() throws IOException {
+        try(final FileSessionManager sessions = open(60_000)) {
+            assertThrows(IllegalArgumentException.class, () -> sessions.seqnum(16, 1));
+            assertThrows(IllegalArgumentException.class, () -> sessions.session(0, "x".repeat(65)));
+        }
+        // The capacity comes from the file once it exists
+        try(final FileSessionManager sessions = new FileSessionManager(path, 4096, 60_000, 0)) {
+            assertEquals(16, sessions.capacity());
+        }
+        Files.writeString(path, "not a session file");
+        assertThrows(IllegalStateException.class, () -> open(60_000));
+    }
+    
+    @Test
+    void callsFailOnceClosed() throws IOException {
+        final FileSessionManager sessions = open(60_000);
+        sessions.seqnum(2, 42);
+        sessions.close();
+        assertThrows(IllegalStateException.class, () -> sessions.seqnum(2));
+        assertThrows(IllegalStateException.class, () -> sessions.session(2, SESSION));
+        assertThrows(IllegalStateException.class, sessions::flush);
+        // Closing again is harmless
+        sessions.close();
+    }
+}
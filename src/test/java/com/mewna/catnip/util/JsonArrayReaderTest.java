@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.util;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonArrayReaderTest {
+    private static final String ELEMENTS = " [ {\"s\":\"a ] } \\\" [ {\",\"n\":[1,-2.5e3,{\"deep\":[[]]}]},\n"
+            + "\"str]ing\\\\\", 12345678901 ,true,null,[],{},\"é 🐱\", -0.5 ]";
+    
+    /**
+     * A stream that hands out one byte per read, so that every element
+     * straddles reads.
+     */
+    private static final class Trickle extends FilterInputStream {
+        private boolean closed;
+        
+        private Trickle(final String json) {
+            super(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        }
+        
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1));
+        }
+        
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+    
+    private static List<Object> readAll(final InputStream in) {
+        final List<Object> elements = new ArrayList<>();
+        final JsonArrayReader reader = new JsonArrayReader(in);
+        while(reader.hasNext()) {
+            elements.add(reader.next());
+        }
+        return elements;
+    }
+    
+    @Test
+    void readsElementsLikeNanojson() throws Exception {
+        final JsonArray expected = JsonParser.array().from(ELEMENTS);
+        final Trickle in = new Trickle(ELEMENTS);
+        final List<Object> elements = readAll(in);
+        assertEquals(JsonWriter.string(expected), JsonWriter.string(elements));
+        assertEquals(expected.get(2).getClass(), elements.get(2).getClass());
+        assertTrue(in.closed);
+    }
+    
+    @Test
+    void growsForElementsLargerThanAChunk() {
+        final String big = "x".repeat(100_000);
+        final List<Object> elements = readAll(new ByteArrayInputStream(
+                ("[{\"a\":\"" + big + "\"},\"" + big + "\"]").getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, elements.size());
+        assertEquals(big, elements.get(1));
+    }
+    
+    @Test
+    void readsEmptyArrays() {
+        final JsonArrayReader reader = new JsonArrayReader(new Trickle(" [ ] "));
+        assertFalse(reader.hasNext());
+        assertThrows(NoSuchElementException.class, reader::next);
+    }
+    
+    @Test
+    void rejectsMalformedArrays() {
+        assertThrows(IllegalStateException.class, () -> readAll(new Trickle("{\"a\":1}")));
+        assertThrows(IllegalStateException.class, () -> readAll(new Trickle("[{\"a\":1}")));
+        assertThrows(IllegalStateException.class, () -> readAll(new Trickle("[{\"a\":1},")));
+        assertThrows(IllegalArgumentException.class, () -> new JsonArrayReader(new Trickle("[1]")).nextObject());
+    }
+}
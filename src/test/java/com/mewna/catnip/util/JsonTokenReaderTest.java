@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.util;
+
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTokenReaderTest {
+    private static final String VALUES = "{ \"s\" : \"a \\\"quoted\\\" \\\\ \\/ \\b\\f\\n\\r\\t \\u00e9 é ❤ 🐱 \\ud83d\\udc31\",\n"
+            + "\"n\":[0,-1,2147483647,2147483648,-9007199254740993,1.5,-2e3,1E-2],"
+            + "\"b\":[true,false,null],\"o\":{\"nested\":{\"deeper\":[{},[]]}},\"e\":\"\"}";
+    
+    private static ByteBuffer utf8(final String json) {
+        return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void readsValuesLikeNanojson() throws Exception {
+        final String expected = JsonWriter.string(JsonParser.object().from(VALUES));
+        final ByteBuffer bytes = utf8(VALUES);
+        assertEquals(expected, JsonWriter.string(new JsonTokenReader().reset(bytes).readObject()));
+        assertEquals(0, bytes.position());
+        assertEquals(expected, JsonWriter.string(new JsonTokenReader().reset(VALUES).readObject()));
+    }
+    
+    @Test
+    void walksObjectsAndArrays() {
+        final JsonTokenReader reader = new JsonTokenReader().reset(utf8(VALUES));
+        reader.beginObject();
+        assertEquals("s", reader.nextKey());
+        assertEquals("a \"quoted\" \\ / \b\f\n\r\t é é ❤ 🐱 🐱", reader.nextString());
+        assertEquals("n", reader.nextKey());
+        reader.beginArray();
+        assertTrue(reader.hasNext());
+        assertEquals(0, reader.nextInt());
+        assertTrue(reader.hasNext());
+        assertEquals(-1L, reader.nextLong());
+        assertTrue(reader.hasNext());
+        assertEquals(Integer.MAX_VALUE, reader.nextInt());
+        assertTrue(reader.hasNext());
+        assertThrows(ArithmeticException.class, reader::nextInt);
+        while(reader.hasNext()) {
+            reader.skipValue();
+        }
+        assertEquals("b", reader.nextKey());
+        reader.beginArray();
+        assertTrue(reader.hasNext());
+        assertTrue(reader.nextBoolean());
+        assertTrue(reader.hasNext());
+        assertFalse(reader.nextNull());
+        assertFalse(reader.nextBoolean());
+        assertTrue(reader.hasNext());
+        assertTrue(reader.nextNull());
+        assertFalse(reader.hasNext());
+        assertEquals("o", reader.nextKey());
+        reader.skipValue();
+        assertEquals("e", reader.nextKey());
+        assertEquals("", reader.nextString());
+        assertNull(reader.nextKey());
+    }
+    
+    @Test
+    void readsSnowflakes() {
+        final JsonTokenReader reader = new JsonTokenReader().reset(utf8(
+                "[\"1043314519537651363\",1043314519537651363,null,\"18446744073709551615\",\"0\"]"));
+        reader.beginArray();
+        assertTrue(reader.hasNext());
+        assertEquals(1043314519537651363L, reader.nextSnowflake());
+        assertTrue(reader.hasNext());
+        assertEquals(1043314519537651363L, reader.nextSnowflake());
+        assertTrue(reader.hasNext());
+        assertEquals(0L, reader.nextSnowflake());
+        assertTrue(reader.hasNext());
+        assertEquals(-1L, reader.nextSnowflake());
+        assertTrue(reader.hasNext());
+        assertEquals(0L, reader.nextSnowflake());
+        assertFalse(reader.hasNext());
+        
+        assertThrows(IllegalStateException.class, () -> new JsonTokenReader().reset("\"12a\"").nextSnowflake());
+        assertThrows(IllegalStateException.class, () -> new JsonTokenReader().reset("\"\"").nextSnowflake());
+    }
+    
+    @Test
+    void internsKeys() {
+        final JsonTokenReader reader = new JsonTokenReader();
+        reader.reset(utf8("{\"guild_id\":1}")).beginObject();
+        final String first = reader.nextKey();
+        reader.reset("{\"guild_id\":2}").beginObject();
+        assertSame(first, reader.nextKey());
+        reader.reset(utf8("{\"gu\\u0069ld_id\":3}")).beginObject();
+        assertEquals(first, reader.nextKey());
+    }
+    
+    @Test
+    void rejectsUnexpectedTokens() {
+        assertThrows(IllegalStateException.class, () -> new JsonTokenReader().reset("[1]").beginObject());
+        assertThrows(IllegalStateException.class, () -> {
+            final JsonTokenReader reader = new JsonTokenReader().reset("{1:2}");
+            reader.beginObject();
+            reader.nextKey();
+        });
+        assertThrows(IllegalStateException.class, () -> new JsonTokenReader().reset("\"true\"").nextBoolean());
+        assertThrows(IllegalStateException.class, () -> new JsonTokenReader().reset("1.5").nextLong());
+        assertThrows(IndexOutOfBoundsException.class, () -> new JsonTokenReader().reset(utf8("\"unterminated")).nextString());
+    }
+}
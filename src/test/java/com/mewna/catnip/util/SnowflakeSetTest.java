@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeSetTest {
+    @Test
+    void sortsAndDeduplicates() {
+        final long[] ids = {30L, 10L, 20L, 10L, 30L, 99L};
+        assertArrayEquals(new long[] {10L, 20L, 30L}, SnowflakeSet.sortedIds(ids, 5));
+        assertArrayEquals(new long[] {1L, 2L}, SnowflakeSet.sortedIds(new long[] {2L, 1L}, 2));
+        assertEquals(0, SnowflakeSet.sortedIds(new long[4], 0).length);
+        assertArrayEquals(new long[] {5L, 8L, 1043314519537651363L},
+                SnowflakeSet.sortedIds(List.of("1043314519537651363", "8", "5", "8")));
+    }
+    
+    @Test
+    void behavesLikeAHashSet() {
+        final Set<String> expected = new HashSet<>(List.of("1043314519537651363", "5", "8"));
+        final Set<String> set = SnowflakeSet.of(SnowflakeSet.sortedIds(expected));
+        assertEquals(expected, set);
+        assertEquals(set, expected);
+        assertEquals(expected.hashCode(), set.hashCode());
+        assertEquals(3, set.size());
+        assertEquals(List.of("5", "8", "1043314519537651363"), List.copyOf(set));
+        assertTrue(set.contains("8"));
+        assertFalse(set.contains("9"));
+        assertFalse(set.contains("not a snowflake"));
+        assertFalse(set.contains(8L));
+        assertTrue(((SnowflakeSet) set).contains(8L));
+        assertThrows(UnsupportedOperationException.class, () -> set.add("1"));
+        assertThrows(UnsupportedOperationException.class, () -> set.remove("5"));
+    }
+    
+    @Test
+    void sharesTheEmptySet() {
+        final Set<String> empty = SnowflakeSet.of(new long[0]);
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.iterator().hasNext());
+        assertEquals(Set.of(), empty);
+        assertSame(empty, SnowflakeSet.of(SnowflakeSet.sortedIds(Set.of())));
+    }
+}
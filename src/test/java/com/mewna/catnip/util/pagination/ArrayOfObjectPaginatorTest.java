@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.util.pagination;
+
+import com.grack.nanojson.JsonArray;
+import com.mewna.catnip.rest.ResponsePayload;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrayOfObjectPaginatorTest {
+    private static final String PAGE = "[{\"id\":\"1\"},{\"id\":\"2\"},{\"id\":\"3\"},{\"id\":\"4\"},{\"id\":\"5\"}]";
+    
+    /**
+     * Reads every page from a streamed body, the way the REST paginators do
+     * when {@code streamRestResponses} is on.
+     */
+    private static final class StreamedPaginator extends ArrayOfObjectPaginator<String, StreamedPaginator> {
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final List<String> requests = new ArrayList<>();
+        
+        private StreamedPaginator() {
+            super(id -> id, o -> o.getString("id"), 5);
+        }
+        
+        @Nonnull
+        @Override
+        protected Observable<JsonArray> fetchNext(@Nonnull final RequestState<String> state, @Nullable final String lastId,
+                                                  final int requestSize) {
+            throw new AssertionError("Streamed pages shouldn't be fetched as arrays");
+        }
+        
+        @Nonnull
+        @Override
+        protected Completable fetchInto(@Nonnull final RequestState<String> state, @Nullable final String lastId,
+                                        final int requestSize) {
+            requests.add(lastId + "+" + requestSize);
+            final ResponsePayload payload = new ResponsePayload(new ByteArrayInputStream(PAGE.getBytes(StandardCharsets.UTF_8)) {
+                @Override
+                public void close() {
+                    closed.set(true);
+                }
+            });
+            return updateFrom(state, Observable.just(payload));
+        }
+    }
+    
+    @Test
+    void streamedPagesStopAtTheLimitAndCloseTheBody() {
+        final StreamedPaginator paginator = new StreamedPaginator();
+        paginator.limit(3).fetch().test().assertValues("1", "2", "3").assertComplete();
+        assertEquals(List.of("null+3"), paginator.requests);
+        assertTrue(paginator.closed.get(), "the body should be closed once the limit is reached");
+    }
+    
+    @Test
+    void streamedPagesAreReadInFull() {
+        final StreamedPaginator paginator = new StreamedPaginator();
+        paginator.limit(5).fetch().test().assertValues("1", "2", "3", "4", "5").assertComplete();
+        assertTrue(paginator.closed.get(), "the body should be closed once it's been read");
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026 amy, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of the copyright holder nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.mewna.catnip.util.pagination;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasePaginatorTest {
+    /**
+     * Paginates the ints from 1 to {@code size}, like Discord paginates ids
+     * with {@code after}.
+     */
+    private static final class IntPaginator extends BasePaginator<Integer, List<Integer>, IntPaginator> {
+        private final int size;
+        private final List<String> requests = new ArrayList<>();
+        
+        private IntPaginator(final int size) {
+            super(String::valueOf, 5);
+            this.size = size;
+        }
+        
+        @Override
+        protected void update(@Nonnull final RequestState<Integer> state, @Nonnull final List<Integer> data) {
+            for(final Integer i : data) {
+                state.update(i);
+                if(state.done()) {
+                    return;
+                }
+            }
+        }
+        
+        @Nonnull
+        @Override
+        protected Observable<List<Integer>> fetchNext(@Nonnull final RequestState<Integer> state, @Nullable final String lastId,
+                                                      final int requestSize) {
+            requests.add(lastId + "+" + requestSize);
+            final int after = lastId == null ? 0 : Integer.parseInt(lastId);
+            return Observable.just(IntStream.rangeClosed(after + 1, Math.min(after + requestSize, size))
+                    .boxed()
+                    .collect(Collectors.toList()));
+        }
+    }
+    
+    private static List<Integer> upTo(final int end) {
+        return IntStream.rangeClosed(1, end).boxed().collect(Collectors.toList());
+    }
+    
+    @Test
+    void flowableFetchesPagesAsTheyAreNeeded() {
+        final IntPaginator paginator = new IntPaginator(100);
+        final TestSubscriber<Integer> subscriber = paginator.flowable().test(0);
+        // The first page is fetched up front
+        assertEquals(List.of("null+5"), paginator.requests);
+        subscriber.request(1);
+        subscriber.assertValues(1);
+        // Starting on a page fetches the next one
+        assertEquals(List.of("null+5", "5+5"), paginator.requests);
+        subscriber.request(4);
+        assertEquals(2, paginator.requests.size());
+        subscriber.request(1);
+        assertEquals(List.of("null+5", "5+5", "10+5"), paginator.requests);
+        subscriber.request(4);
+        subscriber.assertValueSequence(upTo(10)).assertNotComplete();
+        assertEquals(3, paginator.requests.size());
+        subscriber.cancel();
+    }
+    
+    @Test
+    void flowableStopsAtTheLimitOrAShortPage() {
+        final IntPaginator limited = new IntPaginator(100);
+        limited.limit(12).flowable().test().assertValueSequence(upTo(12)).assertComplete();
+        assertEquals(List.of("null+5", "5+5", "10+2"), limited.requests);
+        
+        final IntPaginator unlimited = new IntPaginator(13);
+        unlimited.flowable().test().assertValueSequence(upTo(13)).assertComplete();
+        assertEquals(List.of("null+5", "5+5", "10+5"), unlimited.requests);
+        
+        final IntPaginator exact = new IntPaginator(10);
+        exact.flowable().test().assertValueSequence(upTo(10)).assertComplete();
+        assertEquals(List.of("null+5", "5+5", "10+5"), exact.requests);
+    }
+    
+    @Test
+    void callbacksStopPagination() {
+        final IntPaginator paginator = new IntPaginator(100);
+        final List<Integer> seen = new ArrayList<>();
+        paginator.fetchWhile(i -> {
+            seen.add(i);
+            return i < 7;
+        }).test().assertValueCount(1).assertComplete();
+        assertEquals(upTo(7), seen);
+        assertTrue(paginator.requests.size() <= 3);
+        
+        final List<Integer> all = new ArrayList<>();
+        new IntPaginator(23).forEach(all::add).test().assertComplete();
+        assertEquals(upTo(23), all);
+        new IntPaginator(23).limit(21).fetch().test().assertValueSequence(upTo(21)).assertComplete();
+    }
+}